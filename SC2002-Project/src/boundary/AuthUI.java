@@ -1,6 +1,5 @@
 package boundary;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 import control.AuthService;
@@ -20,6 +19,7 @@ public class AuthUI {
     private final RequestRepository reqRepo;
     private final ApplicationRepository appRepo;
     private final OpportunityRepository oppRepo;
+    private final InboxRepository inboxRepo;
     private final Validator validator;
     private final FileImporter importer;
     private final InputHelper input;
@@ -31,17 +31,19 @@ public class AuthUI {
      * @param reqRepo request repository
      * @param appRepo application repository
      * @param oppRepo opportunity repository
+     * @param inboxRepo notification inboxes
      * @param validator input validator
      * @param input input helper
      */
     public AuthUI(AuthService authSvc, UserRepository userRepo, RequestRepository reqRepo,
-                  ApplicationRepository appRepo, OpportunityRepository oppRepo,
+                  ApplicationRepository appRepo, OpportunityRepository oppRepo, InboxRepository inboxRepo,
                   Validator validator, FileImporter importer, InputHelper input) {
         this.authSvc = authSvc;
         this.userRepo = userRepo;
         this.reqRepo = reqRepo;
         this.appRepo = appRepo;
         this.oppRepo = oppRepo;
+        this.inboxRepo = inboxRepo;
         this.validator = validator;
         this.importer = importer;
         this.input = input;
@@ -151,7 +153,9 @@ public class AuthUI {
             if (user != null) {
                 System.out.println("Welcome, " + user.getUserName() + "!");
 
-                List<String> notifs = NotificationService.getNotifications(user, appRepo, oppRepo, reqRepo);
+                // Where the user left off, restored from the inbox store; loads their inbox on first use.
+                user.setLastNotifCheck(inboxRepo.open(user.getUserId()));
+                List<String> notifs = NotificationService.getNotifications(user, inboxRepo, oppRepo, reqRepo);
 
                 System.out.println("---------------------------------------");
                 if (notifs.isEmpty()) {
@@ -164,7 +168,7 @@ public class AuthUI {
                 }
                 System.out.println("---------------------------------------");
 
-                user.setLastNotifCheck(LocalDateTime.now());
+                user.setLastNotifCheck(inboxRepo.lastRead(user.getUserId()));
                 userRepo.save(user);
 
                 return user;
@@ -1,5 +1,6 @@
 package boundary;
 
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -13,13 +14,12 @@ import util.IdGenerator;
 import util.InputHelper;
 import util.FileImporter;
 import util.DataReloader;
-import java.util.Scanner;
+import util.Tracer;
 
 /**
  * UI for Company Representatives to manage opportunities and applications.
  */
 public class CompanyUI implements UserInterface {
-    private final Scanner sc = new Scanner(System.in);
     private final CompanyRepresentative rep;
     private final OpportunityService oppSvc;
     private final ApplicationService appSvc;
@@ -84,7 +84,12 @@ public class CompanyUI implements UserInterface {
             return;
         }
         while (true) {
-            reloadData();
+            Tracer.Span refresh = Tracer.action("CompanyUI menu");
+            try {
+                reloadData();
+            } finally {
+                refresh.close();
+            }
             String display = rep.getUserName() + "@" + rep.getCompanyName();
             input.printHeader("[Company Representative] " + display);
             System.out.println("1) Create opportunity (draft)");
@@ -95,15 +100,22 @@ public class CompanyUI implements UserInterface {
             System.out.println("6) Delete opportunity");
             System.out.println("0) Logout");
             int choice = input.readInt("Choice: ");
-            switch (choice) {
-                case 1 -> repCreateOpp();
-                case 2 -> repListOpps();
-                case 3 -> repToggleVisibility();
-                case 4 -> repReviewApps();
-                case 5 -> editFiltersRep();
-                case 6 -> repDeleteOpp();
-                case 0 -> { rep.logout(); return; }
-                default -> System.out.println("Invalid choice.");
+            Tracer.Span action = Tracer.action("CompanyUI option " + choice);
+            try {
+                switch (choice) {
+                    case 1 -> repCreateOpp();
+                    case 2 -> repListOpps();
+                    case 3 -> repToggleVisibility();
+                    case 4 -> repReviewApps();
+                    case 5 -> editFiltersRep();
+                    case 6 -> repDeleteOpp();
+                    case 0 -> { rep.logout(); return; }
+                    default -> System.out.println("Invalid choice.");
+                }
+            } catch (UncheckedIOException e) {
+                System.out.println("Could not save changes: " + e.getMessage());
+            } finally {
+                action.close();
             }
         }
     }
@@ -115,16 +127,16 @@ public class CompanyUI implements UserInterface {
             System.out.println("Cannot create until approved.");
             return;
         }
-        List<InternshipOpportunity> existing = oppRepo.findByRepresentative(rep);
-        if (existing.size() >= 5) {
-            System.out.println("Limit reached: You cannot create more than 5 opportunities.");
+        if (oppSvc.hasReachedOpportunityLimit(rep)) {
+            System.out.println("Limit reached: You cannot create more than "
+                    + OpportunityService.MAX_OPPORTUNITIES_PER_REP + " opportunities.");
             return;
         }
         String title = input.readString("Title: ");
         String desc = input.readString("Description: ");
         String major = input.readString("Preferred Major (or blank): ");
         System.out.print("Level (BASIC/INTERMEDIATE/ADVANCED): ");
-        InternshipLevel lvl = InternshipLevel.valueOf(sc.nextLine().trim().toUpperCase());
+        InternshipLevel lvl = InternshipLevel.valueOf(input.readLine().toUpperCase());
         int slots = input.readInt("Slots: ");
         String id = ids.newId("O");
         InternshipOpportunity draft = rep.createOpportunity(id, title, desc, lvl, major, slots);
@@ -132,8 +144,14 @@ public class CompanyUI implements UserInterface {
         draft.setOpenDate(openDate);
         LocalDate closeDate = input.readDateOnOrAfter("Closing Date", openDate);
         draft.setCloseDate(closeDate);
+        try {
+            // Checks the limit again, so a draft created meanwhile elsewhere is not exceeded.
+            oppSvc.createOpportunity(rep, draft);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.out.println("Not created: " + e.getMessage());
+            return;
+        }
         System.out.println(rep.getUserName() + " created opportunity ID " + id + " (" + title + ")");
-        oppRepo.save(draft);
         System.out.println("Created with ID " + id + " (status PENDING, visibility OFF). Staff must approve.");
     }
 
@@ -160,14 +178,14 @@ public class CompanyUI implements UserInterface {
         }
         printOpps(list);
         System.out.print("Enter Opportunity ID: ");
-        String oid = sc.nextLine().trim();
+        String oid = input.readLine();
         InternshipOpportunity opp = oppRepo.findById(oid);
         if (opp == null) {
             System.out.println("Not found.");
             return;
         }
         System.out.print("Turn visibility ON? (y/n): ");
-        boolean on = sc.nextLine().trim().equalsIgnoreCase("y");
+        boolean on = input.readLine().equalsIgnoreCase("y");
         rep.toggleVisibility(opp, on);
         oppRepo.save(opp);
     }
@@ -182,7 +200,7 @@ public class CompanyUI implements UserInterface {
         }
         printOpps(list);
         System.out.print("Enter Opportunity ID: ");
-        String oid = sc.nextLine().trim();
+        String oid = input.readLine();
         InternshipOpportunity opp = oppRepo.findById(oid);
         if (opp == null) {
             System.out.println("Not found.");
@@ -199,18 +217,19 @@ public class CompanyUI implements UserInterface {
                     a.getId(), a.getStudent().getUserName(), a.getStatus());
         }
         System.out.print("Enter Application ID to approve/reject: ");
-        String aid = sc.nextLine().trim();
+        String aid = input.readLine();
         Application target = appRepo.findById(aid);
         if (target == null) {
             System.out.println("Not found.");
             return;
         }
         System.out.print("Approve? (y=approve / n=reject): ");
-        boolean approve = sc.nextLine().trim().equalsIgnoreCase("y");
+        boolean approve = input.readLine().equalsIgnoreCase("y");
         appSvc.companyReview(rep, target, approve);
         appRepo.save(target);
         oppSvc.updateFilledStatus(opp);
         oppRepo.save(opp);
+        System.out.println("Application " + target.getId() + " marked as " + target.getStatus() + ".");
     }
 
     /** Edits filters used for listing the representative's opportunities. */
@@ -219,7 +238,7 @@ public class CompanyUI implements UserInterface {
         OpportunityFilter f = getFilterFor(rep.getUserId());
         while (true) {
             System.out.println("\n=== Filters (Company Rep) ===");
-            System.out.println("1) Status (PENDING/APPROVED/REJECTED/FILLED, current: " + f.getStatus() + ")");
+            System.out.println("1) Status (PENDING/APPROVED/REJECTED/FILLED/CLOSED, current: " + f.getStatus() + ")");
             System.out.println("2) Preferred Major (current: " + f.getPreferredMajor() + ")");
             System.out.println("3) Level (BASIC/INTERMEDIATE/ADVANCED, current: " + f.getLevel() + ")");
             System.out.println("4) Closing on/before (current: " + f.getClosingBefore() + ")");
@@ -229,26 +248,26 @@ public class CompanyUI implements UserInterface {
             int choice = input.readInt("Choice: ");
             switch (choice) {
                 case 1 -> {
-                    System.out.print("Status (PENDING/APPROVED/REJECTED/FILLED or blank): ");
-                    String s1 = sc.nextLine().trim();
+                    System.out.print("Status (PENDING/APPROVED/REJECTED/FILLED/CLOSED or blank): ");
+                    String s1 = input.readLine();
                     if (s1.isBlank()) {
                         f.setStatus(null);
                     } else {
                         try {
                             f.setStatus(OpportunityStatus.valueOf(s1.toUpperCase()));
                         } catch (IllegalArgumentException e) {
-                            System.out.println("Invalid status. Use PENDING/APPROVED/REJECTED/FILLED or blank.");
+                            System.out.println("Invalid status. Use PENDING/APPROVED/REJECTED/FILLED/CLOSED or blank.");
                             continue;
                         }
                     }
                 }
                 case 2 -> {
                     System.out.print("Preferred Major (blank=any): ");
-                    f.setPreferredMajor(sc.nextLine().trim());
+                    f.setPreferredMajor(input.readLine());
                 }
                 case 3 -> {
                     System.out.print("Level (BASIC/INTERMEDIATE/ADVANCED or blank): ");
-                    String lv = sc.nextLine().trim();
+                    String lv = input.readLine();
                     if (lv.isBlank()) {
                         f.setLevel(null);
                     } else {
@@ -262,7 +281,7 @@ public class CompanyUI implements UserInterface {
                 }
                 case 4 -> {
                     System.out.print("Closing on/before (YYYY-MM-DD or blank): ");
-                    String d = sc.nextLine().trim();
+                    String d = input.readLine();
                     if (d.isBlank()) {
                         f.setClosingBefore(null);
                     } else {
@@ -276,7 +295,7 @@ public class CompanyUI implements UserInterface {
                 }
                 case 5 -> {
                     System.out.print("Sort (TITLE_ASC, CLOSING_DATE_ASC, COMPANY_ASC, LEVEL_ASC): ");
-                    String sk = sc.nextLine().trim();
+                    String sk = input.readLine();
                     if (sk.isBlank()) continue;
                     try {
                         f.setSortKey(OpportunityFilter.SortKey.valueOf(sk.toUpperCase()));
@@ -305,7 +324,7 @@ public class CompanyUI implements UserInterface {
         }
         printOpps(list);
         System.out.print("Enter Opportunity ID to delete: ");
-        String oid = sc.nextLine().trim();
+        String oid = input.readLine();
         if (rep.deleteOpportunity(oid, oppRepo)) {
             System.out.println("Opportunity removed.");
         } else {
@@ -0,0 +1,744 @@
+package boundary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import control.ApplicationService;
+import control.AuthService;
+import control.OpportunityService;
+import control.ReportService;
+import control.SuggestionService;
+import entity.domain.Application;
+import entity.domain.CareerCenterStaff;
+import entity.domain.CompanyRepresentative;
+import entity.domain.InternshipOpportunity;
+import entity.domain.OpportunityFilter;
+import entity.domain.RegistrationRequest;
+import entity.domain.Report;
+import entity.domain.ReportFilter;
+import entity.domain.ReportRow;
+import entity.domain.Student;
+import entity.domain.User;
+import entity.domain.WithdrawalRequest;
+import entity.domain.enums.InternshipLevel;
+import entity.domain.enums.OpportunityStatus;
+import entity.domain.enums.RequestStatus;
+import repositories.ApplicationRepository;
+import repositories.ChangeIndex;
+import repositories.OpportunityRepository;
+import repositories.RequestRepository;
+import repositories.UserRepository;
+import util.IdGenerator;
+import util.Json;
+import util.Metrics;
+import util.ThreadPools;
+import util.Validator;
+
+/**
+ * HTTP/JSON front end over the same services the console UI uses.
+ * <p>
+ * Runs on the JDK's built-in {@link HttpServer} with one (virtual, where available) thread
+ * per request, so many students can use the system at once against one set of repositories.
+ * Clients log in with {@code POST /api/login} and send the returned token as
+ * {@code Authorization: Bearer <token>} on every other call. A token stops working after
+ * {@code -Dapi.sessionIdleMinutes} (default 30) without use; logging out or changing the password
+ * ends every session of that user.
+ * </p>
+ * <pre>
+ * POST /api/login                          {userId, password, newPassword (first login)}
+ * POST /api/register                       {userId, name, password, company, department, position}
+ * POST /api/logout
+ * POST /api/password                       {newPassword}  (then log in again)
+ * GET  /api/me
+ * GET  /api/opportunities                  ?status&amp;major&amp;level&amp;closingBefore&amp;sort
+ *                                          &amp;pageSize&amp;cursor  (either one returns {items, nextCursor})
+ * GET  /api/opportunities                  ?q&amp;limit  (ranked keyword search; "quoted phrases" must match)
+ * POST /api/opportunities                  (rep) {title, description, level, preferredMajor, slots, openDate, closeDate}
+ * POST /api/opportunities/{id}/approve     (staff)
+ * POST /api/opportunities/{id}/reject      (staff)
+ * POST /api/opportunities/{id}/visibility  (rep) {visible}
+ * GET  /api/applications                   ?opportunityId (rep)
+ * POST /api/applications                   (student) {opportunityId}
+ * POST /api/applications/{id}/review       (rep) {approve}
+ * POST /api/applications/{id}/accept       (student)
+ * POST /api/applications/{id}/withdraw     (student) {reason}
+ * GET  /api/withdrawals                    (staff)
+ * POST /api/withdrawals/{id}/decision      (staff) {approve}
+ * GET  /api/reports                        (staff) ?status&amp;major&amp;level&amp;company
+ * GET  /api/suggestions                    ?field=company|major&amp;q&amp;limit  (autocomplete, tolerates typos)
+ * GET  /api/metrics                        (staff) counters, gauges and timers
+ * GET  /api/changes                        (staff) ?since (version) or ?after (epoch millis)
+ * </pre>
+ */
+public class HttpApi {
+
+    private final AuthService authSvc;
+    private final OpportunityService oppSvc;
+    private final ApplicationService appSvc;
+    private final ReportService reportSvc;
+    private final SuggestionService suggestSvc;
+    private final UserRepository userRepo;
+    private final OpportunityRepository oppRepo;
+    private final ApplicationRepository appRepo;
+    private final RequestRepository reqRepo;
+    private final ChangeIndex changeIndex;
+    private final IdGenerator ids;
+    private final Validator validator = new Validator();
+
+    private static final long SESSION_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("api.sessionIdleMinutes", 30));
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // Expired sessions are dropped on login, at most once per interval.
+    private final AtomicLong nextSweep = new AtomicLong();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Constructs the API over shared services and repositories.
+     *
+     * @param authSvc authentication service
+     * @param oppSvc opportunity service
+     * @param appSvc application service
+     * @param reportSvc report service
+     * @param suggestSvc company and major autocomplete
+     * @param userRepo user repository
+     * @param oppRepo opportunity repository
+     * @param appRepo application repository
+     * @param reqRepo request repository
+     * @param changeIndex index of committed changes for sync clients
+     * @param ids id generator for new opportunities
+     */
+    public HttpApi(AuthService authSvc, OpportunityService oppSvc, ApplicationService appSvc,
+                   ReportService reportSvc, SuggestionService suggestSvc, UserRepository userRepo, OpportunityRepository oppRepo,
+                   ApplicationRepository appRepo, RequestRepository reqRepo, ChangeIndex changeIndex,
+                   IdGenerator ids) {
+        this.authSvc = Objects.requireNonNull(authSvc, "AuthService required");
+        this.oppSvc = Objects.requireNonNull(oppSvc, "OpportunityService required");
+        this.appSvc = Objects.requireNonNull(appSvc, "ApplicationService required");
+        this.reportSvc = Objects.requireNonNull(reportSvc, "ReportService required");
+        this.suggestSvc = Objects.requireNonNull(suggestSvc, "SuggestionService required");
+        this.userRepo = Objects.requireNonNull(userRepo, "UserRepository required");
+        this.oppRepo = Objects.requireNonNull(oppRepo, "OpportunityRepository required");
+        this.appRepo = Objects.requireNonNull(appRepo, "ApplicationRepository required");
+        this.reqRepo = Objects.requireNonNull(reqRepo, "RequestRepository required");
+        this.changeIndex = Objects.requireNonNull(changeIndex, "ChangeIndex required");
+        this.ids = Objects.requireNonNull(ids, "IdGenerator required");
+    }
+
+    /**
+     * Binds the server and starts serving requests.
+     *
+     * @param port TCP port (0 picks a free one)
+     * @return the running server; call {@code stop} to shut it down
+     * @throws IOException if the port cannot be bound
+     */
+    public HttpServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(ThreadPools.perTaskExecutor("http"));
+        server.start();
+        Metrics.gauge("HttpApi.sessions", sessions::size);
+        return server;
+    }
+
+    // ===== Dispatch =====
+
+    private void handle(HttpExchange ex) throws IOException {
+        int status = 200;
+        Object body;
+        try {
+            body = route(ex);
+        } catch (ApiException e) {
+            status = e.status;
+            body = error(e.getMessage());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (IllegalStateException e) {
+            status = 409;
+            body = error(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = error("Internal error: " + e.getMessage());
+        }
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Object route(HttpExchange ex) throws IOException {
+        String method = ex.getRequestMethod().toUpperCase(Locale.ROOT);
+        String[] path = ex.getRequestURI().getPath().replaceAll("^/api/|/$", "").split("/");
+        Map<String, String> query = parseQuery(ex.getRequestURI().getRawQuery());
+        String resource = path[0];
+
+        if (resource.equals("login") && method.equals("POST")) {
+            return login(readBody(ex));
+        }
+        if (resource.equals("register") && method.equals("POST")) {
+            return register(readBody(ex));
+        }
+
+        User user = authenticate(ex);
+        switch (resource) {
+            case "logout":
+                requireMethod(method, "POST");
+                // The login flag is shared by every session of the user, so they all end together.
+                revokeSessions(user);
+                authSvc.logout(user);
+                return message("Logged out.");
+            case "password":
+                requireMethod(method, "POST");
+                boolean changed = authSvc.changePassword(user, requireString(readBody(ex), "newPassword"));
+                // Either way no token issued under the old state stays usable: a refusal means another
+                // session logged the user out; a change must cut off anyone holding the old password's tokens.
+                revokeSessions(user);
+                if (!changed) throw new ApiException(401, "Not logged in; log in again to change the password.");
+                authSvc.logout(user);
+                return message("Password changed. Log in again with the new password.");
+            case "me":
+                requireMethod(method, "GET");
+                return userJson(user);
+            case "opportunities":
+                return opportunities(ex, method, path, query, user);
+            case "applications":
+                return applications(ex, method, path, query, user);
+            case "withdrawals":
+                return withdrawals(ex, method, path, requireRole(user, CareerCenterStaff.class));
+            case "reports":
+                requireMethod(method, "GET");
+                requireRole(user, CareerCenterStaff.class);
+                return reportJson(reportSvc.generate(reportFilter(query)));
+            case "suggestions":
+                requireMethod(method, "GET");
+                return suggestions(query);
+            case "metrics":
+                requireMethod(method, "GET");
+                requireRole(user, CareerCenterStaff.class);
+                return Metrics.snapshot();
+            case "changes":
+                requireMethod(method, "GET");
+                // Lists ids across every user, so it is not for students or reps.
+                requireRole(user, CareerCenterStaff.class);
+                return changesJson(query.containsKey("after")
+                        ? changeIndex.changesAfter(parseLong(query.get("after"), "after"))
+                        : changeIndex.changesSince(parseLong(query.getOrDefault("since", "0"), "since")));
+            default:
+                throw new ApiException(404, "Unknown resource: " + resource);
+        }
+    }
+
+    // ===== Auth =====
+
+    private Object login(Map<String, Object> body) {
+        String userId = requireString(body, "userId");
+        String password = requireString(body, "password");
+        User existing = userRepo.findById(userId);
+        if (existing != null && authSvc.isStudentOrStaff(userId) && "password".equals(existing.getPassword())) {
+            // First-time login, as in AuthUI: the default password must be replaced straight away.
+            String newPassword = optString(body, "newPassword");
+            if (!"password".equals(password)) throw new ApiException(401, "Incorrect default password.");
+            if (newPassword == null || newPassword.isBlank() || newPassword.equals("password")) {
+                throw new ApiException(403, "First login: supply a 'newPassword' different from the default.");
+            }
+            authSvc.setupPasswordFirstTime(userId, newPassword);
+            password = newPassword;
+        }
+        User user = authSvc.loginVerification(userId, password);
+        if (user == null) throw new ApiException(401, "Invalid user ID or password.");
+        if (user instanceof CompanyRepresentative rep && rep.isApproved() != RequestStatus.APPROVED) {
+            throw new ApiException(403, "Account is " + rep.isApproved() + ".");
+        }
+        byte[] raw = new byte[24];
+        random.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        long now = System.currentTimeMillis();
+        sweepSessions(now);
+        sessions.put(token, new Session(user.getUserId(), now));
+
+        Map<String, Object> out = userJson(user);
+        out.put("token", token);
+        return out;
+    }
+
+    private Object register(Map<String, Object> body) {
+        String email = requireString(body, "userId");
+        if (authSvc.isStudentOrStaff(email)) {
+            throw new IllegalArgumentException("Students and staff log in with the default password instead.");
+        }
+        if (!validator.isValidCompanyEmail(email)) throw new IllegalArgumentException("Enter a valid company email.");
+        if (userRepo.findById(email) != null) throw new IllegalStateException("A user with that ID already exists.");
+
+        CompanyRepresentative rep = authSvc.setupCompanyRepAccount(email, requireString(body, "name"),
+                requireString(body, "password"), requireString(body, "company"),
+                optString(body, "department"), optString(body, "position"));
+        reqRepo.save(new RegistrationRequest(rep));
+        Map<String, Object> out = userJson(rep);
+        out.put("message", "Account created. You can log in once it is approved.");
+        return out;
+    }
+
+    private User authenticate(HttpExchange ex) {
+        String token = token(ex);
+        Session session = token == null ? null : sessions.get(token);
+        long now = System.currentTimeMillis();
+        if (session != null && session.isIdle(now)) {
+            sessions.remove(token, session);
+            throw new ApiException(401, "Session expired; log in again.");
+        }
+        User user = session == null ? null : userRepo.findById(session.userId);
+        if (user == null) throw new ApiException(401, "Login required.");
+        session.lastUsed = now;
+        return user;
+    }
+
+    private void revokeSessions(User user) {
+        sessions.values().removeIf(s -> s.userId.equals(user.getUserId()));
+    }
+
+    private void sweepSessions(long now) {
+        long due = nextSweep.get();
+        if (now < due || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_MILLIS)) return;
+        sessions.values().removeIf(s -> s.isIdle(now));
+    }
+
+    private static String token(HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) return null;
+        return header.substring("Bearer ".length()).trim();
+    }
+
+    private static <T extends User> T requireRole(User user, Class<T> role) {
+        if (!role.isInstance(user)) {
+            throw new ApiException(403, "Only " + role.getSimpleName() + " may do this.");
+        }
+        return role.cast(user);
+    }
+
+    // ===== Opportunities =====
+
+    private Object opportunities(HttpExchange ex, String method, String[] path, Map<String, String> query, User user)
+            throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET") && query.containsKey("q")) {
+                return mapAll(searchOpportunities(query, user), this::opportunityJson);
+            }
+            if (method.equals("GET") && (query.containsKey("pageSize") || query.containsKey("cursor"))) {
+                return pageJson(pageOpportunities(query, user));
+            }
+            if (method.equals("GET")) {
+                OpportunityFilter filter = opportunityFilter(query);
+                List<InternshipOpportunity> list;
+                if (user instanceof Student s) list = oppSvc.listVisibleFor(s, filter);
+                else if (user instanceof CompanyRepresentative r) list = oppSvc.listByCompanyFiltered(r.getCompanyName(), filter);
+                else list = oppSvc.listAllFiltered(filter);
+                return mapAll(list, this::opportunityJson);
+            }
+            requireMethod(method, "POST");
+            return opportunityJson(createOpportunity(requireRole(user, CompanyRepresentative.class), readBody(ex)));
+        }
+
+        requireMethod(method, "POST");
+        InternshipOpportunity opp = oppRepo.findById(path[1]);
+        if (opp == null) throw new ApiException(404, "Opportunity not found: " + path[1]);
+        String action = path.length > 2 ? path[2] : "";
+        switch (action) {
+            case "approve" -> {
+                requireRole(user, CareerCenterStaff.class);
+                oppSvc.approve(opp);
+            }
+            case "reject" -> {
+                requireRole(user, CareerCenterStaff.class);
+                oppSvc.reject(opp);
+            }
+            case "visibility" -> {
+                CompanyRepresentative rep = requireRole(user, CompanyRepresentative.class);
+                requireOwnCompany(rep, opp);
+                oppSvc.setVisibility(opp, requireBoolean(readBody(ex), "visible"));
+            }
+            default -> throw new ApiException(404, "Unknown action: " + action);
+        }
+        return opportunityJson(opp);
+    }
+
+    /** Same rules as {@code CompanyUI.repCreateOpp}; the per-representative limit is the service's. */
+    private InternshipOpportunity createOpportunity(CompanyRepresentative rep, Map<String, Object> body) {
+        int slots = (int) requireLong(body, "slots");
+        if (slots < 1 || slots > 10) throw new IllegalArgumentException("Slots must be between 1 and 10.");
+        InternshipLevel level = InternshipLevel.valueOf(requireString(body, "level").toUpperCase(Locale.ROOT));
+        InternshipOpportunity draft = rep.createOpportunity(ids.newId("O"), requireString(body, "title"),
+                optString(body, "description"), level, optString(body, "preferredMajor"), slots);
+        if (body.get("openDate") != null) draft.setOpenDate(parseDate(optString(body, "openDate")));
+        if (body.get("closeDate") != null) draft.setCloseDate(parseDate(optString(body, "closeDate")));
+        if (draft.getCloseDate().isBefore(draft.getOpenDate())) {
+            throw new IllegalArgumentException("Closing date must be on or after the opening date.");
+        }
+        return oppSvc.createOpportunity(rep, draft);
+    }
+
+    private static void requireOwnCompany(CompanyRepresentative rep, InternshipOpportunity opp) {
+        if (opp.getCompanyName() == null || !opp.getCompanyName().equalsIgnoreCase(rep.getCompanyName())) {
+            throw new ApiException(403, "Opportunity belongs to another company.");
+        }
+    }
+
+    // ===== Applications =====
+
+    private Object applications(HttpExchange ex, String method, String[] path, Map<String, String> query, User user)
+            throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                if (user instanceof Student s) return mapAll(appSvc.listStudentApplications(s), this::applicationJson);
+                if (user instanceof CompanyRepresentative rep) {
+                    InternshipOpportunity opp = oppRepo.findById(query.get("opportunityId"));
+                    if (opp == null) throw new ApiException(404, "Opportunity not found.");
+                    requireOwnCompany(rep, opp);
+                    return mapAll(appRepo.findByOpportunity(opp), this::applicationJson);
+                }
+                return mapAll(appRepo.findAll(), this::applicationJson);
+            }
+            requireMethod(method, "POST");
+            Student student = requireRole(user, Student.class);
+            String oppId = requireString(readBody(ex), "opportunityId");
+            InternshipOpportunity opp = oppRepo.findById(oppId);
+            if (opp == null) throw new ApiException(404, "Opportunity not found: " + oppId);
+            return applicationJson(appSvc.apply(student, opp));
+        }
+
+        requireMethod(method, "POST");
+        Application app = appRepo.findById(path[1]);
+        if (app == null) throw new ApiException(404, "Application not found: " + path[1]);
+        String action = path.length > 2 ? path[2] : "";
+        switch (action) {
+            case "review" -> {
+                CompanyRepresentative rep = requireRole(user, CompanyRepresentative.class);
+                requireOwnCompany(rep, app.getOpportunity());
+                appSvc.companyReview(rep, app, requireBoolean(readBody(ex), "approve"));
+            }
+            case "accept" -> {
+                requireOwnApplication(requireRole(user, Student.class), app);
+                appSvc.studentAccept(app);
+            }
+            case "withdraw" -> {
+                Student student = requireRole(user, Student.class);
+                requireOwnApplication(student, app);
+                WithdrawalRequest req = appSvc.requestWithdrawal(student, app, optString(readBody(ex), "reason"));
+                reqRepo.save(req);
+                return withdrawalJson(req);
+            }
+            default -> throw new ApiException(404, "Unknown action: " + action);
+        }
+        return applicationJson(app);
+    }
+
+    private static void requireOwnApplication(Student student, Application app) {
+        if (app.getStudent() == null || !app.getStudent().getUserId().equalsIgnoreCase(student.getUserId())) {
+            throw new ApiException(403, "Application belongs to another student.");
+        }
+    }
+
+    // ===== Withdrawals =====
+
+    private Object withdrawals(HttpExchange ex, String method, String[] path, CareerCenterStaff staff)
+            throws IOException {
+        if (path.length == 1) {
+            requireMethod(method, "GET");
+            return mapAll(reqRepo.findPendingWithdrawals(), this::withdrawalJson);
+        }
+        requireMethod(method, "POST");
+        if (path.length < 3 || !path[2].equals("decision")) throw new ApiException(404, "Unknown action.");
+        WithdrawalRequest req = reqRepo.findWithdrawalById(path[1]);
+        if (req == null) throw new ApiException(404, "Withdrawal request not found: " + path[1]);
+        appSvc.processWithdrawal(staff, req, requireBoolean(readBody(ex), "approve"), reqRepo);
+        return withdrawalJson(req);
+    }
+
+    // ===== Filters =====
+
+    private List<InternshipOpportunity> searchOpportunities(Map<String, String> query, User user) {
+        long limit = parseLong(query.getOrDefault("limit", "20"), "limit");
+        if (limit <= 0 || limit > 1000) throw new IllegalArgumentException("'limit' must be between 1 and 1000.");
+        String q = query.get("q");
+        if (user instanceof Student s) return oppSvc.searchVisibleFor(s, q, (int) limit);
+        if (user instanceof CompanyRepresentative r) {
+            return oppRepo.search(q, (int) limit, o -> o.getCompanyName() != null && o.getCompanyName().equalsIgnoreCase(r.getCompanyName()));
+        }
+        return oppRepo.search(q, (int) limit, null);
+    }
+
+    private OpportunityService.Page pageOpportunities(Map<String, String> query, User user) {
+        long pageSize = parseLong(query.getOrDefault("pageSize", "20"), "pageSize");
+        if (pageSize <= 0 || pageSize > 1000) throw new IllegalArgumentException("'pageSize' must be between 1 and 1000.");
+        OpportunityFilter filter = opportunityFilter(query);
+        String cursor = query.get("cursor");
+        if (user instanceof Student s) return oppSvc.pageVisibleFor(s, filter, cursor, (int) pageSize);
+        if (user instanceof CompanyRepresentative r) return oppSvc.pageByCompanyFiltered(r.getCompanyName(), filter, cursor, (int) pageSize);
+        return oppSvc.pageAllFiltered(filter, cursor, (int) pageSize);
+    }
+
+    private List<String> suggestions(Map<String, String> query) {
+        long limit = parseLong(query.getOrDefault("limit", "10"), "limit");
+        if (limit <= 0 || limit > 100) throw new IllegalArgumentException("'limit' must be between 1 and 100.");
+        String typed = query.getOrDefault("q", "");
+        return switch (query.getOrDefault("field", "")) {
+            case "company" -> suggestSvc.suggestCompanies(typed, (int) limit);
+            case "major" -> suggestSvc.suggestMajors(typed, (int) limit);
+            default -> throw new IllegalArgumentException("'field' must be company or major.");
+        };
+    }
+
+    private static OpportunityFilter opportunityFilter(Map<String, String> query) {
+        OpportunityFilter f = new OpportunityFilter();
+        if (query.containsKey("status")) f.setStatus(OpportunityStatus.valueOf(query.get("status").toUpperCase(Locale.ROOT)));
+        if (query.containsKey("level")) f.setLevel(InternshipLevel.valueOf(query.get("level").toUpperCase(Locale.ROOT)));
+        if (query.containsKey("major")) f.setPreferredMajor(query.get("major"));
+        if (query.containsKey("closingBefore")) f.setClosingBefore(parseDate(query.get("closingBefore")));
+        if (query.containsKey("sort")) f.setSortKey(OpportunityFilter.SortKey.valueOf(query.get("sort").toUpperCase(Locale.ROOT)));
+        return f;
+    }
+
+    private static ReportFilter reportFilter(Map<String, String> query) {
+        ReportFilter f = new ReportFilter();
+        if (query.containsKey("status")) f.setStatus(OpportunityStatus.valueOf(query.get("status").toUpperCase(Locale.ROOT)));
+        if (query.containsKey("level")) f.setLevel(InternshipLevel.valueOf(query.get("level").toUpperCase(Locale.ROOT)));
+        if (query.containsKey("major")) f.setPreferredMajor(query.get("major"));
+        if (query.containsKey("company")) f.setCompany(query.get("company"));
+        return f;
+    }
+
+    // ===== JSON views =====
+
+    private Map<String, Object> userJson(User user) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("userId", user.getUserId());
+        m.put("name", user.getUserName());
+        m.put("role", user.getClass().getSimpleName());
+        if (user instanceof Student s) {
+            m.put("year", s.getYear());
+            m.put("major", s.getMajor());
+        } else if (user instanceof CompanyRepresentative r) {
+            m.put("company", r.getCompanyName());
+            m.put("approval", r.isApproved());
+        }
+        return m;
+    }
+
+    private Map<String, Object> opportunityJson(InternshipOpportunity o) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", o.getId());
+        m.put("title", o.getTitle());
+        m.put("description", o.getDescription());
+        m.put("company", o.getCompanyName());
+        m.put("level", o.getLevel());
+        m.put("preferredMajor", o.getPreferredMajor());
+        m.put("status", o.getStatus());
+        m.put("visible", o.isVisibility());
+        m.put("slots", o.getSlots());
+        m.put("openDate", o.getOpenDate());
+        m.put("closeDate", o.getCloseDate());
+        return m;
+    }
+
+    private Map<String, Object> applicationJson(Application a) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", a.getId());
+        m.put("studentId", a.getStudent() == null ? null : a.getStudent().getUserId());
+        m.put("opportunityId", a.getOpportunity() == null ? null : a.getOpportunity().getId());
+        m.put("opportunityTitle", a.getOpportunity() == null ? null : a.getOpportunity().getTitle());
+        m.put("status", a.getStatus());
+        m.put("withdrawalRequested", a.isWithdrawalRequested());
+        m.put("appliedAt", a.getAppliedAt());
+        return m;
+    }
+
+    private Map<String, Object> withdrawalJson(WithdrawalRequest w) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", w.getId());
+        m.put("applicationId", w.getApplication() == null ? null : w.getApplication().getId());
+        m.put("studentId", w.getRequestedBy() == null ? null : w.getRequestedBy().getUserId());
+        m.put("reason", w.getReason());
+        m.put("status", w.getStatus());
+        m.put("requestedAt", w.getRequestedAt());
+        return m;
+    }
+
+    private Map<String, Object> reportJson(Report report) {
+        List<Object> rows = new ArrayList<>();
+        for (ReportRow r : report.getRows()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("opportunityId", r.getOpportunityId());
+            m.put("title", r.getTitle());
+            m.put("company", r.getCompanyName());
+            m.put("level", r.getLevel());
+            m.put("status", r.getStatus());
+            m.put("preferredMajor", r.getPreferredMajor());
+            m.put("totalApplications", r.getTotalApplications());
+            m.put("filledSlots", r.getFilledSlots());
+            m.put("remainingSlots", r.getRemainingSlots());
+            m.put("totalSlots", r.getTotalSlots());
+            rows.add(m);
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("generatedAt", report.getGeneratedAt());
+        m.put("rows", rows);
+        return m;
+    }
+
+    private static Map<String, Object> changesJson(ChangeIndex.Changes changes) {
+        List<Object> rows = new ArrayList<>(changes.getChanges().size());
+        for (ChangeIndex.Change c : changes.getChanges()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("version", c.getVersion());
+            m.put("committedAt", c.getCommittedAtMillis());
+            m.put("kind", c.getKind());
+            m.put("id", c.getId());
+            rows.add(m);
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("fromVersion", changes.getFromVersion());
+        m.put("toVersion", changes.getToVersion());
+        // When false the client missed changes and must fetch the full lists again.
+        m.put("complete", changes.isComplete());
+        m.put("changes", rows);
+        return m;
+    }
+
+    private Map<String, Object> pageJson(OpportunityService.Page page) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("items", mapAll(page.getItems(), this::opportunityJson));
+        // Null on the last page.
+        m.put("nextCursor", page.getNextCursor());
+        return m;
+    }
+
+    private static <T> List<Object> mapAll(List<T> items, Function<T, Object> view) {
+        List<Object> out = new ArrayList<>(items.size());
+        for (T item : items) out.add(view.apply(item));
+        return out;
+    }
+
+    private static Map<String, Object> message(String text) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("message", text);
+        return m;
+    }
+
+    private static Map<String, Object> error(String text) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("error", text == null ? "Bad request." : text);
+        return m;
+    }
+
+    // ===== Request parsing =====
+
+    private static Map<String, Object> readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            return Json.parseObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> out = new LinkedHashMap<>();
+        if (raw == null || raw.isEmpty()) return out;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!value.isBlank()) out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8), value);
+        }
+        return out;
+    }
+
+    private static void requireMethod(String actual, String expected) {
+        if (!actual.equals(expected)) throw new ApiException(405, "Use " + expected + ".");
+    }
+
+    private static String requireString(Map<String, Object> body, String key) {
+        String value = optString(body, key);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("Field '" + key + "' is required.");
+        return value;
+    }
+
+    private static String optString(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        return value == null ? null : value.toString();
+    }
+
+    private static boolean requireBoolean(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        if (!(value instanceof Boolean b)) throw new IllegalArgumentException("Field '" + key + "' must be true or false.");
+        return b;
+    }
+
+    private static long requireLong(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        if (!(value instanceof Long l)) throw new IllegalArgumentException("Field '" + key + "' must be an integer.");
+        return l;
+    }
+
+    private static long parseLong(String text, String name) {
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + name + "' must be a whole number: " + text);
+        }
+    }
+
+    private static LocalDate parseDate(String text) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Dates must be yyyy-MM-dd: " + text);
+        }
+    }
+
+    /** A logged-in token's user and when it was last used. */
+    private static final class Session {
+        private final String userId;
+        private volatile long lastUsed;
+
+        Session(String userId, long lastUsed) {
+            this.userId = userId;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean isIdle(long now) {
+            return now - lastUsed > SESSION_IDLE_MILLIS;
+        }
+    }
+
+    /** Error carrying an HTTP status. */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
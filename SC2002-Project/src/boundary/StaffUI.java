@@ -1,11 +1,13 @@
 package boundary;
 
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import control.*;
@@ -16,18 +18,19 @@ import repositories.*;
 import util.InputHelper;
 import util.FileImporter;
 import util.DataReloader;
+import util.Tracer;
 
 /**
  * UI for Career Center Staff interactions (approvals, reports, filtering).
  */
 public class StaffUI implements UserInterface {
 
-    private final Scanner sc = new Scanner(System.in);
     private final CareerCenterStaff staff;
     private final UserService userSvc;
     private final OpportunityService oppSvc;
     private final ApplicationService appSvc;
     private final ReportService reportSvc;
+    private final SuggestionService suggestSvc;
     private final AuthService authSvc;
     private final RequestRepository reqRepo;
     private final OpportunityRepository oppRepo;
@@ -35,6 +38,7 @@ public class StaffUI implements UserInterface {
     private final UserRepository userRepo;
     private final FileImporter importer;
     private final InputHelper input;
+    private static final int SUGGESTIONS = 8;
 
     private final Map<String, OpportunityFilter> userFilters = new HashMap<>();
     private OpportunityFilter getFilterFor(String userId) {
@@ -54,6 +58,7 @@ public class StaffUI implements UserInterface {
      * @param appSvc application service
      * @param authSvc authentication service
      * @param reportSvc reporting service
+     * @param suggestSvc company and major autocomplete
      * @param reqRepo withdrawal/registration request repo
      * @param oppRepo opportunity repository
      * @param appRepo application repository
@@ -61,7 +66,7 @@ public class StaffUI implements UserInterface {
      */
     public StaffUI(CareerCenterStaff staff, OpportunityService oppSvc, UserService userSvc,
                    ApplicationService appSvc, AuthService authSvc, ReportService reportSvc,
-                   RequestRepository reqRepo, OpportunityRepository oppRepo,
+                   SuggestionService suggestSvc, RequestRepository reqRepo, OpportunityRepository oppRepo,
                    ApplicationRepository appRepo, UserRepository userRepo,
                    FileImporter importer, InputHelper input) {
         this.staff = staff;
@@ -70,6 +75,7 @@ public class StaffUI implements UserInterface {
         this.appSvc = appSvc;
         this.authSvc = authSvc;
         this.reportSvc = reportSvc;
+        this.suggestSvc = suggestSvc;
         this.reqRepo = reqRepo;
         this.oppRepo = oppRepo;
         this.appRepo = appRepo;
@@ -82,7 +88,12 @@ public class StaffUI implements UserInterface {
     @Override
     public void start() {
         while (true) {
-            reloadData();
+            Tracer.Span refresh = Tracer.action("StaffUI menu");
+            try {
+                reloadData();
+            } finally {
+                refresh.close();
+            }
             input.printHeader("[Career Center Staff] " + staff.getUserName());
             System.out.println("1) Approve/Reject Company Representatives");
             System.out.println("2) Approve/Reject Opportunities");
@@ -93,15 +104,22 @@ public class StaffUI implements UserInterface {
             System.out.println("0) Logout");
 
             int choice = input.readInt("Choice: ");
-            switch (choice) {
-                case 1 -> { reloadData(); staffApproveReps(); }
-                case 2 -> { reloadData(); staffApproveOpps(); }
-                case 3 -> { reloadData(); staffProcessWithdrawals(); }
-                case 4 -> { reloadData(); staffGenerateReport(); }
-                case 5 -> { reloadData(); staffBrowseOppsFiltered(); }
-                case 6 -> { reloadData(); editFiltersStaff(); }
-                case 0 -> { staff.logout(); return; }
-                default -> System.out.println("Invalid choice.");
+            Tracer.Span action = Tracer.action("StaffUI option " + choice);
+            try {
+                switch (choice) {
+                    case 1 -> { reloadData(); staffApproveReps(); }
+                    case 2 -> { reloadData(); staffApproveOpps(); }
+                    case 3 -> { reloadData(); staffProcessWithdrawals(); }
+                    case 4 -> { reloadData(); staffGenerateReport(); }
+                    case 5 -> { reloadData(); staffBrowseOppsFiltered(); }
+                    case 6 -> { reloadData(); editFiltersStaff(); }
+                    case 0 -> { staff.logout(); return; }
+                    default -> System.out.println("Invalid choice.");
+                }
+            } catch (UncheckedIOException e) {
+                System.out.println("Could not save changes: " + e.getMessage());
+            } finally {
+                action.close();
             }
         }
     }
@@ -115,7 +133,7 @@ public class StaffUI implements UserInterface {
             System.out.printf("REQ=%s | Rep=%s | Company=%s%n",
                     rr.getId(), rr.getRep().getUserName(), rr.getRep().getCompanyName());
             System.out.print("Approve? (y/n): ");
-            boolean ok = sc.nextLine().trim().equalsIgnoreCase("y");
+            boolean ok = input.readLine().equalsIgnoreCase("y");
             if (ok) staff.approveCompanyRep(rr); else staff.rejectCompanyRep(rr);
             reqRepo.save(rr);
         }
@@ -135,7 +153,7 @@ public class StaffUI implements UserInterface {
         for (InternshipOpportunity o : pendingList) {
             System.out.printf("OPP=%s | %s | %s%n", o.getId(), o.getTitle(), o.getCompanyName());
             System.out.print("Approve? (y/n): ");
-            boolean ok = sc.nextLine().trim().equalsIgnoreCase("y");
+            boolean ok = input.readLine().equalsIgnoreCase("y");
             if (ok) staff.approveOpportunity(o); else staff.rejectOpportunity(o);
             oppRepo.save(o);
         }
@@ -151,24 +169,25 @@ public class StaffUI implements UserInterface {
                     w.getId(), w.getRequestedBy().getUserName(),
                     w.getApplication().getId(), w.getReason());
             System.out.print("Approve? (y/n): ");
-            boolean ok = sc.nextLine().trim().equalsIgnoreCase("y");
-            appSvc.processWithdrawal(staff, w, ok);
-            reqRepo.save(w);
-            appRepo.save(w.getApplication());
+            boolean ok = input.readLine().equalsIgnoreCase("y");
+            try {
+                appSvc.processWithdrawal(staff, w, ok, reqRepo);
+                System.out.println("Withdrawal " + (ok ? "approved." : "rejected."));
+            } catch (IllegalStateException e) {
+                System.out.println("Withdrawal " + w.getId() + " not changed: " + e.getMessage());
+            }
         }
     }
 
     /** Generates a filtered report. */
     private void staffGenerateReport() {
         reloadData();
-        System.out.print("Filter by company (blank=any): ");
-        String company = sc.nextLine().trim();
-        System.out.print("Filter by preferred major (blank=any): ");
-        String major = sc.nextLine().trim();
+        String company = readSuggested("Filter by company (blank=any): ", suggestSvc::findCompany, suggestSvc::suggestCompanies);
+        String major = readSuggested("Filter by preferred major (blank=any): ", suggestSvc::findMajor, suggestSvc::suggestMajors);
         System.out.print("Filter by level (blank=any): ");
-        String lvl = sc.nextLine().trim();
+        String lvl = input.readLine();
         System.out.print("Filter by status (blank=any): ");
-        String st = sc.nextLine().trim();
+        String st = input.readLine();
         OpportunityStatus status = st.isBlank() ? null : OpportunityStatus.valueOf(st.toUpperCase());
         InternshipLevel level = lvl.isBlank() ? null : InternshipLevel.valueOf(lvl.toUpperCase());
 
@@ -177,9 +196,9 @@ public class StaffUI implements UserInterface {
 
         ReportFilter filter = new ReportFilter(
                 status,
-                major.isBlank() ? null : major,
+                major,
                 level,
-                company.isBlank() ? null : company,
+                company,
                 openFrom,
                 closeBy
         );
@@ -242,7 +261,7 @@ public class StaffUI implements UserInterface {
         OpportunityFilter f = getFilterFor(staff.getUserId());
         while (true) {
             System.out.println("\n=== Filters (Staff) ===");
-            System.out.println("1) Status (PENDING/APPROVED/REJECTED/FILLED, current: " + f.getStatus() + ")");
+            System.out.println("1) Status (PENDING/APPROVED/REJECTED/FILLED/CLOSED, current: " + f.getStatus() + ")");
             System.out.println("2) Preferred Major (current: " + f.getPreferredMajor() + ")");
             System.out.println("3) Level (BASIC/INTERMEDIATE/ADVANCED, current: " + f.getLevel() + ")");
             System.out.println("4) Closing on/before (current: " + f.getClosingBefore() + ")");
@@ -252,21 +271,21 @@ public class StaffUI implements UserInterface {
             int choice = input.readInt("Choice: ");
             switch (choice) {
                 case 1 -> {
-                    String s1 = sc.nextLine().trim();
+                    String s1 = input.readLine();
                     if (s1.isBlank()) {
                         f.setStatus(null);
                     } else {
                         try {
                             f.setStatus(OpportunityStatus.valueOf(s1.toUpperCase()));
                         } catch (IllegalArgumentException e) {
-                            System.out.println("Invalid status. Use PENDING/APPROVED/REJECTED/FILLED or blank.");
+                            System.out.println("Invalid status. Use PENDING/APPROVED/REJECTED/FILLED/CLOSED or blank.");
                             continue;
                         }
                     }
                 }
-                case 2 -> f.setPreferredMajor(sc.nextLine().trim());
+                case 2 -> f.setPreferredMajor(readSuggested("Preferred major (blank=any): ", suggestSvc::findMajor, suggestSvc::suggestMajors));
                 case 3 -> {
-                    String lv = sc.nextLine().trim();
+                    String lv = input.readLine();
                     if (lv.isBlank()) {
                         f.setLevel(null);
                     } else {
@@ -279,7 +298,7 @@ public class StaffUI implements UserInterface {
                     }
                 }
                 case 4 -> {
-                    String d = sc.nextLine().trim();
+                    String d = input.readLine();
                     if (d.isBlank()) {
                         f.setClosingBefore(null);
                     } else {
@@ -292,7 +311,7 @@ public class StaffUI implements UserInterface {
                     }
                 }
                 case 5 -> {
-                    String sk = sc.nextLine().trim();
+                    String sk = input.readLine();
                     if (sk.isBlank()) continue;
                     try {
                         f.setSortKey(OpportunityFilter.SortKey.valueOf(sk.toUpperCase()));
@@ -310,6 +329,29 @@ public class StaffUI implements UserInterface {
         }
     }
 
+    /**
+     * Reads an optional company name or major. A known name is taken as stored; otherwise the
+     * closest known names are listed to pick from, or the text is kept as typed.
+     * @param prompt text prompt
+     * @param exact stored spelling of a name, or null if unknown
+     * @param suggest suggestions for a partial name
+     * @return chosen name, or null if left blank
+     */
+    private String readSuggested(String prompt, Function<String, String> exact,
+                                 BiFunction<String, Integer, List<String>> suggest) {
+        System.out.print(prompt);
+        String typed = input.readLine().trim();
+        if (typed.isEmpty()) return null;
+        String known = exact.apply(typed);
+        if (known != null) return known;
+        List<String> options = suggest.apply(typed, SUGGESTIONS);
+        if (options.isEmpty()) return typed;
+        System.out.println("Did you mean:");
+        for (int i = 0; i < options.size(); i++) System.out.println(" " + (i + 1) + ") " + options.get(i));
+        int pick = input.readInt("Choice (0 = keep \"" + typed + "\"): ");
+        return pick >= 1 && pick <= options.size() ? options.get(pick - 1) : typed;
+    }
+
     /**
      * Reads an optional ISO date (blank allowed).
      * @param prompt text prompt
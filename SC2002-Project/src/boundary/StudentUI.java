@@ -1,5 +1,6 @@
 package boundary;
 
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -15,6 +16,7 @@ import repositories.*;
 import util.InputHelper;
 import util.FileImporter;
 import util.DataReloader;
+import util.Tracer;
 
 /**
  * Boundary class that exposes the student console menu for toggling visibility,
@@ -26,6 +28,10 @@ import util.DataReloader;
  */
 public class StudentUI implements UserInterface {
 
+    /** Most results shown for one keyword search. */
+    private static final int SEARCH_RESULTS = 20;
+    private static final int PAGE_SIZE = 20;
+
     private final Student student;
     private final ApplicationService appSvc;
     private final OpportunityService oppSvc;
@@ -91,7 +97,12 @@ public class StudentUI implements UserInterface {
     @Override
     public void start() {
         while (true) {
-            reloadData();
+            Tracer.Span refresh = Tracer.action("StudentUI menu");
+            try {
+                reloadData();
+            } finally {
+                refresh.close();
+            }
             input.printHeader("[Student] " + student.getUserName());
             System.out.println("1) Toggle visibility (Current: " + student.getVisibility() + ")");
             System.out.println("2) View visible & eligible opportunities");
@@ -100,27 +111,36 @@ public class StudentUI implements UserInterface {
             System.out.println("5) Accept successful application");
             System.out.println("6) Request withdrawal");
             System.out.println("7) Set filters / sort");
+            System.out.println("8) Search opportunities by keyword");
             System.out.println("0) Logout");
 
             int choice = input.readInt("Choice: ");
 
-            switch (choice) {
-                case 1 -> {
-                    reloadData();
-                    student.setVisibility(!student.getVisibility());
-                    System.out.println("Visibility set to: " + student.getVisibility());
-                }
-                case 2 -> { reloadData(); studentViewEligible(); }
-                case 3 -> { reloadData(); studentApply(); }
-                case 4 -> { reloadData(); studentViewApps(); }
-                case 5 -> { reloadData(); studentAccept(); }
-                case 6 -> { reloadData(); studentRequestWithdrawal(); }
-                case 7 -> { reloadData(); editFiltersStudent(student); }
-                case 0 -> {
-                    student.logout();
-                    return;
+            Tracer.Span action = Tracer.action("StudentUI option " + choice);
+            try {
+                switch (choice) {
+                    case 1 -> {
+                        reloadData();
+                        student.setVisibility(!student.getVisibility());
+                        System.out.println("Visibility set to: " + student.getVisibility());
+                    }
+                    case 2 -> { reloadData(); studentViewEligible(); }
+                    case 3 -> { reloadData(); studentApply(); }
+                    case 4 -> { reloadData(); studentViewApps(); }
+                    case 5 -> { reloadData(); studentAccept(); }
+                    case 6 -> { reloadData(); studentRequestWithdrawal(); }
+                    case 7 -> { reloadData(); editFiltersStudent(student); }
+                    case 8 -> { reloadData(); studentSearch(); }
+                    case 0 -> {
+                        student.logout();
+                        return;
+                    }
+                    default -> System.out.println("\n<<Invalid choice!>>");
                 }
-                default -> System.out.println("\n<<Invalid choice!>>");
+            } catch (UncheckedIOException e) {
+                System.out.println("\n<<Could not save changes: " + e.getMessage() + ">>");
+            } finally {
+                action.close();
             }
         }
     }
@@ -135,14 +155,28 @@ public class StudentUI implements UserInterface {
             return;
         }
         OpportunityFilter f = getFilterFor(student.getUserId());
-        List<InternshipOpportunity> list = oppSvc.listVisibleFor(student, f);
-
-        if (list.isEmpty()) {
+        if (!printOpenPages(f)) {
             System.out.println("No visible/eligible opportunities right now.");
+        }
+    }
+
+    /**
+     * Searches the student's open opportunities by keyword, best match first.
+     * Words in double quotes must appear together as a phrase.
+     */
+    private void studentSearch() {
+        if (!student.getVisibility()) {
+            System.out.println("\n<<Toggle Visibility to True to proceed.>>");
             return;
         }
+        String query = input.readString("Keywords (use \"quotes\" for a phrase): ");
+        if (query.isBlank()) return;
+        List<InternshipOpportunity> list = oppSvc.searchVisibleFor(student, query, SEARCH_RESULTS);
 
-        printFilterSummary(f);
+        if (list.isEmpty()) {
+            System.out.println("No open opportunities match \"" + query.trim() + "\".");
+            return;
+        }
         printOpps(list);
     }
 
@@ -153,31 +187,17 @@ public class StudentUI implements UserInterface {
         if (!student.getVisibility()) {
             System.out.println("<< You must set Visibility to TRUE to apply. >>");
         }
-        List<Application> existingApps = appRepo.findByStudent(student);
-        int activeCount = 0;
-        for (Application a : existingApps) {
-            // We count applications that are still in progress (not rejected/withdrawn)
-            if (a.getStatus() == ApplicationStatus.PENDING || 
-                a.getStatus() == ApplicationStatus.SUCCESSFUL) {
-                activeCount++;
-            }
-        }
-        
-        if (activeCount >= 3) {
-            System.out.println("Limit reached: You cannot have more than 3 active applications.");
+        // Checked up front to save listing opportunities; apply enforces it again.
+        if (appSvc.hasReachedApplicationLimit(student)) {
+            System.out.println("Limit reached: You cannot have more than " + ApplicationService.MAX_ACTIVE_APPLICATIONS + " active applications.");
             return;
         }
         OpportunityFilter f = getFilterFor(student.getUserId());
-        List<InternshipOpportunity> list = oppSvc.listVisibleFor(student, f);
-
-        if (list.isEmpty()) {
+        if (!printOpenPages(f)) {
             System.out.println("No eligible opportunities found.");
             return;
         }
 
-        printFilterSummary(f);
-        printOpps(list);
-
         String oid = input.readString("\nEnter Opportunity ID to apply: ");
         InternshipOpportunity opp = oppRepo.findById(oid);
 
@@ -298,7 +318,7 @@ public class StudentUI implements UserInterface {
 
         while (true) {
             System.out.println("\n=== Filters (Student) ===");
-            System.out.println("1) Status (PENDING/APPROVED/REJECTED/FILLED, current: " + f.getStatus() + ")");
+            System.out.println("1) Status (PENDING/APPROVED/REJECTED/FILLED/CLOSED, current: " + f.getStatus() + ")");
             System.out.println("2) Preferred Major (current: " + f.getPreferredMajor() + ")");
             System.out.println("3) Level (BASIC/INTERMEDIATE/ADVANCED, current: " + f.getLevel() + ")");
             System.out.println("4) Closing on/before (current: " + f.getClosingBefore() + ")");
@@ -317,7 +337,7 @@ public class StudentUI implements UserInterface {
                         try {
                             f.setStatus(OpportunityStatus.valueOf(s1.toUpperCase()));
                         } catch (IllegalArgumentException e) {
-                            System.out.println("Invalid status. Please enter PENDING/APPROVED/REJECTED/FILLED or leave blank.");
+                            System.out.println("Invalid status. Please enter PENDING/APPROVED/REJECTED/FILLED/CLOSED or leave blank.");
                             continue;
                         }
                     }
@@ -386,6 +406,25 @@ public class StudentUI implements UserInterface {
         }
     }
 
+    /**
+     * Prints the opportunities open to the student a page at a time, until the student stops or
+     * none are left.
+     *
+     * @param f the student's filter and sort order
+     * @return false if there was nothing to print
+     */
+    private boolean printOpenPages(OpportunityFilter f) {
+        OpportunityService.Page page = oppSvc.pageVisibleFor(student, f, null, PAGE_SIZE);
+        if (page.getItems().isEmpty()) return false;
+        printFilterSummary(f);
+        printOpps(page.getItems());
+        while (page.getNextCursor() != null && input.readString("More? (y/n): ").equalsIgnoreCase("y")) {
+            page = oppSvc.pageVisibleFor(student, f, page.getNextCursor(), PAGE_SIZE);
+            printOpps(page.getItems());
+        }
+        return true;
+    }
+
     /**
      * Prints a one-line summary of the student's current active filters.
      *
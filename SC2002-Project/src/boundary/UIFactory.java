@@ -18,6 +18,7 @@ public class UIFactory {
     private final AuthService authSvc;
     private final UserService userSvc;
     private final ReportService reportSvc; // Added for Staff
+    private final SuggestionService suggestSvc;
     
     private final ApplicationRepository appRepo;
     private final OpportunityRepository oppRepo;
@@ -28,12 +29,13 @@ public class UIFactory {
     private final UserRepository userRepo;
 
     public UIFactory(ApplicationService appSvc, OpportunityService oppSvc, UserService userSvc,
-                     ReportService reportSvc, AuthService authSvc, ApplicationRepository appRepo, 
+                     ReportService reportSvc, SuggestionService suggestSvc, AuthService authSvc, ApplicationRepository appRepo, 
                      OpportunityRepository oppRepo, RequestRepository reqRepo, InputHelper input, IdGenerator ids, FileImporter importer, UserRepository userRepo) {
         this.appSvc = appSvc;
         this.oppSvc = oppSvc;
         this.userSvc = userSvc;
         this.reportSvc = reportSvc;
+        this.suggestSvc = suggestSvc;
         this.authSvc = authSvc;
         this.appRepo = appRepo;
         this.oppRepo = oppRepo;
@@ -52,7 +54,7 @@ public class UIFactory {
             return new CompanyUI(r, oppSvc, appSvc, authSvc, oppRepo, appRepo, reqRepo, userRepo, importer, input, ids);
         } 
         else if (user instanceof CareerCenterStaff c) {
-            return new StaffUI(c, oppSvc,userSvc, appSvc, authSvc, reportSvc, reqRepo, oppRepo, appRepo, userRepo, importer, input);
+            return new StaffUI(c, oppSvc,userSvc, appSvc, authSvc, reportSvc, suggestSvc, reqRepo, oppRepo, appRepo, userRepo, importer, input);
         }
         throw new IllegalArgumentException("No UI defined for user type: " + user.getClass().getSimpleName());
     }
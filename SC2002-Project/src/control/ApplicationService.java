@@ -10,15 +10,22 @@ import entity.domain.enums.ApplicationStatus;
 import entity.domain.enums.OpportunityStatus;
 import entity.domain.enums.RequestStatus;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import repositories.ApplicationRepository;
 import repositories.OpportunityRepository;
+import repositories.RequestRepository;
+import util.Log;
+import util.Metrics;
+import util.StripedLocks;
 import util.Validator;
 
 /**
  * Coordinates student applications, company review decisions, and withdrawal handling.
  * Delegates persistence to {@link ApplicationRepository} and {@link OpportunityRepository}.
+ * Each read-modify-write holds the {@link StripedLocks} stripes of the entities it changes,
+ * so concurrent callers cannot lose each other's updates.
  */
 
 public class ApplicationService {
@@ -26,6 +33,22 @@ public class ApplicationService {
 	private final ApplicationRepository applicationRepository;
 	private final OpportunityRepository opportunityRepository;
 	private final Validator validator;
+	private final StripedLocks locks = StripedLocks.shared();
+
+	/** Most applications a student may have PENDING or SUCCESSFUL at once. */
+	public static final int MAX_ACTIVE_APPLICATIONS = 3;
+
+	// ===== Logging =====
+	private static final Log.Logger LOG = Log.get(ApplicationService.class);
+
+	// ===== Metrics =====
+	private static final Metrics.Timer APPLY = Metrics.timer("ApplicationService.apply");
+	private static final Metrics.Timer LIST_STUDENT_APPLICATIONS = Metrics.timer("ApplicationService.listStudentApplications");
+	private static final Metrics.Timer COMPANY_REVIEW = Metrics.timer("ApplicationService.companyReview");
+	private static final Metrics.Timer STUDENT_ACCEPT = Metrics.timer("ApplicationService.studentAccept");
+	private static final Metrics.Timer REQUEST_WITHDRAWAL = Metrics.timer("ApplicationService.requestWithdrawal");
+	private static final Metrics.Timer PROCESS_WITHDRAWAL = Metrics.timer("ApplicationService.processWithdrawal");
+	private static final Metrics.Timer EXPIRE_WITHDRAWAL = Metrics.timer("ApplicationService.expireWithdrawal");
 
 	/**
 	 * Creates an ApplicationService with its required collaborators.
@@ -47,34 +70,64 @@ public class ApplicationService {
 	/**
 	 * Allows a student to apply for an internship opportunity after validating eligibility
 	 * and ensuring the opportunity is open.
+	 * The limit of {@value #MAX_ACTIVE_APPLICATIONS} active applications is checked and the new
+	 * application saved under the student's stripe, so two concurrent applies cannot both pass it.
 	 *
 	 * @param student the student submitting the application
 	 * @param opp the opportunity to apply for
 	 * @return the newly created {@link Application}
-	 * @throws IllegalStateException if the opportunity is not open for applications
+	 * @throws IllegalStateException if the opportunity is not open for applications,
+	 *         or the student already has the maximum number of active applications
 	 */
 	public Application apply(Student student, InternshipOpportunity opp) {
-		Objects.requireNonNull(student, "Student required");
-		Objects.requireNonNull(opp, "Opportunity required");
-		
-		if (opp.getStatus() != OpportunityStatus.APPROVED || !opp.isVisibility()) {
-			throw new IllegalStateException("Opportunity is not open for Application.");
+		long start = APPLY.start();
+		try {
+			Objects.requireNonNull(student, "Student required");
+			Objects.requireNonNull(opp, "Opportunity required");
+
+			if (opp.getStatus() != OpportunityStatus.APPROVED || !opp.isVisibility()) {
+				throw new IllegalStateException("Opportunity is not open for Application.");
+			}
+
+			if (!opp.isOpenFor(student)) {
+				throw new IllegalStateException("Opportunity not currently open for this student.");
+			}
+
+			Application app = locks.write(() -> {
+				if (hasReachedApplicationLimit(student)) {
+					throw new IllegalStateException("Limit reached: you cannot have more than "
+							+ MAX_ACTIVE_APPLICATIONS + " active applications.");
+				}
+				Application created = new Application();
+				created.setStudent(student);
+				created.setOpportunity(opp);
+				created.setAppliedAt(LocalDateTime.now());
+				created.setStatus(ApplicationStatus.PENDING);
+				created.setWithdrawalRequested(false);
+				applicationRepository.save(created);
+				return created;
+			}, student.getUserId());
+			LOG.info("applied", "application", app.getId(), "student", student.getUserId(), "opportunity", opp.getId());
+			return app;
+		} finally {
+			APPLY.stop(start);
 		}
-		
-		if (!opp.isOpenFor(student)) {
-			throw new IllegalStateException("Opportunity not currently open for this student.");
+	}
+
+	/**
+	 * Checks whether a student already has {@value #MAX_ACTIVE_APPLICATIONS} applications that
+	 * are still PENDING or SUCCESSFUL.
+	 *
+	 * @param student the student to check
+	 * @return true if {@link #apply} would refuse another application
+	 */
+	public boolean hasReachedApplicationLimit(Student student) {
+		Objects.requireNonNull(student, "Student required");
+		int active = 0;
+		for (Application a : applicationRepository.findByStudent(student)) {
+			if (a.getStatus() == ApplicationStatus.PENDING || a.getStatus() == ApplicationStatus.SUCCESSFUL) active++;
 		}
-		
-		Application app = new Application();
-		app.setStudent(student);
-		app.setOpportunity(opp);
-		app.setAppliedAt(LocalDateTime.now());
-		app.setStatus(ApplicationStatus.PENDING);
-		app.setWithdrawalRequested(false);
-		
-		applicationRepository.save(app);
-		System.out.println(student.getUserName() + " applied to " + opp.getTitle());
-		return app;
+		return active >= MAX_ACTIVE_APPLICATIONS;
 	}
 
 	/**
@@ -84,8 +137,13 @@ public class ApplicationService {
 	 * @return list of applications belonging to the student
 	 */
 	public List<Application> listStudentApplications(Student student){
-		Objects.requireNonNull(student, "Student required");
-		return applicationRepository.findByStudent(student);
+		long start = LIST_STUDENT_APPLICATIONS.start();
+		try {
+			Objects.requireNonNull(student, "Student required");
+			return applicationRepository.findByStudent(student);
+		} finally {
+			LIST_STUDENT_APPLICATIONS.stop(start);
+		}
 	}
 	
 	/**
@@ -97,52 +155,90 @@ public class ApplicationService {
 	 * @param approve {@code true} to approve (SUCCESSFUL), {@code false} to reject (UNSUCCESSFUL)
 	 */
     public void companyReview(CompanyRepresentative rep, Application app, boolean approve) {
-        Objects.requireNonNull(rep, "Company representative required");
-        Objects.requireNonNull(app, "Application required");
-        
-        InternshipOpportunity opp = app.getOpportunity();
-        CompanyRepresentative owner = opp.getRepInCharge();
-        boolean sameCompany = opp.getCompanyName() != null &&
-                opp.getCompanyName().equalsIgnoreCase(rep.getCompanyName());
-        if (owner == null && sameCompany) {
-            // re-attach owner if missing after import
-            opp.setRepInCharge(rep);
-            owner = rep;
-        }
-        if (owner != null &&
-                !owner.getUserId().equalsIgnoreCase(rep.getUserId()) &&
-                !sameCompany) {
-            throw new IllegalArgumentException("This representative is not assigned to the opportunity.");
+        long start = COMPANY_REVIEW.start();
+        try {
+            Objects.requireNonNull(rep, "Company representative required");
+            Objects.requireNonNull(app, "Application required");
+
+            InternshipOpportunity opp = app.getOpportunity();
+            CompanyRepresentative owner = opp.getRepInCharge();
+            boolean sameCompany = opp.getCompanyName() != null &&
+                    opp.getCompanyName().equalsIgnoreCase(rep.getCompanyName());
+            if (owner == null && sameCompany) {
+                // re-attach owner if missing after import
+                opp.setRepInCharge(rep);
+                owner = rep;
+            }
+            if (owner != null &&
+                    !owner.getUserId().equalsIgnoreCase(rep.getUserId()) &&
+                    !sameCompany) {
+                throw new IllegalArgumentException("This representative is not assigned to the opportunity.");
+            }
+
+            locks.update(() -> {
+                if (approve) {
+                    app.setStatus(ApplicationStatus.SUCCESSFUL);
+                    LOG.info("reviewed", "application", app.getId(), "status", ApplicationStatus.SUCCESSFUL, "company", rep.getCompanyName());
+                } else {
+                    app.setStatus(ApplicationStatus.UNSUCCESSFUL);
+                    LOG.info("reviewed", "application", app.getId(), "status", ApplicationStatus.UNSUCCESSFUL, "company", rep.getCompanyName());
+                }
+                applicationRepository.save(app);
+            }, app.getId());
+        } finally {
+            COMPANY_REVIEW.stop(start);
         }
-        
-        if (approve) {
-            app.setStatus(ApplicationStatus.SUCCESSFUL);
-            System.out.println("Application marked as SUCCESSFUL by: " + rep.getCompanyName());
-        } else {
-            app.setStatus(ApplicationStatus.UNSUCCESSFUL);
-			System.out.println("Application marked as UNSUCCESSFUL by: " + rep.getCompanyName());
-			
-		}
-		applicationRepository.save(app);
-	}
+    }
 	
 	/**
-	 * Allows a student to accept a successful application, decrementing slots and
+	 * Allows a student to accept a successful application, taking one slot and
 	 * updating the opportunity status if filled.
+	 * The slot is reserved with a compare-and-set on the opportunity before anything else
+	 * changes, so concurrent accepts for the last slot cannot oversubscribe it.
 	 *
 	 * @param app the successful application being accepted
-	 * @throws IllegalStateException if the application is not in SUCCESSFUL status
+	 * @throws IllegalStateException if the application is not in SUCCESSFUL status,
+	 *         or the opportunity has no slots left
 	 */
 	public void studentAccept(Application app) {
-		Objects.requireNonNull(app, "Application required");
-		
+		long start = STUDENT_ACCEPT.start();
+		try {
+			Objects.requireNonNull(app, "Application required");
+
+			if (app.getStatus() != ApplicationStatus.SUCCESSFUL) {
+                throw new IllegalStateException("Only successful applications can be accepted.");
+            }
+			InternshipOpportunity opp = app.getOpportunity();
+			if (!opp.reserveSlot()) {
+				throw new IllegalStateException("No slots remaining for " + opp.getTitle() + ".");
+			}
+
+            Student student = app.getStudent();
+            boolean accepted = false;
+            try {
+                List<Application> all = applicationRepository.findByStudent(student);
+                // Lock every application of the student, since all of them may be withdrawn.
+                List<String> ids = new ArrayList<>();
+                ids.add(app.getId());
+                for (Application other : all) ids.add(other.getId());
+                locks.update(() -> acceptLocked(app, student, all), ids.toArray(new String[0]));
+                accepted = true;
+            } finally {
+                if (!accepted) opp.releaseSlot();
+            }
+            syncFilledStatus(opp);
+			LOG.info("accepted", "application", app.getId(), "student", student.getUserId(), "opportunity", opp.getId());
+		} finally {
+			STUDENT_ACCEPT.stop(start);
+		}
+	}
+
+	private void acceptLocked(Application app, Student student, List<Application> all) {
 		if (app.getStatus() != ApplicationStatus.SUCCESSFUL) {
             throw new IllegalStateException("Only successful applications can be accepted.");
         }
 
-        Student student = app.getStudent();
         // Withdraw all other applications for this student.
-        List<Application> all = applicationRepository.findByStudent(student);
         for (Application other : all) {
             if (other.getId().equals(app.getId())) continue;
             if (other.getStatus() != ApplicationStatus.WITHDRAWN) {
@@ -158,17 +254,25 @@ public class ApplicationService {
             student.setAcceptedPlacement(app);
         }
 
-		InternshipOpportunity opp = app.getOpportunity();
-		opp.setSlots(opp.getSlots() - 1);
-		
-		if (opp.getSlots() <= 0) {
-			opp.setStatus(OpportunityStatus.FILLED);
-		}
-		
-		opportunityRepository.save(opp);
 		applicationRepository.save(app);
-		System.out.println("Student accepted the offer for " + opp.getTitle());
-		
+		app.getOpportunity().confirmSlot();
+	}
+
+	/**
+	 * Brings the opportunity's FILLED/APPROVED status in line with its slot counter and
+	 * persists it. The counter is re-read under the opportunity's stripe, so racing accepts
+	 * and withdrawals always settle on the status matching the final count.
+	 */
+	private void syncFilledStatus(InternshipOpportunity opp) {
+		locks.update(() -> {
+			int remaining = opp.getSlots();
+			if (remaining <= 0 && opp.getStatus() == OpportunityStatus.APPROVED) {
+				opp.setStatus(OpportunityStatus.FILLED);
+			} else if (remaining > 0 && opp.getStatus() == OpportunityStatus.FILLED) {
+				opp.setStatus(OpportunityStatus.APPROVED); // reopen if slot freed
+			}
+			opportunityRepository.save(opp);
+		}, opp.getId());
 	}
 	
 	
@@ -182,54 +286,111 @@ public class ApplicationService {
      * @return the created withdrawal request
      */
     public WithdrawalRequest requestWithdrawal(Student student, Application app, String reason) {
-        Objects.requireNonNull(student, "Student required");
-        Objects.requireNonNull(app, "Application required");
-        
-        WithdrawalRequest req = new WithdrawalRequest();
-        req.setApplication(app);
-        req.setRequestedBy(student);
-        req.setReason(reason);
-        req.setStatus(RequestStatus.PENDING);
-        req.setRequestedAt(LocalDateTime.now());
-
-        app.setWithdrawalRequested(true);
-        applicationRepository.save(app);
-        System.out.println(student.getUserName() + " requested withdrawal for " + app.getOpportunity().getTitle());
+        long start = REQUEST_WITHDRAWAL.start();
+        try {
+            Objects.requireNonNull(student, "Student required");
+            Objects.requireNonNull(app, "Application required");
+
+            WithdrawalRequest req = new WithdrawalRequest();
+            req.setApplication(app);
+            req.setRequestedBy(student);
+            req.setReason(reason);
+            req.setStatus(RequestStatus.PENDING);
+            req.setRequestedAt(LocalDateTime.now());
+
+            locks.update(() -> {
+                app.setWithdrawalRequested(true);
+                applicationRepository.save(app);
+            }, app.getId());
+            LOG.info("withdrawalRequested", "application", app.getId(), "student", student.getUserId());
 
-        return req;
+            return req;
+        } finally {
+            REQUEST_WITHDRAWAL.stop(start);
+        }
     }
     
     /**
      * Allows Career Center Staff to process a withdrawal request, optionally reopening
-     * a slot on approval.
+     * a slot on approval. The request must still be pending when the lock is taken, so a
+     * decision cannot overturn an expiry or another staff decision; the request and its
+     * application are saved under that lock.
      *
      * @param staff the staff member making the decision
      * @param req the withdrawal request being processed
      * @param approve {@code true} to approve; {@code false} to reject
+     * @param requests repository the decided request is saved to
+     * @throws IllegalStateException if the request has already been decided
      */
-    public void processWithdrawal(CareerCenterStaff staff, WithdrawalRequest req, boolean approve) {
-        Objects.requireNonNull(staff, "Staff required");
-        Objects.requireNonNull(req, "Request required");
+    public void processWithdrawal(CareerCenterStaff staff, WithdrawalRequest req, boolean approve,
+            RequestRepository requests) {
+        long start = PROCESS_WITHDRAWAL.start();
+        try {
+            Objects.requireNonNull(staff, "Staff required");
+            Objects.requireNonNull(req, "Request required");
+            Objects.requireNonNull(requests, "RequestRepository required");
+
+            Application app = req.getApplication();
+            InternshipOpportunity opp = app.getOpportunity();
+            locks.update(() -> decideLocked(staff, req, app, opp, approve, requests), req.getId(), app.getId());
+            syncFilledStatus(opp);
+        } finally {
+            PROCESS_WITHDRAWAL.stop(start);
+        }
+    }
 
-        Application app = req.getApplication();
-        InternshipOpportunity opp = app.getOpportunity();
+    /**
+     * Rejects a withdrawal request that has waited for a decision since before {@code cutoff},
+     * as a staff rejection would. Called by the lifecycle scheduler. The request is saved under
+     * the same lock, so a staff decision cannot land between the expiry and its save.
+     *
+     * @param req the withdrawal request to check
+     * @param cutoff requests made before this time expire
+     * @param requests repository the expired request is saved to
+     * @return {@code true} if the request expired
+     */
+    public boolean expireWithdrawal(WithdrawalRequest req, LocalDateTime cutoff, RequestRepository requests) {
+        long start = EXPIRE_WITHDRAWAL.start();
+        try {
+            Objects.requireNonNull(req, "Request required");
+            Objects.requireNonNull(requests, "RequestRepository required");
+            Application app = req.getApplication();
+            boolean expired = locks.write(() -> {
+                if (req.getStatus() != RequestStatus.PENDING) return false;
+                if (req.getRequestedAt() == null || !req.getRequestedAt().isBefore(cutoff)) return false;
+                req.setStatus(RequestStatus.REJECTED);
+                requests.save(req);
+                return true;
+            }, req.getId(), app == null ? null : app.getId());
+            if (expired) {
+                LOG.info("withdrawalExpired", "request", req.getId(), "requestedAt", req.getRequestedAt());
+            }
+            return expired;
+        } finally {
+            EXPIRE_WITHDRAWAL.stop(start);
+        }
+    }
 
+    private void decideLocked(CareerCenterStaff staff, WithdrawalRequest req, Application app,
+            InternshipOpportunity opp, boolean approve, RequestRepository requests) {
+        if (req.getStatus() != RequestStatus.PENDING) {
+            throw new IllegalStateException("Request already decided (" + req.getStatus() + ").");
+        }
         if (approve) {
             req.setStatus(RequestStatus.APPROVED);
-            app.setStatus(ApplicationStatus.WITHDRAWN);
-            opp.setSlots(opp.getSlots() + 1);
-
-            if (opp.getStatus() == OpportunityStatus.FILLED && opp.getSlots() > 0) {
-                opp.setStatus(OpportunityStatus.APPROVED); // reopen if slot freed
+            // Only an accepted placement holds a slot; withdrawing anything else frees none.
+            if (app.getStatus() == ApplicationStatus.ACCEPTED) {
+                opp.returnSlot();
             }
+            app.setStatus(ApplicationStatus.WITHDRAWN);
 
-            System.out.println("Withdrawal approved by staff: " + staff.getUserName());
+            LOG.info("withdrawalDecided", "request", req.getId(), "status", RequestStatus.APPROVED, "staff", staff.getUserId());
         } else {
             req.setStatus(RequestStatus.REJECTED);
-            System.out.println("Withdrawal rejected by staff: " + staff.getUserName());
+            LOG.info("withdrawalDecided", "request", req.getId(), "status", RequestStatus.REJECTED, "staff", staff.getUserId());
         }
 
-        opportunityRepository.save(opp);
+        requests.save(req);
         applicationRepository.save(app);
     }
 }
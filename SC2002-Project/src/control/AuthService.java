@@ -6,6 +6,8 @@ import entity.domain.Student;
 import entity.domain.User;
 import repositories.UserRepository;
 import util.CSVFileWriter;
+import util.Log;
+import util.Metrics;
 
 /**
  * AuthService is a service (control) class responsible for
@@ -19,6 +21,15 @@ import util.CSVFileWriter;
 public class AuthService {
 	//Attributes
 	private UserRepository userRepository;
+
+	// ===== Logging =====
+	private static final Log.Logger LOG = Log.get(AuthService.class);
+
+	// ===== Metrics =====
+	private static final Metrics.Timer LOGIN_VERIFICATION = Metrics.timer("AuthService.loginVerification");
+	private static final Metrics.Timer CHANGE_PASSWORD = Metrics.timer("AuthService.changePassword");
+	private static final Metrics.Timer SETUP_PASSWORD_FIRST_TIME = Metrics.timer("AuthService.setupPasswordFirstTime");
+	private static final Metrics.Timer SETUP_COMPANY_REP_ACCOUNT = Metrics.timer("AuthService.setupCompanyRepAccount");
 	
 	//constructor
 	public AuthService(UserRepository userRepository) {
@@ -38,30 +49,35 @@ public class AuthService {
      * @return the authenticated {@link User}, or {@code null} if authentication fails
      */
 	
-	public User loginVerification(String userId, String password) {
-		// Step 1: Retrieve user from repository
-		User user = userRepository.findById(userId);
-		
-		// Step 2: Check if user exists
-		if (user == null) {
-			System.out.println("\nNo user found with ID: " + userId);
-			System.out.println("Please enter valid user ID!");
-			return null;
-		}
-		
-		// Step 3: Delegate authentication to the User entity
-		user.login(password);
-		
-		// Step 4: Return user if login successful
-		if (user.isLoggedIn()) {
-			System.out.println("Login Successful! Welcome, " + user.getUserName() + ".");
-			return user;
-			
-		}
-		
-		// If login fails, return null
-		System.out.println("Invalid Credentials. Please try again.");
-		return null;
+	public User loginVerification(String userId, String password) {
+		long start = LOGIN_VERIFICATION.start();
+		try {
+
+			// Step 1: Retrieve user from repository
+			User user = userRepository.findById(userId);
+
+			// Step 2: Check if user exists
+			if (user == null) {
+				LOG.warn("loginFailed", "user", userId, "reason", "unknownUser");
+				return null;
+			}
+
+			// Step 3: Delegate authentication to the User entity
+			user.login(password);
+
+			// Step 4: Return user if login successful
+			if (user.isLoggedIn()) {
+				LOG.debug("login", "user", userId);
+				return user;
+
+			}
+
+			// If login fails, return null
+			LOG.warn("loginFailed", "user", userId, "reason", "badPassword");
+			return null;
+		} finally {
+			LOGIN_VERIFICATION.stop(start);
+		}
 	}
 		 /**
 	     * Logs out the given user by delegating to the User entity's logout method.
@@ -74,7 +90,7 @@ public class AuthService {
 				user.logout();
 			}
 			else {
-				System.out.println("User is not logged in. ");
+				LOG.debug("logoutIgnored", "reason", "notLoggedIn");
 			}
 		}
 		
@@ -85,23 +101,31 @@ public class AuthService {
 	     *
 	     * @param user the logged-in user changing their password
 	     * @param newPwd the new password to set
+	     * @return true if the password was changed; false if there is no user or they are not logged in
 	     */
-	    public void changePassword(User user, String newPwd) {
-	        if (user == null) {
-	            System.out.println("No user selected.");
-	            return;
-	        }
-
-	        if (!user.isLoggedIn()) {
-	            System.out.println("You must be logged in to change your password.");
-	            return;
-	        }
-
-	        // Delegate password change to User class
-	        user.setPassword(newPwd);
-
-	        // Save updated user info
-	        userRepository.save(user);
+	    public boolean changePassword(User user, String newPwd) {
+	    	long start = CHANGE_PASSWORD.start();
+	    	try {
+
+		        if (user == null) {
+		            LOG.warn("passwordChangeRefused", "reason", "noUser");
+		            return false;
+		        }
+
+		        if (!user.isLoggedIn()) {
+		            LOG.warn("passwordChangeRefused", "user", user.getUserId(), "reason", "notLoggedIn");
+		            return false;
+		        }
+
+		        // Delegate password change to User class
+		        user.setPassword(newPwd);
+
+		        // Save updated user info
+		        userRepository.save(user);
+		        return true;
+	    	} finally {
+	    		CHANGE_PASSWORD.stop(start);
+	    	}
 	    }
 	    
 	 /**
@@ -111,9 +135,14 @@ public class AuthService {
 	  * @param newPwd new password to persist
 	  */
 	    public void setupPasswordFirstTime(String userId, String newPwd) {
-	        User u = userRepository.findById(userId);
-	        u.setPassword(newPwd);
-	        userRepository.save(u);
+	    	long start = SETUP_PASSWORD_FIRST_TIME.start();
+	    	try {
+		        User u = userRepository.findById(userId);
+		        u.setPassword(newPwd);
+		        userRepository.save(u);
+	    	} finally {
+	    		SETUP_PASSWORD_FIRST_TIME.stop(start);
+	    	}
 	    }
 		/**
 		 * Returns if an Id is associated with Student/Staff
@@ -140,11 +169,16 @@ public class AuthService {
 		 * @return the created {@link CompanyRepresentative}
 		 */
 		public CompanyRepresentative setupCompanyRepAccount(String userId, String username, String password,String companyName, String department, String position){
-			CompanyRepresentative r = new CompanyRepresentative(userId, username, password, companyName, department, position);
-			userRepository.save(r);
-			String message = CSVFileWriter.repToWriteString(r);
-			CSVFileWriter.writeToFile("data/sample_company_representative_list.csv", message); //change this depending on your file path
-			return r;
+			long start = SETUP_COMPANY_REP_ACCOUNT.start();
+			try {
+				CompanyRepresentative r = new CompanyRepresentative(userId, username, password, companyName, department, position);
+				userRepository.save(r);
+				String message = CSVFileWriter.repToWriteString(r);
+				CSVFileWriter.writeToFile("data/sample_company_representative_list.csv", message); //change this depending on your file path
+				return r;
+			} finally {
+				SETUP_COMPANY_REP_ACCOUNT.stop(start);
+			}
 		}
 }
 
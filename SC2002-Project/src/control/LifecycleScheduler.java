@@ -0,0 +1,213 @@
+package control;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import entity.domain.InternshipOpportunity;
+import entity.domain.WithdrawalRequest;
+import entity.domain.enums.OpportunityStatus;
+import entity.domain.enums.RequestStatus;
+import repositories.OpportunityRepository;
+import repositories.RepositoryWriter;
+import repositories.RequestRepository;
+import util.Events;
+import util.Log;
+import util.Metrics;
+import util.TimingWheel;
+
+/**
+ * Applies the status changes that follow from dates alone, without waiting for a user to act.
+ * <p>
+ * An approved opportunity is saved again at the start of its open date, so the notification router
+ * tells its students, and becomes {@link OpportunityStatus#CLOSED} at the start of the day after its
+ * close date. A pending withdrawal request that no staff member has decided within
+ * {@code withdrawal.expiryDays} days (14 by default) is rejected.
+ * </p>
+ * <p>
+ * Each pending transition is one timer in a {@link TimingWheel} with a one-second tick, so keeping
+ * thousands of them costs O(1) per change instead of a periodic scan over every opportunity and
+ * request. Registered as a {@link RepositoryWriter.Listener}, the scheduler replaces an entity's
+ * timers whenever it is saved or reloaded. Timers only carry ids: when one fires, the entity is read
+ * again and the service re-checks the transition under its lock, so a timer left over from an
+ * earlier version of the entity does nothing.
+ * </p>
+ */
+public class LifecycleScheduler implements RepositoryWriter.Listener {
+
+    private static final Log.Logger LOG = Log.get(LifecycleScheduler.class);
+    private static final long TICK_MILLIS = 1000;
+
+    // ===== Dependencies =====
+    private final OpportunityService opportunityService;
+    private final ApplicationService applicationService;
+    private final OpportunityRepository opportunityRepository;
+    private final RequestRepository requestRepository;
+    private final int expiryDays = Integer.getInteger("withdrawal.expiryDays", 14);
+
+    private final TimingWheel wheel = new TimingWheel(TICK_MILLIS, System.currentTimeMillis());
+    // Pending timer per transition, keyed "open:", "close:" or "expire:" plus the entity id.
+    private final Map<String, TimingWheel.Timeout> timers = new ConcurrentHashMap<>();
+
+    // ===== Metrics =====
+    private static final Metrics.Counter FIRED = Metrics.counter("LifecycleScheduler.fired");
+
+    /**
+     * @param opportunityService service that opens and closes opportunities
+     * @param applicationService service that expires withdrawal requests
+     * @param opportunityRepository opportunities to watch
+     * @param requestRepository withdrawal requests to watch
+     */
+    public LifecycleScheduler(OpportunityService opportunityService, ApplicationService applicationService,
+            OpportunityRepository opportunityRepository, RequestRepository requestRepository) {
+        this.opportunityService = Objects.requireNonNull(opportunityService, "OpportunityService required");
+        this.applicationService = Objects.requireNonNull(applicationService, "ApplicationService required");
+        this.opportunityRepository = Objects.requireNonNull(opportunityRepository, "OpportunityRepository required");
+        this.requestRepository = Objects.requireNonNull(requestRepository, "RequestRepository required");
+        if (expiryDays <= 0) throw new IllegalArgumentException("withdrawal.expiryDays must be positive.");
+        Metrics.gauge("LifecycleScheduler.pending", wheel::pending);
+    }
+
+    /**
+     * Schedules the transitions of everything already loaded, starts listening for changes and
+     * starts the timer thread. Call once, after the initial load. Transitions whose time has
+     * already passed run on the first tick.
+     */
+    public void start() {
+        RepositoryWriter.shared().addListener(this, opportunityRepository, requestRepository);
+        for (InternshipOpportunity opp : opportunityRepository.findAll()) schedule(opp);
+        for (WithdrawalRequest req : requestRepository.findAllWithdrawals()) schedule(req);
+
+        Thread thread = new Thread(this::run, "lifecycle-timer");
+        thread.setDaemon(true);
+        thread.start();
+        LOG.info("started", "timers", wheel.pending(), "expiryDays", expiryDays);
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                Thread.sleep(TICK_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            tick(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Runs every transition due by {@code nowMillis}. Called by the timer thread once per tick.
+     *
+     * @param nowMillis current epoch milliseconds
+     * @return number of timers that fired
+     */
+    public int tick(long nowMillis) {
+        List<Runnable> due = wheel.advanceTo(nowMillis);
+        for (Runnable task : due) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.warn("transitionFailed", "error", e.toString());
+            }
+        }
+        FIRED.add(due.size());
+        return due.size();
+    }
+
+    @Override
+    public void changed(Object entity, boolean fromDisk) {
+        if (entity instanceof InternshipOpportunity opp && opp.getId() != null) {
+            schedule(opp);
+        } else if (entity instanceof WithdrawalRequest req && req.getId() != null) {
+            schedule(req);
+        }
+    }
+
+    // ===== Scheduling =====
+
+    private void schedule(InternshipOpportunity opp) {
+        String id = opp.getId();
+        boolean approved = opp.getStatus() == OpportunityStatus.APPROVED;
+        LocalDate open = opp.getOpenDate();
+        LocalDate close = opp.getCloseDate();
+        if (approved && open != null && open.isAfter(LocalDate.now())) {
+            set("open:" + id, startOf(open), () -> open(id));
+        } else {
+            cancel("open:" + id);
+        }
+        if (approved && close != null) {
+            set("close:" + id, startOf(close.plusDays(1)), () -> close(id));
+        } else {
+            cancel("close:" + id);
+        }
+    }
+
+    private void schedule(WithdrawalRequest req) {
+        String id = req.getId();
+        if (req.getStatus() == RequestStatus.PENDING && req.getRequestedAt() != null) {
+            long deadline = req.getRequestedAt().plusDays(expiryDays).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            set("expire:" + id, deadline, () -> expire(id));
+        } else {
+            cancel("expire:" + id);
+        }
+    }
+
+    private void set(String key, long deadlineMillis, Runnable task) {
+        timers.compute(key, (k, previous) -> {
+            if (previous != null) previous.cancel();
+            TimingWheel.Timeout[] self = new TimingWheel.Timeout[1];
+            self[0] = wheel.schedule(deadlineMillis, () -> {
+                // Leave a replacement scheduled while this one was being collected alone.
+                timers.remove(k, self[0]);
+                task.run();
+            });
+            return self[0];
+        });
+    }
+
+    private void cancel(String key) {
+        TimingWheel.Timeout previous = timers.remove(key);
+        if (previous != null) previous.cancel();
+    }
+
+    private static long startOf(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // ===== Transitions =====
+
+    private void open(String id) {
+        InternshipOpportunity opp = opportunityRepository.findById(id);
+        if (opp == null) return;
+        Events.LifecycleTransition event = new Events.LifecycleTransition();
+        event.begin();
+        if (opportunityService.markOpened(opp, LocalDate.now())) {
+            event.complete("opportunity", id, "opened");
+        }
+    }
+
+    private void close(String id) {
+        InternshipOpportunity opp = opportunityRepository.findById(id);
+        if (opp == null) return;
+        Events.LifecycleTransition event = new Events.LifecycleTransition();
+        event.begin();
+        if (opportunityService.closeIfExpired(opp, LocalDate.now())) {
+            event.complete("opportunity", id, "closed");
+        }
+    }
+
+    private void expire(String id) {
+        WithdrawalRequest req = requestRepository.findWithdrawalById(id);
+        if (req == null) return;
+        Events.LifecycleTransition event = new Events.LifecycleTransition();
+        event.begin();
+        if (applicationService.expireWithdrawal(req, LocalDateTime.now().minusDays(expiryDays), requestRepository)) {
+            event.complete("withdrawal", id, "expired");
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package control;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import entity.domain.Application;
+import entity.domain.CareerCenterStaff;
+import entity.domain.CompanyRepresentative;
+import entity.domain.InternshipOpportunity;
+import entity.domain.RegistrationRequest;
+import entity.domain.Student;
+import entity.domain.WithdrawalRequest;
+import entity.domain.enums.ApplicationStatus;
+import entity.domain.enums.NotificationType;
+import entity.domain.enums.OpportunityStatus;
+import entity.domain.enums.RequestStatus;
+import repositories.ApplicationRepository;
+import repositories.InboxRepository;
+import repositories.OpportunityRepository;
+import repositories.RepositoryWriter;
+import repositories.RequestRepository;
+import repositories.UserRepository;
+import util.Metrics;
+
+/**
+ * Turns committed changes into inbox notifications.
+ * <p>
+ * Registered as a {@link RepositoryWriter.Listener}, the router sees every opportunity,
+ * application and request that is saved or reloaded. It remembers the last status it saw for
+ * each one and only reacts to real transitions (an opportunity becoming visible, an application
+ * being reviewed, a withdrawal being requested or decided, an opportunity reaching its open date), delivering a notification to every
+ * user the change concerns. Saves that change nothing of interest, such as a slot count update
+ * or an unchanged row read back by a reload, cost one map lookup. An opportunity opening up is
+ * delivered only to the students the eligibility index matches, so its cost grows with the number
+ * of eligible students rather than with the whole student body.
+ * </p>
+ * Runs on the writer thread only, so its state needs no locking.
+ */
+public class NotificationRouter implements RepositoryWriter.Listener {
+
+    // ===== Dependencies =====
+    private final UserRepository userRepository;
+    private final InboxRepository inboxRepository;
+
+    // Last status seen per entity, keyed by kind prefix and id.
+    private final Map<String, Integer> lastSeen = new HashMap<>();
+
+    // ===== Metrics =====
+    private static final Metrics.Timer ROUTE = Metrics.sampledTimer("NotificationRouter.changed", Metrics.HOT_PATH_SAMPLING);
+
+    /**
+     * @param userRepository users to route notifications to
+     * @param inboxRepository inboxes to deliver into
+     */
+    public NotificationRouter(UserRepository userRepository, InboxRepository inboxRepository) {
+        this.userRepository = Objects.requireNonNull(userRepository, "User repository required");
+        this.inboxRepository = Objects.requireNonNull(inboxRepository, "Inbox repository required");
+    }
+
+    /**
+     * Records the current state of the repositories without notifying anyone, then starts
+     * listening for changes to those repositories. Call once, after the initial load.
+     *
+     * @param oppRepo opportunities
+     * @param appRepo applications
+     * @param reqRepo withdrawal and registration requests
+     */
+    public void attach(OpportunityRepository oppRepo, ApplicationRepository appRepo, RequestRepository reqRepo) {
+        for (InternshipOpportunity opp : oppRepo.findAll()) lastSeen.put(key(opp), signature(opp));
+        for (Application app : appRepo.findAll()) lastSeen.put(key(app), signature(app));
+        for (WithdrawalRequest req : reqRepo.findAllWithdrawals()) lastSeen.put(key(req), signature(req));
+        for (RegistrationRequest req : reqRepo.findPendingRepRegistrations()) {
+            if (req.getRep() != null) lastSeen.put(key(req), signature(req));
+        }
+        RepositoryWriter.shared().addListener(this, oppRepo, appRepo, reqRepo);
+    }
+
+    /** Stops routing changes, e.g. when the repositories it was attached to are discarded. */
+    public void detach() {
+        RepositoryWriter.shared().removeListener(this);
+    }
+
+    @Override
+    public void changed(Object entity, boolean fromDisk) {
+        long start = ROUTE.start();
+        try {
+            if (entity instanceof InternshipOpportunity opp) {
+                onOpportunity(opp);
+            } else if (entity instanceof Application app) {
+                onApplication(app);
+            } else if (entity instanceof WithdrawalRequest req) {
+                onWithdrawal(req);
+            } else if (entity instanceof RegistrationRequest req && req.getRep() != null) {
+                onRegistration(req);
+            }
+        } finally {
+            ROUTE.stop(start);
+        }
+    }
+
+    // ===== Routing =====
+
+    private void onOpportunity(InternshipOpportunity opp) {
+        int now = signature(opp);
+        Integer before = lastSeen.put(key(opp), now);
+        if (before != null && before == now) return;
+
+        OpportunityStatus status = statusOf(opp);
+        OpportunityStatus previous = before == null ? null : OpportunityStatus.values()[before >> 2];
+        boolean open = (now & 3) == 3 && status == OpportunityStatus.APPROVED;
+        boolean wasOpen = before != null && previous == OpportunityStatus.APPROVED && (before & 3) == 3;
+
+        if (open && !wasOpen) {
+            // Only the students whose year band and major match; isOpenFor checks the rest.
+            List<String> recipients = new ArrayList<>();
+            for (Student s : userRepository.findEligibleStudents(opp.getLevel(), opp.getPreferredMajor())) {
+                if (opp.isOpenFor(s)) recipients.add(s.getUserId());
+            }
+            inboxRepository.deliverAll(recipients, NotificationType.NEW_OPPORTUNITY, opp.getId());
+        }
+        if (status == OpportunityStatus.PENDING && previous != OpportunityStatus.PENDING) {
+            toStaff(NotificationType.OPPORTUNITY_SUBMITTED, opp.getId());
+        }
+        if (status != OpportunityStatus.PENDING && status != previous) {
+            toCompany(opp.getCompanyName(), NotificationType.OPPORTUNITY_STATUS, opp.getId());
+        }
+    }
+
+    private void onApplication(Application app) {
+        int now = signature(app);
+        Integer before = lastSeen.put(key(app), now);
+        if (before != null && before >> 1 == now >> 1) return;
+
+        if (before == null) {
+            if (app.getStatus() == ApplicationStatus.PENDING && app.getOpportunity() != null) {
+                toCompany(app.getOpportunity().getCompanyName(), NotificationType.NEW_APPLICATION, app.getId());
+            }
+        } else if (app.getStudent() != null) {
+            inboxRepository.deliver(app.getStudent().getUserId(), NotificationType.APPLICATION_UPDATE, app.getId());
+        }
+    }
+
+    private void onWithdrawal(WithdrawalRequest req) {
+        int now = signature(req);
+        Integer before = lastSeen.put(key(req), now);
+        if (before != null && before == now) return;
+
+        RequestStatus status = req.getStatus();
+        if (status == RequestStatus.PENDING) {
+            toStaff(NotificationType.WITHDRAWAL_PENDING, req.getId());
+        } else if (req.getRequestedBy() != null) {
+            inboxRepository.deliver(req.getRequestedBy().getUserId(), NotificationType.WITHDRAWAL_UPDATE, req.getId());
+        }
+        Application app = req.getApplication();
+        if (status != RequestStatus.REJECTED && app != null && app.getOpportunity() != null) {
+            toCompany(app.getOpportunity().getCompanyName(), NotificationType.APPLICATION_WITHDRAWAL, req.getId());
+        }
+    }
+
+    private void onRegistration(RegistrationRequest req) {
+        int now = signature(req);
+        Integer before = lastSeen.put(key(req), now);
+        if (before != null && before == now) return;
+        if (req.getStatus() == RequestStatus.PENDING) {
+            toStaff(NotificationType.REGISTRATION_PENDING, req.getRep().getUserId());
+        }
+    }
+
+    private void toStaff(NotificationType type, String ref) {
+        for (CareerCenterStaff staff : userRepository.findAllStaff()) {
+            inboxRepository.deliver(staff.getUserId(), type, ref);
+        }
+    }
+
+    private void toCompany(String company, NotificationType type, String ref) {
+        for (CompanyRepresentative rep : userRepository.findCompanyReps(company)) {
+            inboxRepository.deliver(rep.getUserId(), type, ref);
+        }
+    }
+
+    // ===== State signatures =====
+
+    private static String key(InternshipOpportunity opp) { return "O:" + opp.getId(); }
+    private static String key(Application app) { return "A:" + app.getId(); }
+    private static String key(WithdrawalRequest req) { return "W:" + req.getId(); }
+    // Registration requests get a new id on every import, so they are tracked by representative.
+    private static String key(RegistrationRequest req) { return "R:" + req.getRep().getUserId(); }
+
+    private static OpportunityStatus statusOf(InternshipOpportunity opp) {
+        return opp.getStatus() == null ? OpportunityStatus.PENDING : opp.getStatus();
+    }
+
+    /**
+     * Status in the high bits, then whether today lies within the open and close dates, then
+     * visibility. The lifecycle scheduler saves an opportunity on its open date, which flips the
+     * window bit and notifies its students.
+     */
+    private static int signature(InternshipOpportunity opp) {
+        LocalDate today = LocalDate.now();
+        boolean inWindow = (opp.getOpenDate() == null || !opp.getOpenDate().isAfter(today))
+                && (opp.getCloseDate() == null || !opp.getCloseDate().isBefore(today));
+        return statusOf(opp).ordinal() << 2 | (inWindow ? 2 : 0) | (opp.isVisibility() ? 1 : 0);
+    }
+
+    /** Status in the high bits, withdrawal flag in the low bit (which alone notifies nobody). */
+    private static int signature(Application app) {
+        int status = app.getStatus() == null ? 0 : app.getStatus().ordinal();
+        return status << 1 | (app.isWithdrawalRequested() ? 1 : 0);
+    }
+
+    private static int signature(WithdrawalRequest req) {
+        return req.getStatus() == null ? 0 : req.getStatus().ordinal();
+    }
+
+    private static int signature(RegistrationRequest req) {
+        return req.getStatus() == null ? 0 : req.getStatus().ordinal();
+    }
+}
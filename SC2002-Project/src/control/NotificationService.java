@@ -3,122 +3,79 @@ package control;
 import entity.domain.*;
 import entity.domain.enums.*;
 import repositories.*;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+
+import util.Metrics;
 
 /**
  * Provides role-based notification summaries for students, staff, and company representatives.
- * This is a stateless utility service; use {@link #getNotifications(User, ApplicationRepository, OpportunityRepository, RequestRepository)}.
+ * Notifications are delivered into each user's inbox by {@link NotificationRouter} as changes are
+ * committed, so reading them costs O(unread) rather than a scan over every opportunity,
+ * application and request.
+ * This is a stateless utility service; use {@link #getNotifications(User, InboxRepository, OpportunityRepository, RequestRepository)}.
  */
 public class NotificationService{
 
+    private static final Metrics.Timer GET_NOTIFICATIONS = Metrics.timer("NotificationService.getNotifications");
+
     /** Utility class; prevent instantiation. */
     private NotificationService() {}
 
 
     /**
-     * Builds a list of notification strings tailored to the given user role.
+     * Builds the list of notification strings waiting for the given user and marks them read.
      *
      * @param user the user whose notifications are requested
-     * @param appRepo application repository for fetching application changes
-     * @param oppRepo opportunity repository for opportunity updates
-     * @param reqRepo request repository for registration/withdrawal updates
-     * @return list of user-facing notification strings
+     * @param inboxRepo inbox store holding the user's unread notifications
+     * @param oppRepo opportunity repository for describing opportunity notifications
+     * @param reqRepo request repository for describing withdrawal notifications
+     * @return list of user-facing notification strings, without duplicates
      */
-    public static List<String> getNotifications(User user, ApplicationRepository appRepo, OpportunityRepository oppRepo, RequestRepository reqRepo) {
-
-        List<String> notes = new ArrayList<>();
-
-        LocalDateTime lastCheckTime = user.getLastNotifCheck(); 
-
-        //STUDENT NOTIFICATIONS
-        if (user instanceof Student student) {
-            // 1. New Approved Opportunities
-            for (InternshipOpportunity opp : oppRepo.findAll()) {
-                if (opp.getStatus() == OpportunityStatus.APPROVED && opp.getLastUpdated().isAfter(lastCheckTime) && opp.isOpenFor(student)) {
-                    notes.add("- New Internship Opportunity available");
-                    break;
-                }
-            }
-            // 2. Application Status Updates
-            for (Application app : appRepo.findByStudent(student)) {
-                if (app.getLastUpdated().isAfter(lastCheckTime)) {
-                    notes.add("- Internship Application Update");
-                    break;
-                }
-            }
-            // 3. Internship Withdrawal updates (Using requestedAt from WithdrawalRequest)
-            for (WithdrawalRequest req : reqRepo.findByStudent(student)) {
-                if (req.getLastUpdated().isAfter(lastCheckTime) && req.getStatus() != RequestStatus.PENDING) {
-                    notes.add("- Internship Withdrawal Update");
-                    break;
-                }
-            }
-        }
-
-        // --- STAFF NOTIFICATIONS (CareerCenterStaff) ---
-        else if (user instanceof CareerCenterStaff) {
-            // 1. New Pending Opportunities
-            for (InternshipOpportunity opp : oppRepo.findAll()) {
-                // Check if the opportunity is PENDING and was updated/created since the last check
-                if (opp.getStatus() == OpportunityStatus.PENDING && opp.getLastUpdated().isAfter(lastCheckTime)) {
-                    notes.add("- New Internship Opportunity Submissions");
-                    break;
-                }
-            }
-            //2. New Registration Requests (Assuming RegistrationRequest has getRequestedAt())
-            for (RegistrationRequest req : reqRepo.findPendingRepRegistrations()) {
-                if (req.getRequestedAt().isAfter(lastCheckTime)) {
-                    notes.add("- New Registration Requests");
-                    break;
-                }
-            }
-            // 3. Pending Withdrawal Requests
-            for (WithdrawalRequest req : reqRepo.findPendingWithdrawals()) {
-                if (req.getRequestedAt().isAfter(lastCheckTime)) {
-                    notes.add("- Pending Withdrawal Requests");
-                    break;
-                 }
-            }
+    public static List<String> getNotifications(User user, InboxRepository inboxRepo, OpportunityRepository oppRepo, RequestRepository reqRepo) {
+        long start = GET_NOTIFICATIONS.start();
+        try {
+            return describe(user, inboxRepo.markRead(user.getUserId()), oppRepo, reqRepo);
+        } finally {
+            GET_NOTIFICATIONS.stop(start);
         }
+    }
 
-        // --- COMPANY REP NOTIFICATIONS ---
-        else if (user instanceof CompanyRepresentative rep) {
-            // 1. New Applications for their opportunities
-            List<InternshipOpportunity> myOpps = oppRepo.findByCompany(rep.getCompanyName());
-            for(InternshipOpportunity opp : myOpps) {
-                for(Application app : appRepo.findByOpportunity(opp)) {
-                    // Use appliedAt since applications start as PENDING on creation
-                    if(app.getAppliedAt().isAfter(lastCheckTime)) {
-                    notes.add("- New Applications to Review");
-                    break;
+    private static List<String> describe(User user, List<Notification> unread, OpportunityRepository oppRepo, RequestRepository reqRepo) {
+        // Several notifications of one kind collapse into one line, as the summary only names the kind.
+        Set<String> notes = new LinkedHashSet<>();
+        for (Notification n : unread) {
+            switch (n.getType()) {
+                //STUDENT NOTIFICATIONS
+                case NEW_OPPORTUNITY -> {
+                    InternshipOpportunity opp = oppRepo.findById(n.getRef());
+                    // Skip opportunities that closed or were hidden again before the student looked.
+                    if (opp != null && user instanceof Student student && opp.isOpenFor(student)) {
+                        notes.add("- New Internship Opportunity available");
                     }
                 }
-            }
-            // 2. Opportunity Approval/Rejection (Check if their opportunities were updated)
-            for (InternshipOpportunity opp : myOpps) {
-                if (opp.getLastUpdated().isAfter(lastCheckTime) && opp.getStatus() != OpportunityStatus.PENDING) {
-                    notes.add("- Internship Opportunity Status Update");
-                }
-            }
-            // 3. Application Withdrawal Updates
-            for (WithdrawalRequest withdrawalReq : reqRepo.findAllWithdrawals()) { // Assuming this method exists
-                // Check if the request is new and involves an application for the Rep's company
-                if (withdrawalReq.getRequestedAt().isAfter(lastCheckTime)) {
-                    
-                    // Find the opportunity linked to the application being withdrawn
-                    InternshipOpportunity linkedOpp = withdrawalReq.getApplication().getOpportunity(); 
+                case APPLICATION_UPDATE -> notes.add("- Internship Application Update");
+                case WITHDRAWAL_UPDATE -> notes.add("- Internship Withdrawal Update");
+
+                // --- STAFF NOTIFICATIONS (CareerCenterStaff) ---
+                case OPPORTUNITY_SUBMITTED -> notes.add("- New Internship Opportunity Submissions");
+                case REGISTRATION_PENDING -> notes.add("- New Registration Requests");
+                case WITHDRAWAL_PENDING -> notes.add("- Pending Withdrawal Requests");
+
+                // --- COMPANY REP NOTIFICATIONS ---
+                case NEW_APPLICATION -> notes.add("- New Applications to Review");
+                case OPPORTUNITY_STATUS -> notes.add("- Internship Opportunity Status Update");
+                case APPLICATION_WITHDRAWAL -> {
+                    WithdrawalRequest withdrawalReq = reqRepo.findWithdrawalById(n.getRef());
+                    if (withdrawalReq == null || withdrawalReq.getStatus() == RequestStatus.REJECTED) break;
+                    InternshipOpportunity linkedOpp = withdrawalReq.getApplication().getOpportunity();
                     String studentId = withdrawalReq.getRequestedBy().getUserId();
-                    // Check if this opportunity belongs to the current Company Representative's list
-                    if (myOpps.contains(linkedOpp)) {
-                        if (withdrawalReq.getStatus() != RequestStatus.REJECTED) {
-                            notes.add("Application Withdrawal Updates: Student: " + studentId + " is withdrawing for " + linkedOpp.getTitle() + " | Status: " + withdrawalReq.getStatus().toString());
-                        }
-                    }
+                    notes.add("Application Withdrawal Updates: Student: " + studentId + " is withdrawing for " + linkedOpp.getTitle() + " | Status: " + withdrawalReq.getStatus().toString());
                 }
             }
         }
-        return notes;
+        return new ArrayList<>(notes);
     }
 }
@@ -0,0 +1,131 @@
+package control;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+import entity.domain.InternshipOpportunity;
+import entity.domain.OpportunityFilter.SortKey;
+import entity.domain.enums.InternshipLevel;
+
+/**
+ * Listing orders for opportunities and the cursors that page through them.
+ * <p>
+ * Every order ends with the opportunity id, so it is total and a cursor (the sort value and id of
+ * the last row shown) names one exact position. A cursor is decoded into a probe opportunity
+ * carrying just those two fields, and a page is the {@code size} smallest rows that compare after
+ * the probe, picked with a bounded heap: O(n log k) for a page of k instead of sorting all n rows.
+ * </p>
+ */
+final class OpportunityOrder {
+
+    private static final Comparator<InternshipOpportunity> BY_ID = Comparator.comparing(
+            InternshipOpportunity::getId, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    private OpportunityOrder() {
+    }
+
+    /**
+     * @param key sort key; null means by title
+     * @return comparator for the key, ties broken by id
+     */
+    static Comparator<InternshipOpportunity> of(SortKey key) {
+        Comparator<InternshipOpportunity> c = switch (key == null ? SortKey.TITLE_ASC : key) {
+            case CLOSING_DATE_ASC -> Comparator.comparing(
+                    InternshipOpportunity::getCloseDate, Comparator.nullsLast(Comparator.naturalOrder()));
+            case COMPANY_ASC -> Comparator.comparing(
+                    InternshipOpportunity::getCompanyName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+            case LEVEL_ASC -> Comparator.comparing(
+                    InternshipOpportunity::getLevel, Comparator.nullsLast(Comparator.naturalOrder()));
+            case TITLE_ASC -> Comparator.comparing(
+                    InternshipOpportunity::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        };
+        return c.thenComparing(BY_ID);
+    }
+
+    /**
+     * Picks the page of {@code size} rows that follows {@code cursor}.
+     *
+     * @param candidates rows to page through, in any order
+     * @param accept condition a row must meet
+     * @param key sort key; null means by title
+     * @param cursor cursor from the previous page, or null/blank for the first page
+     * @param size page size
+     * @return the page, with a cursor for the next one if more rows follow
+     */
+    static OpportunityService.Page page(Iterable<InternshipOpportunity> candidates, Predicate<InternshipOpportunity> accept,
+            SortKey key, String cursor, int size) {
+        if (size <= 0) throw new IllegalArgumentException("Page size must be positive.");
+        SortKey sort = key == null ? SortKey.TITLE_ASC : key;
+        Comparator<InternshipOpportunity> order = of(sort);
+        InternshipOpportunity after = cursor == null || cursor.isBlank() ? null : decode(cursor, sort);
+
+        // Max-heap of the size + 1 smallest rows seen; the extra row only tells whether a next page exists.
+        int keep = size + 1;
+        PriorityQueue<InternshipOpportunity> heap = new PriorityQueue<>(Math.min(keep, 1024), order.reversed());
+        for (InternshipOpportunity o : candidates) {
+            if (after != null && order.compare(o, after) <= 0) continue;
+            if (heap.size() == keep && order.compare(o, heap.peek()) >= 0) continue;
+            if (!accept.test(o)) continue;
+            heap.add(o);
+            if (heap.size() > keep) heap.poll();
+        }
+
+        List<InternshipOpportunity> rows = new ArrayList<>(heap);
+        rows.sort(order);
+        String next = null;
+        if (rows.size() > size) {
+            rows.remove(size);
+            next = encode(sort, rows.get(size - 1));
+        }
+        return new OpportunityService.Page(rows, next);
+    }
+
+    // ===== Cursors =====
+    // Base64 of "SORT_KEY\nid\n" followed by "=" and the sort value, or nothing if it was null.
+
+    private static String encode(SortKey key, InternshipOpportunity last) {
+        Object value = switch (key) {
+            case CLOSING_DATE_ASC -> last.getCloseDate();
+            case COMPANY_ASC -> last.getCompanyName();
+            case LEVEL_ASC -> last.getLevel();
+            case TITLE_ASC -> last.getTitle();
+        };
+        String raw = key.name() + "\n" + (last.getId() == null ? "" : last.getId()) + "\n" + (value == null ? "" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InternshipOpportunity decode(String cursor, SortKey key) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8).split("\n", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        if (parts.length != 3) throw new IllegalArgumentException("Invalid cursor.");
+        if (!parts[0].equals(key.name())) {
+            throw new IllegalArgumentException("Cursor belongs to " + parts[0].toLowerCase(Locale.ROOT) + " order; start again from the first page.");
+        }
+        InternshipOpportunity probe = new InternshipOpportunity();
+        probe.setId(parts[1].isEmpty() ? null : parts[1]);
+        String value = parts[2].isEmpty() ? null : parts[2].substring(1);
+        if (value == null) return probe;
+        try {
+            switch (key) {
+                case CLOSING_DATE_ASC -> probe.setCloseDate(LocalDate.parse(value));
+                case COMPANY_ASC -> probe.setCompanyName(value);
+                case LEVEL_ASC -> probe.setLevel(InternshipLevel.valueOf(value));
+                case TITLE_ASC -> probe.setTitle(value);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        return probe;
+    }
+}
@@ -1,7 +1,8 @@
 package control;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -12,18 +13,50 @@ import entity.domain.OpportunityFilter;
 import entity.domain.OpportunityFilter.SortKey;
 import entity.domain.Student;
 import entity.domain.enums.OpportunityStatus;
-import entity.domain.enums.InternshipLevel;
+import repositories.EligibilityCache;
 import repositories.OpportunityRepository;
+import util.Log;
+import util.Metrics;
+import util.StripedLocks;
 import util.Validator;
 
 /**
  * Handles the creation, approval, visibility, and listing of internship opportunities.
+ * Status and visibility changes hold the opportunity's {@link StripedLocks} stripe.
+ * Listings come whole or a page at a time; a page costs O(n log k) for k rows, since only the
+ * rows of that page are kept in order (see {@link Page}).
  */
 public class OpportunityService {
 
+    /** Most opportunities one company representative may have created. */
+    public static final int MAX_OPPORTUNITIES_PER_REP = 5;
+
     // ===== Dependencies =====
     private final OpportunityRepository opportunityRepository;
     private final Validator validator;
+    private final EligibilityCache eligibilityCache;
+    private final StripedLocks locks = StripedLocks.shared();
+
+    // ===== Logging =====
+    private static final Log.Logger LOG = Log.get(OpportunityService.class);
+
+    // ===== Metrics =====
+    private static final Metrics.Timer CREATE_OPPORTUNITY = Metrics.timer("OpportunityService.createOpportunity");
+    private static final Metrics.Timer SUBMIT_FOR_APPROVAL = Metrics.timer("OpportunityService.submitForApproval");
+    private static final Metrics.Timer APPROVE = Metrics.timer("OpportunityService.approve");
+    private static final Metrics.Timer REJECT = Metrics.timer("OpportunityService.reject");
+    private static final Metrics.Timer SET_VISIBILITY = Metrics.timer("OpportunityService.setVisibility");
+    private static final Metrics.Timer LIST_VISIBLE_FOR = Metrics.timer("OpportunityService.listVisibleFor");
+    private static final Metrics.Timer SEARCH_VISIBLE_FOR = Metrics.timer("OpportunityService.searchVisibleFor");
+    private static final Metrics.Timer LIST_BY_COMPANY_FILTERED = Metrics.timer("OpportunityService.listByCompanyFiltered");
+    private static final Metrics.Timer LIST_ALL_FILTERED = Metrics.timer("OpportunityService.listAllFiltered");
+    private static final Metrics.Timer PAGE_VISIBLE_FOR = Metrics.timer("OpportunityService.pageVisibleFor");
+    private static final Metrics.Timer PAGE_BY_COMPANY_FILTERED = Metrics.timer("OpportunityService.pageByCompanyFiltered");
+    private static final Metrics.Timer PAGE_ALL_FILTERED = Metrics.timer("OpportunityService.pageAllFiltered");
+    private static final Metrics.Timer LIST_BY_COMPANY = Metrics.timer("OpportunityService.listByCompany");
+    private static final Metrics.Timer UPDATE_FILLED_STATUS = Metrics.timer("OpportunityService.updateFilledStatus");
+    private static final Metrics.Timer CLOSE_IF_EXPIRED = Metrics.timer("OpportunityService.closeIfExpired");
+    private static final Metrics.Timer MARK_OPENED = Metrics.timer("OpportunityService.markOpened");
 
     // ===== Constructor =====
     /**
@@ -35,36 +68,70 @@ public class OpportunityService {
     public OpportunityService(OpportunityRepository opportunityRepository, Validator validator) {
         this.opportunityRepository = Objects.requireNonNull(opportunityRepository, "OpportunityRepository required");
         this.validator = Objects.requireNonNull(validator, "Validator required");
+        this.eligibilityCache = new EligibilityCache(opportunityRepository);
+    }
+
+    /**
+     * Stops keeping the eligibility cache current. Call when discarding a service whose
+     * repository outlives it; the service must not be used afterwards.
+     */
+    public void close() {
+        eligibilityCache.close();
     }
 
     /**
      * Allows a company representative to draft a new internship opportunity.
      * Basic validation checks are applied before saving the draft.
+     * The limit of {@value #MAX_OPPORTUNITIES_PER_REP} opportunities is checked and the draft
+     * saved under the representative's stripe, so two concurrent creates cannot both pass it.
      *
      * @param rep the representative creating the draft
      * @param draft the opportunity draft to persist
      * @return the saved draft
+     * @throws IllegalStateException if the representative already has the maximum number of opportunities
      */
     public InternshipOpportunity createOpportunity(CompanyRepresentative rep, InternshipOpportunity draft) {
-        Objects.requireNonNull(rep, "Company representative required");
-        Objects.requireNonNull(draft, "Opportunity draft required");
-
-        // validate mandatory fields
-        if (draft.getTitle() == null || draft.getTitle().isBlank()) {
-            throw new IllegalArgumentException("Opportunity title cannot be empty.");
-        }
-        if (!validator.isValidCompanyEmail(rep.getUserName())) {
-            throw new IllegalArgumentException("Invalid company representative email.");
+        long start = CREATE_OPPORTUNITY.start();
+        try {
+            Objects.requireNonNull(rep, "Company representative required");
+            Objects.requireNonNull(draft, "Opportunity draft required");
+
+            // validate mandatory fields
+            if (draft.getTitle() == null || draft.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Opportunity title cannot be empty.");
+            }
+            if (!validator.isValidCompanyEmail(rep.getUserId())) {
+                throw new IllegalArgumentException("Invalid company representative email.");
+            }
+
+            draft.setRepInCharge(rep);
+            draft.setCompanyName(rep.getCompanyName());
+            draft.setStatus(OpportunityStatus.PENDING);
+            draft.setVisibility(false); // initially hidden until approval
+
+            locks.update(() -> {
+                if (hasReachedOpportunityLimit(rep)) {
+                    throw new IllegalStateException("Limit reached: You cannot create more than "
+                            + MAX_OPPORTUNITIES_PER_REP + " opportunities.");
+                }
+                opportunityRepository.save(draft);
+            }, rep.getUserId());
+            LOG.info("created", "opportunity", draft.getId(), "company", rep.getCompanyName(), "title", draft.getTitle());
+            return draft;
+        } finally {
+            CREATE_OPPORTUNITY.stop(start);
         }
+    }
 
-        draft.setRepInCharge(rep);
-        draft.setCompanyName(rep.getCompanyName());
-        draft.setStatus(OpportunityStatus.PENDING);
-        draft.setVisibility(false); // initially hidden until approval
-
-        opportunityRepository.save(draft);
-        System.out.println("Draft opportunity created by " + rep.getCompanyName() + ": " + draft.getTitle());
-        return draft;
+    /**
+     * Checks whether a representative already has {@value #MAX_OPPORTUNITIES_PER_REP} opportunities.
+     *
+     * @param rep the representative to check
+     * @return true if {@link #createOpportunity} would refuse another draft
+     */
+    public boolean hasReachedOpportunityLimit(CompanyRepresentative rep) {
+        Objects.requireNonNull(rep, "Company representative required");
+        return opportunityRepository.findByRepresentative(rep).size() >= MAX_OPPORTUNITIES_PER_REP;
     }
 
     /**
@@ -73,13 +140,18 @@ public class OpportunityService {
      * @param opp the opportunity to submit
      */
     public void submitForApproval(InternshipOpportunity opp) {
-        Objects.requireNonNull(opp, "Opportunity required");
-        if (opp.getStatus() != OpportunityStatus.PENDING) {
-            System.out.println("Only draft (PENDING) opportunities can be submitted.");
-            return;
+        long start = SUBMIT_FOR_APPROVAL.start();
+        try {
+            Objects.requireNonNull(opp, "Opportunity required");
+            if (opp.getStatus() != OpportunityStatus.PENDING) {
+                LOG.warn("submitRefused", "opportunity", opp.getId(), "status", opp.getStatus());
+                return;
+            }
+            opportunityRepository.save(opp);
+            LOG.info("submitted", "opportunity", opp.getId());
+        } finally {
+            SUBMIT_FOR_APPROVAL.stop(start);
         }
-        opportunityRepository.save(opp);
-        System.out.println("Opportunity submitted for approval: " + opp.getTitle());
     }
 
     /**
@@ -88,10 +160,17 @@ public class OpportunityService {
      * @param opp the opportunity to approve
      */
     public void approve(InternshipOpportunity opp) {
-        Objects.requireNonNull(opp, "Opportunity required");
-        opp.setStatus(OpportunityStatus.APPROVED);
-        opportunityRepository.save(opp);
-        System.out.println("Opportunity approved: " + opp.getTitle());
+        long start = APPROVE.start();
+        try {
+            Objects.requireNonNull(opp, "Opportunity required");
+            locks.update(() -> {
+                opp.setStatus(OpportunityStatus.APPROVED);
+                opportunityRepository.save(opp);
+            }, opp.getId());
+            LOG.info("approved", "opportunity", opp.getId());
+        } finally {
+            APPROVE.stop(start);
+        }
     }
 
     /**
@@ -100,10 +179,17 @@ public class OpportunityService {
      * @param opp the opportunity to reject
      */
     public void reject(InternshipOpportunity opp) {
-        Objects.requireNonNull(opp, "Opportunity required");
-        opp.setStatus(OpportunityStatus.REJECTED);
-        opportunityRepository.save(opp);
-        System.out.println("Opportunity rejected " + opp.getTitle());
+        long start = REJECT.start();
+        try {
+            Objects.requireNonNull(opp, "Opportunity required");
+            locks.update(() -> {
+                opp.setStatus(OpportunityStatus.REJECTED);
+                opportunityRepository.save(opp);
+            }, opp.getId());
+            LOG.info("rejected", "opportunity", opp.getId());
+        } finally {
+            REJECT.stop(start);
+        }
     }
 
     /**
@@ -113,15 +199,24 @@ public class OpportunityService {
      * @param on {@code true} to make visible, {@code false} to hide
      */
     public void setVisibility(InternshipOpportunity opp, boolean on) {
-        Objects.requireNonNull(opp, "Opportunity required");
-
-        if (opp.getStatus() != OpportunityStatus.APPROVED) {
-            System.out.println("Only approved opportunities can be toggled for visibility.");
-            return;
+        long start = SET_VISIBILITY.start();
+        try {
+            Objects.requireNonNull(opp, "Opportunity required");
+
+            boolean changed = locks.write(() -> {
+                if (opp.getStatus() != OpportunityStatus.APPROVED) return false;
+                opp.setVisibility(on);
+                opportunityRepository.save(opp);
+                return true;
+            }, opp.getId());
+            if (!changed) {
+                LOG.warn("visibilityRefused", "opportunity", opp.getId(), "status", opp.getStatus());
+                return;
+            }
+            LOG.info("visibility", "opportunity", opp.getId(), "visible", on);
+        } finally {
+            SET_VISIBILITY.stop(start);
         }
-        opp.setVisibility(on);
-        opportunityRepository.save(opp);
-        System.out.println("Visibility for '" + opp.getTitle() + "' set to: " + (on ? "ON" : "OFF"));
     }
 
     /**
@@ -136,7 +231,9 @@ public class OpportunityService {
     }
 
     /**
-     * STUDENT: Returns visible and approved opportunities, applying a user filter + sorting.
+     * STUDENT: Returns the opportunities open to the student today (approved, visible, within their
+     * dates, and suited to the student's year and major), applying a user filter + sorting.
+     * The open set comes from the {@link EligibilityCache}; only the filter and sort run per call.
      * Null filter means default alphabetical sorting without extra constraints.
      *
      * @param student student to retrieve opportunities for
@@ -144,17 +241,57 @@ public class OpportunityService {
      * @return list of eligible opportunities
      */
     public List<InternshipOpportunity> listVisibleFor(Student student, OpportunityFilter filter) {
-        Objects.requireNonNull(student, "Student required");
+        long start = LIST_VISIBLE_FOR.start();
+        try {
+            Objects.requireNonNull(student, "Student required");
 
-        List<InternshipOpportunity> all = opportunityRepository.findAll();
-        List<InternshipOpportunity> eligible = all.stream()
-                .filter(o -> o.getStatus() == OpportunityStatus.APPROVED)
-                .filter(InternshipOpportunity::isVisibility)   // visible to students
-                .filter(o -> isEligible(student, o))
-                .filter(o -> filterMatch(o, filter))
-                .collect(Collectors.toList());
+            List<InternshipOpportunity> eligible = eligibilityCache.openFor(student);
+            if (filter != null) eligible.removeIf(o -> !filterMatch(o, filter));
 
-        return applySort(eligible, filter); // default TITLE_ASC if filter null
+            return applySort(eligible, filter); // default TITLE_ASC if filter null
+        } finally {
+            LIST_VISIBLE_FOR.stop(start);
+        }
+    }
+
+    /**
+     * STUDENT: Returns one page of {@link #listVisibleFor(Student, OpportunityFilter)}.
+     *
+     * @param student student to retrieve opportunities for
+     * @param filter optional filter/sort configuration
+     * @param cursor {@link Page#getNextCursor()} of the previous page, or null for the first page
+     * @param pageSize maximum number of rows
+     * @return the page
+     */
+    public Page pageVisibleFor(Student student, OpportunityFilter filter, String cursor, int pageSize) {
+        long start = PAGE_VISIBLE_FOR.start();
+        try {
+            Objects.requireNonNull(student, "Student required");
+            return OpportunityOrder.page(eligibilityCache.openFor(student), o -> filterMatch(o, filter),
+                    sortKey(filter), cursor, pageSize);
+        } finally {
+            PAGE_VISIBLE_FOR.stop(start);
+        }
+    }
+
+    /**
+     * STUDENT: Searches the opportunities open to the student by keyword, best match first.
+     * Words match titles and descriptions after stemming; {@code "quoted phrases"} must appear as written.
+     *
+     * @param student student searching
+     * @param query words and quoted phrases
+     * @param limit maximum number of results
+     * @return up to {@code limit} open opportunities, ranked by relevance
+     */
+    public List<InternshipOpportunity> searchVisibleFor(Student student, String query, int limit) {
+        long start = SEARCH_VISIBLE_FOR.start();
+        try {
+            Objects.requireNonNull(student, "Student required");
+            if (limit <= 0) throw new IllegalArgumentException("Limit must be positive.");
+            return opportunityRepository.search(query, limit, o -> o.isOpenFor(student));
+        } finally {
+            SEARCH_VISIBLE_FOR.stop(start);
+        }
     }
 
     /**
@@ -165,12 +302,38 @@ public class OpportunityService {
      * @return filtered list of opportunities
      */
     public List<InternshipOpportunity> listByCompanyFiltered(String company, OpportunityFilter filter) {
-        if (company == null || company.isBlank()) return new ArrayList<>();
-        List<InternshipOpportunity> base = opportunityRepository.findByCompany(company);
-        List<InternshipOpportunity> out = base.stream()
-                .filter(o -> filterMatch(o, filter))
-                .collect(Collectors.toList());
-        return applySort(out, filter);
+        long start = LIST_BY_COMPANY_FILTERED.start();
+        try {
+            if (company == null || company.isBlank()) return new ArrayList<>();
+            List<InternshipOpportunity> base = opportunityRepository.findByCompany(company);
+            List<InternshipOpportunity> out = base.stream()
+                    .filter(o -> filterMatch(o, filter))
+                    .collect(Collectors.toList());
+            return applySort(out, filter);
+        } finally {
+            LIST_BY_COMPANY_FILTERED.stop(start);
+        }
+    }
+
+    /**
+     * REP: Returns one page of {@link #listByCompanyFiltered(String, OpportunityFilter)}.
+     *
+     * @param company company name to match
+     * @param filter optional filter/sort configuration
+     * @param cursor {@link Page#getNextCursor()} of the previous page, or null for the first page
+     * @param pageSize maximum number of rows
+     * @return the page
+     */
+    public Page pageByCompanyFiltered(String company, OpportunityFilter filter, String cursor, int pageSize) {
+        long start = PAGE_BY_COMPANY_FILTERED.start();
+        try {
+            List<InternshipOpportunity> base = company == null || company.isBlank()
+                    ? new ArrayList<>()
+                    : opportunityRepository.findByCompany(company);
+            return OpportunityOrder.page(base, o -> filterMatch(o, filter), sortKey(filter), cursor, pageSize);
+        } finally {
+            PAGE_BY_COMPANY_FILTERED.stop(start);
+        }
     }
 
     /**
@@ -180,11 +343,38 @@ public class OpportunityService {
      * @return filtered list of opportunities
      */
     public List<InternshipOpportunity> listAllFiltered(OpportunityFilter filter) {
-        List<InternshipOpportunity> base = opportunityRepository.findAll();
-        List<InternshipOpportunity> out = base.stream()
-                .filter(o -> filterMatch(o, filter))
-                .collect(Collectors.toList());
-        return applySort(out, filter);
+        long start = LIST_ALL_FILTERED.start();
+        try {
+            List<InternshipOpportunity> base = filter != null && filter.getClosingBefore() != null
+                    ? opportunityRepository.findClosingBefore(filter.getClosingBefore())
+                    : opportunityRepository.findAll();
+            List<InternshipOpportunity> out = base.stream()
+                    .filter(o -> filterMatch(o, filter))
+                    .collect(Collectors.toList());
+            return applySort(out, filter);
+        } finally {
+            LIST_ALL_FILTERED.stop(start);
+        }
+    }
+
+    /**
+     * STAFF: Returns one page of {@link #listAllFiltered(OpportunityFilter)}.
+     *
+     * @param filter optional filter/sort configuration
+     * @param cursor {@link Page#getNextCursor()} of the previous page, or null for the first page
+     * @param pageSize maximum number of rows
+     * @return the page
+     */
+    public Page pageAllFiltered(OpportunityFilter filter, String cursor, int pageSize) {
+        long start = PAGE_ALL_FILTERED.start();
+        try {
+            List<InternshipOpportunity> base = filter != null && filter.getClosingBefore() != null
+                    ? opportunityRepository.findClosingBefore(filter.getClosingBefore())
+                    : opportunityRepository.findAll();
+            return OpportunityOrder.page(base, o -> filterMatch(o, filter), sortKey(filter), cursor, pageSize);
+        } finally {
+            PAGE_ALL_FILTERED.stop(start);
+        }
     }
 
     /**
@@ -194,8 +384,13 @@ public class OpportunityService {
      * @return list of opportunities for the company
      */
     public List<InternshipOpportunity> listByCompany(String company) {
-        if (company == null || company.isBlank()) return new ArrayList<>();
-        return opportunityRepository.findByCompany(company);
+        long start = LIST_BY_COMPANY.start();
+        try {
+            if (company == null || company.isBlank()) return new ArrayList<>();
+            return opportunityRepository.findByCompany(company);
+        } finally {
+            LIST_BY_COMPANY.stop(start);
+        }
     }
 
     /**
@@ -204,29 +399,80 @@ public class OpportunityService {
      * @param opp opportunity to evaluate for filled status
      */
     public void updateFilledStatus(InternshipOpportunity opp) {
-        Objects.requireNonNull(opp, "Opportunity required");
-        if (opp.getSlots() <= 0) {
-            opp.setStatus(OpportunityStatus.FILLED);
-            opportunityRepository.save(opp);
-            System.out.println("Opportunity filled: " + opp.getTitle());
+        long start = UPDATE_FILLED_STATUS.start();
+        try {
+            Objects.requireNonNull(opp, "Opportunity required");
+            boolean filled = locks.write(() -> {
+                if (opp.getSlots() > 0) return false;
+                opp.setStatus(OpportunityStatus.FILLED);
+                opportunityRepository.save(opp);
+                return true;
+            }, opp.getId());
+            if (filled) {
+                LOG.info("filled", "opportunity", opp.getId());
+            }
+        } finally {
+            UPDATE_FILLED_STATUS.stop(start);
         }
     }
 
-    // ===== Helper Methods =====
-
     /**
-     * Checks if a student is eligible for a given opportunity.
-     * Y1–Y2: BASIC only; Y3–Y4: BASIC, INTERMEDIATE, ADVANCED.
+     * SCHEDULER: Closes an approved opportunity whose close date has passed.
+     *
+     * @param opp opportunity to check
+     * @param today current date
+     * @return {@code true} if the opportunity was closed
      */
-    private boolean isEligible(Student student, InternshipOpportunity opp) {
-        InternshipLevel level = opp.getLevel();
-        int year = student.getYear();
+    public boolean closeIfExpired(InternshipOpportunity opp, LocalDate today) {
+        long start = CLOSE_IF_EXPIRED.start();
+        try {
+            Objects.requireNonNull(opp, "Opportunity required");
+            boolean closed = locks.write(() -> {
+                if (opp.getStatus() != OpportunityStatus.APPROVED) return false;
+                if (opp.getCloseDate() == null || !opp.getCloseDate().isBefore(today)) return false;
+                opp.setStatus(OpportunityStatus.CLOSED);
+                opportunityRepository.save(opp);
+                return true;
+            }, opp.getId());
+            if (closed) {
+                LOG.info("closed", "opportunity", opp.getId(), "closeDate", opp.getCloseDate());
+            }
+            return closed;
+        } finally {
+            CLOSE_IF_EXPIRED.stop(start);
+        }
+    }
 
-        if (year <= 2 && level == InternshipLevel.BASIC) return true;
-        if (year >= 3) return true; // can apply to all levels
-        return false;
+    /**
+     * SCHEDULER: Saves an approved opportunity again on its open date, so listeners such as the
+     * notification router see it enter its application window.
+     *
+     * @param opp opportunity to check
+     * @param today current date
+     * @return {@code true} if the opportunity is approved and open today
+     */
+    public boolean markOpened(InternshipOpportunity opp, LocalDate today) {
+        long start = MARK_OPENED.start();
+        try {
+            Objects.requireNonNull(opp, "Opportunity required");
+            boolean opened = locks.write(() -> {
+                if (opp.getStatus() != OpportunityStatus.APPROVED) return false;
+                if (opp.getOpenDate() == null || opp.getOpenDate().isAfter(today)) return false;
+                if (opp.getCloseDate() != null && opp.getCloseDate().isBefore(today)) return false;
+                opportunityRepository.save(opp);
+                return true;
+            }, opp.getId());
+            if (opened) {
+                LOG.info("opened", "opportunity", opp.getId(), "openDate", opp.getOpenDate());
+            }
+            return opened;
+        } finally {
+            MARK_OPENED.stop(start);
+        }
     }
 
+    // ===== Helper Methods =====
+
     /** Apply user-supplied filters. Null filter = accept all. */
     private boolean filterMatch(InternshipOpportunity o, OpportunityFilter f) {
         if (f == null) return true;
@@ -247,35 +493,35 @@ public class OpportunityService {
         return true;
     }
 
-    /** Default alphabetical sort if filter is null or no sortKey set. */
+    /** Default alphabetical sort if filter is null or no sortKey set; ties go by id, as in pages. */
     private List<InternshipOpportunity> applySort(List<InternshipOpportunity> list, OpportunityFilter f) {
-    OpportunityFilter.SortKey key = (f == null ? OpportunityFilter.SortKey.TITLE_ASC : f.getSortKey());
-    Comparator<InternshipOpportunity> c;
-
-    switch (key) {
-        case CLOSING_DATE_ASC -> c = Comparator.comparing(
-                InternshipOpportunity::getCloseDate,
-                Comparator.nullsLast(Comparator.naturalOrder())
-        );
-        case COMPANY_ASC -> c = Comparator.comparing(
-                InternshipOpportunity::getCompanyName,
-                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)
-        );
-        case LEVEL_ASC -> c = Comparator.comparing(
-                InternshipOpportunity::getLevel,
-                Comparator.nullsLast(Comparator.naturalOrder())
-        );
-        case TITLE_ASC -> c = Comparator.comparing(
-                InternshipOpportunity::getTitle,
-                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)
-        );
-        default -> c = Comparator.comparing(
-                InternshipOpportunity::getTitle,
-                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)
-        );
+        list.sort(OpportunityOrder.of(sortKey(f)));
+        return list;
+    }
+
+    private static SortKey sortKey(OpportunityFilter f) {
+        return f == null ? SortKey.TITLE_ASC : f.getSortKey();
+    }
+
+    /** One page of a listing. */
+    public static final class Page {
+        private final List<InternshipOpportunity> items;
+        private final String nextCursor;
+
+        Page(List<InternshipOpportunity> items, String nextCursor) {
+            this.items = Collections.unmodifiableList(items);
+            this.nextCursor = nextCursor;
+        }
+
+        /** @return rows of this page, in listing order */
+        public List<InternshipOpportunity> getItems() {
+            return items;
+        }
+
+        /** @return opaque cursor for the next page, or {@code null} if this is the last page */
+        public String getNextCursor() {
+            return nextCursor;
+        }
     }
-    list.sort(c);
-    return list;
-}
 
 }
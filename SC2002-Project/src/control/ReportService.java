@@ -11,6 +11,9 @@ import entity.domain.ReportFilter;
 import entity.domain.InternshipOpportunity;
 import repositories.ApplicationRepository;
 import repositories.OpportunityRepository;
+import util.Events;
+import util.Metrics;
+import util.StripedLocks;
 
 
 /**
@@ -19,6 +22,8 @@ import repositories.OpportunityRepository;
 public class ReportService {
     private final OpportunityRepository opportunityRepository;
     private final ApplicationRepository applicationRepository;
+    private final StripedLocks locks = StripedLocks.shared();
+    private static final Metrics.Timer GENERATE = Metrics.timer("ReportService.generate");
 
     /**
      * Constructs a ReportService object for Career Center Staffs to generate reports
@@ -41,21 +46,29 @@ public class ReportService {
      * @return generated {@link Report}
      */
     public Report generate(ReportFilter filter) {
-        // 1) Fetch opportunities (approved/visible + filter)
-        List<InternshipOpportunity> opps =
-                opportunityRepository.findApprovedVisibleByFilter(filter);
+        long start = GENERATE.start();
+        Events.ReportGenerate event = new Events.ReportGenerate();
+        event.begin();
+        try {
+            // 1) Fetch opportunities (approved/visible + filter)
+            List<InternshipOpportunity> opps =
+                    opportunityRepository.findApprovedVisibleByFilter(filter);
 
-        // 2) Build rows
-        List<ReportRow> rows = new ArrayList<>();
-        for (InternshipOpportunity opp : opps) {
-            rows.add(buildRow(opp));
-        }
+            // 2) Build rows
+            List<ReportRow> rows = new ArrayList<>();
+            for (InternshipOpportunity opp : opps) {
+                rows.add(buildRow(opp));
+            }
 
-        // 3) Assemble report
-        Report report = new Report();
-        report.setGeneratedAt(LocalDateTime.now());
-        report.setRows(rows);
-        return report;
+            // 3) Assemble report
+            Report report = new Report();
+            report.setGeneratedAt(LocalDateTime.now());
+            report.setRows(rows);
+            event.complete(filter == null ? "none" : filter.toString(), rows.size());
+            return report;
+        } finally {
+            GENERATE.stop(start);
+        }
     }
 
     /**
@@ -67,20 +80,24 @@ public class ReportService {
     private ReportRow buildRow(InternshipOpportunity opp) {
         int totalApps = applicationRepository.findByOpportunity(opp).size();
         int filledSlots = applicationRepository.countSuccessfulByOpportunity(opp);
-        int remaining = Math.max(0, opp.getSlots()); // repo tracks remaining slots
-        int totalSlots = filledSlots + remaining;
 
-        ReportRow row = new ReportRow();
-        row.setOpportunityId(opp.getId());
-        row.setTitle(opp.getTitle());
-        row.setCompanyName(opp.getCompanyName());
-        row.setLevel(opp.getLevel());                     // InternshipLevel
-        row.setStatus(opp.getStatus());                   // OpportunityStatus
-        row.setPreferredMajor(opp.getPreferredMajor());
-        row.setTotalApplications(totalApps);
-        row.setFilledSlots(filledSlots);
-        row.setRemainingSlots(remaining);
-        row.setTotalSlots(totalSlots);
-        return row;
+        // Copy the opportunity's fields under one optimistic read so slots and status agree.
+        return locks.read(opp.getId(), () -> {
+            int remaining = Math.max(0, opp.getSlots()); // repo tracks remaining slots
+            int totalSlots = filledSlots + remaining;
+
+            ReportRow row = new ReportRow();
+            row.setOpportunityId(opp.getId());
+            row.setTitle(opp.getTitle());
+            row.setCompanyName(opp.getCompanyName());
+            row.setLevel(opp.getLevel());                     // InternshipLevel
+            row.setStatus(opp.getStatus());                   // OpportunityStatus
+            row.setPreferredMajor(opp.getPreferredMajor());
+            row.setTotalApplications(totalApps);
+            row.setFilledSlots(filledSlots);
+            row.setRemainingSlots(remaining);
+            row.setTotalSlots(totalSlots);
+            return row;
+        });
     }
 }
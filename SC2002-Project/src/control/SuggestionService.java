@@ -0,0 +1,118 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import repositories.OpportunityRepository;
+import repositories.UserRepository;
+import util.Metrics;
+import util.PersistentTrie;
+
+/**
+ * Suggests company names and majors as they are typed.
+ * <p>
+ * Names that start with what was typed come first, alphabetically. If fewer than the limit match,
+ * the rest are filled with names that start with something a few typos away: none for up to three
+ * characters, since almost anything is that close to a short prefix, one for up to six and two
+ * beyond. Majors come from both opportunities and students, merged case-insensitively.
+ * </p>
+ */
+public class SuggestionService {
+    private final OpportunityRepository opportunityRepository;
+    private final UserRepository userRepository;
+
+    // ===== Metrics =====
+    private static final Metrics.Timer SUGGEST_COMPANIES = Metrics.sampledTimer("SuggestionService.suggestCompanies", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer SUGGEST_MAJORS = Metrics.sampledTimer("SuggestionService.suggestMajors", Metrics.HOT_PATH_SAMPLING);
+
+    /**
+     * @param opportunityRepository source of company names and preferred majors
+     * @param userRepository source of student majors
+     */
+    public SuggestionService(OpportunityRepository opportunityRepository, UserRepository userRepository) {
+        this.opportunityRepository = Objects.requireNonNull(opportunityRepository, "OpportunityRepository required");
+        this.userRepository = Objects.requireNonNull(userRepository, "UserRepository required");
+    }
+
+    /**
+     * @param typed what has been typed so far
+     * @param limit maximum number of suggestions
+     * @return company names, closest first
+     */
+    public List<String> suggestCompanies(String typed, int limit) {
+        long start = SUGGEST_COMPANIES.start();
+        try {
+            return suggest(typed, limit, opportunityRepository.companyNames());
+        } finally {
+            SUGGEST_COMPANIES.stop(start);
+        }
+    }
+
+    /**
+     * @param typed what has been typed so far
+     * @param limit maximum number of suggestions
+     * @return majors, closest first
+     */
+    public List<String> suggestMajors(String typed, int limit) {
+        long start = SUGGEST_MAJORS.start();
+        try {
+            return suggest(typed, limit, opportunityRepository.preferredMajors(), userRepository.studentMajors());
+        } finally {
+            SUGGEST_MAJORS.stop(start);
+        }
+    }
+
+    /**
+     * Resolves a typed company name to the stored spelling, if exactly that name exists.
+     *
+     * @param typed name as typed
+     * @return stored spelling, or {@code null} if there is no such company
+     */
+    public String findCompany(String typed) {
+        return opportunityRepository.companyNames().find(typed);
+    }
+
+    /**
+     * Resolves a typed major to the stored spelling, if exactly that major exists.
+     *
+     * @param typed major as typed
+     * @return stored spelling, or {@code null} if no opportunity or student has that major
+     */
+    public String findMajor(String typed) {
+        String major = opportunityRepository.preferredMajors().find(typed);
+        return major != null ? major : userRepository.studentMajors().find(typed);
+    }
+
+    private static List<String> suggest(String typed, int limit, PersistentTrie... tries) {
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive.");
+        String prefix = typed == null ? "" : typed.trim();
+        // Keyed case-insensitively; the first spelling seen wins.
+        Map<String, String> merged = new LinkedHashMap<>();
+        List<String> prefixed = new ArrayList<>();
+        for (PersistentTrie trie : tries) prefixed.addAll(trie.startingWith(prefix, limit));
+        prefixed.sort(String.CASE_INSENSITIVE_ORDER);
+        addAll(merged, prefixed, limit);
+
+        int maxEdits = prefix.length() <= 3 ? 0 : prefix.length() <= 6 ? 1 : 2;
+        if (merged.size() < limit && maxEdits > 0) {
+            for (int d = 1; d <= maxEdits && merged.size() < limit; d++) {
+                List<String> near = new ArrayList<>();
+                for (PersistentTrie trie : tries) near.addAll(trie.near(prefix, d, limit + merged.size()));
+                near.sort(String.CASE_INSENSITIVE_ORDER);
+                addAll(merged, near, limit);
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static void addAll(Map<String, String> merged, List<String> names, int limit) {
+        for (String name : names) {
+            if (merged.size() == limit) return;
+            merged.putIfAbsent(name.toLowerCase(Locale.ROOT), name);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import entity.domain.enums.RequestStatus;
 import repositories.UserRepository;
 import repositories.RequestRepository;
 import util.FileImporter;
+import util.Metrics;
 
 /**
  * UserService handles user retrieval, company-rep registration workflow,
@@ -28,6 +29,13 @@ public class UserService {
 	private final UserRepository userRepository;
 	private final RequestRepository requestRepository;
 	private final FileImporter fileImporter;
+
+	// ===== Metrics =====
+	private static final Metrics.Timer GET_USER_BY_ID = Metrics.sampledTimer("UserService.getUserById", Metrics.HOT_PATH_SAMPLING);
+	private static final Metrics.Timer REGISTER_COMPANY_REP = Metrics.timer("UserService.registerCompanyRep");
+	private static final Metrics.Timer APPROVE_COMPANY_REP = Metrics.timer("UserService.approveCompanyRep");
+	private static final Metrics.Timer REJECT_COMPANY_REP = Metrics.timer("UserService.rejectCompanyRep");
+	private static final Metrics.Timer LOAD_USERS_FROM_FILE = Metrics.timer("UserService.loadUsersFromFile");
 	
 	// ===== Constructor =====
 	
@@ -48,10 +56,15 @@ public class UserService {
      * @return matching {@link User} or null if none exists
      */
 	public User getUserById(String id) {
-		if (id == null || id.isEmpty()) {
-			return null;
-		}
-		return userRepository.findById(id);
+		long start = GET_USER_BY_ID.start();
+		try {
+			if (id == null || id.isEmpty()) {
+				return null;
+			}
+			return userRepository.findById(id);
+		} finally {
+			GET_USER_BY_ID.stop(start);
+		}
 	}
 	
 	/**
@@ -62,36 +75,45 @@ public class UserService {
      * @return the created registration request
      */
 	 public RegistrationRequest registerCompanyRep(CompanyRepresentative rep) {
-	        Objects.requireNonNull(rep, "rep required");
-
-	        // ensure reps start unapproved
-	        rep.setApproved(RequestStatus.PENDING);
-	        userRepository.save(rep);
-
-	        RegistrationRequest req = new RegistrationRequest();
-	        req.setRep(rep);
-	        req.setStatus(RequestStatus.PENDING);
-	        req.setRequestedAt(LocalDateTime.now());
-	        requestRepository.save(req);
-
-	        return req;
-	    }
+	 	long start = REGISTER_COMPANY_REP.start();
+	 	try {
+		        Objects.requireNonNull(rep, "rep required");
+
+		        // ensure reps start unapproved
+		        rep.setApproved(RequestStatus.PENDING);
+		        userRepository.save(rep);
+
+		        RegistrationRequest req = new RegistrationRequest();
+		        req.setRep(rep);
+		        req.setStatus(RequestStatus.PENDING);
+		        req.setRequestedAt(LocalDateTime.now());
+		        requestRepository.save(req);
+
+		        return req;
+	 	} finally {
+	 		REGISTER_COMPANY_REP.stop(start);
+	 	}
+	 }
 
 	 /** Approves a pending Company Rep request and marks the rep as approved.
 	  *
 	  * @param req the registration request to approve
 	  */
 	 public void approveCompanyRep(RegistrationRequest req) {
-		 Objects.requireNonNull(req, "request required");
-		 CompanyRepresentative rep = Objects.requireNonNull(req.getRep(),"request missing rep");
-		 
-		 
-		 req.setStatus(RequestStatus.APPROVED);
-		 requestRepository.save(req);
-		 
-		 rep.setApproved(RequestStatus.APPROVED);
-		 userRepository.save(rep);
-		 
+	 	long start = APPROVE_COMPANY_REP.start();
+	 	try {
+			 Objects.requireNonNull(req, "request required");
+			 CompanyRepresentative rep = Objects.requireNonNull(req.getRep(),"request missing rep");
+
+
+			 req.setStatus(RequestStatus.APPROVED);
+			 requestRepository.save(req);
+
+			 rep.setApproved(RequestStatus.APPROVED);
+			 userRepository.save(rep);
+	 	} finally {
+	 		APPROVE_COMPANY_REP.stop(start);
+	 	}
 	 }
 	 
 	 /* Rejects a Company Rep Registration request (rep remains unapproved).
@@ -99,11 +121,15 @@ public class UserService {
 	  * @param req the registration request to reject
 	  */
 	 public void rejectCompanyRep(RegistrationRequest req) {
-		 Objects.requireNonNull(req, "Request Required");
-		 req.setStatus(RequestStatus.REJECTED);
-		 requestRepository.save(req);
-		 //rep stays unapproved; no further action needed
-		 
+	 	long start = REJECT_COMPANY_REP.start();
+	 	try {
+			 Objects.requireNonNull(req, "Request Required");
+			 req.setStatus(RequestStatus.REJECTED);
+			 requestRepository.save(req);
+			 //rep stays unapproved; no further action needed
+	 	} finally {
+	 		REJECT_COMPANY_REP.stop(start);
+	 	}
 	 }
 	 /**
 	  * Loads users from a file. This delegates to FileImporter to parse the file,
@@ -116,23 +142,28 @@ public class UserService {
 	  */
 	    
 	  public void loadUsersFromFile(File file) {
-		  Objects.requireNonNull(file, "file required");
-		  
-		  // Import students
-		  List<Student> students = fileImporter.importStudents(file);
-		  if (students != null) {
-			  for (entity.domain.Student s : students) {
-				  userRepository.save(s);
-			  }
-		  }
-		  
-		  // Import staff
-		  List<CareerCenterStaff> staff = fileImporter.importStaff(file);
-		  if (staff != null) {
-			  for (CareerCenterStaff st : staff) {
-				  userRepository.save(st);
+	  	long start = LOAD_USERS_FROM_FILE.start();
+	  	try {
+			  Objects.requireNonNull(file, "file required");
+
+			  // Import students
+			  List<Student> students = fileImporter.importStudents(file);
+			  if (students != null) {
+				  for (entity.domain.Student s : students) {
+					  userRepository.save(s);
+				  }
 			  }
-		  }
+
+			  // Import staff
+			  List<CareerCenterStaff> staff = fileImporter.importStaff(file);
+			  if (staff != null) {
+				  for (CareerCenterStaff st : staff) {
+					  userRepository.save(st);
+				  }
+			  }
+	  	} finally {
+	  		LOAD_USERS_FROM_FILE.stop(start);
+	  	}
 	  }
 	 
 }
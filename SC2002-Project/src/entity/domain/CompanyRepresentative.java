@@ -30,8 +30,22 @@ public class CompanyRepresentative extends User{
      */
     public CompanyRepresentative(String userId, String username, String password,
             String companyName, String department, String position) {
-		super(userId, username);
+		this(userId, username, companyName, department, position);
         super.setPassword(password);
+    }
+
+    /**
+     * Constructs a Company Representative without a password, for callers that set a
+     * stored hash afterwards and so should not pay for hashing a placeholder.
+     * @param userId Company email
+     * @param username Name of Representative
+     * @param companyName Company Name
+     * @param department Department (ex. Sales)
+     * @param position Position (ex. HR)
+     */
+    public CompanyRepresentative(String userId, String username,
+            String companyName, String department, String position) {
+		super(userId, username);
 		this.companyName = companyName;
 		this.department = department;
 		this.position = position;
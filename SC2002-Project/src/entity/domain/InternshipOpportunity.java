@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import entity.domain.enums.InternshipLevel;
 import entity.domain.enums.OpportunityStatus;
@@ -24,7 +25,8 @@ public class InternshipOpportunity {
     private OpportunityStatus status;
     private String companyName;
     private CompanyRepresentative repInCharge;
-    private int slots;
+    // Remaining slots, packed as (free << 32 | reserved) so both halves change in one CAS.
+    private final AtomicLong slotState = new AtomicLong();
     private boolean visibility;
     private final List<Application> applications = new ArrayList<>();
     private LocalDateTime lastUpdated;
@@ -44,7 +46,7 @@ public class InternshipOpportunity {
         this.preferredMajor = preferredMajor;
         this.companyName = companyName;
         this.repInCharge = repInCharge;
-        this.slots = slots;
+        setSlots(slots);
         this.status = OpportunityStatus.PENDING;
         this.visibility = false;
         this.openDate = LocalDate.now();
@@ -138,13 +140,99 @@ public class InternshipOpportunity {
         this.repInCharge = repInCharge;
     }
 
+    /**
+     * @return slots not yet confirmed as taken (free plus currently reserved)
+     */
     public int getSlots() {
-        return slots;
+        long state = slotState.get();
+        return free(state) + reserved(state);
     }
 
+    /**
+     * Sets the number of remaining slots. Outstanding reservations keep their slots.
+     *
+     * @param slots remaining slots, including any that are currently reserved
+     * @throws IllegalArgumentException if {@code slots} is negative
+     * @throws IllegalStateException if {@code slots} is below the number of reserved slots
+     */
     public void setSlots(int slots) {
         if (slots < 0) throw new IllegalArgumentException("Slots cannot be negative.");
-        this.slots = slots;
+        while (true) {
+            long state = slotState.get();
+            int reserved = reserved(state);
+            if (slots < reserved) {
+                throw new IllegalStateException("Cannot set slots below the " + reserved + " currently reserved.");
+            }
+            if (slotState.compareAndSet(state, pack(slots - reserved, reserved))) return;
+        }
+    }
+
+    /**
+     * Atomically takes one free slot and holds it until {@link #confirmSlot()} or
+     * {@link #releaseSlot()}. When several students race for the last slot exactly one
+     * reservation succeeds; the others see {@code false} immediately.
+     *
+     * @return {@code true} if a slot was reserved
+     */
+    public boolean reserveSlot() {
+        while (true) {
+            long state = slotState.get();
+            int free = free(state);
+            if (free <= 0) return false;
+            if (slotState.compareAndSet(state, pack(free - 1, reserved(state) + 1))) return true;
+        }
+    }
+
+    /**
+     * Turns a reservation into a taken slot.
+     *
+     * @return slots still remaining afterwards
+     * @throws IllegalStateException if no reservation is outstanding
+     */
+    public int confirmSlot() {
+        while (true) {
+            long state = slotState.get();
+            int reserved = reserved(state);
+            if (reserved <= 0) throw new IllegalStateException("No reserved slot to confirm.");
+            long next = pack(free(state), reserved - 1);
+            if (slotState.compareAndSet(state, next)) return free(next) + reserved(next);
+        }
+    }
+
+    /**
+     * Gives a reserved slot back without taking it.
+     *
+     * @throws IllegalStateException if no reservation is outstanding
+     */
+    public void releaseSlot() {
+        while (true) {
+            long state = slotState.get();
+            int reserved = reserved(state);
+            if (reserved <= 0) throw new IllegalStateException("No reserved slot to release.");
+            if (slotState.compareAndSet(state, pack(free(state) + 1, reserved - 1))) return;
+        }
+    }
+
+    /**
+     * Returns a previously taken slot, e.g. after an approved withdrawal.
+     *
+     * @return slots remaining afterwards
+     */
+    public int returnSlot() {
+        long state = slotState.addAndGet(1L << 32);
+        return free(state) + reserved(state);
+    }
+
+    private static long pack(int free, int reserved) {
+        return ((long) free << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int free(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
     }
 
     public boolean isVisibility() {
@@ -193,24 +281,24 @@ public class InternshipOpportunity {
      */
     public boolean isOpenFor(Student student) {
         Objects.requireNonNull(student, "Student required");
-        LocalDate now = LocalDate.now();
+        // Cheapest checks first; the date window and major comparison only run for candidates.
+        if (status != OpportunityStatus.APPROVED || !visibility) return false;
+        if (student.getYear() < 3 && level != InternshipLevel.BASIC) return false;
 
-        boolean withinDate = (now.isAfter(openDate) || now.isEqual(openDate)) &&
-                             (now.isBefore(closeDate) || now.isEqual(closeDate));
+        LocalDate now = LocalDate.now();
+        if (now.isBefore(openDate) || now.isAfter(closeDate)) return false;
 
-        boolean approvedAndVisible = (status == OpportunityStatus.APPROVED && visibility);
-        boolean eligibleByYear = (student.getYear() >= 3) || (level == InternshipLevel.BASIC);
-        String studentMajor = student.getMajor() == null ? "" : student.getMajor().trim();
         String preferred = this.getPreferredMajor() == null ? "" : this.getPreferredMajor().trim();
-        boolean eligibleByMajor = preferred.isEmpty() || studentMajor.equalsIgnoreCase(preferred);
-        return withinDate && approvedAndVisible && eligibleByYear && eligibleByMajor;
+        if (preferred.isEmpty()) return true;
+        String studentMajor = student.getMajor() == null ? "" : student.getMajor().trim();
+        return studentMajor.equalsIgnoreCase(preferred);
     }
 
     /**
      * Updates the status to FILLED if all slots are taken.
      */
     public void updateStatusIfFilled() {
-        if (slots <= 0 && status == OpportunityStatus.APPROVED) {
+        if (getSlots() <= 0 && status == OpportunityStatus.APPROVED) {
             status = OpportunityStatus.FILLED;
             System.out.println("Opportunity " + title + " is now FILLED.");
         }
@@ -219,7 +307,7 @@ public class InternshipOpportunity {
     @Override
     public String toString() {
         return String.format("InternshipOpportunity[%s, %s, %s, Level: %s, Status: %s, Slots: %d]",
-                id, title, companyName, level, status, slots);
+                id, title, companyName, level, status, getSlots());
     }
 
     @Override
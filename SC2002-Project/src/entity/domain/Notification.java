@@ -0,0 +1,51 @@
+package entity.domain;
+
+import java.util.Objects;
+
+import entity.domain.enums.NotificationType;
+
+/**
+ * One item in a user's notification inbox.
+ * Immutable: it only names what happened and which entity it concerns; the text shown to the
+ * user is built from the entity's current state when the inbox is read.
+ */
+public final class Notification {
+
+    // ===== Attributes =====
+    private final long sequence;
+    private final NotificationType type;
+    private final String ref;
+
+    // ===== Constructors =====
+    /**
+     * @param sequence position in the global delivery order; later notifications have larger numbers
+     * @param type what happened
+     * @param ref id of the entity concerned
+     */
+    public Notification(long sequence, NotificationType type, String ref) {
+        this.sequence = sequence;
+        this.type = Objects.requireNonNull(type, "Type required");
+        this.ref = Objects.requireNonNull(ref, "Reference required");
+    }
+
+    // ===== Getters =====
+    /** @return delivery sequence number */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /** @return notification kind */
+    public NotificationType getType() {
+        return type;
+    }
+
+    /** @return id of the opportunity, application, withdrawal or representative concerned */
+    public String getRef() {
+        return ref;
+    }
+
+    @Override
+    public String toString() {
+        return sequence + ":" + type + ":" + ref;
+    }
+}
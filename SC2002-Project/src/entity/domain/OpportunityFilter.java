@@ -9,7 +9,7 @@ import entity.domain.enums.OpportunityStatus;
  * Any null/empty field is treated as "no filter".
  */
 public class OpportunityFilter implements OpportunityFilterCriteria{
-    private OpportunityStatus status;     // PENDING/APPROVED/REJECTED/FILLED
+    private OpportunityStatus status;     // PENDING/APPROVED/REJECTED/FILLED/CLOSED
     private String preferredMajor;        // exact match or null for any
     private InternshipLevel level;        // BASIC/INTERMEDIATE/ADVANCED
     private LocalDate closingBefore;      // show opps with closeDate <= this
@@ -23,7 +23,6 @@ public abstract class User {
         this.userName = userName;
         this.password = "password";
         this.isLoggedIn = false;
-        this.lastNotifCheck = LocalDateTime.now();
     }
 
     /**
@@ -83,8 +82,8 @@ public abstract class User {
         this.isLoggedIn = isLoggedIn;
     }
     /**
-     * Retrieves the last time notification was retrieved
-     * @return
+     * Retrieves the last time the user read their notifications, as persisted in their inbox
+     * @return read time, or null if they have never read any
      */
     public LocalDateTime getLastNotifCheck() {
         return lastNotifCheck;
@@ -0,0 +1,25 @@
+package entity.domain.enums;
+
+/**
+ * Kinds of inbox notification, each naming the entity its reference points at.
+ */
+public enum NotificationType {
+    /** An opportunity the student is eligible for was approved and made visible (opportunity id). */
+    NEW_OPPORTUNITY,
+    /** The status of one of the student's applications changed (application id). */
+    APPLICATION_UPDATE,
+    /** One of the student's withdrawal requests was decided (withdrawal id). */
+    WITHDRAWAL_UPDATE,
+    /** A new opportunity awaits staff approval (opportunity id). */
+    OPPORTUNITY_SUBMITTED,
+    /** A company representative awaits registration approval (representative id). */
+    REGISTRATION_PENDING,
+    /** A student asked to withdraw and staff must decide (withdrawal id). */
+    WITHDRAWAL_PENDING,
+    /** A student applied to one of the company's opportunities (application id). */
+    NEW_APPLICATION,
+    /** One of the company's opportunities was approved, rejected or filled (opportunity id). */
+    OPPORTUNITY_STATUS,
+    /** A student is withdrawing from one of the company's opportunities (withdrawal id). */
+    APPLICATION_WITHDRAWAL
+}
@@ -11,5 +11,7 @@ public enum OpportunityStatus {
     /** Rejected by staff. */
     REJECTED,
     /** All slots taken, opportunity no longer accepting applications. */
-    FILLED
+    FILLED,
+    /** Close date passed while still approved; set automatically, no longer accepting applications. */
+    CLOSED
 }
@@ -0,0 +1,32 @@
+package main;
+
+import boundary.HttpApi;
+import util.ThreadPools;
+
+/**
+ * Bootstraps the system and serves the HTTP/JSON API instead of the console UI.
+ * Usage: {@code java main.ApiServer [port]} (default 8080).
+ */
+public class ApiServer {
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+
+        AppContext ctx = new AppContext();
+        HttpApi api = new HttpApi(
+                ctx.getAuthService(),
+                ctx.getOpportunityService(),
+                ctx.getApplicationService(),
+                ctx.getReportService(),
+                ctx.getSuggestionService(),
+                ctx.getUserRepository(),
+                ctx.getOpportunityRepository(),
+                ctx.getApplicationRepository(),
+                ctx.getRequestRepository(),
+                ctx.getChangeIndex(),
+                ctx.getIdGenerator());
+        api.start(port);
+
+        System.out.println("API listening on port " + port
+                + (ThreadPools.virtualThreadsAvailable() ? " (virtual threads)" : " (platform thread pool)"));
+    }
+}
@@ -0,0 +1,225 @@
+package main;
+
+import java.io.File;
+import java.io.FileWriter;
+
+import boundary.AuthUI;
+import boundary.ConsoleUI;
+import boundary.UIFactory;
+import control.ApplicationService;
+import control.AuthService;
+import control.LifecycleScheduler;
+import control.NotificationRouter;
+import control.OpportunityService;
+import control.ReportService;
+import control.SuggestionService;
+import control.UserService;
+import repositories.ApplicationRepository;
+import repositories.ChangeIndex;
+import repositories.InboxRepository;
+import repositories.OpportunityRepository;
+import repositories.RequestRepository;
+import repositories.UserRepository;
+import util.FileImporter;
+import util.IdGenerator;
+import util.InputHelper;
+import util.Log;
+import util.Metrics;
+import util.Validator;
+
+/**
+ * Wires one set of repositories and services and loads the CSV data into them.
+ * Every front end in the JVM (console, console server, HTTP API) shares the same context, so they all
+ * see the same in-memory state.
+ */
+public class AppContext {
+
+    private static final Log.Logger LOG = Log.get(AppContext.class);
+
+    // ===== Repositories =====
+    private final IdGenerator idGenerator = new IdGenerator();
+    private final UserRepository userRepository = new UserRepository();
+    private final OpportunityRepository opportunityRepository;
+    private final ApplicationRepository applicationRepository;
+    private final RequestRepository requestRepository;
+    private final InboxRepository inboxRepository;
+    private final ChangeIndex changeIndex = new ChangeIndex(ChangeIndex.DEFAULT_CAPACITY);
+
+    // ===== Services =====
+    private final Validator validator = new Validator();
+    private final FileImporter importer;
+    private final AuthService authService;
+    private final UserService userService;
+    private final OpportunityService opportunityService;
+    private final ApplicationService applicationService;
+    private final ReportService reportService;
+    private final SuggestionService suggestionService;
+    private final NotificationRouter notificationRouter;
+    private final LifecycleScheduler lifecycleScheduler;
+
+    /**
+     * Builds the context and imports the user lists and persisted data under {@code data/}.
+     */
+    public AppContext() {
+        opportunityRepository = new OpportunityRepository("data/opportunities.csv", userRepository, idGenerator);
+        applicationRepository = new ApplicationRepository("data/applications.csv", userRepository, opportunityRepository);
+        requestRepository = new RequestRepository("data/withdrawals.csv", applicationRepository, userRepository);
+        inboxRepository = new InboxRepository("data/inbox.csv");
+        importer = new FileImporter(userRepository);
+
+        authService = new AuthService(userRepository);
+        userService = new UserService(userRepository, requestRepository, importer);
+        opportunityService = new OpportunityService(opportunityRepository, validator);
+        applicationService = new ApplicationService(applicationRepository, opportunityRepository, validator);
+        reportService = new ReportService(opportunityRepository, applicationRepository);
+        suggestionService = new SuggestionService(opportunityRepository, userRepository);
+        notificationRouter = new NotificationRouter(userRepository, inboxRepository);
+        lifecycleScheduler = new LifecycleScheduler(opportunityService, applicationService, opportunityRepository, requestRepository);
+
+        loadData();
+        // Only changes made from now on notify anyone.
+        notificationRouter.attach(opportunityRepository, applicationRepository, requestRepository);
+        changeIndex.attach();
+        lifecycleScheduler.start();
+        registerGauges();
+        ManagementBeans.register(this);
+    }
+
+    // ===== Optional: load CSVs if present at project root or /data =====
+    private void loadData() {
+        try {
+            File dataDir = new File("data");
+            if (!dataDir.exists()) dataDir.mkdirs();
+            File s = new File("sample_student_list.csv");
+            File st = new File("sample_staff_list.csv");
+            File cr = new File("data/sample_company_representative_list.csv");
+
+            if (!s.exists()) s = new File("data/sample_student_list.csv");
+            if (!st.exists()) st = new File("data/sample_staff_list.csv");
+            if (!cr.exists()) {
+                cr.createNewFile();
+                try (FileWriter w = new FileWriter(cr)) {
+                    w.write("CompanyRepID,Name,CompanyName,Department,Position,Email,Status");
+                }
+            }
+
+            if (s.exists()) importer.importStudents(s);
+            if (st.exists()) importer.importStaff(st);
+            if (cr.exists()) importer.importCompanyReps(cr, requestRepository);
+            opportunityRepository.reloadFromDisk();
+            applicationRepository.reloadFromDisk();
+            requestRepository.reloadFromDisk();
+
+        } catch (Exception e) {
+            LOG.warn("csvImportFailed", "error", e.getMessage());
+        }
+    }
+
+    private void registerGauges() {
+        Metrics.gauge("OpportunityRepository.size", () -> opportunityRepository.findAll().size());
+        Metrics.gauge("ApplicationRepository.size", () -> applicationRepository.findAll().size());
+        Metrics.gauge("RequestRepository.withdrawals", () -> requestRepository.findAllWithdrawals().size());
+        Metrics.gauge("RequestRepository.pendingRegistrations", () -> requestRepository.findPendingRepRegistrations().size());
+    }
+
+    /**
+     * Builds a console session (login menu and per-role UIs) over this context's services.
+     * Each interactive user needs their own session, since it holds their input stream.
+     *
+     * @param input the session's input helper
+     * @return console UI ready to {@code start()}
+     */
+    public ConsoleUI createConsoleUI(InputHelper input) {
+        UIFactory uiFactory = new UIFactory(
+                applicationService,
+                opportunityService,
+                userService,
+                reportService,
+                suggestionService,
+                authService,
+                applicationRepository,
+                opportunityRepository,
+                requestRepository,
+                input,
+                idGenerator,
+                importer,
+                userRepository
+            );
+
+        // Auth UI (Handles Login/Register)
+        AuthUI authUI = new AuthUI(
+                authService,
+                userRepository,
+                requestRepository,
+                applicationRepository,
+                opportunityRepository,
+                inboxRepository,
+                validator,
+                importer,
+                input
+            );
+
+        return new ConsoleUI(authUI, uiFactory, input);
+    }
+
+    // ===== Getters =====
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    public UserRepository getUserRepository() {
+        return userRepository;
+    }
+
+    public OpportunityRepository getOpportunityRepository() {
+        return opportunityRepository;
+    }
+
+    public ApplicationRepository getApplicationRepository() {
+        return applicationRepository;
+    }
+
+    public RequestRepository getRequestRepository() {
+        return requestRepository;
+    }
+
+    public InboxRepository getInboxRepository() {
+        return inboxRepository;
+    }
+
+    public ChangeIndex getChangeIndex() {
+        return changeIndex;
+    }
+
+    public Validator getValidator() {
+        return validator;
+    }
+
+    public FileImporter getImporter() {
+        return importer;
+    }
+
+    public AuthService getAuthService() {
+        return authService;
+    }
+
+    public UserService getUserService() {
+        return userService;
+    }
+
+    public OpportunityService getOpportunityService() {
+        return opportunityService;
+    }
+
+    public ApplicationService getApplicationService() {
+        return applicationService;
+    }
+
+    public ReportService getReportService() {
+        return reportService;
+    }
+
+    public SuggestionService getSuggestionService() {
+        return suggestionService;
+    }
+}
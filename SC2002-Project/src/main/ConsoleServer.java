@@ -0,0 +1,68 @@
+package main;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import util.DataReloader;
+import util.InputHelper;
+import util.Metrics;
+import util.SessionConsole;
+import util.ThreadPools;
+
+/**
+ * Serves the console UI over TCP, one session per connection, from a single JVM.
+ * All sessions share one {@link AppContext}, so the CSV files are parsed once and every
+ * user works against the same repositories. Since that in-memory state is authoritative, the
+ * console UIs' per-action reloads from disk are switched off. Connect with e.g. {@code nc host 2323}.
+ * Usage: {@code java main.ConsoleServer [port]} (default 2323).
+ */
+public class ConsoleServer {
+    private static final AtomicInteger ACTIVE_SESSIONS = new AtomicInteger();
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 2323;
+
+        AppContext ctx = new AppContext();
+        DataReloader.setEnabled(false);
+        SessionConsole.install();
+        ExecutorService sessions = ThreadPools.perTaskExecutor("console-session");
+        Metrics.gauge("ConsoleServer.sessions", ACTIVE_SESSIONS::get);
+
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("Console server listening on port " + port
+                    + (ThreadPools.virtualThreadsAvailable() ? " (virtual threads)" : " (platform thread pool)"));
+            while (true) {
+                Socket socket = server.accept();
+                sessions.execute(() -> runSession(ctx, socket));
+            }
+        }
+    }
+
+    /** Runs one interactive session until the user exits or disconnects. */
+    private static void runSession(AppContext ctx, Socket socket) {
+        String peer = String.valueOf(socket.getRemoteSocketAddress());
+        System.out.println("Session opened: " + peer);
+        ACTIVE_SESSIONS.incrementAndGet();
+        try (socket;
+             Scanner in = new Scanner(socket.getInputStream(), StandardCharsets.UTF_8);
+             PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            SessionConsole.bind(out);
+            ctx.createConsoleUI(new InputHelper(in)).start();
+        } catch (NoSuchElementException e) {
+            // Client closed the connection mid-prompt.
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Session " + peer + " failed: " + e.getMessage());
+        } finally {
+            SessionConsole.unbind();
+            ACTIVE_SESSIONS.decrementAndGet();
+        }
+        System.out.println("Session closed: " + peer);
+    }
+}
@@ -0,0 +1,237 @@
+package main;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import repositories.ApplicationRepository;
+import repositories.OpportunityRepository;
+import repositories.RequestRepository;
+import util.LatencyHistogram;
+import util.Log;
+import util.Metrics;
+
+/**
+ * Registers the JMX beans that let operators watch and poke a running instance with
+ * jconsole, VisualVM or {@code jcmd}, without parsing logs.
+ * Registering again (e.g. a second {@link AppContext} in the same JVM) replaces the earlier beans.
+ */
+final class ManagementBeans {
+
+    static final String DOMAIN = "sc2002";
+    private static final Log.Logger LOG = Log.get(ManagementBeans.class);
+
+    private ManagementBeans() {
+    }
+
+    /**
+     * Registers one {@link RepositoryMXBean} per CSV-backed repository and the {@link ServiceMXBean}.
+     *
+     * @param ctx context whose repositories are exposed
+     */
+    static void register(AppContext ctx) {
+        OpportunityRepository opps = ctx.getOpportunityRepository();
+        ApplicationRepository apps = ctx.getApplicationRepository();
+        RequestRepository reqs = ctx.getRequestRepository();
+        List<Repository> repositories = List.of(
+                new Repository("OpportunityRepository", "opportunities",
+                        () -> opps.findAll().size(), opps::tombstones, opps::reloadFromDisk, opps::compact),
+                new Repository("ApplicationRepository", "applications",
+                        () -> apps.findAll().size(), apps::tombstones, apps::reloadFromDisk, apps::compact),
+                new Repository("RequestRepository", "withdrawals",
+                        () -> reqs.findAllWithdrawals().size(), reqs::tombstones, reqs::reloadFromDisk, reqs::compact));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Repository r : repositories) {
+                replace(server, new ObjectName(DOMAIN + ":type=Repository,name=" + r.name), r);
+            }
+            replace(server, new ObjectName(DOMAIN + ":type=Services"), new Services(ctx, repositories));
+        } catch (JMException e) {
+            LOG.error("jmxRegistrationFailed", "error", e.getMessage());
+        }
+    }
+
+    private static void replace(MBeanServer server, ObjectName name, Object bean) throws JMException {
+        if (server.isRegistered(name)) server.unregisterMBean(name);
+        server.registerMBean(bean, name);
+    }
+
+    private static double millis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // ===== Beans =====
+
+    private static final class Repository implements RepositoryMXBean {
+        private final String name;
+        private final String csvName;
+        private final IntSupplier count;
+        private final IntSupplier tombstones;
+        private final Runnable reload;
+        private final IntSupplier compact;
+
+        Repository(String name, String csvName, IntSupplier count, IntSupplier tombstones,
+                   Runnable reload, IntSupplier compact) {
+            this.name = name;
+            this.csvName = csvName;
+            this.count = count;
+            this.tombstones = tombstones;
+            this.reload = reload;
+            this.compact = compact;
+        }
+
+        @Override
+        public int getEntityCount() {
+            return count.getAsInt();
+        }
+
+        @Override
+        public int getTombstones() {
+            return tombstones.getAsInt();
+        }
+
+        @Override
+        public long getReloadCount() {
+            return Metrics.timer(name + ".reloadFromDisk").count();
+        }
+
+        @Override
+        public double getReloadMeanMillis() {
+            return millis(Metrics.timer(name + ".reloadFromDisk").histogram().mean());
+        }
+
+        @Override
+        public double getReloadMaxMillis() {
+            return millis(Metrics.timer(name + ".reloadFromDisk").histogram().max());
+        }
+
+        @Override
+        public long getPersistCount() {
+            return Metrics.timer(name + ".persist").count();
+        }
+
+        @Override
+        public double getPersistMeanMillis() {
+            return millis(Metrics.timer(name + ".persist").histogram().mean());
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return Metrics.counter("csv." + csvName + ".bytesWritten").get();
+        }
+
+        @Override
+        public long getBytesRead() {
+            return Metrics.counter("csv." + csvName + ".bytesRead").get();
+        }
+
+        @Override
+        public void reload() {
+            reload.run();
+        }
+
+        @Override
+        public int compact() {
+            return compact.getAsInt();
+        }
+    }
+
+    private static final class Services implements ServiceMXBean {
+        private final AppContext ctx;
+        private final List<Repository> repositories;
+
+        Services(AppContext ctx, List<Repository> repositories) {
+            this.ctx = ctx;
+            this.repositories = repositories;
+        }
+
+        @Override
+        public int getUserCount() {
+            return ctx.getUserRepository().count();
+        }
+
+        @Override
+        public long getPasswordHashCount() {
+            return Metrics.timer("PasswordHasher.hashPassword").count();
+        }
+
+        @Override
+        public double getPasswordHashMillis() {
+            return totalMillis(Metrics.timer("PasswordHasher.hashPassword"));
+        }
+
+        @Override
+        public long getPasswordVerifyCount() {
+            return Metrics.timer("PasswordHasher.verifyPassword").count();
+        }
+
+        @Override
+        public double getPasswordVerifyMillis() {
+            return totalMillis(Metrics.timer("PasswordHasher.verifyPassword"));
+        }
+
+        @Override
+        public long getActiveSessions() {
+            return gauge("HttpApi.sessions") + gauge("ConsoleServer.sessions");
+        }
+
+        @Override
+        public long getWriterQueueDepth() {
+            return gauge("RepositoryWriter.queueDepth");
+        }
+
+        @Override
+        public Map<String, Double> getCacheHitRatios() {
+            return Metrics.hitRatios();
+        }
+
+        @Override
+        public boolean isMetricsEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setMetricsEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public String metricsReport() {
+            return Metrics.report();
+        }
+
+        @Override
+        public void resetMetrics() {
+            Metrics.reset();
+        }
+
+        @Override
+        public void reloadAll() {
+            // Same order as start-up: applications resolve opportunities, withdrawals resolve applications.
+            repositories.forEach(Repository::reload);
+        }
+
+        @Override
+        public int compactAll() {
+            int reclaimed = ctx.getUserRepository().compact();
+            for (Repository r : repositories) reclaimed += r.compact();
+            return reclaimed;
+        }
+
+        private static double totalMillis(Metrics.Timer timer) {
+            LatencyHistogram h = timer.histogram();
+            return millis(h.mean() * timer.count());
+        }
+
+        private static long gauge(String name) {
+            Long value = Metrics.gaugeValue(name);
+            return value == null ? 0 : value;
+        }
+    }
+}
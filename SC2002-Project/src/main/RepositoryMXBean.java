@@ -0,0 +1,46 @@
+package main;
+
+/**
+ * Management view of one CSV-backed repository, registered as
+ * {@code sc2002:type=Repository,name=<Repository>}.
+ * Timings and byte counts come from {@link util.Metrics} and stay at zero while metrics are disabled.
+ */
+public interface RepositoryMXBean {
+
+    /** @return number of stored entities */
+    int getEntityCount();
+
+    /** @return deleted slots not yet reclaimed by {@link #compact()} */
+    int getTombstones();
+
+    /** @return number of reloads from disk since start-up (or the last metrics reset) */
+    long getReloadCount();
+
+    /** @return mean reload time in milliseconds */
+    double getReloadMeanMillis();
+
+    /** @return slowest reload in milliseconds */
+    double getReloadMaxMillis();
+
+    /** @return number of times the CSV file was rewritten */
+    long getPersistCount();
+
+    /** @return mean persist time in milliseconds */
+    double getPersistMeanMillis();
+
+    /** @return total bytes written to the CSV file */
+    long getBytesWritten();
+
+    /** @return total bytes read from the CSV file */
+    long getBytesRead();
+
+    /** Reloads the repository from its CSV file, writing pending changes first. */
+    void reload();
+
+    /**
+     * Drops the slots left behind by deletions.
+     *
+     * @return number of slots reclaimed
+     */
+    int compact();
+}
@@ -0,0 +1,57 @@
+package main;
+
+import java.util.Map;
+
+/**
+ * Management view of the services shared by every front end, registered as
+ * {@code sc2002:type=Services}.
+ * Timings come from {@link util.Metrics} and stay at zero while metrics are disabled.
+ */
+public interface ServiceMXBean {
+
+    /** @return number of registered users of every role */
+    int getUserCount();
+
+    /** @return passwords hashed with BCrypt */
+    long getPasswordHashCount();
+
+    /** @return total time spent hashing passwords, in milliseconds */
+    double getPasswordHashMillis();
+
+    /** @return passwords checked against a BCrypt hash */
+    long getPasswordVerifyCount();
+
+    /** @return total time spent checking passwords, in milliseconds */
+    double getPasswordVerifyMillis();
+
+    /** @return logged-in HTTP API tokens plus connected console server sessions */
+    long getActiveSessions();
+
+    /** @return mutations waiting for the repository writer */
+    long getWriterQueueDepth();
+
+    /** @return hit ratio in [0, 1] of each cache that has been used */
+    Map<String, Double> getCacheHitRatios();
+
+    /** @return whether metrics are being recorded */
+    boolean isMetricsEnabled();
+
+    /** @param enabled whether metrics should be recorded */
+    void setMetricsEnabled(boolean enabled);
+
+    /** @return table of every timer, counter and gauge */
+    String metricsReport();
+
+    /** Zeroes every counter and timer. */
+    void resetMetrics();
+
+    /** Reloads every repository from disk, writing pending changes first. */
+    void reloadAll();
+
+    /**
+     * Compacts every repository.
+     *
+     * @return total number of slots reclaimed
+     */
+    int compactAll();
+}
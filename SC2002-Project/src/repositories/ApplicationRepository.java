@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 
 import entity.domain.Application;
@@ -15,20 +16,40 @@ import entity.domain.Student;
 import entity.domain.InternshipOpportunity;
 import entity.domain.enums.ApplicationStatus;
 import entity.domain.User;
+import util.Events;
+import util.Log;
+import util.Metrics;
+import util.Tracer;
 
 /**
  * Stores and retrieves Application entities.
  * Acts as an in-memory data access layer for the Applications by Students.
+ * Mutations go through the shared {@link RepositoryWriter}; queries read the latest published snapshot.
  */
 public class ApplicationRepository {
 
     //Storage
-    private final List<Application> applications = new ArrayList<>();
+    private final RepositoryWriter writer = RepositoryWriter.shared();
+    private final RepositoryWriter.Persistable disk = this::persist;
+    private volatile Snapshot<Application> applications = Snapshot.empty(Application::getId);
     private final String storagePath;
     private final UserRepository userRepository;
     private final OpportunityRepository opportunityRepository;
     private static final String HEADER = "Id,StudentId,OpportunityId,Status,AppliedAt,WithdrawalRequested";
 
+    // ===== Logging =====
+    private static final Log.Logger LOG = Log.get(ApplicationRepository.class);
+
+    // ===== Metrics =====
+    private static final Metrics.Timer FIND_BY_STUDENT = Metrics.sampledTimer("ApplicationRepository.findByStudent", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_BY_OPPORTUNITY = Metrics.sampledTimer("ApplicationRepository.findByOpportunity", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer COUNT_SUCCESSFUL = Metrics.sampledTimer("ApplicationRepository.countSuccessfulByOpportunity", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_BY_ID = Metrics.sampledTimer("ApplicationRepository.findById", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_ALL = Metrics.sampledTimer("ApplicationRepository.findAll", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer RELOAD = Metrics.timer("ApplicationRepository.reloadFromDisk");
+    private static final Metrics.Timer PERSIST = Metrics.timer("ApplicationRepository.persist");
+    private static final Metrics.Timer SAVE = Metrics.timer("ApplicationRepository.save");
+
     public ApplicationRepository() {
         this.storagePath = null;
         this.userRepository = null;
@@ -39,7 +60,7 @@ public class ApplicationRepository {
         this.storagePath = storagePath;
         this.userRepository = userRepository;
         this.opportunityRepository = opportunityRepository;
-        loadFromDisk();
+        reloadFromDisk();
     }
 
     //CRUD-like Operations
@@ -50,13 +71,17 @@ public class ApplicationRepository {
      * @param app Application to be saved
      */
     public void save(Application app) {
-        Objects.requireNonNull(app, "Application required");
-        Application existing = findById(app.getId());
-        if (existing != null) {
-            applications.remove(existing);
+        long start = SAVE.start();
+        try {
+            Objects.requireNonNull(app, "Application required");
+            writer.submit(() -> {
+                applications = applications.upsert(app);
+                writer.publish(this, app, false);
+                return null;
+            }, disk);
+        } finally {
+            SAVE.stop(start);
         }
-        applications.add(app);
-        persist();
     }
 
     /**
@@ -65,15 +90,20 @@ public class ApplicationRepository {
      * @return List of student's application
      */
     public List<Application> findByStudent(Student student) {
-        Objects.requireNonNull(student, "Student required");
-        reloadFromDisk();
-        List<Application> res = new ArrayList<>();
-        for (Application app : applications) {
-            if (app.getStudent().equals(student)) {
-                res.add(app);
+        long start = FIND_BY_STUDENT.start();
+        try {
+            Tracer.rows(applications.size());
+            Objects.requireNonNull(student, "Student required");
+            List<Application> res = new ArrayList<>();
+            for (Application app : applications) {
+                if (app.getStudent().equals(student)) {
+                    res.add(app);
+                }
             }
+            return res;
+        } finally {
+            FIND_BY_STUDENT.stop(start);
         }
-        return res;
     }
 
     /**
@@ -82,15 +112,20 @@ public class ApplicationRepository {
      * @return List of all application by internship listed
      */
     public List<Application> findByOpportunity(InternshipOpportunity opp) {
-        Objects.requireNonNull(opp, "Opportunity required");
-        reloadFromDisk();
-        List<Application> res = new ArrayList<>();
-        for (Application app : applications) {
-            if (app.getOpportunity().equals(opp)) {
-                res.add(app);
+        long start = FIND_BY_OPPORTUNITY.start();
+        try {
+            Tracer.rows(applications.size());
+            Objects.requireNonNull(opp, "Opportunity required");
+            List<Application> res = new ArrayList<>();
+            for (Application app : applications) {
+                if (app.getOpportunity().equals(opp)) {
+                    res.add(app);
+                }
             }
+            return res;
+        } finally {
+            FIND_BY_OPPORTUNITY.stop(start);
         }
-        return res;
     }
 
     /**
@@ -99,16 +134,21 @@ public class ApplicationRepository {
      * @return Count of SUCCESSFULL applications for an internship
      */
     public int countSuccessfulByOpportunity(InternshipOpportunity opp) {
-        Objects.requireNonNull(opp, "Opportunity required");
-        reloadFromDisk();
-        int count = 0;
-        for (Application app : applications) {
-            if (app.getOpportunity().equals(opp)
-                && (app.getStatus() == ApplicationStatus.SUCCESSFUL || app.getStatus() == ApplicationStatus.ACCEPTED)) {
-                count++;
+        long start = COUNT_SUCCESSFUL.start();
+        try {
+            Tracer.rows(applications.size());
+            Objects.requireNonNull(opp, "Opportunity required");
+            int count = 0;
+            for (Application app : applications) {
+                if (app.getOpportunity().equals(opp)
+                    && (app.getStatus() == ApplicationStatus.SUCCESSFUL || app.getStatus() == ApplicationStatus.ACCEPTED)) {
+                    count++;
+                }
             }
+            return count;
+        } finally {
+            COUNT_SUCCESSFUL.stop(start);
         }
-        return count;
     }
 
     /** 
@@ -116,39 +156,72 @@ public class ApplicationRepository {
      * @param id Application Id
      */
     public Application findById(String id) {
-        if (id == null) return null;
-        reloadFromDisk();
-        for (Application app : applications) {
-            if (id.equalsIgnoreCase(app.getId())) {
-                return app;
-            }
+        long start = FIND_BY_ID.start();
+        try {
+            if (id == null) return null;
+            return applications.byId(id);
+        } finally {
+            FIND_BY_ID.stop(start);
         }
-        return null;
     }
 
     /**
-     * Returns a copy of all applications (for testing/debug) hi 
+     * Returns all applications (for testing/debug).
+     * The result is an immutable snapshot shared with other readers; it is never copied.
      */
     public List<Application> findAll() {
-        reloadFromDisk();
-        return new ArrayList<>(applications);
+        long start = FIND_ALL.start();
+        try {
+            return applications;
+        } finally {
+            FIND_ALL.stop(start);
+        }
     }
 
     /**
      * Clears the repository (for testing or reset)
      */
     public void clear() {
-        applications.clear();
-        persist();
+        writer.submit(() -> {
+            applications = Snapshot.empty(Application::getId);
+            return null;
+        }, disk);
+    }
+
+    /**
+     * Drops the slots left behind by deleted applications.
+     * @return number of slots reclaimed
+     */
+    public int compact() {
+        return writer.submit(() -> {
+            int reclaimed = applications.tombstones();
+            applications = applications.compact();
+            return reclaimed;
+        }, null);
+    }
+
+    /** @return number of deleted slots not yet compacted away */
+    public int tombstones() {
+        return applications.tombstones();
     }
 
     /** Reload applications from disk into memory. */
     public void reloadFromDisk() {
-        loadFromDisk();
+        long start = RELOAD.start();
+        try {
+            writer.submit(() -> {
+                loadFromDisk();
+                return null;
+            }, null);
+            Tracer.rows(applications.size());
+        } finally {
+            RELOAD.stop(start);
+        }
     }
 
     private void loadFromDisk() {
         if (storagePath == null || storagePath.isBlank()) return;
+        writer.flushIfDirty(disk);
         File file = new File(storagePath);
         if (!file.exists()) {
             ensureParent(file);
@@ -156,7 +229,12 @@ public class ApplicationRepository {
         }
 
         List<Application> loaded = new ArrayList<>();
+        // Rows that differ from what this repository held; only those are published as changes.
+        Snapshot<Application> previous = applications;
+        List<Application> changed = writer.hasListeners() ? new ArrayList<>() : null;
         int maxId = 0;
+        Events.CsvLoad event = new Events.CsvLoad();
+        event.begin();
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             boolean header = true;
@@ -189,30 +267,47 @@ public class ApplicationRepository {
                 app.setWithdrawalRequested("true".equalsIgnoreCase(withdrawal) || "1".equals(withdrawal));
 
                 loaded.add(app);
+                if (changed != null) {
+                    Application old = previous.byId(id);
+                    if (old == null || !line.equals(format(old))) changed.add(app);
+                }
                 maxId = Math.max(maxId, numericSuffix(id));
             }
-            applications.clear();
-            applications.addAll(loaded);
+            Metrics.recordCsvRead(file);
+            applications = Snapshot.of(Application::getId, loaded);
+            if (changed != null) {
+                for (Application app : changed) writer.publish(this, app, true);
+            }
+            event.complete(file, loaded.size(), writer.origin(), writer.originAction());
             Application.seedIdCounter(maxId);
         } catch (IOException e) {
-            System.err.println("Failed to load applications: " + e.getMessage());
+            LOG.error("loadFailed", "file", storagePath, "error", e.getMessage());
         }
     }
 
     private void persist() {
-        if (storagePath == null || storagePath.isBlank()) return;
-        File file = new File(storagePath);
-        ensureParent(file);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
-            writer.write(HEADER);
-            writer.newLine();
-            for (Application app : applications) {
-                writer.write(format(app));
+        long start = PERSIST.start();
+        try {
+            if (storagePath == null || storagePath.isBlank()) return;
+            File file = new File(storagePath);
+            ensureParent(file);
+            Events.CsvPersist event = new Events.CsvPersist();
+            event.begin();
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
+                writer.write(HEADER);
                 writer.newLine();
+                for (Application app : applications) {
+                    writer.write(format(app));
+                    writer.newLine();
+                }
+                writer.flush();
+                Metrics.recordCsvWritten(file);
+                event.complete(file, applications.size(), this.writer.origin(), this.writer.originAction());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + storagePath + ": " + e.getMessage(), e);
             }
-            writer.flush();
-        } catch (IOException e) {
-            System.err.println("Failed to persist applications: " + e.getMessage());
+        } finally {
+            PERSIST.stop(start);
         }
     }
 
@@ -0,0 +1,229 @@
+package repositories;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import entity.domain.Application;
+import entity.domain.InternshipOpportunity;
+import entity.domain.RegistrationRequest;
+import entity.domain.WithdrawalRequest;
+import util.Metrics;
+
+/**
+ * Time-ordered index of the changes committed to every repository, for "what changed since"
+ * queries without scanning entity timestamps.
+ * <p>
+ * Registered as a {@link RepositoryWriter.Listener}, the index gives each saved entity (and each
+ * row a reload found changed) the next version number, in commit order, and keeps the most recent
+ * {@code capacity} changes in a ring. Since versions are consecutive, the change with version
+ * {@code v} sits at slot {@code v & mask}, so {@link #changesSince(long)} jumps straight to the
+ * first change a caller has not seen and costs O(k) in the number of changes returned.
+ * {@link #changesAfter(long)} first finds the version for a wall-clock time by binary search.
+ * </p>
+ * <p>
+ * Only the writer thread appends; readers take the published version and read the ring without
+ * locking. A caller that fell more than {@code capacity} changes behind gets an incomplete
+ * {@link Changes} and must fall back to reading everything.
+ * </p>
+ */
+public final class ChangeIndex implements RepositoryWriter.Listener {
+
+    /** Changes kept by default. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Kind of entity a change refers to. */
+    public enum Kind { OPPORTUNITY, APPLICATION, WITHDRAWAL, REGISTRATION }
+
+    private final Change[] ring;
+    private final int mask;
+    /** Version of the newest change; 0 before the first one. */
+    private volatile long version;
+    // Writer thread only: keeps commit times non-decreasing if the clock steps back.
+    private long lastMillis;
+
+    // ===== Metrics =====
+    private static final Metrics.Timer CHANGES_SINCE = Metrics.sampledTimer("ChangeIndex.changesSince", Metrics.HOT_PATH_SAMPLING);
+
+    /**
+     * @param capacity changes to keep; must be a power of two
+     */
+    public ChangeIndex(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two.");
+        }
+        this.ring = new Change[capacity];
+        this.mask = capacity - 1;
+        Metrics.gauge("ChangeIndex.version", () -> version);
+    }
+
+    /** Starts indexing the changes committed through the shared writer from now on. */
+    public void attach() {
+        RepositoryWriter.shared().addListener(this);
+    }
+
+    @Override
+    public void changed(Object entity, boolean fromDisk) {
+        if (entity instanceof InternshipOpportunity opp) {
+            append(Kind.OPPORTUNITY, opp.getId());
+        } else if (entity instanceof Application app) {
+            append(Kind.APPLICATION, app.getId());
+        } else if (entity instanceof WithdrawalRequest req) {
+            append(Kind.WITHDRAWAL, req.getId());
+        } else if (entity instanceof RegistrationRequest req && req.getRep() != null) {
+            // Registration ids change on every import; the representative identifies the request.
+            append(Kind.REGISTRATION, req.getRep().getUserId());
+        }
+    }
+
+    private void append(Kind kind, String id) {
+        if (id == null) return;
+        long next = version + 1;
+        lastMillis = Math.max(lastMillis, System.currentTimeMillis());
+        ring[(int) (next & mask)] = new Change(next, lastMillis, kind, id);
+        version = next;
+    }
+
+    /** @return version of the newest change, 0 if nothing has changed yet */
+    public long currentVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the changes committed after {@code sinceVersion}, oldest first.
+     *
+     * @param sinceVersion last version the caller has seen (0 for everything still held)
+     * @return the changes, and whether any were lost to the ring wrapping around
+     */
+    public Changes changesSince(long sinceVersion) {
+        long start = CHANGES_SINCE.start();
+        try {
+            long to = version;
+            return collect(sinceVersion, to, sinceVersion + 1 >= oldest(to));
+        } finally {
+            CHANGES_SINCE.stop(start);
+        }
+    }
+
+    /**
+     * Returns the changes committed after a point in time, oldest first. The version to start
+     * from is found by binary search over the commit times held in the ring.
+     *
+     * @param sinceMillis epoch milliseconds; changes committed at or before it are left out
+     * @return the changes, and whether older changes that may be newer than {@code sinceMillis} were dropped
+     */
+    public Changes changesAfter(long sinceMillis) {
+        long start = CHANGES_SINCE.start();
+        try {
+            long to = version;
+            long oldest = oldest(to);
+            long lo = oldest;
+            long hi = to;
+            long first = to + 1;
+            while (lo <= hi) {
+                long mid = (lo + hi) >>> 1;
+                Change c = ring[(int) (mid & mask)];
+                if (c == null || c.version != mid || c.committedAtMillis <= sinceMillis) {
+                    lo = mid + 1;
+                } else {
+                    first = mid;
+                    hi = mid - 1;
+                }
+            }
+            // If even the oldest change held is newer, dropped ones may have been too.
+            boolean complete = first > oldest || oldest == 1;
+            return collect(first - 1, to, complete);
+        } finally {
+            CHANGES_SINCE.stop(start);
+        }
+    }
+
+    private long oldest(long to) {
+        return Math.max(1, to - ring.length + 1);
+    }
+
+    private Changes collect(long sinceVersion, long to, boolean complete) {
+        long from = Math.max(sinceVersion + 1, oldest(to));
+        List<Change> out = new ArrayList<>((int) Math.max(0, to - from + 1));
+        for (long v = from; v <= to; v++) {
+            Change c = ring[(int) (v & mask)];
+            if (c == null || c.version != v) {
+                // Overwritten while we were reading: the caller is too far behind.
+                complete = false;
+                continue;
+            }
+            out.add(c);
+        }
+        return new Changes(sinceVersion, to, complete || sinceVersion >= to, out);
+    }
+
+    /** One committed change to one entity. */
+    public static final class Change {
+        private final long version;
+        private final long committedAtMillis;
+        private final Kind kind;
+        private final String id;
+
+        private Change(long version, long committedAtMillis, Kind kind, String id) {
+            this.version = version;
+            this.committedAtMillis = committedAtMillis;
+            this.kind = kind;
+            this.id = id;
+        }
+
+        /** @return position in commit order; consecutive across all repositories */
+        public long getVersion() {
+            return version;
+        }
+
+        /** @return wall-clock commit time in epoch milliseconds */
+        public long getCommittedAtMillis() {
+            return committedAtMillis;
+        }
+
+        /** @return kind of entity that changed */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /** @return id of the entity (the representative's id for registrations) */
+        public String getId() {
+            return id;
+        }
+    }
+
+    /** Result of a "changed since" query. */
+    public static final class Changes {
+        private final long fromVersion;
+        private final long toVersion;
+        private final boolean complete;
+        private final List<Change> changes;
+
+        private Changes(long fromVersion, long toVersion, boolean complete, List<Change> changes) {
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+            this.complete = complete;
+            this.changes = Collections.unmodifiableList(changes);
+        }
+
+        /** @return version the query started after */
+        public long getFromVersion() {
+            return fromVersion;
+        }
+
+        /** @return newest version covered; pass it to the next query */
+        public long getToVersion() {
+            return toVersion;
+        }
+
+        /** @return {@code false} if older changes were dropped and the caller must reload everything */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /** @return the changes, oldest first; an entity changed twice appears twice */
+        public List<Change> getChanges() {
+            return changes;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package repositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import entity.domain.InternshipOpportunity;
+import entity.domain.Student;
+import entity.domain.enums.InternshipLevel;
+import entity.domain.enums.OpportunityStatus;
+import util.Metrics;
+import util.PersistentHashMap;
+
+/**
+ * Sets of the opportunities open to students, kept per year band and major so a student's
+ * listing is a lookup instead of a scan over every opportunity.
+ * <p>
+ * An opportunity is open when it is approved, visible and today lies within its open and close
+ * dates. Each open opportunity sits in the senior band (year 3 and up) and, when BASIC, in the
+ * junior band, under its normalized preferred major or under "any major". A student's set is the
+ * union of their major's bucket and the "any major" bucket of their band, which matches
+ * {@link InternshipOpportunity#isOpenFor(Student)}.
+ * </p>
+ * <p>
+ * The sets are built from the repository on the first lookup, then kept current as a
+ * {@link RepositoryWriter.Listener} of its own repository: a saved opportunity moves between
+ * buckets in O(log n). Open
+ * and close dates are queued by day, and the first lookup on a new day re-evaluates only the
+ * opportunities whose window starts or ends in between. Lookups that find the sets current count
+ * as {@code EligibilityCache.hits}; builds and day changes count as {@code EligibilityCache.misses}.
+ * </p>
+ * Buckets hold ids and are resolved through the repository, so reloaded rows are returned as the
+ * repository's current objects. All updates run on the writer thread; lookups only read.
+ */
+public final class EligibilityCache implements RepositoryWriter.Listener {
+
+    private static final String JUNIOR = "JUNIOR:";
+    private static final String SENIOR = "SENIOR:";
+    private static final String ANY_MAJOR = "*";
+
+    private final RepositoryWriter writer = RepositoryWriter.shared();
+    private final OpportunityRepository opportunityRepository;
+
+    // Opportunity ids by bucket ("SENIOR:COMPUTER SCIENCE", "JUNIOR:*"); published for readers.
+    private volatile PersistentHashMap<String, Snapshot<String>> buckets = PersistentHashMap.empty();
+    // Day the published buckets reflect; null until the first build.
+    private volatile LocalDate today;
+
+    // Writer thread only: the day being applied, the buckets each opportunity sits in, and the
+    // ids to re-evaluate on each day an open or close date is crossed.
+    private LocalDate day;
+    private final Map<String, String[]> placedIn = new HashMap<>();
+    private final TreeMap<LocalDate, Set<String>> transitions = new TreeMap<>();
+
+    // ===== Metrics =====
+    private static final Metrics.Timer OPEN_FOR = Metrics.sampledTimer("EligibilityCache.openFor", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Counter HITS = Metrics.counter("EligibilityCache.hits");
+    private static final Metrics.Counter MISSES = Metrics.counter("EligibilityCache.misses");
+
+    /**
+     * @param opportunityRepository opportunities to index; read on the first lookup
+     */
+    public EligibilityCache(OpportunityRepository opportunityRepository) {
+        this.opportunityRepository = Objects.requireNonNull(opportunityRepository, "OpportunityRepository required");
+    }
+
+    /**
+     * Returns the opportunities open to a student today, in no particular order.
+     *
+     * @param student student to look up
+     * @return open opportunities whose level and preferred major suit the student
+     */
+    public List<InternshipOpportunity> openFor(Student student) {
+        long start = OPEN_FOR.start();
+        try {
+            Objects.requireNonNull(student, "Student required");
+            LocalDate now = LocalDate.now();
+            if (now.equals(today)) {
+                HITS.increment();
+            } else {
+                MISSES.increment();
+                writer.submit(() -> {
+                    advanceTo(now);
+                    return null;
+                }, null);
+            }
+            String band = student.getYear() >= 3 ? SENIOR : JUNIOR;
+            PersistentHashMap<String, Snapshot<String>> current = buckets;
+            Snapshot<String> forMajor = current.get(band + majorKey(student.getMajor()));
+            Snapshot<String> anyMajor = current.get(band + ANY_MAJOR);
+            List<InternshipOpportunity> out = new ArrayList<>((forMajor == null ? 0 : forMajor.size()) + (anyMajor == null ? 0 : anyMajor.size()));
+            resolve(forMajor, out);
+            // A student without a major only matches opportunities open to any major, already added.
+            if (anyMajor != forMajor) resolve(anyMajor, out);
+            return out;
+        } finally {
+            OPEN_FOR.stop(start);
+        }
+    }
+
+    private void resolve(Snapshot<String> ids, List<InternshipOpportunity> out) {
+        if (ids == null) return;
+        for (String id : ids) {
+            InternshipOpportunity opp = opportunityRepository.findById(id);
+            if (opp != null) out.add(opp);
+        }
+    }
+
+    /**
+     * Stops following the repository's changes, so a discarded cache and the objects it indexes
+     * can be collected. The cache must not be used afterwards.
+     */
+    public void close() {
+        writer.submit(() -> {
+            writer.removeListener(this);
+            return null;
+        }, null);
+    }
+
+    @Override
+    public void changed(Object entity, boolean fromDisk) {
+        if (day != null && entity instanceof InternshipOpportunity opp && opp.getId() != null) {
+            place(opp);
+        }
+    }
+
+    // ===== Maintenance (writer thread only) =====
+
+    private void advanceTo(LocalDate now) {
+        if (now.equals(today)) return;
+        if (day == null || now.isBefore(day)) {
+            rebuild(now);
+        } else {
+            day = now;
+            while (!transitions.isEmpty() && !transitions.firstKey().isAfter(now)) {
+                for (String id : transitions.pollFirstEntry().getValue()) {
+                    InternshipOpportunity opp = opportunityRepository.findById(id);
+                    if (opp != null) place(opp);
+                    else unplace(id);
+                }
+            }
+        }
+        today = now;
+    }
+
+    private void rebuild(LocalDate now) {
+        boolean first = day == null;
+        day = now;
+        buckets = PersistentHashMap.empty();
+        placedIn.clear();
+        transitions.clear();
+        for (InternshipOpportunity opp : opportunityRepository.findAll()) {
+            if (opp.getId() != null) place(opp);
+        }
+        // Registered in the same writer task as the build, so no save falls in between.
+        if (first) writer.addListener(this, opportunityRepository);
+    }
+
+    private void place(InternshipOpportunity opp) {
+        String id = opp.getId();
+        unplace(id);
+        if (opp.getStatus() != OpportunityStatus.APPROVED || !opp.isVisibility()) return;
+
+        LocalDate open = opp.getOpenDate();
+        LocalDate close = opp.getCloseDate();
+        if (open != null && open.isAfter(day)) {
+            queue(open, id);
+            return;
+        }
+        if (close != null && close.isBefore(day)) return;
+        if (close != null) queue(close.plusDays(1), id);
+
+        String major = majorKey(opp.getPreferredMajor());
+        String[] keys = opp.getLevel() == InternshipLevel.BASIC
+                ? new String[] { SENIOR + major, JUNIOR + major }
+                : new String[] { SENIOR + major };
+        PersistentHashMap<String, Snapshot<String>> next = buckets;
+        for (String key : keys) {
+            Snapshot<String> ids = next.get(key);
+            if (ids == null) ids = Snapshot.empty(EligibilityCache::self);
+            next = next.put(key, ids.upsert(id));
+        }
+        buckets = next;
+        placedIn.put(id, keys);
+    }
+
+    private void unplace(String id) {
+        String[] keys = placedIn.remove(id);
+        if (keys == null) return;
+        PersistentHashMap<String, Snapshot<String>> next = buckets;
+        for (String key : keys) {
+            Snapshot<String> ids = next.get(key);
+            if (ids == null) continue;
+            ids = ids.without(id);
+            next = ids.isEmpty() ? next.remove(key) : next.put(key, ids);
+        }
+        buckets = next;
+    }
+
+    private void queue(LocalDate on, String id) {
+        transitions.computeIfAbsent(on, d -> new LinkedHashSet<>()).add(id);
+    }
+
+    private static String self(String id) {
+        return id;
+    }
+
+    private static String majorKey(String major) {
+        String trimmed = major == null ? "" : major.trim();
+        return trimmed.isEmpty() ? ANY_MAJOR : trimmed.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,438 @@
+package repositories;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import entity.domain.Notification;
+import entity.domain.enums.NotificationType;
+import util.Events;
+import util.Log;
+import util.Metrics;
+
+/**
+ * Stores each user's notification inbox: the notifications they have not read yet and a read
+ * watermark, the sequence number of the last notification they have seen and when they read it.
+ * <p>
+ * Notifications are delivered as changes are committed (see {@code NotificationRouter}), so
+ * reading an inbox costs O(unread) instead of a scan over every opportunity, application and
+ * request. Read notifications are dropped, and each inbox holds at most {@link #CAPACITY}
+ * unread ones: when it is full the oldest is dropped and counted in {@code InboxRepository.dropped}.
+ * A notification already waiting in the inbox is not added twice.
+ * </p>
+ * <p>
+ * The CSV file has one line per user, {@code UserId,Cursor,Items,ReadAt}, where items are
+ * {@code sequence:TYPE:ref} separated by {@code ;}. Loading only splits off each user id; a
+ * user's line is parsed the first time their inbox is used, normally when they log in, and kept
+ * as it is until then, so start-up cost does not grow with the history of users who stay away.
+ * Mutations go through the shared {@link RepositoryWriter}; reads use the latest published snapshot.
+ * </p>
+ */
+public class InboxRepository {
+
+    /** Unread notifications kept per user. */
+    public static final int CAPACITY = 32;
+
+    private static final String HEADER = "UserId,Cursor,Items,ReadAt";
+    private static final Notification[] NONE = new Notification[0];
+
+    private final RepositoryWriter writer = RepositoryWriter.shared();
+    private final RepositoryWriter.Persistable disk = this::persist;
+    private volatile Snapshot<Inbox> inboxes = Snapshot.empty(Inbox::userId);
+    // CSV lines of users whose inbox has not been used since the load, keyed by their user id.
+    private volatile Snapshot<String> unparsed = Snapshot.empty(InboxRepository::userIdOf);
+    // Only touched on the writer thread.
+    private long lastSequence;
+    private final String storagePath;
+
+    // ===== Logging =====
+    private static final Log.Logger LOG = Log.get(InboxRepository.class);
+
+    // ===== Metrics =====
+    private static final Metrics.Timer DELIVER = Metrics.sampledTimer("InboxRepository.deliver", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer DELIVER_ALL = Metrics.timer("InboxRepository.deliverAll");
+    private static final Metrics.Timer UNREAD = Metrics.sampledTimer("InboxRepository.unread", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer MARK_READ = Metrics.timer("InboxRepository.markRead");
+    private static final Metrics.Timer OPEN = Metrics.timer("InboxRepository.open");
+    private static final Metrics.Timer RELOAD = Metrics.timer("InboxRepository.reloadFromDisk");
+    private static final Metrics.Timer PERSIST = Metrics.timer("InboxRepository.persist");
+    private static final Metrics.Counter DROPPED = Metrics.counter("InboxRepository.dropped");
+
+    /** Creates an inbox store that is never written to disk. */
+    public InboxRepository() {
+        this.storagePath = null;
+    }
+
+    /**
+     * Creates an inbox store backed by a CSV file and loads it.
+     * @param storagePath CSV file holding the inboxes
+     */
+    public InboxRepository(String storagePath) {
+        this.storagePath = storagePath;
+        reloadFromDisk();
+    }
+
+    /**
+     * Adds a notification to a user's inbox. Called from the writer thread the change is
+     * committed on, the notification is persisted in the same batch.
+     *
+     * @param userId recipient
+     * @param type what happened
+     * @param ref id of the entity concerned
+     */
+    public void deliver(String userId, NotificationType type, String ref) {
+        long start = DELIVER.start();
+        try {
+            Objects.requireNonNull(userId, "User ID required");
+            Objects.requireNonNull(type, "Type required");
+            Objects.requireNonNull(ref, "Reference required");
+            writer.submit(() -> {
+                inboxes = put(inboxes, userId, type, ref);
+                return null;
+            }, disk);
+        } finally {
+            DELIVER.stop(start);
+        }
+    }
+
+    /**
+     * Adds the same notification to many inboxes in one writer task, for fan-out to every
+     * student an opportunity has opened up for.
+     *
+     * @param userIds recipients
+     * @param type what happened
+     * @param ref id of the entity concerned
+     */
+    public void deliverAll(Collection<String> userIds, NotificationType type, String ref) {
+        long start = DELIVER_ALL.start();
+        try {
+            Objects.requireNonNull(userIds, "User IDs required");
+            Objects.requireNonNull(type, "Type required");
+            Objects.requireNonNull(ref, "Reference required");
+            if (userIds.isEmpty()) return;
+            writer.submit(() -> {
+                Snapshot<Inbox> next = inboxes;
+                for (String userId : userIds) {
+                    if (userId != null) next = put(next, userId, type, ref);
+                }
+                inboxes = next;
+                return null;
+            }, disk);
+        } finally {
+            DELIVER_ALL.stop(start);
+        }
+    }
+
+    // Writer thread only.
+    private Snapshot<Inbox> put(Snapshot<Inbox> from, String userId, NotificationType type, String ref) {
+        Inbox current = from.byId(userId);
+        if (current == null) current = take(userId);
+        if (current == null) current = new Inbox(userId, 0, null, NONE);
+        if (current.contains(type, ref)) return from;
+        return from.upsert(current.add(new Notification(++lastSequence, type, ref)));
+    }
+
+    /**
+     * @param userId user whose inbox is read
+     * @return unread notifications, oldest first
+     */
+    public List<Notification> unread(String userId) {
+        long start = UNREAD.start();
+        try {
+            Inbox inbox = find(userId);
+            return inbox == null ? List.of() : inbox.items();
+        } finally {
+            UNREAD.stop(start);
+        }
+    }
+
+    /**
+     * Parses a user's stored inbox, if it has not been yet, so later reads find it ready.
+     * Called on login; every other method also works on an inbox that has not been opened.
+     *
+     * @param userId user logging in
+     * @return when the user last read their notifications, {@code null} if never
+     */
+    public LocalDateTime open(String userId) {
+        long start = OPEN.start();
+        try {
+            Objects.requireNonNull(userId, "User ID required");
+            if (unparsed.byId(userId) != null) {
+                writer.submit(() -> {
+                    Inbox loaded = take(userId);
+                    if (loaded != null) inboxes = inboxes.upsert(loaded);
+                    return null;
+                }, null);
+            }
+            return lastRead(userId);
+        } finally {
+            OPEN.stop(start);
+        }
+    }
+
+    /**
+     * Returns a user's unread notifications and moves their cursor past them.
+     *
+     * @param userId user whose inbox is read
+     * @return the notifications that were unread, oldest first
+     */
+    public List<Notification> markRead(String userId) {
+        long start = MARK_READ.start();
+        try {
+            Objects.requireNonNull(userId, "User ID required");
+            if (unread(userId).isEmpty()) return List.of();
+            return writer.submit(() -> {
+                Inbox current = inboxes.byId(userId);
+                if (current == null) current = take(userId);
+                if (current == null || current.items.length == 0) return List.<Notification>of();
+                inboxes = inboxes.upsert(new Inbox(current.userId, current.last().getSequence(), LocalDateTime.now(), NONE));
+                return current.items();
+            }, disk);
+        } finally {
+            MARK_READ.stop(start);
+        }
+    }
+
+    /**
+     * @param userId user to look up
+     * @return sequence number of the last notification the user has read, 0 if none
+     */
+    public long cursor(String userId) {
+        Inbox inbox = find(userId);
+        return inbox == null ? 0 : inbox.cursor;
+    }
+
+    /**
+     * @param userId user to look up
+     * @return when the user's cursor last moved, {@code null} if they have never read a notification
+     */
+    public LocalDateTime lastRead(String userId) {
+        Inbox inbox = find(userId);
+        return inbox == null ? null : inbox.readAt;
+    }
+
+    private Inbox find(String userId) {
+        if (userId == null) return null;
+        Inbox inbox = inboxes.byId(userId);
+        if (inbox != null) return inbox;
+        // Not opened yet: parse without keeping the result; only the writer moves it into the snapshot.
+        String line = unparsed.byId(userId);
+        return line == null ? null : parse(line);
+    }
+
+    // Writer thread only: parses a not-yet-opened inbox and forgets its raw line.
+    private Inbox take(String userId) {
+        String line = unparsed.byId(userId);
+        if (line == null) return null;
+        unparsed = unparsed.without(line);
+        return parse(line);
+    }
+
+    /** Empty every inbox. */
+    public void clear() {
+        writer.submit(() -> {
+            inboxes = Snapshot.empty(Inbox::userId);
+            unparsed = Snapshot.empty(InboxRepository::userIdOf);
+            return null;
+        }, disk);
+    }
+
+    /** Reload inboxes from disk. */
+    public void reloadFromDisk() {
+        long start = RELOAD.start();
+        try {
+            writer.submit(() -> {
+                loadFromDisk();
+                return null;
+            }, null);
+        } finally {
+            RELOAD.stop(start);
+        }
+    }
+
+    private void loadFromDisk() {
+        if (storagePath == null || storagePath.isBlank()) return;
+        writer.flushIfDirty(disk);
+        File file = new File(storagePath);
+        if (!file.exists()) {
+            ensureParent(file);
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        long maxSequence = lastSequence;
+        Events.CsvLoad event = new Events.CsvLoad();
+        event.begin();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            boolean header = true;
+            while ((line = br.readLine()) != null) {
+                if (header) { header = false; continue; }
+                int comma = line.indexOf(',');
+                if (comma <= 0 || line.isBlank()) continue;
+                lines.add(line);
+                maxSequence = Math.max(maxSequence, maxSequence(line, comma));
+            }
+            Metrics.recordCsvRead(file);
+            inboxes = Snapshot.empty(Inbox::userId);
+            unparsed = Snapshot.of(InboxRepository::userIdOf, lines);
+            lastSequence = maxSequence;
+            event.complete(file, lines.size(), writer.origin(), writer.originAction());
+        } catch (IOException e) {
+            LOG.error("loadFailed", "file", storagePath, "error", e.getMessage());
+        }
+    }
+
+    private void persist() {
+        long start = PERSIST.start();
+        try {
+            if (storagePath == null || storagePath.isBlank()) return;
+            File file = new File(storagePath);
+            ensureParent(file);
+            Events.CsvPersist event = new Events.CsvPersist();
+            event.begin();
+            int rows = 0;
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Inbox inbox : inboxes) {
+                    writer.write(format(inbox));
+                    writer.newLine();
+                    rows++;
+                }
+                // Inboxes nobody has opened since the load are written back untouched.
+                for (String line : unparsed) {
+                    writer.write(line);
+                    writer.newLine();
+                    rows++;
+                }
+                writer.flush();
+                Metrics.recordCsvWritten(file);
+                event.complete(file, rows, this.writer.origin(), this.writer.originAction());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + storagePath + ": " + e.getMessage(), e);
+            }
+        } finally {
+            PERSIST.stop(start);
+        }
+    }
+
+    private static String format(Inbox inbox) {
+        StringBuilder sb = new StringBuilder(inbox.userId).append(',').append(inbox.cursor).append(',');
+        for (int i = 0; i < inbox.items.length; i++) {
+            if (i > 0) sb.append(';');
+            sb.append(inbox.items[i]);
+        }
+        sb.append(',');
+        if (inbox.readAt != null) sb.append(inbox.readAt);
+        return sb.toString();
+    }
+
+    private static Inbox parse(String line) {
+        String[] t = line.split(",", -1);
+        long cursor = t.length > 1 ? parseLong(t[1]) : 0;
+        LocalDateTime readAt = null;
+        if (t.length > 3 && !t[3].isBlank()) {
+            try { readAt = LocalDateTime.parse(t[3].trim()); } catch (Exception e) { /* ignore */ }
+        }
+        Inbox inbox = new Inbox(t[0], cursor, readAt, NONE);
+        if (t.length > 2) {
+            for (String item : t[2].split(";")) {
+                Notification n = parseItem(item);
+                if (n != null && n.getSequence() > cursor) inbox = inbox.add(n);
+            }
+        }
+        return inbox;
+    }
+
+    /** Largest sequence number on a line: the cursor or the last item, as items are kept in order. */
+    private static long maxSequence(String line, int comma) {
+        String[] t = line.substring(comma + 1).split(",", -1);
+        long max = parseLong(t[0]);
+        if (t.length > 1 && !t[1].isEmpty()) {
+            String last = t[1].substring(t[1].lastIndexOf(';') + 1);
+            int colon = last.indexOf(':');
+            if (colon > 0) max = Math.max(max, parseLong(last.substring(0, colon)));
+        }
+        return max;
+    }
+
+    private static Notification parseItem(String text) {
+        String[] f = text.split(":", 3);
+        if (f.length < 3 || f[2].isBlank()) return null;
+        try {
+            return new Notification(Long.parseLong(f[0]), NotificationType.valueOf(f[1]), f[2]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String userIdOf(String line) {
+        return line.substring(0, line.indexOf(','));
+    }
+
+    private static long parseLong(String s) {
+        try { return Long.parseLong(s.trim()); } catch (Exception e) { return 0; }
+    }
+
+    private static void ensureParent(File file) {
+        File parent = file.getParentFile();
+        if (parent != null) parent.mkdirs();
+    }
+
+    /** One user's watermark and unread notifications; immutable so snapshots can share it. */
+    private static final class Inbox {
+        private final String userId;
+        private final long cursor;
+        private final LocalDateTime readAt;
+        private final Notification[] items;
+
+        private Inbox(String userId, long cursor, LocalDateTime readAt, Notification[] items) {
+            this.userId = userId;
+            this.cursor = cursor;
+            this.readAt = readAt;
+            this.items = items;
+        }
+
+        private String userId() {
+            return userId;
+        }
+
+        private Notification last() {
+            return items[items.length - 1];
+        }
+
+        private List<Notification> items() {
+            return Collections.unmodifiableList(Arrays.asList(items));
+        }
+
+        private boolean contains(NotificationType type, String ref) {
+            for (Notification n : items) {
+                if (n.getType() == type && n.getRef().equals(ref)) return true;
+            }
+            return false;
+        }
+
+        private Inbox add(Notification n) {
+            Notification[] next;
+            if (items.length < CAPACITY) {
+                next = Arrays.copyOf(items, items.length + 1);
+            } else {
+                DROPPED.increment();
+                next = Arrays.copyOfRange(items, 1, items.length + 1);
+            }
+            next[next.length - 1] = n;
+            return new Inbox(userId, cursor, readAt, next);
+        }
+    }
+}
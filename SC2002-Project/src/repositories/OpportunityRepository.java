@@ -2,35 +2,96 @@ package repositories;
 
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 
 import entity.domain.CompanyRepresentative;
+import entity.domain.DateRange;
 import entity.domain.InternshipOpportunity;
 import entity.domain.ReportFilter;
 import entity.domain.enums.OpportunityStatus;
 import entity.domain.enums.InternshipLevel;
 import util.IdGenerator;
+import util.Events;
+import util.Log;
+import util.Metrics;
+import util.PersistentIntervalTree;
+import util.PersistentTrie;
+import util.Tracer;
 import entity.domain.User;
 
 /**
  * Stores and retrieves InternshipOpportunity entities.
  * Acts as an in-memory data access layer for all the listed Interns.
+ * Mutations go through the shared {@link RepositoryWriter}; queries read the latest published snapshot.
+ * <p>
+ * Opportunities with both dates set are also kept in an interval tree over their
+ * {@code [openDate, closeDate]} window and in one over their close date, so "open on", "closing
+ * on or before" and "overlapping a range" queries cost O(log n + k).
+ * </p>
+ * <p>
+ * Titles and descriptions are kept in a {@link SearchIndex} for ranked keyword and phrase search.
+ * It is built on the first search, so deployments that never search do not pay for it, and from
+ * then on is updated with every save, delete and reload.
+ * </p>
+ * <p>
+ * Distinct company names and preferred majors are kept in {@link PersistentTrie}s for
+ * autocomplete. Each opportunity holds one count on its values, and a save only touches the tries
+ * when one of the two actually changed; a reload applies all changed rows as one batch.
+ * </p>
  */
 public class OpportunityRepository {
-	private final List<InternshipOpportunity> opportunities = new ArrayList<>();
+    private final RepositoryWriter writer = RepositoryWriter.shared();
+    private final RepositoryWriter.Persistable disk = this::persist;
+	private volatile Snapshot<InternshipOpportunity> opportunities = Snapshot.empty(InternshipOpportunity::getId);
+    // Date indexes, in epoch days; replaced on the writer thread together with the snapshot.
+    private volatile PersistentIntervalTree<InternshipOpportunity> windows = PersistentIntervalTree.empty();
+    private volatile PersistentIntervalTree<InternshipOpportunity> closings = PersistentIntervalTree.empty();
+    // Null until the first search.
+    private volatile SearchIndex searchIndex;
+    private volatile PersistentTrie companyNames = PersistentTrie.empty();
+    private volatile PersistentTrie preferredMajors = PersistentTrie.empty();
+    // Writer thread only: the {company, major} each opportunity was counted under, since entities
+    // are edited in place and the old values are gone by the time they are saved.
+    private final Map<String, String[]> namesOf = new HashMap<>();
+    // Writer thread only: {company, major} pairs to count in and out at the end of the current write.
+    private final List<String[]> namesIn = new ArrayList<>();
+    private final List<String[]> namesOut = new ArrayList<>();
     private final String storagePath;
     private final UserRepository userRepository;
     private final IdGenerator idGenerator;
     private static final String HEADER = "Id,Title,Description,Level,PreferredMajor,OpenDate,CloseDate,Status,CompanyName,RepEmail,Slots,Visibility";
 
+    // ===== Logging =====
+    private static final Log.Logger LOG = Log.get(OpportunityRepository.class);
+
+    // ===== Metrics =====
+    private static final Metrics.Timer FIND_BY_ID = Metrics.sampledTimer("OpportunityRepository.findById", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_APPROVED_VISIBLE = Metrics.sampledTimer("OpportunityRepository.findApprovedVisibleByFilter", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_BY_COMPANY = Metrics.sampledTimer("OpportunityRepository.findByCompany", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_ALL = Metrics.sampledTimer("OpportunityRepository.findAll", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_OPEN_ON = Metrics.sampledTimer("OpportunityRepository.findOpenOn", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_CLOSING_BEFORE = Metrics.sampledTimer("OpportunityRepository.findClosingBefore", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_OVERLAPPING = Metrics.sampledTimer("OpportunityRepository.findOverlapping", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer SEARCH = Metrics.sampledTimer("OpportunityRepository.search", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_BY_REPRESENTATIVE = Metrics.sampledTimer("OpportunityRepository.findByRepresentative", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer RELOAD = Metrics.timer("OpportunityRepository.reloadFromDisk");
+    private static final Metrics.Timer PERSIST = Metrics.timer("OpportunityRepository.persist");
+    private static final Metrics.Timer SAVE = Metrics.timer("OpportunityRepository.save");
+    private static final Metrics.Timer DELETE = Metrics.timer("OpportunityRepository.delete");
+
     public OpportunityRepository() {
         this.storagePath = null;
         this.userRepository = null;
@@ -41,7 +102,7 @@ public class OpportunityRepository {
         this.storagePath = storagePath;
         this.userRepository = userRepository;
         this.idGenerator = idGenerator;
-        loadFromDisk();
+        reloadFromDisk();
     }
 
 	/**
@@ -50,14 +111,20 @@ public class OpportunityRepository {
      * @param opp InternshipOpportunity
      */
 	public void save(InternshipOpportunity opp) {
-		Objects.requireNonNull(opp, "Opportunity cannot be null");
-		
-		InternshipOpportunity existing = findById(opp.getId());
-		if (existing != null) {
-			opportunities.remove(existing);
+		long start = SAVE.start();
+		try {
+			Objects.requireNonNull(opp, "Opportunity cannot be null");
+			writer.submit(() -> {
+				opportunities = opportunities.upsert(opp);
+				index(opp);
+				flushNames();
+				if (searchIndex != null) searchIndex = searchIndex.put(opp);
+				writer.publish(this, opp, false);
+				return null;
+			}, disk);
+		} finally {
+			SAVE.stop(start);
 		}
-		opportunities.add(opp);
-        persist();
 	}
 	
 	/**
@@ -66,101 +133,214 @@ public class OpportunityRepository {
      * @return InternshipOpportunity if there is one by that Id, null if none
      */
 	public InternshipOpportunity findById(String id) {
-		if (id == null) return null;
-		for (InternshipOpportunity opp: opportunities) {
-			if (opp.getId().equalsIgnoreCase(id)) {
-				return opp;
-			}
+		long start = FIND_BY_ID.start();
+		try {
+			if (id == null) return null;
+			return opportunities.byId(id);
+		} finally {
+			FIND_BY_ID.stop(start);
 		}
-		return null;
 	}
 	
 	/**
-     * Finds all approved and visible opportunities that match the given report filter.
-	 * If filter is null, returns all approved and visible opportunities.
+     * Finds all approved and visible opportunities that match the given report filter, including
+	 * ones the scheduler has since closed, so they stay in reports with their applications.
+	 * If filter is null, returns all approved (or closed) and visible opportunities.
      * @param filter ReportFilter for the filter settings
      * @return List of InternshipOpportunity by the filter
      */
 	public List<InternshipOpportunity> findApprovedVisibleByFilter(ReportFilter filter){
-		List<InternshipOpportunity> result = new ArrayList<>();
-		for (InternshipOpportunity opp: opportunities) {
-			
-			if (opp.getStatus() == OpportunityStatus.APPROVED && opp.isVisibility()) {
-				
-				// If no filter specified, include all approved visible opportunities
-				if (filter == null) {
-					result.add(opp);
-					continue;
-				}
+		long start = FIND_APPROVED_VISIBLE.start();
+		try {
+			// A close-by bound narrows the scan to the opportunities the close-date index returns.
+			List<InternshipOpportunity> candidates = filter != null && filter.getCloseDateBy() != null
+					? closings.overlapping(Long.MIN_VALUE, filter.getCloseDateBy().toEpochDay())
+					: opportunities;
+			Tracer.rows(candidates.size());
+			List<InternshipOpportunity> result = new ArrayList<>();
+			for (InternshipOpportunity opp: candidates) {
 
-                boolean match = true;
-                
-                if (filter.getCompany() != null && !filter.getCompany().isBlank()) {
-                    match &= opp.getCompanyName().equalsIgnoreCase(filter.getCompany());
-                }
-                if (filter.getPreferredMajor() != null && !filter.getPreferredMajor().isBlank()) {
-                    match &= opp.getPreferredMajor().equalsIgnoreCase(filter.getPreferredMajor());
-                }
-                if (filter.getLevel() != null && opp.getLevel() != filter.getLevel()) {
-                    match = false;
-                }
-                if (filter.getStatus() != null && opp.getStatus() != filter.getStatus()) {
-                    match = false;
-                }
+				OpportunityStatus status = opp.getStatus();
+				if ((status == OpportunityStatus.APPROVED || status == OpportunityStatus.CLOSED) && opp.isVisibility()) {
 
-                if (filter.getOpenDateFrom() != null && opp.getOpenDate().isBefore(filter.getOpenDateFrom())) {
-                    match = false;
-                }
-                if (filter.getCloseDateBy() != null && opp.getCloseDate().isAfter(filter.getCloseDateBy())) {
-                    match = false;
-                }
+					// If no filter specified, include all approved visible opportunities
+					if (filter == null) {
+						result.add(opp);
+						continue;
+					}
+
+                    boolean match = true;
 
-                if (match) {
-                    result.add(opp);
+                    if (filter.getCompany() != null && !filter.getCompany().isBlank()) {
+                        match &= opp.getCompanyName().equalsIgnoreCase(filter.getCompany());
+                    }
+                    if (filter.getPreferredMajor() != null && !filter.getPreferredMajor().isBlank()) {
+                        match &= opp.getPreferredMajor().equalsIgnoreCase(filter.getPreferredMajor());
+                    }
+                    if (filter.getLevel() != null && opp.getLevel() != filter.getLevel()) {
+                        match = false;
+                    }
+                    if (filter.getStatus() != null && opp.getStatus() != filter.getStatus()) {
+                        match = false;
+                    }
+
+                    if (filter.getOpenDateFrom() != null && opp.getOpenDate().isBefore(filter.getOpenDateFrom())) {
+                        match = false;
+                    }
+                    if (filter.getCloseDateBy() != null && opp.getCloseDate().isAfter(filter.getCloseDateBy())) {
+                        match = false;
+                    }
+
+                    if (match) {
+                        result.add(opp);
+                    }
                 }
             }
-        }
-        return result;
+            return result;
+		} finally {
+			FIND_APPROVED_VISIBLE.stop(start);
+		}
 	}
 	
+	/**
+     * Finds the opportunities whose window contains a date, as {@link DateRange#contains} would
+     * for {@code [openDate, closeDate]}: opening on or before it and closing on or after it.
+     * Status and visibility are not checked.
+     * @param date day to test
+     * @return matching opportunities ordered by open date; empty if date is null
+     */
+    public List<InternshipOpportunity> findOpenOn(LocalDate date) {
+        long start = FIND_OPEN_ON.start();
+        try {
+            if (date == null) return new ArrayList<>();
+            List<InternshipOpportunity> result = windows.overlapping(date.toEpochDay(), date.toEpochDay());
+            Tracer.rows(result.size());
+            return result;
+        } finally {
+            FIND_OPEN_ON.stop(start);
+        }
+    }
+
+    /**
+     * Finds the opportunities closing on or before a date, the semantics of the
+     * "closing before" filter and of {@code ReportFilter.closeDateBy}.
+     * @param date latest close date, inclusive
+     * @return matching opportunities ordered by close date; empty if date is null
+     */
+    public List<InternshipOpportunity> findClosingBefore(LocalDate date) {
+        long start = FIND_CLOSING_BEFORE.start();
+        try {
+            if (date == null) return new ArrayList<>();
+            List<InternshipOpportunity> result = closings.overlapping(Long.MIN_VALUE, date.toEpochDay());
+            Tracer.rows(result.size());
+            return result;
+        } finally {
+            FIND_CLOSING_BEFORE.stop(start);
+        }
+    }
+
+    /**
+     * Finds the opportunities whose window overlaps a range, as {@link DateRange#overlaps} would:
+     * both ranges must have both ends, and sharing a single day counts.
+     * @param range range to test
+     * @return matching opportunities ordered by open date; empty if the range is open-ended
+     */
+    public List<InternshipOpportunity> findOverlapping(DateRange range) {
+        long start = FIND_OVERLAPPING.start();
+        try {
+            if (range == null || range.getStart() == null || range.getEnd() == null) return new ArrayList<>();
+            List<InternshipOpportunity> result = windows.overlapping(range.getStart().toEpochDay(), range.getEnd().toEpochDay());
+            Tracer.rows(result.size());
+            return result;
+        } finally {
+            FIND_OVERLAPPING.stop(start);
+        }
+    }
+
+    /**
+     * Ranks opportunities by how well their title and description match a query, with BM25.
+     * Words are matched after stemming ("engineers" finds "engineering"); any word may match,
+     * and every {@code "quoted phrase"} must appear as written. Status and visibility are not checked.
+     * @param query words and quoted phrases
+     * @param limit maximum number of results
+     * @param accept optional condition a result must meet; applied before the limit
+     * @return up to {@code limit} matches, best first; empty for a blank query
+     */
+    public List<InternshipOpportunity> search(String query, int limit, Predicate<InternshipOpportunity> accept) {
+        long start = SEARCH.start();
+        try {
+            if (query == null || query.isBlank()) return new ArrayList<>();
+            SearchIndex index = searchIndex;
+            if (index == null) {
+                index = writer.submit(() -> {
+                    if (searchIndex == null) searchIndex = SearchIndex.empty().putAll(opportunities);
+                    return searchIndex;
+                }, null);
+            }
+            List<InternshipOpportunity> result = index.search(query, limit, accept);
+            Tracer.rows(result.size());
+            return result;
+        } finally {
+            SEARCH.stop(start);
+        }
+    }
+
 	/**
      * Returns all opportunities belonging to a given company.
      * @param company String companyName
      * @return List of InternshipOpportunity by the company
      */
     public List<InternshipOpportunity> findByCompany(String company) {
-        List<InternshipOpportunity> result = new ArrayList<>();
-        if (company == null || company.isBlank()) return result;
+        long start = FIND_BY_COMPANY.start();
+        try {
+            Tracer.rows(opportunities.size());
+            List<InternshipOpportunity> result = new ArrayList<>();
+            if (company == null || company.isBlank()) return result;
 
-        for (InternshipOpportunity opp : opportunities) {
-            if (opp.getCompanyName().equalsIgnoreCase(company)) {
-                result.add(opp);
+            for (InternshipOpportunity opp : opportunities) {
+                if (opp.getCompanyName().equalsIgnoreCase(company)) {
+                    result.add(opp);
+                }
             }
+            return result;
+        } finally {
+            FIND_BY_COMPANY.stop(start);
         }
-        return result;
     }
     
     /**
      * Returns all opportunities stored (for testing or reports).
+     * The result is an immutable snapshot shared with other readers; it is never copied.
      */
     public List<InternshipOpportunity> findAll() {
-        return new ArrayList<>(opportunities);
+        long start = FIND_ALL.start();
+        try {
+            return opportunities;
+        } finally {
+            FIND_ALL.stop(start);
+        }
     }
 
     /**
      * Returns all opportunities created by a specific representative.
      */
     public List<InternshipOpportunity> findByRepresentative(CompanyRepresentative rep) {
-        List<InternshipOpportunity> result = new ArrayList<>();
-        if (rep == null) return result;
+        long start = FIND_BY_REPRESENTATIVE.start();
+        try {
+            Tracer.rows(opportunities.size());
+            List<InternshipOpportunity> result = new ArrayList<>();
+            if (rep == null) return result;
 
-        for (InternshipOpportunity opp : opportunities) {
-            CompanyRepresentative creator = opp.getRepInCharge();
-            if (creator != null && creator.getUserId().equalsIgnoreCase(rep.getUserId())) {
-                result.add(opp);
+            for (InternshipOpportunity opp : opportunities) {
+                CompanyRepresentative creator = opp.getRepInCharge();
+                if (creator != null && creator.getUserId().equalsIgnoreCase(rep.getUserId())) {
+                    result.add(opp);
+                }
             }
+            return result;
+        } finally {
+            FIND_BY_REPRESENTATIVE.stop(start);
         }
-        return result;
     }
 
     /**
@@ -168,23 +348,131 @@ public class OpportunityRepository {
      * @return true if the opportunity was removed, false otherwise.
      */
     public boolean delete(InternshipOpportunity opp) {
-        if (opp == null) return false;
-        boolean removed = opportunities.remove(opp);
-        if (removed) persist();
-        return removed;
+        long start = DELETE.start();
+        try {
+            if (opp == null) return false;
+            return writer.submit(() -> {
+                Snapshot<InternshipOpportunity> current = opportunities;
+                Snapshot<InternshipOpportunity> next = current.without(opp);
+                if (next == current) return false;
+                opportunities = next;
+                unindex(opp.getId());
+                flushNames();
+                return true;
+            }, disk);
+        } finally {
+            DELETE.stop(start);
+        }
     }
     
     /**
      * Clears all stored opportunities (used for testing or system reset).
      */
     public void clear() {
-        opportunities.clear();
-        persist();
+        writer.submit(() -> {
+            opportunities = Snapshot.empty(InternshipOpportunity::getId);
+            windows = PersistentIntervalTree.empty();
+            closings = PersistentIntervalTree.empty();
+            if (searchIndex != null) searchIndex = SearchIndex.empty();
+            companyNames = PersistentTrie.empty();
+            preferredMajors = PersistentTrie.empty();
+            namesOf.clear();
+            return null;
+        }, disk);
+    }
+
+    /**
+     * @return distinct company names of stored opportunities, for autocomplete
+     */
+    public PersistentTrie companyNames() {
+        return companyNames;
+    }
+
+    /**
+     * @return distinct preferred majors of stored opportunities, for autocomplete
+     */
+    public PersistentTrie preferredMajors() {
+        return preferredMajors;
+    }
+
+    /**
+     * Drops the slots left behind by deleted opportunities.
+     * @return number of slots reclaimed
+     */
+    public int compact() {
+        return writer.submit(() -> {
+            int reclaimed = opportunities.tombstones();
+            opportunities = opportunities.compact();
+            return reclaimed;
+        }, null);
+    }
+
+    /** @return number of deleted slots not yet compacted away */
+    public int tombstones() {
+        return opportunities.tombstones();
+    }
+
+    // Writer thread only. Opportunities missing a date stay out of the date indexes.
+    private void index(InternshipOpportunity opp) {
+        if (opp.getId() == null) return;
+        String id = opp.getId().toUpperCase(Locale.ROOT);
+        LocalDate open = opp.getOpenDate();
+        LocalDate close = opp.getCloseDate();
+        closings = close == null ? closings.remove(id) : closings.put(id, close.toEpochDay(), close.toEpochDay(), opp);
+        windows = open == null || close == null || close.isBefore(open)
+                ? windows.remove(id)
+                : windows.put(id, open.toEpochDay(), close.toEpochDay(), opp);
+
+        String[] previous = namesOf.get(id);
+        String company = opp.getCompanyName();
+        String major = opp.getPreferredMajor();
+        if (previous != null && Objects.equals(previous[0], company) && Objects.equals(previous[1], major)) return;
+        String[] names = { company, major };
+        if (previous != null) namesOut.add(previous);
+        namesIn.add(names);
+        namesOf.put(id, names);
+    }
+
+    private void unindexNames(String id) {
+        String[] previous = namesOf.remove(id);
+        if (previous != null) namesOut.add(previous);
+    }
+
+    // Publishes the name changes recorded by index and unindex since the last flush.
+    private void flushNames() {
+        if (namesIn.isEmpty() && namesOut.isEmpty()) return;
+        companyNames = companyNames.removeAll(column(namesOut, 0)).addAll(column(namesIn, 0));
+        preferredMajors = preferredMajors.removeAll(column(namesOut, 1)).addAll(column(namesIn, 1));
+        namesIn.clear();
+        namesOut.clear();
+    }
+
+    private static List<String> column(List<String[]> rows, int i) {
+        List<String> out = new ArrayList<>(rows.size());
+        for (String[] row : rows) out.add(row[i]);
+        return out;
+    }
+
+    private void unindex(String id) {
+        if (id == null) return;
+        windows = windows.remove(id.toUpperCase(Locale.ROOT));
+        closings = closings.remove(id.toUpperCase(Locale.ROOT));
+        unindexNames(id.toUpperCase(Locale.ROOT));
+        if (searchIndex != null) searchIndex = searchIndex.remove(id);
     }
 
     /** Reload from disk. */
     public void reloadFromDisk() {
-        loadFromDisk();
+        long start = RELOAD.start();
+        try {
+            writer.submit(() -> {
+                loadFromDisk();
+                return null;
+            }, null);
+            Tracer.rows(opportunities.size());
+        } finally {
+            RELOAD.stop(start);
+        }
     }
 
     private void loadFromDisk() {
@@ -192,6 +480,7 @@ public class OpportunityRepository {
             return;
         }
 
+        writer.flushIfDirty(disk);
         File file = new File(storagePath);
         if (!file.exists()) {
             ensureParent(file);
@@ -199,7 +488,12 @@ public class OpportunityRepository {
         }
 
         List<InternshipOpportunity> loaded = new ArrayList<>();
+        // Rows that differ from what this repository held; only those are published as changes.
+        Snapshot<InternshipOpportunity> previous = opportunities;
+        List<InternshipOpportunity> changed = writer.hasListeners() ? new ArrayList<>() : null;
         int maxId = 0;
+        Events.CsvLoad event = new Events.CsvLoad();
+        event.begin();
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             boolean header = true;
@@ -230,35 +524,91 @@ public class OpportunityRepository {
                     }
                 }
 
+                // A row already held keeps its instance, so its slot counter (and any reservation
+                // on it) stays the one every caller shares.
+                InternshipOpportunity old = previous.byId(t[0]);
+                boolean differs = old == null || !line.equals(formatOpp(old));
+                if (old != null) {
+                    if (differs) merge(old, opp);
+                    opp = old;
+                }
                 loaded.add(opp);
+                if (changed != null && differs) changed.add(opp);
                 maxId = Math.max(maxId, numericSuffix(t[0]));
             }
-            opportunities.clear();
-            opportunities.addAll(loaded);
+            Metrics.recordCsvRead(file);
+            opportunities = Snapshot.of(InternshipOpportunity::getId, loaded);
+            windows = PersistentIntervalTree.empty();
+            closings = PersistentIntervalTree.empty();
+            for (InternshipOpportunity opp : opportunities) index(opp);
+            // Updated rather than rebuilt: rows whose text is unchanged are not re-tokenized.
+            SearchIndex text = searchIndex == null ? null : searchIndex.putAll(opportunities);
+            for (InternshipOpportunity old : previous) {
+                if (old.getId() == null || opportunities.byId(old.getId()) != null) continue;
+                unindexNames(old.getId().toUpperCase(Locale.ROOT));
+                if (text != null) text = text.remove(old.getId());
+            }
+            flushNames();
+            if (text != null) searchIndex = text;
+            if (changed != null) {
+                for (InternshipOpportunity opp : changed) writer.publish(this, opp, true);
+            }
+            event.complete(file, loaded.size(), writer.origin(), writer.originAction());
             if (idGenerator != null) {
                 idGenerator.seedPrefix("O", maxId);
             }
         } catch (IOException e) {
-            System.err.println("Failed to load opportunities: " + e.getMessage());
+            LOG.error("loadFailed", "file", storagePath, "error", e.getMessage());
         }
     }
 
-    private void persist() {
-        if (storagePath == null || storagePath.isBlank()) {
-            return;
+    // Writer thread only. Copies the fields of a row read from disk into the live instance; only
+    // fields that differ are written, and slots go through the CAS so reservations survive.
+    private static void merge(InternshipOpportunity live, InternshipOpportunity row) {
+        if (!Objects.equals(live.getTitle(), row.getTitle())) live.setTitle(row.getTitle());
+        if (!Objects.equals(live.getDescription(), row.getDescription())) live.setDescription(row.getDescription());
+        if (live.getLevel() != row.getLevel()) live.setLevel(row.getLevel());
+        if (!Objects.equals(live.getPreferredMajor(), row.getPreferredMajor())) live.setPreferredMajor(row.getPreferredMajor());
+        if (!Objects.equals(live.getOpenDate(), row.getOpenDate())) live.setOpenDate(row.getOpenDate());
+        if (!Objects.equals(live.getCloseDate(), row.getCloseDate())) live.setCloseDate(row.getCloseDate());
+        if (live.getStatus() != row.getStatus()) live.setStatus(row.getStatus());
+        if (!Objects.equals(live.getCompanyName(), row.getCompanyName())) live.setCompanyName(row.getCompanyName());
+        if (row.getRepInCharge() != null && live.getRepInCharge() != row.getRepInCharge()) live.setRepInCharge(row.getRepInCharge());
+        if (live.isVisibility() != row.isVisibility()) live.setVisibility(row.isVisibility());
+        if (live.getSlots() != row.getSlots()) {
+            try {
+                live.setSlots(row.getSlots());
+            } catch (IllegalStateException e) {
+                LOG.warn("slotsKeptOnReload", "id", live.getId(), "slots", live.getSlots(), "error", e.getMessage());
+            }
         }
-        File file = new File(storagePath);
-        ensureParent(file);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
-            writer.write(HEADER);
-            writer.newLine();
-            for (InternshipOpportunity opp : opportunities) {
-                writer.write(formatOpp(opp));
+    }
+
+    private void persist() {
+        long start = PERSIST.start();
+        try {
+            if (storagePath == null || storagePath.isBlank()) {
+                return;
+            }
+            File file = new File(storagePath);
+            ensureParent(file);
+            Events.CsvPersist event = new Events.CsvPersist();
+            event.begin();
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
+                writer.write(HEADER);
                 writer.newLine();
+                for (InternshipOpportunity opp : opportunities) {
+                    writer.write(formatOpp(opp));
+                    writer.newLine();
+                }
+                writer.flush();
+                Metrics.recordCsvWritten(file);
+                event.complete(file, opportunities.size(), this.writer.origin(), this.writer.originAction());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + storagePath + ": " + e.getMessage(), e);
             }
-            writer.flush();
-        } catch (IOException e) {
-            System.err.println("Failed to persist opportunities: " + e.getMessage());
+        } finally {
+            PERSIST.stop(start);
         }
     }
 
@@ -0,0 +1,295 @@
+package repositories;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import util.Events;
+import util.Log;
+import util.Metrics;
+import util.Tracer;
+
+/**
+ * Single writer shared by all repositories.
+ * <p>
+ * Mutations are enqueued into a bounded ring buffer and applied in order by one dedicated
+ * thread, which is the only thread that ever replaces a repository's state. Repositories
+ * publish each new state as an immutable snapshot, so readers never lock.
+ * Disk writes are batched: every repository touched by a batch of mutations is persisted
+ * once after the whole batch has been applied, and callers are released only after that
+ * write has happened (group commit). If that write fails, every caller whose mutation touched
+ * the repository gets the failure, even though its change stays applied in memory.
+ * </p>
+ * <p>
+ * Repositories also publish every entity they save or load to the registered {@link Listener}s,
+ * on the writer thread and in commit order, so derived state such as notification inboxes can be
+ * updated as changes happen instead of by rescanning.
+ * </p>
+ */
+public final class RepositoryWriter {
+
+    /** Implemented by repositories that write their state to disk. */
+    interface Persistable {
+        /** @throws java.io.UncheckedIOException if the file cannot be written */
+        void persist();
+    }
+
+    /** Receives the entities repositories save or load. */
+    public interface Listener {
+        /**
+         * Called on the writer thread after the entity's repository has published its new state.
+         * Repositories changed from here join the current batch.
+         *
+         * @param entity the saved or loaded entity
+         * @param fromDisk {@code true} when a reload read it back from its CSV file; reloads only
+         *                 publish rows that differ from what the repository held
+         */
+        void changed(Object entity, boolean fromDisk);
+    }
+
+    private static final Log.Logger LOG = Log.get(RepositoryWriter.class);
+    private static final int RING_CAPACITY = 1024;
+    private static final int MAX_BATCH = 256;
+    private static final RepositoryWriter SHARED = new RepositoryWriter(RING_CAPACITY);
+
+    private final BlockingQueue<Task<?>> ring;
+    private final Thread thread;
+    // Only touched by the writer thread: repositories to persist, each with the task whose
+    // mutation first dirtied it, and the task whose work is running right now.
+    private final Map<Persistable, Task<?>> dirty = new LinkedHashMap<>();
+    // Also writer-thread only: repositories whose write failed in the current batch.
+    private final Map<Persistable, RuntimeException> failed = new HashMap<>();
+    private Task<?> current;
+    private final List<Registration> listeners = new CopyOnWriteArrayList<>();
+
+    private RepositoryWriter(int capacity) {
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "repository-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        Metrics.gauge("RepositoryWriter.queueDepth", ring::size);
+    }
+
+    /** @return the writer shared by every repository in this JVM */
+    public static RepositoryWriter shared() {
+        return SHARED;
+    }
+
+    /**
+     * Applies a mutation on the writer thread and waits until it has been applied and,
+     * when {@code owner} is given, persisted.
+     * Calls made from the writer thread itself (e.g. a reload that triggers another lookup)
+     * run inline as part of the current batch.
+     *
+     * @param mutation state change to apply; its return value is handed back to the caller
+     * @param owner repository to persist after the batch, or {@code null} if nothing is written
+     * @return the mutation's result
+     */
+    <T> T submit(Supplier<T> mutation, Persistable owner) {
+        Objects.requireNonNull(mutation, "Mutation required");
+        if (Thread.currentThread() == thread) {
+            T result = mutation.get();
+            if (owner != null) dirty.putIfAbsent(owner, current);
+            return result;
+        }
+
+        Task<T> task = new Task<>(mutation, owner);
+        try {
+            ring.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing repository mutation.", e);
+        }
+        try {
+            return task.done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a repository's pending changes immediately if it was touched earlier in the
+     * current batch. Used before re-reading a file so a reload never sees stale data.
+     * Must only be called on the writer thread.
+     *
+     * @param owner repository about to read its file
+     */
+    void flushIfDirty(Persistable owner) {
+        if (Thread.currentThread() != thread) return;
+        if (dirty.remove(owner) != null) {
+            persist(owner);
+        }
+    }
+
+    /**
+     * Registers a listener for every entity saved or loaded from now on.
+     *
+     * @param listener listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(new Registration(Objects.requireNonNull(listener, "Listener required"), null));
+    }
+
+    /**
+     * Registers a listener for the entities saved or loaded by the given repositories only, so it
+     * never sees another data set's objects.
+     *
+     * @param listener listener to add
+     * @param sources repositories whose entities it receives
+     */
+    public void addListener(Listener listener, Object... sources) {
+        Objects.requireNonNull(listener, "Listener required");
+        if (sources.length == 0) throw new IllegalArgumentException("At least one source required.");
+        Set<Object> from = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object source : sources) from.add(Objects.requireNonNull(source, "Source required"));
+        listeners.add(new Registration(listener, from));
+    }
+
+    /**
+     * Stops delivering to a listener. Entities already being published may still reach it.
+     *
+     * @param listener listener to remove; every registration of it is dropped
+     */
+    public void removeListener(Listener listener) {
+        listeners.removeIf(r -> r.listener == listener);
+    }
+
+    /** @return whether anything listens, so loaders can skip publishing */
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Hands a saved or loaded entity to the listeners. Must only be called on the writer thread,
+     * after the new state has been published. A failing listener is logged and skipped.
+     *
+     * @param source repository that saved or loaded the entity
+     * @param entity entity that changed
+     * @param fromDisk whether it came from a reload
+     */
+    void publish(Object source, Object entity, boolean fromDisk) {
+        for (Registration r : listeners) {
+            if (r.sources != null && !r.sources.contains(source)) continue;
+            try {
+                r.listener.changed(entity, fromDisk);
+            } catch (RuntimeException e) {
+                LOG.error("listenerFailed", "listener", r.listener.getClass().getSimpleName(), "error", e.toString());
+            }
+        }
+    }
+
+    /**
+     * Names the thread that asked for the work the writer is doing right now, so load and
+     * persist events can be traced back to the request that caused them.
+     *
+     * @return that thread's name, or the current thread's when called off the writer thread
+     */
+    String origin() {
+        Thread t = Thread.currentThread() == thread && current != null ? current.origin : Thread.currentThread();
+        return Events.threadName(t);
+    }
+
+    /**
+     * Names the {@link Tracer} action that was open on the origin thread when it asked for the
+     * work the writer is doing right now.
+     *
+     * @return that action's name, or the current thread's when called off the writer thread;
+     *         {@code null} if no action was open
+     */
+    String originAction() {
+        return Thread.currentThread() == thread && current != null ? current.action : Tracer.currentAction();
+    }
+
+    private void run() {
+        List<Task<?>> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(ring.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            ring.drainTo(batch, MAX_BATCH - 1);
+
+            for (Task<?> task : batch) {
+                current = task;
+                task.apply();
+                if (task.owner != null && task.error == null) dirty.putIfAbsent(task.owner, task);
+            }
+            for (Map.Entry<Persistable, Task<?>> entry : dirty.entrySet()) {
+                current = entry.getValue();
+                persist(entry.getKey());
+            }
+            dirty.clear();
+            current = null;
+            for (Task<?> task : batch) {
+                task.complete(task.owner == null ? null : failed.get(task.owner));
+            }
+            failed.clear();
+            batch.clear();
+        }
+    }
+
+    private void persist(Persistable owner) {
+        try {
+            owner.persist();
+        } catch (RuntimeException e) {
+            LOG.error("persistFailed", "error", e.getMessage());
+            failed.putIfAbsent(owner, e);
+        }
+    }
+
+    /** A listener and the repositories it hears from; {@code null} sources means all of them. */
+    private static final class Registration {
+        private final Listener listener;
+        private final Set<Object> sources;
+
+        private Registration(Listener listener, Set<Object> sources) {
+            this.listener = listener;
+            this.sources = sources;
+        }
+    }
+
+    /** A queued mutation together with the future its caller waits on. */
+    private static final class Task<T> {
+        private final Supplier<T> mutation;
+        private final Persistable owner;
+        private final Thread origin = Thread.currentThread();
+        private final String action = Tracer.currentAction();
+        private final CompletableFuture<T> done = new CompletableFuture<>();
+        private T result;
+        private Throwable error;
+
+        private Task(Supplier<T> mutation, Persistable owner) {
+            this.mutation = mutation;
+            this.owner = owner;
+        }
+
+        private void apply() {
+            try {
+                result = mutation.get();
+            } catch (RuntimeException | Error e) {
+                error = e;
+            }
+        }
+
+        private void complete(RuntimeException persistError) {
+            if (error != null) done.completeExceptionally(error);
+            else if (persistError != null) done.completeExceptionally(persistError);
+            else done.complete(result);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 
 import entity.domain.RegistrationRequest;
@@ -17,19 +18,40 @@ import entity.domain.WithdrawalRequest;
 import entity.domain.enums.RequestStatus;
 import entity.domain.Application;
 import entity.domain.User;
+import util.Events;
+import util.Log;
+import util.Metrics;
+import util.Tracer;
 
 /**
  * Stores and retrieves Requests: Registration and Withdrawal.
  * Acts as an in-memory data access layer for requests to Career Center Staff.
+ * Mutations go through the shared {@link RepositoryWriter}; queries read the latest published snapshot.
  */
 public class RequestRepository {
-	private final List<RegistrationRequest> registrationRequests = new ArrayList<>();
-	private final List<WithdrawalRequest> withdrawalRequests = new ArrayList<>();
+    private final RepositoryWriter writer = RepositoryWriter.shared();
+    private final RepositoryWriter.Persistable disk = this::persist;
+	private volatile Snapshot<RegistrationRequest> registrationRequests = Snapshot.empty(RegistrationRequest::getId);
+	private volatile Snapshot<WithdrawalRequest> withdrawalRequests = Snapshot.empty(WithdrawalRequest::getId);
+    // Registrations dropped by the last clearRegistrations(); writer thread only.
+    private Snapshot<RegistrationRequest> clearedRegistrations = Snapshot.empty(RegistrationRequest::getId);
     private final String storagePath;
     private final ApplicationRepository appRepo;
     private final UserRepository userRepo;
     private static final String HEADER = "Id,ApplicationId,StudentId,Status,RequestedAt,Reason,LastUpdated";
 
+    // ===== Logging =====
+    private static final Log.Logger LOG = Log.get(RequestRepository.class);
+
+    // ===== Metrics =====
+    private static final Metrics.Timer FIND_ALL_WITHDRAWALS = Metrics.sampledTimer("RequestRepository.findAllWithdrawals", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_PENDING_WITHDRAWALS = Metrics.sampledTimer("RequestRepository.findPendingWithdrawals", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_PENDING_REGISTRATIONS = Metrics.sampledTimer("RequestRepository.findPendingRepRegistrations", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer FIND_BY_STUDENT = Metrics.sampledTimer("RequestRepository.findByStudent", Metrics.HOT_PATH_SAMPLING);
+    private static final Metrics.Timer RELOAD = Metrics.timer("RequestRepository.reloadFromDisk");
+    private static final Metrics.Timer PERSIST = Metrics.timer("RequestRepository.persist");
+    private static final Metrics.Timer SAVE = Metrics.timer("RequestRepository.save");
+
     public RequestRepository() {
         this.storagePath = null;
         this.appRepo = null;
@@ -40,7 +62,7 @@ public class RequestRepository {
         this.storagePath = storagePath;
         this.appRepo = appRepo;
         this.userRepo = userRepo;
-        loadFromDisk();
+        reloadFromDisk();
     }
 	
 	/**
@@ -49,41 +71,71 @@ public class RequestRepository {
      * @param req Registration or Withdrawal request
      */
     public void save(Object req) {
-        Objects.requireNonNull(req, "Request cannot be null");
+        long start = SAVE.start();
+        try {
+            Objects.requireNonNull(req, "Request cannot be null");
 
-        if (req instanceof RegistrationRequest regReq) {
-            RegistrationRequest existing = findRegistrationById(regReq.getId());
-            if (existing != null) registrationRequests.remove(existing);
-            registrationRequests.add(regReq);
-        } else if (req instanceof WithdrawalRequest withReq) {
-            if (withReq.getId() == null || withReq.getId().isBlank()) {
-                withReq.setId(new util.IdGenerator().newId("W"));
+            if (req instanceof RegistrationRequest regReq) {
+                writer.submit(() -> {
+                    registrationRequests = registrationRequests.upsert(regReq);
+                    if (!reimported(regReq)) writer.publish(this, regReq, false);
+                    return null;
+                }, null);
+            } else if (req instanceof WithdrawalRequest withReq) {
+                if (withReq.getId() == null || withReq.getId().isBlank()) {
+                    withReq.setId(new util.IdGenerator().newId("W"));
+                }
+                writer.submit(() -> {
+                    withdrawalRequests = withdrawalRequests.upsert(withReq);
+                    writer.publish(this, withReq, false);
+                    return null;
+                }, disk);
+            } else {
+                throw new IllegalArgumentException("Unsupported request type: " + req.getClass().getSimpleName());
             }
-            WithdrawalRequest existing = findWithdrawalById(withReq.getId());
-            if (existing != null) withdrawalRequests.remove(existing);
-            withdrawalRequests.add(withReq);
-            persist();
-        } else {
-            throw new IllegalArgumentException("Unsupported request type: " + req.getClass().getSimpleName());
+        } finally {
+            SAVE.stop(start);
         }
     }
+    /**
+     * Returns every withdrawal request.
+     * @return immutable snapshot of all withdrawals
+     */
     public List<WithdrawalRequest> findAllWithdrawals(){
-        reloadFromDisk();
-        return this.withdrawalRequests;
+        long start = FIND_ALL_WITHDRAWALS.start();
+        try {
+            return this.withdrawalRequests;
+        } finally {
+            FIND_ALL_WITHDRAWALS.stop(start);
+        }
     }
+    /**
+     * Finds a withdrawal request by its ID.
+     * @param id withdrawal request ID
+     * @return matching request, or null if none
+     */
+    public WithdrawalRequest findWithdrawalById(String id) {
+        return withdrawalRequests.byId(id);
+    }
+
     /**
      * Finds all pending WithdrawalRequests.
      * @return pending list (Withdrawals)
      */
     public List<WithdrawalRequest> findPendingWithdrawals() {
-        reloadFromDisk();
-        List<WithdrawalRequest> pending = new ArrayList<>();
-        for (WithdrawalRequest req : withdrawalRequests) {
-            if (req.getStatus() == RequestStatus.PENDING) {
-                pending.add(req);
+        long start = FIND_PENDING_WITHDRAWALS.start();
+        try {
+            Tracer.rows(withdrawalRequests.size());
+            List<WithdrawalRequest> pending = new ArrayList<>();
+            for (WithdrawalRequest req : withdrawalRequests) {
+                if (req.getStatus() == RequestStatus.PENDING) {
+                    pending.add(req);
+                }
             }
+            return pending;
+        } finally {
+            FIND_PENDING_WITHDRAWALS.stop(start);
         }
-        return pending;
     }
 
     /**
@@ -91,39 +143,19 @@ public class RequestRepository {
      * @return pending list (Registration)
      */
     public List<RegistrationRequest> findPendingRepRegistrations() {
-        List<RegistrationRequest> pending = new ArrayList<>();
-        for (RegistrationRequest req : registrationRequests) {
-            if (req.getStatus() == RequestStatus.PENDING) {
-                pending.add(req);
+        long start = FIND_PENDING_REGISTRATIONS.start();
+        try {
+            Tracer.rows(registrationRequests.size());
+            List<RegistrationRequest> pending = new ArrayList<>();
+            for (RegistrationRequest req : registrationRequests) {
+                if (req.getStatus() == RequestStatus.PENDING) {
+                    pending.add(req);
+                }
             }
+            return pending;
+        } finally {
+            FIND_PENDING_REGISTRATIONS.stop(start);
         }
-        return pending;
-    }
-
-    /**
-     * Finds a Registration Request
-     * @param id String id of the request
-     * @return RegistrationRequest or null if no request
-     */
-    private RegistrationRequest findRegistrationById(String id) {
-        if (id == null) return null;
-        for (RegistrationRequest req : registrationRequests) {
-            if (req.getId().equalsIgnoreCase(id)) return req;
-        }
-        return null;
-    }
-
-    /**
-     * Finds a Withdrawal Request
-     * @param id String id of the request
-     * @return WithdrawalRequest or null if no request
-     */
-    private WithdrawalRequest findWithdrawalById(String id) {
-        if (id == null) return null;
-        for (WithdrawalRequest req : withdrawalRequests) {
-            if (req.getId().equalsIgnoreCase(id)) return req;
-        }
-        return null;
     }
 
     /**
@@ -132,46 +164,105 @@ public class RequestRepository {
      * @return List of withdrawal requests
      */
     public List<WithdrawalRequest> findByStudent(Student student) {
-        Objects.requireNonNull(student, "Student required");
-        reloadFromDisk();
-        List<WithdrawalRequest> requests = new ArrayList<>();
-        for (WithdrawalRequest req : withdrawalRequests) {
-            if (req.getRequestedBy().equals(student)) {
-                requests.add(req);
+        long start = FIND_BY_STUDENT.start();
+        try {
+            Tracer.rows(withdrawalRequests.size());
+            Objects.requireNonNull(student, "Student required");
+            List<WithdrawalRequest> requests = new ArrayList<>();
+            for (WithdrawalRequest req : withdrawalRequests) {
+                if (req.getRequestedBy().equals(student)) {
+                    requests.add(req);
+                }
             }
+            return requests;
+        } finally {
+            FIND_BY_STUDENT.stop(start);
         }
-        return requests;
     }
     /**
      * Empty all requests
      */
     public void clear() {
-        registrationRequests.clear();
-        withdrawalRequests.clear();
-        persist();
+        writer.submit(() -> {
+            registrationRequests = Snapshot.empty(RegistrationRequest::getId);
+            withdrawalRequests = Snapshot.empty(WithdrawalRequest::getId);
+            return null;
+        }, disk);
     }
 
     /**
      * Clears only registration requests (keeps withdrawal requests intact).
      */
     public void clearRegistrations() {
-        registrationRequests.clear();
+        writer.submit(() -> {
+            clearedRegistrations = registrationRequests;
+            registrationRequests = Snapshot.empty(RegistrationRequest::getId);
+            return null;
+        }, null);
+    }
+
+    /**
+     * The importer rebuilds registration requests from scratch on every import, under new ids.
+     * A request is only a change if its representative was not already waiting in the same state.
+     */
+    private boolean reimported(RegistrationRequest req) {
+        if (req.getRep() == null) return false;
+        for (RegistrationRequest old : clearedRegistrations) {
+            if (old.getRep() != null && old.getStatus() == req.getStatus()
+                    && old.getRep().getUserId().equalsIgnoreCase(req.getRep().getUserId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the slots left behind by removed withdrawal and registration requests.
+     * @return number of slots reclaimed
+     */
+    public int compact() {
+        return writer.submit(() -> {
+            int reclaimed = withdrawalRequests.tombstones() + registrationRequests.tombstones();
+            withdrawalRequests = withdrawalRequests.compact();
+            registrationRequests = registrationRequests.compact();
+            return reclaimed;
+        }, null);
+    }
+
+    /** @return number of removed slots not yet compacted away */
+    public int tombstones() {
+        return withdrawalRequests.tombstones() + registrationRequests.tombstones();
     }
 
     /** Reload withdrawals from disk. */
     public void reloadFromDisk() {
-        loadFromDisk();
+        long start = RELOAD.start();
+        try {
+            writer.submit(() -> {
+                loadFromDisk();
+                return null;
+            }, null);
+            Tracer.rows(withdrawalRequests.size());
+        } finally {
+            RELOAD.stop(start);
+        }
     }
 
     private void loadFromDisk() {
         if (storagePath == null || storagePath.isBlank()) return;
+        writer.flushIfDirty(disk);
         File file = new File(storagePath);
         if (!file.exists()) {
             ensureParent(file);
             return;
         }
         List<WithdrawalRequest> loaded = new ArrayList<>();
+        // Rows that differ from what this repository held; only those are published as changes.
+        Snapshot<WithdrawalRequest> previous = withdrawalRequests;
+        List<WithdrawalRequest> changed = writer.hasListeners() ? new ArrayList<>() : null;
         int maxId = 0;
+        Events.CsvLoad event = new Events.CsvLoad();
+        event.begin();
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             boolean header = true;
@@ -204,32 +295,49 @@ public class RequestRepository {
                 try { w.setLastUpdated(LocalDateTime.parse(lastUpdatedText)); } catch (Exception e) { /* ignore */ }
 
                 loaded.add(w);
+                if (changed != null) {
+                    WithdrawalRequest old = previous.byId(id);
+                    if (old == null || !line.equals(format(old))) changed.add(w);
+                }
                 maxId = Math.max(maxId, numericSuffix(id));
             }
-            withdrawalRequests.clear();
-            withdrawalRequests.addAll(loaded);
+            Metrics.recordCsvRead(file);
+            withdrawalRequests = Snapshot.of(WithdrawalRequest::getId, loaded);
+            if (changed != null) {
+                for (WithdrawalRequest w : changed) writer.publish(this, w, true);
+            }
+            event.complete(file, loaded.size(), writer.origin(), writer.originAction());
             if (!loaded.isEmpty()) {
                 new util.IdGenerator().seedPrefix("W", maxId);
             }
         } catch (IOException e) {
-            System.err.println("Failed to load withdrawals: " + e.getMessage());
+            LOG.error("loadFailed", "file", storagePath, "error", e.getMessage());
         }
     }
 
     private void persist() {
-        if (storagePath == null || storagePath.isBlank()) return;
-        File file = new File(storagePath);
-        ensureParent(file);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
-            writer.write(HEADER);
-            writer.newLine();
-            for (WithdrawalRequest w : withdrawalRequests) {
-                writer.write(format(w));
+        long start = PERSIST.start();
+        try {
+            if (storagePath == null || storagePath.isBlank()) return;
+            File file = new File(storagePath);
+            ensureParent(file);
+            Events.CsvPersist event = new Events.CsvPersist();
+            event.begin();
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
+                writer.write(HEADER);
                 writer.newLine();
+                for (WithdrawalRequest w : withdrawalRequests) {
+                    writer.write(format(w));
+                    writer.newLine();
+                }
+                writer.flush();
+                Metrics.recordCsvWritten(file);
+                event.complete(file, withdrawalRequests.size(), this.writer.origin(), this.writer.originAction());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + storagePath + ": " + e.getMessage(), e);
             }
-            writer.flush();
-        } catch (IOException e) {
-            System.err.println("Failed to persist withdrawals: " + e.getMessage());
+        } finally {
+            PERSIST.stop(start);
         }
     }
 
@@ -0,0 +1,557 @@
+package repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import entity.domain.InternshipOpportunity;
+import util.PersistentHashMap;
+import util.PersistentVector;
+
+/**
+ * Immutable inverted index over opportunity titles and descriptions, ranked with BM25.
+ * <p>
+ * Text is split on anything that is not a letter or digit, lower-cased and reduced by a light
+ * suffix stemmer, so "Engineering", "engineered" and "engineers" all index as {@code engineer}. A
+ * title occurrence counts {@value #TITLE_WEIGHT} times, and a phrase never runs from the title into
+ * the description.
+ * </p>
+ * <p>
+ * The index is kept in two parts, as segment-based search engines do. A base segment, built in one
+ * pass, maps each term to plain arrays of documents and term frequencies. Documents saved since then
+ * are appended to a short persistent list of recent ones, and the base entry they replace is marked
+ * in a copy-on-write bitset. {@link #put} and {@link #remove} therefore cost O(log n + n/64) plus
+ * tokenizing one opportunity, and return a new version sharing everything else with the old one, so the repository
+ * can publish it to readers together with its snapshot. Once the recent list grows past an eighth of
+ * the base, the current documents are merged into a new base, which keeps the amortized cost of a
+ * save constant. Saving an opportunity whose text did not change only swaps the object returned.
+ * </p>
+ * <p>
+ * A query is a list of words, any of which may match, and {@code "quoted phrases"}, all of which must
+ * appear with their words in order. Only the postings of the query's terms and the recent documents
+ * are visited, and the best {@code limit} results are kept in a bounded heap. Document frequencies
+ * count replaced versions until the next merge, which shifts scores only slightly.
+ * </p>
+ */
+final class SearchIndex {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_RECENT_TO_MERGE = 256;
+    private static final int MERGE_RATIO = 8;
+
+    // One shared instance per distinct term, so stored terms compare by identity. Holds every term
+    // ever indexed; the vocabulary of postings is small next to the postings themselves.
+    private static final Map<String, String> TERMS = new ConcurrentHashMap<>();
+
+    private static final SearchIndex EMPTY = new SearchIndex(Segment.EMPTY, new long[0], PersistentVector.empty(), PersistentHashMap.empty(), 0);
+
+    private final Segment base;
+    // Bit per base document, set once it is replaced or removed; never modified once published.
+    private final long[] replaced;
+    // Documents indexed since the base was built, replaced versions included.
+    private final PersistentVector<Doc> recent;
+    // Current document per upper-cased opportunity id.
+    private final PersistentHashMap<String, Doc> docs;
+    private final long totalLength;
+
+    private SearchIndex(Segment base, long[] replaced, PersistentVector<Doc> recent, PersistentHashMap<String, Doc> docs, long totalLength) {
+        this.base = base;
+        this.replaced = replaced;
+        this.recent = recent;
+        this.docs = docs;
+        this.totalLength = totalLength;
+    }
+
+    /** @return the empty index */
+    static SearchIndex empty() {
+        return EMPTY;
+    }
+
+    /** @return number of indexed opportunities */
+    int size() {
+        return docs.size();
+    }
+
+    /**
+     * Returns a version with {@code opp} indexed, replacing its previous text.
+     *
+     * @param opp opportunity to index; ignored without an id
+     * @return updated index
+     */
+    SearchIndex put(InternshipOpportunity opp) {
+        return new Edit(this).add(opp).done();
+    }
+
+    /**
+     * Indexes many opportunities, merging at most once at the end.
+     *
+     * @param opps opportunities to index
+     * @return updated index
+     */
+    SearchIndex putAll(Iterable<InternshipOpportunity> opps) {
+        Edit edit = new Edit(this);
+        for (InternshipOpportunity opp : opps) edit.add(opp);
+        return edit.done();
+    }
+
+    /**
+     * Returns a version without an opportunity.
+     *
+     * @param id opportunity id (case-insensitive)
+     * @return updated index (the same instance if the id was absent)
+     */
+    SearchIndex remove(String id) {
+        return id == null ? this : new Edit(this).remove(key(id)).done();
+    }
+
+    /** Changes to one version, applied together; the replaced bitset is copied at most once. */
+    private static final class Edit {
+        private final SearchIndex from;
+        private long[] replaced;
+        private boolean copied;
+        private PersistentVector<Doc> recent;
+        private PersistentHashMap<String, Doc> docs;
+        private long totalLength;
+
+        Edit(SearchIndex from) {
+            this.from = from;
+            this.replaced = from.replaced;
+            this.recent = from.recent;
+            this.docs = from.docs;
+            this.totalLength = from.totalLength;
+        }
+
+        Edit add(InternshipOpportunity opp) {
+            if (opp.getId() == null) return this;
+            String key = key(opp.getId());
+            Doc old = docs.get(key);
+            if (old != null && old.text.sameAs(opp.getTitle(), opp.getDescription())) {
+                if (old.opp != opp) docs = docs.put(key, new Doc(key, old.text, opp));
+                return this;
+            }
+            if (old != null) retire(key, old);
+            Doc doc = new Doc(key, Text.of(opp.getTitle(), opp.getDescription()), opp);
+            recent = recent.append(doc);
+            docs = docs.put(key, doc);
+            totalLength += doc.text.length;
+            return this;
+        }
+
+        Edit remove(String key) {
+            Doc old = docs.get(key);
+            if (old == null) return this;
+            retire(key, old);
+            docs = docs.remove(key);
+            return this;
+        }
+
+        private void retire(String key, Doc old) {
+            totalLength -= old.text.length;
+            Integer d = from.base.ordinals.get(key);
+            if (d == null || from.base.docs[d].text != old.text) return;
+            if (!copied) {
+                replaced = replaced.clone();
+                copied = true;
+            }
+            replaced[d >>> 6] |= 1L << d;
+        }
+
+        SearchIndex done() {
+            SearchIndex next = replaced == from.replaced && recent == from.recent && docs == from.docs
+                    ? from
+                    : new SearchIndex(from.base, replaced, recent, docs, totalLength);
+            return next.recent.size() < Math.max(MIN_RECENT_TO_MERGE, next.base.docs.length / MERGE_RATIO) ? next : next.merged();
+        }
+    }
+
+    private SearchIndex merged() {
+        List<Doc> current = new ArrayList<>(docs.size());
+        for (int d = 0; d < base.docs.length; d++) {
+            if (!isReplaced(d)) current.add(base.docs[d]);
+        }
+        for (Doc doc : recent) {
+            if (isCurrent(doc)) current.add(doc);
+        }
+        Segment merged = Segment.of(current);
+        return new SearchIndex(merged, new long[(merged.docs.length + 63) >>> 6], PersistentVector.empty(), docs, totalLength);
+    }
+
+    private boolean isReplaced(int d) {
+        return (replaced[d >>> 6] & 1L << d) != 0;
+    }
+
+    // A recent document is current while its id still maps to the same indexed text.
+    private boolean isCurrent(Doc doc) {
+        Doc now = docs.get(doc.id);
+        return now != null && now.text == doc.text;
+    }
+
+    // ===== Search =====
+
+    /**
+     * Ranks the opportunities matching a query.
+     *
+     * @param query words and quoted phrases
+     * @param limit maximum number of results
+     * @param accept only opportunities it accepts are returned; may be null
+     * @return best matches, highest score first; ties in id order
+     */
+    List<InternshipOpportunity> search(String query, int limit, Predicate<InternshipOpportunity> accept) {
+        if (limit <= 0 || docs.size() == 0) return new ArrayList<>();
+        List<String> terms = new ArrayList<>();
+        List<String[]> phrases = new ArrayList<>();
+        parse(query, terms, phrases);
+        if (terms.isEmpty()) return new ArrayList<>();
+
+        List<Doc> fresh = new ArrayList<>();
+        for (Doc doc : recent) {
+            if (isCurrent(doc)) fresh.add(doc);
+        }
+        double[] idf = new double[terms.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            int df = base.frequency(terms.get(t));
+            for (Doc doc : fresh) {
+                if (doc.text.frequency(terms.get(t)) > 0) df++;
+            }
+            idf[t] = Math.log(1 + (docs.size() - df + 0.5) / (df + 0.5));
+        }
+        double avgLength = Math.max(1.0, (double) totalLength / docs.size());
+        TopHits top = new TopHits(limit, accept);
+
+        for (Doc doc : fresh) {
+            if (!doc.text.containsAll(phrases)) continue;
+            double score = 0;
+            for (int t = 0; t < terms.size(); t++) {
+                score += weight(doc.text.frequency(terms.get(t)), doc.text.length, idf[t], avgLength);
+            }
+            if (score > 0) top.offer(doc.id, score);
+        }
+        if (phrases.isEmpty()) {
+            searchBase(terms, idf, avgLength, top);
+        } else {
+            searchBasePhrases(terms, phrases, idf, avgLength, top);
+        }
+        return top.results();
+    }
+
+    private void searchBase(List<String> terms, double[] idf, double avgLength, TopHits top) {
+        Doc[] all = base.docs;
+        double[] scores = new double[all.length];
+        int[] touched = new int[16];
+        int count = 0;
+        for (int t = 0; t < terms.size(); t++) {
+            Postings p = base.postings.get(terms.get(t));
+            if (p == null) continue;
+            for (int i = 0; i < p.size; i++) {
+                int d = p.docs[i];
+                if (isReplaced(d)) continue;
+                if (scores[d] == 0) {
+                    if (count == touched.length) touched = Arrays.copyOf(touched, count * 2);
+                    touched[count++] = d;
+                }
+                scores[d] += weight(p.frequencies[i], base.lengths[d], idf[t], avgLength);
+            }
+        }
+        for (int i = 0; i < count; i++) top.offer(all[touched[i]].id, scores[touched[i]]);
+    }
+
+    private void searchBasePhrases(List<String> terms, List<String[]> phrases, double[] idf, double avgLength, TopHits top) {
+        // Candidates come from the rarest phrase term; each must contain every phrase.
+        Postings rarest = null;
+        for (String[] phrase : phrases) {
+            for (String term : phrase) {
+                Postings p = base.postings.get(term);
+                if (p == null) return;
+                if (rarest == null || p.size < rarest.size) rarest = p;
+            }
+        }
+        for (int i = 0; i < rarest.size; i++) {
+            int d = rarest.docs[i];
+            if (isReplaced(d)) continue;
+            Doc doc = base.docs[d];
+            if (!doc.text.containsAll(phrases)) continue;
+            double score = 0;
+            for (int t = 0; t < terms.size(); t++) {
+                score += weight(doc.text.frequency(terms.get(t)), doc.text.length, idf[t], avgLength);
+            }
+            top.offer(doc.id, score);
+        }
+    }
+
+    private static double weight(int frequency, int length, double idf, double avgLength) {
+        if (frequency == 0) return 0;
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / avgLength));
+    }
+
+    /** Best hits so far in a min-heap of at most {@code limit}, the worst on top. */
+    private final class TopHits {
+        private final int limit;
+        private final Predicate<InternshipOpportunity> accept;
+        private final PriorityQueue<Hit> heap;
+
+        TopHits(int limit, Predicate<InternshipOpportunity> accept) {
+            this.limit = limit;
+            this.accept = accept;
+            this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1);
+        }
+
+        void offer(String id, double score) {
+            if (heap.size() == limit) {
+                Hit worst = heap.peek();
+                if (score < worst.score || (score == worst.score && id.compareTo(worst.id) > 0)) return;
+            }
+            // Only hits that would make the cut are resolved and checked.
+            Doc doc = docs.get(id);
+            if (doc == null || (accept != null && !accept.test(doc.opp))) return;
+            heap.add(new Hit(id, score, doc.opp));
+            if (heap.size() > limit) heap.poll();
+        }
+
+        List<InternshipOpportunity> results() {
+            List<Hit> hits = new ArrayList<>(heap);
+            Collections.sort(hits, Collections.reverseOrder());
+            List<InternshipOpportunity> out = new ArrayList<>(hits.size());
+            for (Hit h : hits) out.add(h.opp);
+            return out;
+        }
+    }
+
+    // ===== Text processing =====
+
+    /** Splits a query into its distinct terms and its quoted phrases (whose terms are included). */
+    private static void parse(String query, List<String> terms, List<String[]> phrases) {
+        if (query == null) return;
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<String> words = new ArrayList<>();
+            // A word missing from the pool is in no document, and then matches nothing by identity either.
+            for (String w : tokenize(parts[i])) words.add(TERMS.getOrDefault(w, w));
+            // Odd parts sit between quotes; an unclosed quote runs to the end of the query.
+            if (i % 2 == 1 && words.size() > 1) phrases.add(words.toArray(new String[0]));
+            for (String w : words) {
+                if (!terms.contains(w)) terms.add(w);
+            }
+        }
+    }
+
+    /**
+     * Lower-cases, splits on anything that is not a letter or digit and stems.
+     *
+     * @param text text to split; may be null
+     * @return terms in order of appearance
+     */
+    static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) return out;
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i > start) out.add(stem(text.substring(start, i).toLowerCase(Locale.ROOT)));
+        }
+        return out;
+    }
+
+    /**
+     * Strips common English inflections: plural "-s"/"-es"/"-ies", "-ing"/"-ed", then a final
+     * silent "e", so "manage", "managed", "managing" and "manages" share one stem.
+     *
+     * @param word lower-case word
+     * @return its stem
+     */
+    static String stem(String word) {
+        int n = word.length();
+        String s;
+        if (n > 4 && word.endsWith("ies")) s = word.substring(0, n - 3) + "y";
+        else if (n > 4 && word.endsWith("sses")) s = word.substring(0, n - 2);
+        else if (n > 5 && word.endsWith("ing")) s = undouble(word.substring(0, n - 3));
+        else if (n > 4 && word.endsWith("ed") && !word.endsWith("eed")) s = undouble(word.substring(0, n - 2));
+        else if (n > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) s = word.substring(0, n - 1);
+        else s = word;
+        return s.length() > 3 && s.endsWith("e") && !s.endsWith("ee") ? s.substring(0, s.length() - 1) : s;
+    }
+
+    // "planned" -> "plann" -> "plan"; leaves "ll", "ss" and "zz" alone ("installed" -> "install").
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n > 2 && stem.charAt(n - 1) == stem.charAt(n - 2)) {
+            char c = stem.charAt(n - 1);
+            if (c != 'l' && c != 's' && c != 'z' && Character.isLetter(c)) return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+
+    private static String pooled(String term) {
+        String existing = TERMS.get(term);
+        if (existing != null) return existing;
+        existing = TERMS.putIfAbsent(term, term);
+        return existing == null ? term : existing;
+    }
+
+    private static String key(String id) {
+        return id.toUpperCase(Locale.ROOT);
+    }
+
+    // ===== Storage =====
+
+    /** Terms of one version of an opportunity's title and description. */
+    private static final class Text {
+        final String title;
+        final String description;
+        // Title terms, a null separator, then description terms; each term is the pooled instance.
+        final String[] tokens;
+        final int titleCount;
+        final int length;
+
+        private Text(String title, String description, String[] tokens, int titleCount) {
+            this.title = title;
+            this.description = description;
+            this.tokens = tokens;
+            this.titleCount = titleCount;
+            this.length = titleCount * TITLE_WEIGHT + (tokens.length - titleCount - 1);
+        }
+
+        static Text of(String title, String description) {
+            List<String> t = tokenize(title);
+            List<String> d = tokenize(description);
+            String[] tokens = new String[t.size() + 1 + d.size()];
+            for (int i = 0; i < t.size(); i++) tokens[i] = pooled(t.get(i));
+            for (int i = 0; i < d.size(); i++) tokens[t.size() + 1 + i] = pooled(d.get(i));
+            return new Text(title, description, tokens, t.size());
+        }
+
+        boolean sameAs(String otherTitle, String otherDescription) {
+            return Objects.equals(title, otherTitle) && Objects.equals(description, otherDescription);
+        }
+
+        /** @return weighted number of occurrences of {@code term}, a pooled instance */
+        int frequency(String term) {
+            int f = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                if (term == tokens[i]) f += i < titleCount ? TITLE_WEIGHT : 1;
+            }
+            return f;
+        }
+
+        boolean containsAll(List<String[]> phrases) {
+            for (String[] phrase : phrases) {
+                if (!contains(phrase)) return false;
+            }
+            return true;
+        }
+
+        private boolean contains(String[] phrase) {
+            for (int i = 0; i + phrase.length <= tokens.length; i++) {
+                int j = 0;
+                while (j < phrase.length && phrase[j] == tokens[i + j]) j++;
+                if (j == phrase.length) return true;
+            }
+            return false;
+        }
+    }
+
+    /** One opportunity's indexed text, and the object to return for it. */
+    private static final class Doc {
+        final String id;
+        final Text text;
+        final InternshipOpportunity opp;
+
+        Doc(String id, Text text, InternshipOpportunity opp) {
+            this.id = id;
+            this.text = text;
+            this.opp = opp;
+        }
+    }
+
+    /** Documents and term frequencies of one term in a segment, in document order. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        // Documents arrive in order, so a repeated term adds to the last entry.
+        void add(int doc, int frequency) {
+            if (size > 0 && docs[size - 1] == doc) {
+                frequencies[size - 1] += frequency;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size++] = frequency;
+        }
+    }
+
+    /** Postings built in one pass over a fixed list of documents; never modified afterwards. */
+    private static final class Segment {
+        static final Segment EMPTY = new Segment(new Doc[0], new int[0], new HashMap<>(), new HashMap<>());
+
+        final Doc[] docs;
+        final int[] lengths;
+        final Map<String, Postings> postings;
+        // Position in docs per upper-cased id, to mark a document replaced.
+        final Map<String, Integer> ordinals;
+
+        private Segment(Doc[] docs, int[] lengths, Map<String, Postings> postings, Map<String, Integer> ordinals) {
+            this.docs = docs;
+            this.lengths = lengths;
+            this.postings = postings;
+            this.ordinals = ordinals;
+        }
+
+        static Segment of(List<Doc> current) {
+            Doc[] docs = current.toArray(new Doc[0]);
+            int[] lengths = new int[docs.length];
+            Map<String, Postings> postings = new HashMap<>();
+            Map<String, Integer> ordinals = new HashMap<>(docs.length * 4 / 3 + 1);
+            for (int d = 0; d < docs.length; d++) {
+                Text text = docs[d].text;
+                lengths[d] = text.length;
+                ordinals.put(docs[d].id, d);
+                for (int i = 0; i < text.tokens.length; i++) {
+                    if (text.tokens[i] == null) continue;
+                    postings.computeIfAbsent(text.tokens[i], k -> new Postings()).add(d, i < text.titleCount ? TITLE_WEIGHT : 1);
+                }
+            }
+            return new Segment(docs, lengths, postings, ordinals);
+        }
+
+        int frequency(String term) {
+            Postings p = postings.get(term);
+            return p == null ? 0 : p.size;
+        }
+    }
+
+    private static final class Hit implements Comparable<Hit> {
+        final String id;
+        final double score;
+        final InternshipOpportunity opp;
+
+        Hit(String id, double score, InternshipOpportunity opp) {
+            this.id = id;
+            this.score = score;
+            this.opp = opp;
+        }
+
+        // Worst first, so the heap drops it: lower score, then later id.
+        @Override
+        public int compareTo(Hit o) {
+            int c = Double.compare(score, o.score);
+            return c != 0 ? c : o.id.compareTo(id);
+        }
+    }
+}
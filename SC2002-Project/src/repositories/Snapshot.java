@@ -0,0 +1,168 @@
+package repositories;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import util.PersistentHashMap;
+import util.PersistentVector;
+
+/**
+ * Immutable, structurally shared version of a repository's contents.
+ * <p>
+ * Entities are kept in insertion order in a {@link PersistentVector}, with a
+ * {@link PersistentHashMap} from (case-insensitive) id to position. Inserting, replacing or
+ * removing an entity produces a new version in O(log n) while older versions stay valid,
+ * so repositories can hand a snapshot straight to readers instead of copying it.
+ * Removed entries leave a tombstone that is dropped by {@link #compact()}, which runs
+ * automatically once tombstones outnumber live entries.
+ * </p>
+ * Iteration is cheap; {@link #get(int)} is only O(log n) while there are no tombstones.
+ *
+ * @param <T> entity type
+ */
+final class Snapshot<T> extends AbstractList<T> {
+
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 32;
+
+    private final Function<T, String> idOf;
+    private final PersistentVector<T> items;
+    private final PersistentHashMap<String, Integer> positions;
+
+    private Snapshot(Function<T, String> idOf, PersistentVector<T> items, PersistentHashMap<String, Integer> positions) {
+        this.idOf = idOf;
+        this.items = items;
+        this.positions = positions;
+    }
+
+    /**
+     * @param idOf extracts the entity id used for replacement and lookup
+     * @return an empty snapshot
+     */
+    static <T> Snapshot<T> empty(Function<T, String> idOf) {
+        return new Snapshot<>(idOf, PersistentVector.empty(), PersistentHashMap.empty());
+    }
+
+    /**
+     * Builds a snapshot from loaded entities; later duplicates of an id replace earlier ones.
+     *
+     * @param idOf extracts the entity id
+     * @param entities entities in file order
+     * @return populated snapshot
+     */
+    static <T> Snapshot<T> of(Function<T, String> idOf, List<T> entities) {
+        Snapshot<T> snapshot = empty(idOf);
+        for (T entity : entities) {
+            snapshot = snapshot.upsert(entity);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param id entity id (case-insensitive)
+     * @return matching entity or {@code null}
+     */
+    T byId(String id) {
+        if (id == null) return null;
+        Integer pos = positions.get(key(id));
+        return pos == null ? null : items.get(pos);
+    }
+
+    /**
+     * Returns a version containing {@code entity}, replacing any entity with the same id in place.
+     *
+     * @param entity entity to insert or replace
+     * @return new snapshot
+     */
+    Snapshot<T> upsert(T entity) {
+        String key = key(idOf.apply(entity));
+        Integer pos = positions.get(key);
+        if (pos != null) {
+            return new Snapshot<>(idOf, items.set(pos, entity), positions);
+        }
+        return new Snapshot<>(idOf, items.append(entity), positions.put(key, items.size()));
+    }
+
+    /**
+     * Returns a version without the entity sharing {@code entity}'s id.
+     *
+     * @param entity entity to remove
+     * @return new snapshot, or this one if the entity was not present
+     */
+    Snapshot<T> without(T entity) {
+        String key = key(idOf.apply(entity));
+        Integer pos = positions.get(key);
+        if (pos == null) return this;
+        Snapshot<T> next = new Snapshot<>(idOf, items.set(pos, null), positions.remove(key));
+        return next.tombstones() >= MIN_TOMBSTONES_TO_COMPACT && next.tombstones() > next.size() ? next.compact() : next;
+    }
+
+    /** @return a version with the same entities and no tombstones */
+    Snapshot<T> compact() {
+        if (tombstones() == 0) return this;
+        Snapshot<T> compacted = empty(idOf);
+        for (T entity : this) {
+            compacted = compacted.upsert(entity);
+        }
+        return compacted;
+    }
+
+    /** @return number of removed slots still held in the vector */
+    int tombstones() {
+        return items.size() - positions.size();
+    }
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        if (tombstones() == 0) return items.get(index);
+        int i = 0;
+        for (T entity : this) {
+            if (i++ == index) return entity;
+        }
+        throw new IndexOutOfBoundsException("Index " + index);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<T> raw = items.iterator();
+        return new Iterator<>() {
+            private T next = advance();
+
+            private T advance() {
+                while (raw.hasNext()) {
+                    T candidate = raw.next();
+                    if (candidate != null) return candidate;
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null) throw new NoSuchElementException();
+                T current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    private static String key(String id) {
+        return id == null ? "" : id.toUpperCase(Locale.ROOT);
+    }
+}
@@ -2,20 +2,54 @@ package repositories;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
+import entity.domain.CareerCenterStaff;
 import entity.domain.User;
+import entity.domain.enums.InternshipLevel;
 import entity.domain.enums.RequestStatus;
 import entity.domain.CompanyRepresentative;
 import entity.domain.Student;
+import util.Metrics;
+import util.PersistentHashMap;
+import util.PersistentTrie;
+import util.Tracer;
 
 /**
  * Stores and retrieves User entities such as Student, CompanyRepresentative, and CareerCenterStaff.
  * Acts as an in-memory data access layer of the Users in the system.
+ * Mutations go through the shared {@link RepositoryWriter}; queries read the latest published snapshot.
+ * <p>
+ * Students are also indexed by year band and major, so the students an opportunity is open to
+ * can be found in time proportional to their number (see {@link #findEligibleStudents}).
+ * Their distinct majors are kept in a {@link PersistentTrie} for autocomplete.
+ * </p>
  */
 
 public class UserRepository {
-	private final List<User> users = new ArrayList<>();
+	private final RepositoryWriter writer = RepositoryWriter.shared();
+	private volatile Snapshot<User> users = Snapshot.empty(User::getUserId);
+
+	// Students keyed by year band and major ("JUNIOR:COMPUTER SCIENCE"), plus one bucket per band
+	// holding every major ("SENIOR:*"). Published together with the users snapshot.
+	private volatile PersistentHashMap<String, Snapshot<Student>> eligibility = PersistentHashMap.empty();
+	// Writer thread only: the major bucket each student was indexed under, so a changed year or major moves them.
+	private PersistentHashMap<String, String> bucketOf = PersistentHashMap.empty();
+	// Distinct student majors, counted once per student.
+	private volatile PersistentTrie majors = PersistentTrie.empty();
+	private static final String JUNIOR = "JUNIOR:";
+	private static final String SENIOR = "SENIOR:";
+	private static final String ANY_MAJOR = "*";
+
+	// ===== Metrics =====
+	private static final Metrics.Timer FIND_BY_ID = Metrics.sampledTimer("UserRepository.findById", Metrics.HOT_PATH_SAMPLING);
+	private static final Metrics.Timer FIND_ALL_STUDENTS = Metrics.sampledTimer("UserRepository.findAllStudents", Metrics.HOT_PATH_SAMPLING);
+	private static final Metrics.Timer FIND_ALL_STAFF = Metrics.sampledTimer("UserRepository.findAllStaff", Metrics.HOT_PATH_SAMPLING);
+	private static final Metrics.Timer FIND_COMPANY_REPS = Metrics.sampledTimer("UserRepository.findCompanyReps", Metrics.HOT_PATH_SAMPLING);
+	private static final Metrics.Timer FIND_ELIGIBLE = Metrics.sampledTimer("UserRepository.findEligibleStudents", Metrics.HOT_PATH_SAMPLING);
+	private static final Metrics.Timer FIND_PENDING_REPS = Metrics.sampledTimer("UserRepository.findAllCompanyRepsPending", Metrics.HOT_PATH_SAMPLING);
+	private static final Metrics.Timer SAVE = Metrics.sampledTimer("UserRepository.save", Metrics.HOT_PATH_SAMPLING);
 	
 	/**
 	 * Saves or updates a user in the repository
@@ -23,14 +57,20 @@ public class UserRepository {
 	 * @param user Any of the 3 users
 	 */	
 	public void save(User user) {
-		Objects.requireNonNull(user, "User required");
-		
-		// Check if user already exists
-		User existing = findById(user.getUserId());
-		if (existing != null) {
-			users.remove(existing);
+		long start = SAVE.start();
+		try {
+			Objects.requireNonNull(user, "User required");
+			writer.submit(() -> {
+				// Replaces any existing user with the same ID
+				User previous = users.byId(user.getUserId());
+				users = users.upsert(user);
+				if (previous instanceof Student) unindex(previous.getUserId());
+				if (user instanceof Student student) index(student);
+				return null;
+			}, null);
+		} finally {
+			SAVE.stop(start);
 		}
-		users.add(user);
 	}
 
 	/**
@@ -39,15 +79,15 @@ public class UserRepository {
 	 * @return The matching user, or null if not found
 	 */
 	public User findById(String id) {
-		if (id == null) {
-			return null;
-		}
-		for (User user : users) {
-			if (user.getUserId().equalsIgnoreCase(id)) {
-				return user;
+		long start = FIND_BY_ID.start();
+		try {
+			if (id == null) {
+				return null;
 			}
+			return users.byId(id);
+		} finally {
+			FIND_BY_ID.stop(start);
 		}
-		return null;
 	}
 
 	/**
@@ -55,33 +95,192 @@ public class UserRepository {
 	 * @return List of all Students
 	 */
 	 public List<Student> findAllStudents() {
-	        List<Student> result = new ArrayList<>();
-	        for (User user : users) {
-	            if (user instanceof Student) {
-	                result.add((Student) user);
-	            }
-	        }
-	        return result;
+	 	long start = FIND_ALL_STUDENTS.start();
+	 	try {
+		        Tracer.rows(users.size());
+		        List<Student> result = new ArrayList<>();
+		        for (User user : users) {
+		            if (user instanceof Student) {
+		                result.add((Student) user);
+		            }
+		        }
+		        return result;
+	 	} finally {
+	 		FIND_ALL_STUDENTS.stop(start);
+	 	}
 	 }
 	 
+	/**
+	 * Returns the students whose year and major make them eligible for an opportunity of the given
+	 * level and preferred major: year 1-2 students only for BASIC, any major when none is preferred.
+	 * Only the matching index buckets are read, so the cost is proportional to the result.
+	 * Dates, status and visibility are not considered; check {@code isOpenFor} for those.
+	 *
+	 * @param level opportunity level
+	 * @param preferredMajor opportunity's preferred major; {@code null} or blank for any
+	 * @return eligible students
+	 */
+	public List<Student> findEligibleStudents(InternshipLevel level, String preferredMajor) {
+		long start = FIND_ELIGIBLE.start();
+		try {
+			String major = majorKey(preferredMajor);
+			PersistentHashMap<String, Snapshot<Student>> index = eligibility;
+			Snapshot<Student> seniors = index.get(SENIOR + major);
+			Snapshot<Student> juniors = level == InternshipLevel.BASIC ? index.get(JUNIOR + major) : null;
+			List<Student> result = new ArrayList<>((seniors == null ? 0 : seniors.size()) + (juniors == null ? 0 : juniors.size()));
+			if (juniors != null) result.addAll(juniors);
+			if (seniors != null) result.addAll(seniors);
+			Tracer.rows(result.size());
+			return result;
+		} finally {
+			FIND_ELIGIBLE.stop(start);
+		}
+	}
+
+	/**
+	 * Returns all Career Center Staff in the list
+	 * @return List of all staff
+	 */
+	public List<CareerCenterStaff> findAllStaff() {
+		long start = FIND_ALL_STAFF.start();
+		try {
+			Tracer.rows(users.size());
+			List<CareerCenterStaff> result = new ArrayList<>();
+			for (User user : users) {
+				if (user instanceof CareerCenterStaff staff) {
+					result.add(staff);
+				}
+			}
+			return result;
+		} finally {
+			FIND_ALL_STAFF.stop(start);
+		}
+	}
+
+	/**
+	 * Returns the Company representatives of one company, whatever their approval status
+	 * @param company company name (case-insensitive)
+	 * @return List of that company's representatives
+	 */
+	public List<CompanyRepresentative> findCompanyReps(String company) {
+		long start = FIND_COMPANY_REPS.start();
+		try {
+			Tracer.rows(users.size());
+			List<CompanyRepresentative> result = new ArrayList<>();
+			if (company == null) return result;
+			for (User user : users) {
+				if (user instanceof CompanyRepresentative rep && company.equalsIgnoreCase(rep.getCompanyName())) {
+					result.add(rep);
+				}
+			}
+			return result;
+		} finally {
+			FIND_COMPANY_REPS.stop(start);
+		}
+	}
+
 	/**
 	 * Returns all pending Company representatives in the list
 	* @return List of pending Company Representatives
 	*/
 	public List<CompanyRepresentative> findAllCompanyRepsPending(){
-		List<CompanyRepresentative> result = new ArrayList<>();
-		for (User user : users) {
-			if (user instanceof CompanyRepresentative rep && (rep.isApproved()==RequestStatus.PENDING)) {
-				result.add(rep);
+		long start = FIND_PENDING_REPS.start();
+		try {
+			Tracer.rows(users.size());
+			List<CompanyRepresentative> result = new ArrayList<>();
+			for (User user : users) {
+				if (user instanceof CompanyRepresentative rep && (rep.isApproved()==RequestStatus.PENDING)) {
+					result.add(rep);
+				}
 			}
+			return result;
+		} finally {
+			FIND_PENDING_REPS.stop(start);
 		}
-		return result;
 	}
 	 
 	/**
 	* Clears the repository (for testing or reset)
 	*/
 	public void clear() {
-		users.clear();
+		writer.submit(() -> {
+			users = Snapshot.empty(User::getUserId);
+			eligibility = PersistentHashMap.empty();
+			bucketOf = PersistentHashMap.empty();
+			majors = PersistentTrie.empty();
+			return null;
+		}, null);
+	}
+
+	/** @return distinct majors of stored students, for autocomplete */
+	public PersistentTrie studentMajors() {
+		return majors;
+	}
+
+	/** @return number of stored users of every role */
+	public int count() {
+		return users.size();
+	}
+
+	/**
+	 * Drops the slots left behind by removed users.
+	 * @return number of slots reclaimed
+	 */
+	public int compact() {
+		return writer.submit(() -> {
+			int reclaimed = users.tombstones();
+			users = users.compact();
+			return reclaimed;
+		}, null);
+	}
+
+	/** @return number of removed slots not yet compacted away */
+	public int tombstones() {
+		return users.tombstones();
+	}
+
+	// ===== Eligibility index (writer thread only) =====
+
+	private void index(Student student) {
+		String band = student.getYear() >= 3 ? SENIOR : JUNIOR;
+		String bucket = band + majorKey(student.getMajor());
+		bucketOf = bucketOf.put(idKey(student.getUserId()), bucket);
+		eligibility = add(add(eligibility, bucket, student), band + ANY_MAJOR, student);
+		if (!bucket.endsWith(ANY_MAJOR)) majors = majors.add(student.getMajor());
+	}
+
+	private void unindex(String userId) {
+		String bucket = bucketOf.get(idKey(userId));
+		if (bucket == null) return;
+		bucketOf = bucketOf.remove(idKey(userId));
+		String band = bucket.substring(0, bucket.indexOf(':') + 1);
+		eligibility = remove(remove(eligibility, bucket, userId), band + ANY_MAJOR, userId);
+		// The trie matches case-insensitively, so the upper-cased key removes the original spelling.
+		String major = bucket.substring(band.length());
+		if (!major.equals(ANY_MAJOR)) majors = majors.remove(major);
+	}
+
+	private static PersistentHashMap<String, Snapshot<Student>> add(PersistentHashMap<String, Snapshot<Student>> index, String bucket, Student student) {
+		Snapshot<Student> students = index.get(bucket);
+		if (students == null) students = Snapshot.empty(Student::getUserId);
+		return index.put(bucket, students.upsert(student));
+	}
+
+	private static PersistentHashMap<String, Snapshot<Student>> remove(PersistentHashMap<String, Snapshot<Student>> index, String bucket, String userId) {
+		Snapshot<Student> students = index.get(bucket);
+		if (students == null) return index;
+		Student present = students.byId(userId);
+		if (present == null) return index;
+		students = students.without(present);
+		return students.isEmpty() ? index.remove(bucket) : index.put(bucket, students);
+	}
+
+	private static String majorKey(String major) {
+		String trimmed = major == null ? "" : major.trim();
+		return trimmed.isEmpty() ? ANY_MAJOR : trimmed.toUpperCase(Locale.ROOT);
+	}
+
+	private static String idKey(String userId) {
+		return userId.toUpperCase(Locale.ROOT);
 	}
 }
@@ -0,0 +1,271 @@
+package tools;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import util.Json;
+
+/**
+ * Small JMH-style micro-benchmark harness.
+ * <p>
+ * Each benchmark runs in average-time mode: a number of warmup iterations (discarded) followed
+ * by measurement iterations of a fixed wall-clock length. The operation is called in batches
+ * sized so the clock is read about every 10 microseconds, and every result is folded into a
+ * volatile sink so the JIT cannot drop the call. The score is the mean time per operation over
+ * the measurement iterations, with a 99.9% Student-t confidence interval, as JMH reports it.
+ * Results are written in JMH's JSON result format so the usual tooling can read them.
+ * </p>
+ */
+final class BenchmarkHarness {
+
+    /** Target time between clock reads. */
+    private static final long BATCH_TARGET_NANOS = 10_000;
+    private static final long MAX_BATCH = 1 << 20;
+    /** Confidence level JMH uses for {@code scoreError}. */
+    static final double CONFIDENCE = 0.999;
+
+    private static volatile long sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+
+    /**
+     * @param warmupIterations      iterations run and discarded before measuring
+     * @param measurementIterations iterations that make up the score (at least 2)
+     * @param iterationMillis       wall-clock length of each iteration
+     */
+    BenchmarkHarness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        if (warmupIterations < 0 || measurementIterations < 2 || iterationMillis < 1) {
+            throw new IllegalArgumentException("Need warmup >= 0, iterations >= 2 and time >= 1 ms.");
+        }
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /** One benchmarked operation and the parameters it was set up with. */
+    static final class Benchmark {
+        final String name;
+        final Map<String, String> params;
+        final LongSupplier op;
+
+        /**
+         * @param name   benchmark name, e.g. {@code repositories.UserRepository.findById}
+         * @param params parameter values, e.g. {@code size=10000}
+         * @param op     operation; its result is consumed so the call is not optimised away
+         */
+        Benchmark(String name, Map<String, String> params, LongSupplier op) {
+            this.name = name;
+            this.params = new LinkedHashMap<>(params);
+            this.op = op;
+        }
+
+        /** @return name followed by the parameters, e.g. {@code X.find(size=1000)} */
+        String label() {
+            return params.isEmpty() ? name : name + params.toString().replace('{', '(').replace('}', ')').replace(" ", "");
+        }
+    }
+
+    /** Measured result of one benchmark. */
+    static final class Result {
+        final Benchmark benchmark;
+        /** Mean microseconds per operation for each measurement iteration. */
+        final double[] iterations;
+
+        Result(Benchmark benchmark, double[] iterations) {
+            this.benchmark = benchmark;
+            this.iterations = iterations;
+        }
+
+        double score() {
+            return mean(iterations);
+        }
+
+        double error() {
+            return confidenceHalfWidth(iterations, CONFIDENCE);
+        }
+    }
+
+    /**
+     * Runs one benchmark.
+     *
+     * @param b benchmark to run
+     * @return its measurement iterations
+     */
+    Result run(Benchmark b) {
+        long batch = 1;
+        double[] scores = new double[measurementIterations];
+        for (int i = 0; i < warmupIterations + measurementIterations; i++) {
+            long ops = 0;
+            long start = System.nanoTime();
+            long deadline = start + iterationNanos;
+            long now;
+            do {
+                long acc = 0;
+                for (long k = 0; k < batch; k++) {
+                    acc += b.op.getAsLong();
+                }
+                sink += acc;
+                ops += batch;
+                now = System.nanoTime();
+            } while (now < deadline);
+
+            double nanosPerOp = (double) (now - start) / ops;
+            batch = Math.max(1, Math.min(MAX_BATCH, (long) (BATCH_TARGET_NANOS / Math.max(1.0, nanosPerOp))));
+            if (i >= warmupIterations) {
+                scores[i - warmupIterations] = nanosPerOp / 1_000.0;
+            }
+        }
+        return new Result(b, scores);
+    }
+
+    /**
+     * Writes results as a JMH-compatible JSON array.
+     *
+     * @param results results to write
+     * @param file    destination (parent directories are created)
+     * @throws IOException if the file cannot be written
+     */
+    void writeJson(List<Result> results, Path file) throws IOException {
+        List<Object> out = new ArrayList<>();
+        for (Result r : results) {
+            Map<String, Object> metric = new LinkedHashMap<>();
+            double score = r.score();
+            double error = r.error();
+            metric.put("score", score);
+            metric.put("scoreError", error);
+            metric.put("scoreConfidence", List.of(score - error, score + error));
+            metric.put("scoreUnit", "us/op");
+            List<Object> raw = new ArrayList<>();
+            for (double v : r.iterations) raw.add(v);
+            metric.put("rawData", List.of(raw));
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("jmhVersion", "in-tree");
+            entry.put("benchmark", r.benchmark.name);
+            entry.put("mode", "avgt");
+            entry.put("threads", 1);
+            entry.put("forks", 1);
+            entry.put("jdkVersion", System.getProperty("java.version"));
+            entry.put("warmupIterations", warmupIterations);
+            entry.put("warmupTime", iterationNanos / 1_000_000 + " ms");
+            entry.put("measurementIterations", measurementIterations);
+            entry.put("measurementTime", iterationNanos / 1_000_000 + " ms");
+            entry.put("params", new LinkedHashMap<String, Object>(r.benchmark.params));
+            entry.put("primaryMetric", metric);
+            out.add(entry);
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Files.writeString(file, Json.write(out), StandardCharsets.UTF_8);
+    }
+
+    // ===== Statistics =====
+
+    static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values) sum += v;
+        return values.length == 0 ? Double.NaN : sum / values.length;
+    }
+
+    static double variance(double[] values) {
+        if (values.length < 2) return 0.0;
+        double m = mean(values);
+        double ss = 0;
+        for (double v : values) ss += (v - m) * (v - m);
+        return ss / (values.length - 1);
+    }
+
+    /**
+     * @param values     samples
+     * @param confidence two-sided confidence level, e.g. 0.999
+     * @return half-width of the Student-t confidence interval of the mean
+     */
+    static double confidenceHalfWidth(double[] values, double confidence) {
+        if (values.length < 2) return Double.NaN;
+        double t = studentTQuantile(1 - (1 - confidence) / 2, values.length - 1);
+        return t * Math.sqrt(variance(values) / values.length);
+    }
+
+    /**
+     * Inverse CDF of Student's t distribution, found by bisection on the CDF.
+     *
+     * @param p  probability in (0.5, 1)
+     * @param df degrees of freedom (may be fractional, as in Welch's test)
+     * @return {@code t} with {@code P(T <= t) = p}
+     */
+    static double studentTQuantile(double p, double df) {
+        double lo = 0, hi = 1;
+        while (studentTCdf(hi, df) < p) hi *= 2;
+        for (int i = 0; i < 100; i++) {
+            double mid = (lo + hi) / 2;
+            if (studentTCdf(mid, df) < p) lo = mid; else hi = mid;
+        }
+        return (lo + hi) / 2;
+    }
+
+    /** @return {@code P(T <= t)} for Student's t with {@code df} degrees of freedom */
+    static double studentTCdf(double t, double df) {
+        double x = df / (df + t * t);
+        double tail = 0.5 * regularizedBeta(x, df / 2, 0.5);
+        return t >= 0 ? 1 - tail : tail;
+    }
+
+    /** Regularized incomplete beta function I_x(a, b) (continued fraction, Numerical Recipes 6.4). */
+    private static double regularizedBeta(double x, double a, double b) {
+        if (x <= 0) return 0;
+        if (x >= 1) return 1;
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * betaContinuedFraction(x, a, b) / a;
+        }
+        return 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+    }
+
+    private static double betaContinuedFraction(double x, double a, double b) {
+        final double tiny = 1e-300;
+        double c = 1, d = 1 - (a + b) * x / (a + 1);
+        if (Math.abs(d) < tiny) d = tiny;
+        d = 1 / d;
+        double h = d;
+        for (int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 + aa * d;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = 1 + aa / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            h *= d * c;
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 + aa * d;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = 1 + aa / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) break;
+        }
+        return h;
+    }
+
+    /** Lanczos approximation of ln Γ(x) for x > 0. */
+    private static double logGamma(double x) {
+        double[] g = { 76.18009172947146, -86.50532032941677, 24.01409824083091,
+                -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+        double y = x, tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double ser = 1.000000000190015;
+        for (double c : g) ser += c / ++y;
+        return -tmp + Math.log(2.5066282746310005 * ser / x);
+    }
+}
@@ -0,0 +1,274 @@
+package tools;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import util.Json;
+
+/**
+ * Keeps benchmark results per run and compares runs.
+ * <p>
+ * Runs are JMH-format JSON files (as written by {@link BenchmarkSuite}) stored in a history
+ * directory under a sortable id {@code yyyyMMdd-HHmmss[-label]}. Comparing two runs matches
+ * benchmarks by name and parameters and, for each pair, estimates the change in mean time with
+ * a Welch two-sample confidence interval over the measurement iterations. A change is flagged
+ * only when it exceeds the threshold <em>and</em> its confidence interval excludes zero;
+ * changes past the threshold that the interval cannot separate from noise are marked
+ * {@code noisy}.
+ * </p>
+ * Usage:
+ * <pre>
+ * java tools.BenchmarkHistory store results.json [--label after-index] [--dir benchmark-history]
+ * java tools.BenchmarkHistory list [--dir benchmark-history]
+ * java tools.BenchmarkHistory compare [base] [candidate] [--threshold 5] [--confidence 0.99]
+ *     [--include regex] [--dir benchmark-history]
+ * </pre>
+ * {@code base} and {@code candidate} are run ids (a unique prefix is enough), file paths, or
+ * {@code latest} / {@code previous}; they default to the two most recent runs. {@code compare}
+ * exits with status 1 when any benchmark regressed, so it can gate a build.
+ */
+public class BenchmarkHistory {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path dir;
+
+    /**
+     * @param dir history directory (created on first store)
+     */
+    public BenchmarkHistory(Path dir) {
+        this.dir = dir;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+                opts.put(args[i].substring(2), flag ? "true" : args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.isEmpty()) {
+            System.err.println("Usage: BenchmarkHistory store <results.json> | list | compare [base] [candidate]");
+            System.exit(2);
+        }
+        BenchmarkHistory history = new BenchmarkHistory(Paths.get(opts.getOrDefault("dir", "benchmark-history")));
+        switch (positional.get(0)) {
+            case "store" -> {
+                if (positional.size() < 2) throw new IllegalArgumentException("store needs a results file.");
+                String id = history.store(Paths.get(positional.get(1)), opts.get("label"));
+                System.out.println("Stored run " + id);
+            }
+            case "list" -> history.list();
+            case "compare" -> {
+                String base = positional.size() > 1 ? positional.get(1) : "previous";
+                String candidate = positional.size() > 2 ? positional.get(2) : "latest";
+                double threshold = Double.parseDouble(opts.getOrDefault("threshold", "5"));
+                double confidence = Double.parseDouble(opts.getOrDefault("confidence", "0.99"));
+                Pattern include = Pattern.compile(opts.getOrDefault("include", ".*"));
+                int regressions = history.compare(base, candidate, threshold, confidence, include);
+                if (regressions > 0) System.exit(1);
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + positional.get(0));
+        }
+    }
+
+    /**
+     * Copies a results file into the history.
+     *
+     * @param results JMH-format JSON results
+     * @param label   optional label appended to the run id (e.g. a commit hash)
+     * @return the new run id
+     * @throws IOException if the file cannot be read or copied
+     */
+    public String store(Path results, String label) throws IOException {
+        readRun(results); // reject files that are not benchmark results
+        Files.createDirectories(dir);
+        String id = LocalDateTime.now().format(RUN_ID);
+        if (label != null && !label.isBlank()) id += "-" + label.trim().replaceAll("[^A-Za-z0-9._-]", "_");
+        Files.copy(results, dir.resolve(id + ".json"), StandardCopyOption.REPLACE_EXISTING);
+        return id;
+    }
+
+    /** Prints every stored run with its benchmark count. */
+    public void list() throws IOException {
+        List<Path> runs = runs();
+        if (runs.isEmpty()) {
+            System.out.println("No runs in " + dir);
+            return;
+        }
+        for (Path run : runs) {
+            System.out.printf("%-40s %4d benchmarks%n", runId(run), readRun(run).size());
+        }
+    }
+
+    /**
+     * Prints a table comparing two runs.
+     *
+     * @param baseRef      base run (id, prefix, path, {@code latest} or {@code previous})
+     * @param candidateRef candidate run
+     * @param thresholdPct smallest change, in percent, worth flagging
+     * @param confidence   two-sided confidence level of the interval
+     * @param include      pattern selecting benchmarks (matched anywhere in name and parameters)
+     * @return number of regressions
+     * @throws IOException if a run cannot be read
+     */
+    public int compare(String baseRef, String candidateRef, double thresholdPct, double confidence, Pattern include)
+            throws IOException {
+        Path basePath = resolve(baseRef);
+        Path candidatePath = resolve(candidateRef);
+        Map<String, Sample> base = readRun(basePath);
+        Map<String, Sample> candidate = readRun(candidatePath);
+
+        System.out.printf("Base:      %s%nCandidate: %s%nThreshold: %.1f%%, confidence %.1f%%%n%n",
+                runId(basePath), runId(candidatePath), thresholdPct, confidence * 100);
+        System.out.printf("%-90s %12s %12s %9s %11s  %s%n", "Benchmark", "base us/op", "cand us/op", "change", "CI", "verdict");
+
+        int regressions = 0, improvements = 0, unchanged = 0;
+        for (Map.Entry<String, Sample> e : new TreeMap<>(base).entrySet()) {
+            if (!include.matcher(e.getKey()).find()) continue;
+            Sample b = e.getValue();
+            Sample c = candidate.get(e.getKey());
+            if (c == null) {
+                System.out.printf("%-90s %12.3f %12s %9s %11s  %s%n", e.getKey(), b.mean(), "-", "", "", "missing");
+                continue;
+            }
+            double change = (c.mean() - b.mean()) / b.mean() * 100;
+            double half = welchHalfWidth(b, c, confidence) / b.mean() * 100;
+            boolean significant = !Double.isNaN(half) && Math.abs(change) > half;
+            String verdict;
+            if (Math.abs(change) < thresholdPct) {
+                verdict = "";
+                unchanged++;
+            } else if (!significant) {
+                verdict = "noisy";
+                unchanged++;
+            } else if (change > 0) {
+                verdict = "REGRESSION";
+                regressions++;
+            } else {
+                verdict = "improvement";
+                improvements++;
+            }
+            System.out.printf("%-90s %12.3f %12.3f %+8.1f%% %10s  %s%n", e.getKey(), b.mean(), c.mean(), change,
+                    Double.isNaN(half) ? "n/a" : String.format("+-%.1f%%", half), verdict);
+        }
+        for (String key : candidate.keySet()) {
+            if (!base.containsKey(key) && include.matcher(key).find()) {
+                System.out.printf("%-90s %12s %12.3f %9s %11s  %s%n", key, "-", candidate.get(key).mean(), "", "", "new");
+            }
+        }
+        System.out.printf("%n%d regression(s), %d improvement(s), %d unchanged%n", regressions, improvements, unchanged);
+        return regressions;
+    }
+
+    // ===== Runs =====
+
+    private List<Path> runs() throws IOException {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".json")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private Path resolve(String ref) throws IOException {
+        Path asFile = Paths.get(ref);
+        if (Files.isRegularFile(asFile)) return asFile;
+        List<Path> runs = runs();
+        if (ref.equals("latest") || ref.equals("previous")) {
+            int index = runs.size() - (ref.equals("latest") ? 1 : 2);
+            if (index < 0) throw new IllegalArgumentException("Not enough runs in " + dir + " for '" + ref + "'.");
+            return runs.get(index);
+        }
+        List<Path> matches = runs.stream().filter(p -> runId(p).startsWith(ref)).collect(Collectors.toList());
+        if (matches.size() != 1) {
+            throw new IllegalArgumentException(matches.isEmpty() ? "No run matches '" + ref + "'." : "Run id '" + ref + "' is ambiguous.");
+        }
+        return matches.get(0);
+    }
+
+    private static String runId(Path run) {
+        String name = run.getFileName().toString();
+        return name.endsWith(".json") ? name.substring(0, name.length() - 5) : name;
+    }
+
+    /** Measurement iterations of one benchmark. */
+    private static final class Sample {
+        final double[] values;
+
+        Sample(double[] values) {
+            this.values = values;
+        }
+
+        double mean() {
+            return BenchmarkHarness.mean(values);
+        }
+    }
+
+    /**
+     * Reads a JMH-format result file.
+     *
+     * @return samples keyed by {@code benchmark(param=value,...)}
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Sample> readRun(Path file) throws IOException {
+        Object parsed = Json.parse(Files.readString(file, StandardCharsets.UTF_8));
+        if (!(parsed instanceof List)) throw new IllegalArgumentException(file + " is not a benchmark result array.");
+        Map<String, Sample> out = new LinkedHashMap<>();
+        for (Object o : (List<Object>) parsed) {
+            Map<String, Object> entry = (Map<String, Object>) o;
+            Map<String, Object> params = (Map<String, Object>) entry.getOrDefault("params", Map.of());
+            Map<String, Object> metric = (Map<String, Object>) entry.get("primaryMetric");
+            if (metric == null) throw new IllegalArgumentException(file + ": entry without primaryMetric.");
+            String key = entry.get("benchmark") + (params.isEmpty() ? ""
+                    : params.entrySet().stream().map(p -> p.getKey() + "=" + p.getValue())
+                            .collect(Collectors.joining(",", "(", ")")));
+
+            List<Double> values = new ArrayList<>();
+            Object raw = metric.get("rawData");
+            if (raw instanceof List<?> forks) {
+                for (Object fork : forks) {
+                    for (Object v : (List<Object>) fork) values.add(((Number) v).doubleValue());
+                }
+            }
+            if (values.isEmpty()) values.add(((Number) metric.get("score")).doubleValue());
+            out.put(key, new Sample(values.stream().mapToDouble(Double::doubleValue).toArray()));
+        }
+        return out;
+    }
+
+    // ===== Statistics =====
+
+    /**
+     * Half-width of the Welch confidence interval for {@code mean(c) - mean(b)}.
+     *
+     * @return half-width, or NaN when either side has fewer than two iterations
+     */
+    private static double welchHalfWidth(Sample b, Sample c, double confidence) {
+        int nb = b.values.length, nc = c.values.length;
+        if (nb < 2 || nc < 2) return Double.NaN;
+        double vb = BenchmarkHarness.variance(b.values) / nb;
+        double vc = BenchmarkHarness.variance(c.values) / nc;
+        double se = Math.sqrt(vb + vc);
+        if (se == 0) return 0;
+        double df = (vb + vc) * (vb + vc) / (vb * vb / (nb - 1) + vc * vc / (nc - 1));
+        return BenchmarkHarness.studentTQuantile(1 - (1 - confidence) / 2, df) * se;
+    }
+}
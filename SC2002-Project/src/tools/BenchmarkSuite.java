@@ -0,0 +1,374 @@
+package tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+import control.NotificationRouter;
+import control.NotificationService;
+import control.OpportunityService;
+import control.ReportService;
+import control.SuggestionService;
+import entity.domain.Application;
+import entity.domain.CareerCenterStaff;
+import entity.domain.CompanyRepresentative;
+import entity.domain.InternshipOpportunity;
+import entity.domain.OpportunityFilter;
+import entity.domain.OpportunityFilter.SortKey;
+import entity.domain.ReportFilter;
+import entity.domain.Student;
+import entity.domain.User;
+import repositories.ApplicationRepository;
+import repositories.InboxRepository;
+import repositories.OpportunityRepository;
+import repositories.RequestRepository;
+import repositories.UserRepository;
+import util.FileImporter;
+import util.IdGenerator;
+import util.Log;
+import util.Metrics;
+import util.Validator;
+
+/**
+ * Benchmark suite for the repositories, services and CSV loaders.
+ * <p>
+ * For every dataset size a data set is generated with {@link DatasetGenerator} into a
+ * temporary directory and loaded the same way {@code AppContext} loads {@code data/}. The suite
+ * then measures, with {@link BenchmarkHarness}:
+ * </p>
+ * <ul>
+ *   <li>{@code UserRepository.findById} and {@code findEligibleStudents};</li>
+ *   <li>every {@code OpportunityRepository} and {@code ApplicationRepository} query;</li>
+ *   <li>{@code OpportunityService.listVisibleFor} with each {@link SortKey}, and the first page of
+ *       {@code pageVisibleFor} and {@code pageAllFiltered};</li>
+ *   <li>{@code ReportService.generate} and {@code NotificationService.getNotifications} per role;</li>
+ *   <li>loading from disk: the three user importers and {@code reloadFromDisk} of each repository;</li>
+ *   <li>the cost of a {@link Metrics} timer and counter update, and of a disabled {@link Log} call.</li>
+ * </ul>
+ * Lookups cycle through a fixed sample of keys spread over the whole data set. Loaders run last
+ * because they replace the loaded objects. Results go to a JMH-format JSON file.
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * java tools.BenchmarkSuite [--sizes 1000,10000] [--warmup 3] [--iterations 5] [--time 1000]
+ *     [--include regex] [--seed 42] [--base-date 2025-09-01] [--out benchmark-results.json] [--verbose]
+ * </pre>
+ * {@code --time} is the length of each iteration in milliseconds; {@code --include} keeps only
+ * benchmarks whose name matches the regular expression. {@code --base-date} is passed to the
+ * generator (default {@link DatasetGenerator#DEFAULT_BASE_DATE}) and recorded with the seed in
+ * each data-set benchmark's params, so runs on different days load the same data.
+ */
+public class BenchmarkSuite {
+
+    private static final int SAMPLE = 1024;
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = parseArgs(args);
+        List<Integer> sizes = new ArrayList<>();
+        for (String s : opts.getOrDefault("sizes", "1000,10000").split(",")) sizes.add(Integer.parseInt(s.trim()));
+        BenchmarkHarness harness = new BenchmarkHarness(
+                Integer.parseInt(opts.getOrDefault("warmup", "3")),
+                Integer.parseInt(opts.getOrDefault("iterations", "5")),
+                Long.parseLong(opts.getOrDefault("time", "1000")));
+        Pattern include = Pattern.compile(opts.getOrDefault("include", ".*"));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        LocalDate baseDate = opts.containsKey("base-date") ? LocalDate.parse(opts.get("base-date")) : DatasetGenerator.DEFAULT_BASE_DATE;
+        Path out = Paths.get(opts.getOrDefault("out", "benchmark-results.json"));
+
+        PrintStream console = System.out;
+        if (!opts.containsKey("verbose")) System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        List<BenchmarkHarness.Result> results = new ArrayList<>();
+        try {
+            for (BenchmarkHarness.Benchmark b : metricsBenchmarks()) {
+                if (!include.matcher(b.name).find()) continue;
+                BenchmarkHarness.Result r = harness.run(b);
+                results.add(r);
+                console.printf("%-90s %14.3f +- %12.3f us/op%n", b.label(), r.score(), r.error());
+            }
+            for (int size : sizes) {
+                Path dir = Files.createTempDirectory("bench-" + size + "-");
+                try {
+                    console.printf("# size=%d: generating and loading data set in %s%n", size, dir);
+                    DatasetGenerator.forScale(seed, size, baseDate).writeAll(dir);
+                    Fixture fixture = new Fixture(dir);
+                    try {
+                        for (BenchmarkHarness.Benchmark b : fixture.benchmarks(size, seed, baseDate)) {
+                            if (!include.matcher(b.name).find()) continue;
+                            BenchmarkHarness.Result r = harness.run(b);
+                            results.add(r);
+                            console.printf("%-90s %14.3f +- %12.3f us/op%n", b.label(), r.score(), r.error());
+                        }
+                    } finally {
+                        // Otherwise this data set's listeners would keep handling the next one's saves.
+                        fixture.close();
+                    }
+                } finally {
+                    deleteQuietly(dir);
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+        harness.writeJson(results, out);
+        console.println("Wrote " + results.size() + " results to " + out);
+    }
+
+    /** Cost of the instruments themselves, independent of data set size. */
+    private static List<BenchmarkHarness.Benchmark> metricsBenchmarks() {
+        Metrics.Timer timer = Metrics.timer("BenchmarkSuite.timer");
+        Metrics.Timer sampled = Metrics.sampledTimer("BenchmarkSuite.sampledTimer", Metrics.HOT_PATH_SAMPLING);
+        Metrics.Counter counter = Metrics.counter("BenchmarkSuite.counter");
+        Log.Logger log = Log.get(BenchmarkSuite.class);
+        List<BenchmarkHarness.Benchmark> list = new ArrayList<>();
+        list.add(new BenchmarkHarness.Benchmark("util.Metrics.Timer.startStop", Map.of(), () -> {
+            long start = timer.start();
+            timer.stop(start);
+            return start;
+        }));
+        list.add(new BenchmarkHarness.Benchmark("util.Metrics.Timer.startStop",
+                Map.of("sampling", String.valueOf(Metrics.HOT_PATH_SAMPLING)), () -> {
+            long start = sampled.start();
+            sampled.stop(start);
+            return start;
+        }));
+        list.add(new BenchmarkHarness.Benchmark("util.Metrics.Counter.increment", Map.of(), () -> {
+            counter.increment();
+            return 1;
+        }));
+        // Debug is below the default level, so this measures what quiet mode costs a hot path.
+        list.add(new BenchmarkHarness.Benchmark("util.Log.Logger.debug", Map.of("enabled", "false"), () -> {
+            log.debug("benchmark", "key", "value");
+            return 1;
+        }));
+        return list;
+    }
+
+    /** One loaded data set plus the key samples the benchmarks cycle through. */
+    private static final class Fixture {
+        private final Path dir;
+        private final UserRepository userRepo = new UserRepository();
+        private final IdGenerator idGen = new IdGenerator();
+        private final OpportunityRepository oppRepo;
+        private final ApplicationRepository appRepo;
+        private final RequestRepository reqRepo;
+        private final InboxRepository inboxRepo = new InboxRepository();
+        private final FileImporter importer;
+        private final OpportunityService oppService;
+        private final ReportService reportService;
+        private final SuggestionService suggestionService;
+        private final NotificationRouter router;
+
+        private final String[] studentIds;
+        private final Student[] students;
+        private final CompanyRepresentative[] reps;
+        private final String[] companies;
+        private final String[] oppIds;
+        private final InternshipOpportunity[] opps;
+        private final String[] appIds;
+        private final User[] staff;
+        private int cursor;
+
+        Fixture(Path dir) {
+            this.dir = dir;
+            importer = new FileImporter(userRepo);
+            oppRepo = new OpportunityRepository(file("opportunities.csv"), userRepo, idGen);
+            appRepo = new ApplicationRepository(file("applications.csv"), userRepo, oppRepo);
+            reqRepo = new RequestRepository(file("withdrawals.csv"), appRepo, userRepo);
+            importer.importStudents(new File(file("sample_student_list.csv")));
+            List<CareerCenterStaff> allStaff = sample(importer.importStaff(new File(file("sample_staff_list.csv"))));
+            importer.importCompanyReps(new File(file("sample_company_representative_list.csv")), reqRepo);
+            oppRepo.reloadFromDisk();
+            appRepo.reloadFromDisk();
+            reqRepo.reloadFromDisk();
+            oppService = new OpportunityService(oppRepo, new Validator());
+            reportService = new ReportService(oppRepo, appRepo);
+            suggestionService = new SuggestionService(oppRepo, userRepo);
+
+            List<Student> allStudents = sample(userRepo.findAllStudents());
+            List<InternshipOpportunity> allOpps = sample(oppRepo.findAll());
+            List<Application> allApps = sample(appRepo.findAll());
+            students = allStudents.toArray(new Student[0]);
+            studentIds = allStudents.stream().map(Student::getUserId).toArray(String[]::new);
+            opps = allOpps.toArray(new InternshipOpportunity[0]);
+            oppIds = allOpps.stream().map(InternshipOpportunity::getId).toArray(String[]::new);
+            reps = allOpps.stream().map(InternshipOpportunity::getRepInCharge).toArray(CompanyRepresentative[]::new);
+            companies = allOpps.stream().map(InternshipOpportunity::getCompanyName).toArray(String[]::new);
+            appIds = allApps.stream().map(Application::getId).toArray(String[]::new);
+            staff = allStaff.toArray(new User[0]);
+
+            // The router delivers into in-memory inboxes; reading them costs O(unread).
+            router = new NotificationRouter(userRepo, inboxRepo);
+            router.attach(oppRepo, appRepo, reqRepo);
+        }
+
+        void close() {
+            router.detach();
+            oppService.close();
+        }
+
+        List<BenchmarkHarness.Benchmark> benchmarks(int size, long seed, LocalDate baseDate) {
+            List<BenchmarkHarness.Benchmark> list = new ArrayList<>();
+            Map<String, String> params = new LinkedHashMap<>();
+            params.put("size", Integer.toString(size));
+            params.put("seed", Long.toString(seed));
+            params.put("baseDate", baseDate.toString());
+
+            add(list, "repositories.UserRepository.findById", params, () -> hash(userRepo.findById(studentIds[next(studentIds)])));
+            add(list, "repositories.UserRepository.findEligibleStudents", params, () -> {
+                InternshipOpportunity opp = opps[next(opps)];
+                return userRepo.findEligibleStudents(opp.getLevel(), opp.getPreferredMajor()).size();
+            });
+
+            add(list, "repositories.OpportunityRepository.findById", params, () -> hash(oppRepo.findById(oppIds[next(oppIds)])));
+            add(list, "repositories.OpportunityRepository.findAll", params, () -> oppRepo.findAll().size());
+            add(list, "repositories.OpportunityRepository.findByCompany", params, () -> oppRepo.findByCompany(companies[next(companies)]).size());
+            add(list, "repositories.OpportunityRepository.findByRepresentative", params, () -> oppRepo.findByRepresentative(reps[next(reps)]).size());
+            add(list, "repositories.OpportunityRepository.findApprovedVisibleByFilter", with(params, "filter", "none"),
+                    () -> oppRepo.findApprovedVisibleByFilter(null).size());
+            add(list, "repositories.OpportunityRepository.findApprovedVisibleByFilter", with(params, "filter", "major"),
+                    () -> oppRepo.findApprovedVisibleByFilter(majorFilter(opps[next(opps)])).size());
+            add(list, "repositories.OpportunityRepository.findOpenOn", params,
+                    () -> oppRepo.findOpenOn(opps[next(opps)].getOpenDate()).size());
+            add(list, "repositories.OpportunityRepository.findClosingBefore", params,
+                    () -> oppRepo.findClosingBefore(opps[next(opps)].getOpenDate()).size());
+            // The first call builds the text index, which warmup absorbs.
+            add(list, "repositories.OpportunityRepository.search", with(params, "query", "words"),
+                    () -> oppRepo.search(opps[next(opps)].getTitle(), 20, null).size());
+            add(list, "repositories.OpportunityRepository.search", with(params, "query", "phrase"),
+                    () -> oppRepo.search("\"" + opps[next(opps)].getTitle() + "\"", 20, null).size());
+            add(list, "control.SuggestionService.suggestCompanies", with(params, "typed", "prefix"),
+                    () -> suggestionService.suggestCompanies(prefix(companies[next(companies)], 3), 10).size());
+            // One character dropped, so only the typo-tolerant pass can find it.
+            add(list, "control.SuggestionService.suggestCompanies", with(params, "typed", "typo"),
+                    () -> suggestionService.suggestCompanies(typo(companies[next(companies)]), 10).size());
+
+            add(list, "repositories.ApplicationRepository.findById", params, () -> hash(appRepo.findById(appIds[next(appIds)])));
+            add(list, "repositories.ApplicationRepository.findAll", params, () -> appRepo.findAll().size());
+            add(list, "repositories.ApplicationRepository.findByStudent", params, () -> appRepo.findByStudent(students[next(students)]).size());
+            add(list, "repositories.ApplicationRepository.findByOpportunity", params, () -> appRepo.findByOpportunity(opps[next(opps)]).size());
+            add(list, "repositories.ApplicationRepository.countSuccessfulByOpportunity", params,
+                    () -> appRepo.countSuccessfulByOpportunity(opps[next(opps)]));
+
+            for (SortKey key : SortKey.values()) {
+                OpportunityFilter filter = new OpportunityFilter();
+                filter.setSortKey(key);
+                add(list, "control.OpportunityService.listVisibleFor", with(params, "sortKey", key.name()),
+                        () -> oppService.listVisibleFor(students[next(students)], filter).size());
+            }
+            add(list, "control.OpportunityService.pageVisibleFor", with(params, "pageSize", "20"),
+                    () -> oppService.pageVisibleFor(students[next(students)], null, null, 20).getItems().size());
+            add(list, "control.OpportunityService.listAllFiltered", params,
+                    () -> oppService.listAllFiltered(null).size());
+            add(list, "control.OpportunityService.pageAllFiltered", with(params, "pageSize", "20"),
+                    () -> oppService.pageAllFiltered(null, null, 20).getItems().size());
+            add(list, "control.ReportService.generate", params, () -> reportService.generate(null).getRows().size());
+            add(list, "control.NotificationService.getNotifications", with(params, "role", "student"),
+                    () -> NotificationService.getNotifications(students[next(students)], inboxRepo, oppRepo, reqRepo).size());
+            add(list, "control.NotificationService.getNotifications", with(params, "role", "rep"),
+                    () -> NotificationService.getNotifications(reps[next(reps)], inboxRepo, oppRepo, reqRepo).size());
+            add(list, "control.NotificationService.getNotifications", with(params, "role", "staff"),
+                    () -> NotificationService.getNotifications(staff[next(staff)], inboxRepo, oppRepo, reqRepo).size());
+
+            // Loaders last: they replace the objects the lookups above hold on to.
+            add(list, "util.FileImporter.importStudents", params,
+                    () -> importer.importStudents(new File(file("sample_student_list.csv"))).size());
+            add(list, "util.FileImporter.importStaff", params,
+                    () -> importer.importStaff(new File(file("sample_staff_list.csv"))).size());
+            add(list, "util.FileImporter.importCompanyReps", params,
+                    () -> importer.importCompanyReps(new File(file("sample_company_representative_list.csv")), null));
+            add(list, "repositories.OpportunityRepository.loadFromDisk", params, () -> {
+                oppRepo.reloadFromDisk();
+                return oppRepo.findAll().size();
+            });
+            add(list, "repositories.ApplicationRepository.loadFromDisk", params, () -> {
+                appRepo.reloadFromDisk();
+                return appRepo.findAll().size();
+            });
+            add(list, "repositories.RequestRepository.loadFromDisk", params, () -> {
+                reqRepo.reloadFromDisk();
+                return reqRepo.findAllWithdrawals().size();
+            });
+            return list;
+        }
+
+        private void add(List<BenchmarkHarness.Benchmark> list, String name, Map<String, String> params, LongSupplier op) {
+            list.add(new BenchmarkHarness.Benchmark(name, params, op));
+        }
+
+        private int next(Object[] keys) {
+            int i = cursor++ % keys.length;
+            if (cursor == Integer.MAX_VALUE) cursor = 0;
+            return i;
+        }
+
+        private String file(String name) {
+            return dir.resolve(name).toString();
+        }
+
+        private static ReportFilter majorFilter(InternshipOpportunity opp) {
+            ReportFilter f = new ReportFilter();
+            f.setPreferredMajor(opp.getPreferredMajor());
+            return f;
+        }
+
+        private static String prefix(String name, int length) {
+            return name.substring(0, Math.min(length, name.length()));
+        }
+
+        private static String typo(String name) {
+            String typed = prefix(name, 8);
+            int at = typed.length() / 2;
+            return typed.substring(0, at) + typed.substring(Math.min(at + 1, typed.length()));
+        }
+    }
+
+    private static Map<String, String> with(Map<String, String> params, String key, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(params);
+        copy.put(key, value);
+        return copy;
+    }
+
+    private static long hash(Object o) {
+        return o == null ? 0 : System.identityHashCode(o);
+    }
+
+    /** @return up to {@value #SAMPLE} elements spread evenly over {@code all} */
+    private static <T> List<T> sample(List<T> all) {
+        List<T> out = new ArrayList<>();
+        if (all.isEmpty()) return out;
+        double step = Math.max(1.0, (double) all.size() / SAMPLE);
+        for (double i = 0; i < all.size() && out.size() < SAMPLE; i += step) out.add(all.get((int) i));
+        return out;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            String key = args[i].substring(2);
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            opts.put(key, flag ? "true" : args[++i]);
+        }
+        return opts;
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not clean up " + dir + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package tools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import entity.domain.CompanyRepresentative;
+import entity.domain.InternshipOpportunity;
+import entity.domain.enums.InternshipLevel;
+import entity.domain.enums.OpportunityStatus;
+import repositories.OpportunityRepository;
+import repositories.UserRepository;
+import util.IdGenerator;
+import util.StripedLocks;
+
+/**
+ * Stress check for concurrent repository and entity access.
+ * Runs against a temporary data directory, never the real {@code data/} folder.
+ * <ul>
+ *   <li>many threads insert distinct opportunities while readers iterate {@code findAll()};</li>
+ *   <li>every insert must be visible in memory and again after a reload from disk;</li>
+ *   <li>contended read-modify-write of slot counts under {@link StripedLocks} must not lose updates.</li>
+ * </ul>
+ * Usage: {@code java tools.ConcurrencyStress [threads] [opsPerThread]} (defaults 64 and 50).
+ * Exits with status 1 if any check fails.
+ */
+public class ConcurrencyStress {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        Path dir = Files.createTempDirectory("ipms-stress");
+        String file = dir.resolve("opportunities.csv").toString();
+        IdGenerator ids = new IdGenerator();
+        UserRepository users = new UserRepository();
+        OpportunityRepository opps = new OpportunityRepository(file, users, ids);
+
+        CompanyRepresentative rep = new CompanyRepresentative(
+                "stress@example.com", "Stress Rep", "password", "Stress Co", "QA", "Tester");
+        users.save(rep);
+
+        boolean ok = true;
+        ok &= concurrentInserts(opps, rep, ids, threads, perThread);
+        opps.reloadFromDisk();
+        ok &= check("inserts survive reload", threads * perThread, opps.findAll().size());
+        ok &= contendedUpdates(opps, threads, perThread);
+
+        deleteQuietly(dir);
+        System.out.println(ok ? "PASS" : "FAIL");
+        if (!ok) System.exit(1);
+    }
+
+    private static boolean concurrentInserts(OpportunityRepository opps, CompanyRepresentative rep,
+            IdGenerator ids, int threads, int perThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong readerErrors = new AtomicLong();
+        AtomicLong scans = new AtomicLong();
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    InternshipOpportunity opp = rep.createOpportunity(ids.newId("OPP"),
+                            "Stress " + thread + "-" + i, "load", InternshipLevel.BASIC, "CS", 1);
+                    opps.save(opp);
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                int last = 0;
+                while (writing.get()) {
+                    int seen = 0;
+                    for (InternshipOpportunity opp : opps.findAll()) {
+                        if (opp == null) readerErrors.incrementAndGet();
+                        seen++;
+                    }
+                    // Snapshots only ever grow during this phase.
+                    if (seen < last) readerErrors.incrementAndGet();
+                    last = seen;
+                    scans.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : writers) f.get();
+        writing.set(false);
+        for (Future<?> f : readers) f.get();
+        pool.shutdown();
+        long millis = (System.nanoTime() - began) / 1_000_000;
+
+        System.out.printf("inserts: %d threads x %d in %d ms, %d reader scans%n",
+                threads, perThread, millis, scans.get());
+        return check("inserts visible in memory", threads * perThread, opps.findAll().size())
+                & check("reader anomalies", 0, readerErrors.get());
+    }
+
+    private static boolean contendedUpdates(OpportunityRepository opps, int threads, int perThread) throws Exception {
+        StripedLocks locks = StripedLocks.shared();
+        InternshipOpportunity target = opps.findAll().get(0);
+        target.setStatus(OpportunityStatus.APPROVED);
+        int initial = target.getSlots();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    locks.update(() -> {
+                        target.setSlots(target.getSlots() + 1);
+                        opps.save(target);
+                    }, target.getId());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        opps.reloadFromDisk();
+        InternshipOpportunity reloaded = opps.findById(target.getId());
+        int expected = initial + threads * perThread;
+        return check("contended slot updates", expected, target.getSlots())
+                & check("contended slot updates on disk", expected, reloaded == null ? -1 : reloaded.getSlots());
+    }
+
+    private static boolean check(String name, long expected, long actual) {
+        boolean pass = expected == actual;
+        System.out.printf("%-32s expected=%d actual=%d %s%n", name, expected, actual, pass ? "ok" : "MISMATCH");
+        return pass;
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not clean up " + dir + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,610 @@
+package tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import entity.domain.enums.ApplicationStatus;
+import entity.domain.enums.InternshipLevel;
+import entity.domain.enums.OpportunityStatus;
+import entity.domain.enums.RequestStatus;
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Deterministic, seeded generator for large CSV data sets in the formats the importers and
+ * repositories read.
+ * <p>
+ * Every attribute of a row is a pure function of {@code (seed, row index)} computed with a
+ * SplitMix64 hash, so references between files (rep of an opportunity, student and
+ * opportunity of an application, application of a withdrawal) are derived arithmetically
+ * instead of being remembered. All six files are written in a single streaming pass and
+ * memory use does not grow with the number of rows. The same arguments always produce
+ * byte-identical files.
+ * </p>
+ * The generated data keeps the invariants the services rely on:
+ * <ul>
+ *   <li>opportunities belong to approved reps, at most 5 per rep, named after the rep's company;</li>
+ *   <li>applications only target approved or filled opportunities the student is eligible for
+ *       (year and preferred major), and no student has more than 3 applications;</li>
+ *   <li>a student has at most one {@code ACCEPTED} application, and each opportunity's
+ *       {@code Slots} column holds the slots left after its accepted applications
+ *       ({@code FILLED} when none remain);</li>
+ *   <li>withdrawals reference existing applications of the same student, with
+ *       {@code WithdrawalRequested} set on the application and approved withdrawals
+ *       matching {@code WITHDRAWN} applications.</li>
+ * </ul>
+ * {@link util.FileImporter#importStudents} reads the major from the fifth column, so the student
+ * list is written as {@code StudentID,Name,Email,Year,Major}.
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * java tools.DatasetGenerator [--out data-generated] [--scale 10000] [--seed 42]
+ *     [--students N] [--staff N] [--reps N] [--opportunities N] [--apps-per-student 2.0]
+ *     [--base-date 2025-09-01]
+ * </pre>
+ * {@code --scale} sets the student count and derives the other counts from it; explicit
+ * counts override the derived ones. {@code --base-date} defaults to {@link #DEFAULT_BASE_DATE}
+ * rather than today, so the default output does not change from day to day; pass today's date
+ * for opportunities that are open now. Copy the output directory to {@code data/} to run the
+ * application against it.
+ */
+public class DatasetGenerator {
+
+    /** "Today" for the generated dates unless {@code --base-date} says otherwise. */
+    public static final LocalDate DEFAULT_BASE_DATE = LocalDate.of(2025, 9, 1);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_OPPS_PER_REP = 5;
+    private static final int MAX_APPS_PER_STUDENT = 3;
+    private static final int REPS_PER_COMPANY = 3;
+    private static final int ELIGIBILITY_TRIES = 8;
+    /** Same work factor as {@link util.PasswordHasher}. */
+    private static final int BCRYPT_WORK_FACTOR = 12;
+
+    // Independent hash streams, one per kind of decision.
+    private static final long S_STUDENT = 1, S_STAFF = 2, S_REP = 3, S_OPP = 4, S_APP = 5, S_WDR = 6, S_NAME = 7;
+
+    private static final String[] FIRST_NAMES = {
+            "Wei Ling", "Jia Hao", "Hui Min", "Zhi Wei", "Siti", "Arjun", "Priya", "Daniel", "Rachel",
+            "Marcus", "Nurul", "Kai Xuan", "Yi Ting", "Ethan", "Chloe", "Ravi", "Aisha", "Bryan",
+            "Mei Ling", "Jun Jie", "Farhan", "Clara", "Isaac", "Shu Fen", "Vikram", "Hannah" };
+    private static final String[] LAST_NAMES = {
+            "Tan", "Lim", "Ng", "Lee", "Wong", "Goh", "Chua", "Koh", "Teo", "Ong", "Low", "Chan",
+            "Yeo", "Ho", "Kumar", "Rahman", "Singh", "Abdullah", "Sim", "Toh", "Fernandez", "Pillai" };
+    private static final String[] MAJORS = {
+            "Computer Science", "Data Science & AI", "Computer Engineering", "Electrical Engineering",
+            "Mechanical Engineering", "Business Analytics", "Information Engineering", "Mathematics" };
+    private static final String[] DEPARTMENTS = { "CCDS", "EEE", "MAE", "NBS", "SPMS", "CEE" };
+    private static final String[] COMPANY_WORDS = {
+            "Apex", "Nimbus", "Orchid", "Lion", "Harbour", "Quantum", "Vertex", "Merlion", "Cobalt",
+            "Summit", "Straits", "Pioneer", "Aurora", "Keystone", "Banyan", "Helix" };
+    private static final String[] COMPANY_KINDS = {
+            "Analytics", "Systems", "Labs", "Technologies", "Capital", "Robotics", "Logistics", "Health" };
+    private static final String[] REP_DEPARTMENTS = { "Engineering", "Human Resources", "Data", "Product", "Operations" };
+    private static final String[] POSITIONS = { "Recruiter", "Engineering Manager", "HR Executive", "Team Lead", "Talent Partner" };
+    private static final String[] ROLES = {
+            "Software Engineer", "Data Analyst", "Machine Learning", "Backend Developer", "Frontend Developer",
+            "Cloud Engineer", "Security Analyst", "Product Analyst", "Embedded Systems", "QA Automation",
+            "DevOps", "Business Intelligence", "Research Assistant", "Mobile Developer" };
+    private static final String[] ROLE_SUFFIXES = { "Intern", "Internship", "Trainee" };
+    private static final String[] DUTIES = {
+            "build internal tools", "analyse customer data", "write automated tests", "design REST services",
+            "tune database queries", "deploy cloud infrastructure", "prototype machine learning models",
+            "maintain CI pipelines", "develop dashboards", "review pull requests", "migrate legacy code",
+            "monitor production systems" };
+    private static final String[] STACKS = {
+            "Java", "Python", "Kubernetes", "PostgreSQL", "React", "Spark", "Go", "TypeScript", "AWS",
+            "Terraform", "Kafka", "TensorFlow" };
+    private static final String[] REASONS = {
+            "Accepted another offer", "Schedule clash with modules", "Relocating overseas",
+            "Role differs from description", "Personal reasons", "Pursuing research instead" };
+
+    private final long seed;
+    private final int students;
+    private final int staff;
+    private final int reps;
+    private final int opportunities;
+    private final long applicationBudget;
+    private final LocalDate baseDate;
+    private final int approvedReps;
+    /** Per major: multiplier that permutes that major's students. */
+    private final long[] majorStride = new long[MAJORS.length];
+
+    // Running counters of the single generation pass.
+    /** Per major: how many of that major's students have been drawn so far. */
+    private final long[] majorTicket = new long[MAJORS.length];
+    private long applicationCount;
+    private long withdrawalCount;
+    private long acceptedCount;
+    private final long[] oppsByStatus = new long[OpportunityStatus.values().length];
+
+    /**
+     * @param seed              seed for every derived value
+     * @param students          number of students
+     * @param staff             number of career centre staff
+     * @param reps              number of company representatives (about 10% are left pending)
+     * @param opportunities     number of opportunities
+     * @param appsPerStudent    average applications per student, at most 3
+     * @param baseDate          "today" for the generated dates
+     */
+    public DatasetGenerator(long seed, int students, int staff, int reps, int opportunities,
+                            double appsPerStudent, LocalDate baseDate) {
+        if (students < 1 || staff < 1 || reps < 1 || opportunities < 0) {
+            throw new IllegalArgumentException("Counts must be positive.");
+        }
+        if (students > 10_000_000) {
+            throw new IllegalArgumentException("Student IDs support at most 10,000,000 students.");
+        }
+        if (appsPerStudent < 0 || appsPerStudent > MAX_APPS_PER_STUDENT) {
+            throw new IllegalArgumentException("apps-per-student must be between 0 and " + MAX_APPS_PER_STUDENT + ".");
+        }
+        this.seed = seed;
+        this.students = students;
+        this.staff = staff;
+        this.reps = reps;
+        this.opportunities = opportunities;
+        this.applicationBudget = (long) (appsPerStudent * students);
+        this.baseDate = baseDate;
+        this.approvedReps = reps - reps / 10;
+        if ((long) approvedReps * MAX_OPPS_PER_REP < opportunities) {
+            throw new IllegalArgumentException("Need at least " + repsFor(opportunities)
+                    + " reps for " + opportunities + " opportunities (max " + MAX_OPPS_PER_REP + " per approved rep).");
+        }
+        for (int m = 0; m < MAJORS.length; m++) {
+            majorStride[m] = coprimeStride(Math.max(1, majorSize(m)));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = parseArgs(args);
+        int scale = Integer.parseInt(opts.getOrDefault("scale", "10000"));
+        int students = intOpt(opts, "students", scale);
+        int opportunities = intOpt(opts, "opportunities", defaultOpportunities(students));
+        int reps = intOpt(opts, "reps", defaultReps(students, opportunities));
+        int staff = intOpt(opts, "staff", defaultStaff(students));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        double appsPerStudent = Double.parseDouble(opts.getOrDefault("apps-per-student", "2.0"));
+        LocalDate baseDate = opts.containsKey("base-date") ? LocalDate.parse(opts.get("base-date")) : DEFAULT_BASE_DATE;
+        Path out = Paths.get(opts.getOrDefault("out", "data-generated"));
+
+        DatasetGenerator gen = new DatasetGenerator(seed, students, staff, reps, opportunities, appsPerStudent, baseDate);
+        System.out.printf("Generating into %s: --seed %d --students %d --staff %d --reps %d --opportunities %d"
+                        + " --apps-per-student %s --base-date %s%n",
+                out, seed, students, staff, reps, opportunities, appsPerStudent, baseDate);
+        long start = System.nanoTime();
+        gen.writeAll(out);
+        System.out.printf("Done in %.1f s.%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Generator with the counts {@code --scale} derives from a student count.
+     *
+     * @param seed     seed for every derived value
+     * @param scale    number of students
+     * @param baseDate "today" for the generated dates
+     * @return generator with 2 applications per student
+     */
+    public static DatasetGenerator forScale(long seed, int scale, LocalDate baseDate) {
+        int opportunities = defaultOpportunities(scale);
+        return new DatasetGenerator(seed, scale, defaultStaff(scale), defaultReps(scale, opportunities),
+                opportunities, 2.0, baseDate);
+    }
+
+    private static int defaultOpportunities(int students) {
+        return Math.max(1, students / 20);
+    }
+
+    private static int defaultReps(int students, int opportunities) {
+        return Math.max(repsFor(opportunities), students / 50);
+    }
+
+    private static int defaultStaff(int students) {
+        return Math.max(3, students / 500);
+    }
+
+    /**
+     * Writes all six CSV files into {@code dir}, replacing existing ones.
+     *
+     * @param dir output directory (created if missing)
+     * @throws IOException if a file cannot be written
+     */
+    public void writeAll(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        writeStudents(dir.resolve("sample_student_list.csv"));
+        writeStaff(dir.resolve("sample_staff_list.csv"));
+        writeReps(dir.resolve("sample_company_representative_list.csv"));
+        writePlacements(dir);
+
+        System.out.println("  students:        " + students);
+        System.out.println("  staff:           " + staff);
+        System.out.println("  reps:            " + reps + " (" + approvedReps + " approved)");
+        System.out.print("  opportunities:   " + opportunities + " (");
+        for (OpportunityStatus s : OpportunityStatus.values()) {
+            System.out.print(s + "=" + oppsByStatus[s.ordinal()] + (s.ordinal() + 1 < oppsByStatus.length ? " " : ""));
+        }
+        System.out.println(")");
+        System.out.println("  applications:    " + applicationCount + " (" + acceptedCount + " accepted)");
+        System.out.println("  withdrawals:     " + withdrawalCount);
+    }
+
+    // ===== Users =====
+
+    private void writeStudents(Path file) throws IOException {
+        try (BufferedWriter w = open(file)) {
+            w.write("StudentID,Name,Email,Year,Major");
+            w.newLine();
+            StringBuilder sb = new StringBuilder(96);
+            for (int i = 0; i < students; i++) {
+                sb.setLength(0);
+                sb.append(studentId(i)).append(',');
+                appendName(sb, S_STUDENT, i).append(',');
+                sb.append("stu").append(i).append("@e.ntu.edu.sg,");
+                sb.append(studentYear(i)).append(',');
+                sb.append(studentMajor(i));
+                w.write(sb.toString());
+                w.newLine();
+            }
+        }
+    }
+
+    private void writeStaff(Path file) throws IOException {
+        try (BufferedWriter w = open(file)) {
+            w.write("StaffID,Name,Role,Department,Email");
+            w.newLine();
+            StringBuilder sb = new StringBuilder(96);
+            for (int i = 0; i < staff; i++) {
+                sb.setLength(0);
+                sb.append("stf").append(i).append(',');
+                appendName(sb.append(i % 2 == 0 ? "Dr. " : "Ms. "), S_STAFF, i).append(',');
+                sb.append("Career Center Staff,");
+                sb.append(pick(DEPARTMENTS, S_STAFF, i, 1)).append(',');
+                sb.append("stf").append(i).append("@ntu.edu.sg");
+                w.write(sb.toString());
+                w.newLine();
+            }
+        }
+    }
+
+    private void writeReps(Path file) throws IOException {
+        // One hash for every rep: BCrypt is deliberately slow, and reps all start with the same password.
+        // The salt comes from a seeded PRNG so the file stays reproducible.
+        String passwordHash = BCrypt.hashpw("password", BCrypt.gensalt(BCRYPT_WORK_FACTOR, seededRandom()));
+        try (BufferedWriter w = open(file)) {
+            w.write("CompanyRepID,Name,CompanyName,Department,Position,Email,Status,PasswordHash");
+            w.newLine();
+            StringBuilder sb = new StringBuilder(160);
+            for (int r = 0; r < reps; r++) {
+                sb.setLength(0);
+                sb.append('R').append(r).append(',');
+                appendName(sb, S_REP, r).append(',');
+                sb.append(companyName(r / REPS_PER_COMPANY)).append(',');
+                sb.append(pick(REP_DEPARTMENTS, S_REP, r, 1)).append(',');
+                sb.append(pick(POSITIONS, S_REP, r, 2)).append(',');
+                sb.append(repEmail(r)).append(',');
+                sb.append(repApproved(r) ? RequestStatus.APPROVED : RequestStatus.PENDING).append(',');
+                sb.append(passwordHash);
+                w.write(sb.toString());
+                w.newLine();
+            }
+        }
+    }
+
+    // ===== Opportunities, applications and withdrawals =====
+
+    /**
+     * Writes opportunities together with their applications and withdrawals, so each
+     * opportunity's remaining slots and status can reflect its accepted applications
+     * without a second pass.
+     */
+    private void writePlacements(Path dir) throws IOException {
+        try (BufferedWriter ow = open(dir.resolve("opportunities.csv"));
+             BufferedWriter aw = open(dir.resolve("applications.csv"));
+             BufferedWriter ww = open(dir.resolve("withdrawals.csv"))) {
+            ow.write("Id,Title,Description,Level,PreferredMajor,OpenDate,CloseDate,Status,CompanyName,RepEmail,Slots,Visibility");
+            ow.newLine();
+            aw.write("Id,StudentId,OpportunityId,Status,AppliedAt,WithdrawalRequested");
+            aw.newLine();
+            ww.write("Id,ApplicationId,StudentId,Status,RequestedAt,Reason,LastUpdated");
+            ww.newLine();
+
+            // Spread the application budget over the opportunities that can take applications.
+            double appsPerOpp = opportunities == 0 ? 0 : (double) applicationBudget / opportunities / 0.85;
+            StringBuilder sb = new StringBuilder(256);
+            for (int j = 0; j < opportunities; j++) {
+                int rep = approvedRep(j % approvedReps);
+                InternshipLevel level = oppLevel(j);
+                int preferredMajor = oppMajor(j);
+                LocalDate openDate = baseDate.minusDays(range(S_OPP, j, 10, 60));
+                LocalDate closeDate = baseDate.plusDays(range(S_OPP, j, 11, 90) - 14);
+                long roll = range(S_OPP, j, 12, 100);
+                OpportunityStatus status = roll < 10 ? OpportunityStatus.PENDING
+                        : roll < 15 ? OpportunityStatus.REJECTED : OpportunityStatus.APPROVED;
+                boolean visible = status == OpportunityStatus.APPROVED && range(S_OPP, j, 13, 10) != 0;
+                int slots = 1 + (int) range(S_OPP, j, 14, 10);
+
+                int accepted = 0;
+                if (status == OpportunityStatus.APPROVED) {
+                    int wanted = (int) range(S_OPP, j, 15, (long) Math.ceil(2 * appsPerOpp) + 1);
+                    accepted = writeApplications(aw, ww, sb, j, level, preferredMajor, openDate, slots, wanted);
+                    if (accepted == slots) status = OpportunityStatus.FILLED;
+                }
+                oppsByStatus[status.ordinal()]++;
+
+                sb.setLength(0);
+                sb.append(oppId(j)).append(',');
+                sb.append(pick(ROLES, S_OPP, j, 1)).append(' ').append(pick(ROLE_SUFFIXES, S_OPP, j, 2)).append(',');
+                appendDescription(sb, j).append(',');
+                sb.append(level).append(',');
+                sb.append(preferredMajor < 0 ? "" : MAJORS[preferredMajor]).append(',');
+                sb.append(openDate).append(',');
+                sb.append(closeDate).append(',');
+                sb.append(status).append(',');
+                sb.append(companyName(rep / REPS_PER_COMPANY)).append(',');
+                sb.append(repEmail(rep)).append(',');
+                sb.append(slots - accepted).append(',');
+                sb.append(visible);
+                ow.write(sb.toString());
+                ow.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes up to {@code wanted} applications for opportunity {@code j}.
+     * <p>
+     * Applicants are drawn from a fixed permutation of the students of one major (the
+     * preferred major, or a random one when any major is accepted). Each major has a ticket
+     * counter; ticket {@code t} maps to the major's {@code (t * stride mod size)}-th student, so
+     * every student is visited once per lap and stopping after 3 laps caps each student at
+     * 3 applications. Only first-lap applications may be accepted, which keeps one placement
+     * per student. Students below the opportunity's year are skipped and their ticket is not reused,
+     * and one opportunity never draws more than a lap, so nobody applies to it twice.
+     * </p>
+     *
+     * @return number of accepted applications
+     */
+    private int writeApplications(BufferedWriter aw, BufferedWriter ww, StringBuilder sb, int j,
+                                  InternshipLevel level, int preferredMajor, LocalDate openDate,
+                                  int slots, int wanted) throws IOException {
+        int accepted = 0;
+        long[] firstTicket = majorTicket.clone();
+        for (int k = 0; k < wanted && applicationCount < applicationBudget; k++) {
+            int major = preferredMajor >= 0 ? preferredMajor : (int) range(S_OPP, j, 100 + k, MAJORS.length);
+            int size = majorSize(major);
+            int student = -1;
+            boolean firstLap = false;
+            for (int tries = 0; tries < ELIGIBILITY_TRIES && majorTicket[major] < (long) MAX_APPS_PER_STUDENT * size
+                    && majorTicket[major] - firstTicket[major] < size; tries++) {
+                long ticket = majorTicket[major]++;
+                int candidate = major + MAJORS.length * (int) (ticket % size * majorStride[major] % size);
+                if (studentYear(candidate) >= 3 || level == InternshipLevel.BASIC) {
+                    student = candidate;
+                    firstLap = ticket < size;
+                    break;
+                }
+            }
+            if (student < 0) continue;
+
+            long a = applicationCount++;
+            long roll = range(S_APP, a, 1, 100);
+            ApplicationStatus status;
+            if (firstLap && accepted < slots && roll < 25) {
+                status = ApplicationStatus.ACCEPTED;
+                accepted++;
+                acceptedCount++;
+            } else if (roll < 55) {
+                status = ApplicationStatus.PENDING;
+            } else if (roll < 70) {
+                status = ApplicationStatus.SUCCESSFUL;
+            } else if (roll < 92) {
+                status = ApplicationStatus.UNSUCCESSFUL;
+            } else {
+                status = ApplicationStatus.WITHDRAWN;
+            }
+
+            // Withdrawal requests: approved for withdrawn applications, and some pending or
+            // rejected ones against accepted placements.
+            RequestStatus withdrawal = null;
+            long wroll = range(S_WDR, a, 1, 100);
+            if (status == ApplicationStatus.WITHDRAWN) {
+                withdrawal = RequestStatus.APPROVED;
+            } else if (status == ApplicationStatus.ACCEPTED && wroll < 10) {
+                withdrawal = RequestStatus.PENDING;
+            } else if (status == ApplicationStatus.ACCEPTED && wroll < 15) {
+                withdrawal = RequestStatus.REJECTED;
+            }
+
+            LocalDateTime appliedAt = between(openDate.atStartOfDay(), S_APP, a, 2);
+            String appId = seqId('A', a);
+            sb.setLength(0);
+            sb.append(appId).append(',');
+            sb.append(studentId(student)).append(',');
+            sb.append(oppId(j)).append(',');
+            sb.append(status).append(',');
+            sb.append(appliedAt).append(',');
+            sb.append(withdrawal != null);
+            aw.write(sb.toString());
+            aw.newLine();
+
+            if (withdrawal != null) {
+                LocalDateTime requestedAt = between(appliedAt, S_WDR, a, 2);
+                LocalDateTime lastUpdated = withdrawal == RequestStatus.PENDING
+                        ? requestedAt : between(requestedAt, S_WDR, a, 3);
+                sb.setLength(0);
+                sb.append(seqId('W', withdrawalCount++)).append(',');
+                sb.append(appId).append(',');
+                sb.append(studentId(student)).append(',');
+                sb.append(withdrawal).append(',');
+                sb.append(requestedAt).append(',');
+                sb.append(pick(REASONS, S_WDR, a, 4)).append(',');
+                sb.append(lastUpdated);
+                ww.write(sb.toString());
+                ww.newLine();
+            }
+        }
+        return accepted;
+    }
+
+    // ===== Derived attributes (pure functions of seed and index) =====
+
+    private String studentId(int i) {
+        StringBuilder sb = new StringBuilder(9).append('U');
+        String digits = Integer.toString(i);
+        for (int p = digits.length(); p < 7; p++) sb.append('0');
+        return sb.append(digits).append((char) ('A' + i % 26)).toString();
+    }
+
+    private int studentYear(int i) {
+        return 1 + (int) range(S_STUDENT, i, 1, 4);
+    }
+
+    /** Majors are assigned round-robin so the students of one major can be enumerated. */
+    private static String studentMajor(int i) {
+        return MAJORS[i % MAJORS.length];
+    }
+
+    /** @return number of students whose major is {@code MAJORS[m]} */
+    private int majorSize(int m) {
+        return (students - m + MAJORS.length - 1) / MAJORS.length;
+    }
+
+    private static boolean repApproved(int r) {
+        return r % 10 != 9;
+    }
+
+    /** @return index of the m-th approved rep (every tenth rep is left pending) */
+    private static int approvedRep(int m) {
+        return m + m / 9;
+    }
+
+    private static int repsFor(int opportunities) {
+        int approved = (opportunities + MAX_OPPS_PER_REP - 1) / MAX_OPPS_PER_REP;
+        return Math.max(1, approved + (approved + 8) / 9);
+    }
+
+    private static String repEmail(int r) {
+        return "rep" + r + "@company" + (r / REPS_PER_COMPANY) + ".com";
+    }
+
+    private String companyName(int c) {
+        return pick(COMPANY_WORDS, S_REP, c, 7) + ' ' + pick(COMPANY_KINDS, S_REP, c, 8) + ' ' + c;
+    }
+
+    private InternshipLevel oppLevel(int j) {
+        long roll = range(S_OPP, j, 3, 10);
+        return roll < 5 ? InternshipLevel.BASIC : roll < 8 ? InternshipLevel.INTERMEDIATE : InternshipLevel.ADVANCED;
+    }
+
+    /** @return index into {@link #MAJORS}, or -1 for "any major" */
+    private int oppMajor(int j) {
+        return range(S_OPP, j, 4, 10) < 3 ? -1 : (int) range(S_OPP, j, 5, MAJORS.length);
+    }
+
+    private StringBuilder appendDescription(StringBuilder sb, int j) {
+        sb.append("Work with the team to ").append(pick(DUTIES, S_OPP, j, 6))
+          .append(" and ").append(pick(DUTIES, S_OPP, j, 7))
+          .append(" using ").append(pick(STACKS, S_OPP, j, 8))
+          .append(" and ").append(pick(STACKS, S_OPP, j, 9)).append('.');
+        return sb;
+    }
+
+    private StringBuilder appendName(StringBuilder sb, long stream, long i) {
+        return sb.append(pick(LAST_NAMES, S_NAME + stream * 16, i, 1)).append(' ')
+                 .append(pick(FIRST_NAMES, S_NAME + stream * 16, i, 2));
+    }
+
+    /** @return a time between {@code from} and the end of the base date, so nothing lies in the future */
+    private LocalDateTime between(LocalDateTime from, long stream, long index, int field) {
+        long seconds = Duration.between(from, baseDate.plusDays(1).atStartOfDay()).getSeconds();
+        return from.plusSeconds(range(stream, index, field, Math.max(1, seconds)));
+    }
+
+    private static String oppId(long j) {
+        return seqId('O', j);
+    }
+
+    /** Same shape as {@link util.IdGenerator#newId}: prefix plus a 1-based number padded to 3 digits. */
+    private static String seqId(char prefix, long index) {
+        String digits = Long.toString(index + 1);
+        StringBuilder sb = new StringBuilder(digits.length() + 3).append(prefix);
+        for (int p = digits.length(); p < 3; p++) sb.append('0');
+        return sb.append(digits).toString();
+    }
+
+    // ===== Hashing =====
+
+    private <T> T pick(T[] values, long stream, long index, int field) {
+        return values[(int) range(stream, index, field, values.length)];
+    }
+
+    /** @return a value in {@code [0, bound)} determined by seed, stream, row index and field */
+    private long range(long stream, long index, int field, long bound) {
+        long h = mix(seed ^ mix(stream * 0x9E3779B97F4A7C15L + field) ^ mix(index));
+        return Math.floorMod(h, bound);
+    }
+
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** @return a multiplier coprime to {@code n} near its golden-ratio fraction, giving a well-spread permutation */
+    private static long coprimeStride(int n) {
+        long s = Math.max(1, (long) (n * 0.6180339887));
+        while (gcd(s, n) != 1) s++;
+        return s;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    // ===== Helpers =====
+
+    private SecureRandom seededRandom() {
+        try {
+            SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+            random.setSeed(seed);
+            return random;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA1PRNG unavailable", e);
+        }
+    }
+
+    private static BufferedWriter open(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            String key = args[i].substring(2);
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            opts.put(key, flag ? "true" : args[++i]);
+        }
+        return opts;
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int def) {
+        return Integer.parseInt(opts.getOrDefault(key, Integer.toString(def)));
+    }
+}
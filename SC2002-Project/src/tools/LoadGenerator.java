@@ -0,0 +1,368 @@
+package tools;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import control.ApplicationService;
+import entity.domain.Application;
+import entity.domain.CareerCenterStaff;
+import entity.domain.CompanyRepresentative;
+import entity.domain.InternshipOpportunity;
+import entity.domain.Student;
+import entity.domain.WithdrawalRequest;
+import entity.domain.enums.InternshipLevel;
+import entity.domain.enums.OpportunityStatus;
+import entity.domain.enums.RequestStatus;
+import repositories.ApplicationRepository;
+import repositories.OpportunityRepository;
+import repositories.RequestRepository;
+import repositories.UserRepository;
+import util.IdGenerator;
+import util.LatencyHistogram;
+import util.Validator;
+
+/**
+ * In-process load generator that simulates application-week traffic against the services.
+ * <p>
+ * A synthetic population of students, company representatives and staff is created in a
+ * temporary data directory. Workers then run a weighted mix of operations:
+ * </p>
+ * <ul>
+ *   <li>{@code apply} - a student applies to a random opportunity ({@link ApplicationService#apply});</li>
+ *   <li>{@code review} - the owning rep marks a pending application successful or not
+ *       ({@link ApplicationService#companyReview});</li>
+ *   <li>{@code accept} - a student accepts a successful offer ({@link ApplicationService#studentAccept});</li>
+ *   <li>{@code withdraw} - a student withdraws an accepted placement and staff decide it
+ *       ({@code requestWithdrawal} + {@link ApplicationService#processWithdrawal}).</li>
+ * </ul>
+ * Operations whose input pool is empty (e.g. nothing to review yet) fall back to {@code apply}.
+ * Refusals by a business rule (e.g. a student already at the application limit) and failures
+ * are counted in their own columns; throughput and latency cover completed operations only, so
+ * a flood of fast refusals cannot inflate them.
+ * <p>
+ * <b>Closed loop</b> ({@code --mode closed}): {@code --threads} users each run an operation,
+ * then think for an exponentially distributed time with mean {@code --think} ms.
+ * <b>Open loop</b> ({@code --mode open}): operations are scheduled at {@code --rate} per
+ * second regardless of how fast they complete, and latency is measured from the scheduled
+ * start, so queueing delay is included rather than hidden (no coordinated omission).
+ * </p>
+ * Service logging is raised to WARN ({@code -Dlog.quiet}) unless {@code --verbose} or
+ * {@code -Dlog.level} is given.
+ * Usage:
+ * <pre>
+ * java tools.LoadGenerator [--mode closed|open] [--threads 32] [--rate 500] [--duration 30]
+ *     [--warmup 5] [--think 0] [--students 2000] [--reps 50] [--staff 5] [--opportunities 200]
+ *     [--mix apply=50,review=25,accept=15,withdraw=10] [--seed 42] [--verbose]
+ * </pre>
+ */
+public class LoadGenerator {
+
+    /** Operation kinds in the mix. */
+    enum Op { APPLY, REVIEW, ACCEPT, WITHDRAW }
+
+    private final Map<String, String> opts;
+    private final ApplicationService appSvc;
+    private final ApplicationRepository appRepo;
+    private final RequestRepository reqRepo;
+
+    private final List<Student> students = new ArrayList<>();
+    private final List<CareerCenterStaff> staff = new ArrayList<>();
+    private final List<InternshipOpportunity> opportunities = new ArrayList<>();
+
+    private final Queue<Application> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Application> successful = new ConcurrentLinkedQueue<>();
+    private final Queue<Application> accepted = new ConcurrentLinkedQueue<>();
+
+    private final Op[] wheel;
+    /** Per operation: latency of completed operations, whose count is the number completed. */
+    private final Map<Op, LatencyHistogram> latency = new EnumMap<>(Op.class);
+    private final Map<Op, LongAdder> rejected = new EnumMap<>(Op.class);
+    private final Map<Op, LongAdder> errors = new EnumMap<>(Op.class);
+    private final LatencyHistogram overall = new LatencyHistogram();
+    private volatile long measureFrom;
+
+    private LoadGenerator(Map<String, String> opts, Path dir) {
+        this.opts = opts;
+        IdGenerator ids = new IdGenerator();
+        UserRepository userRepo = new UserRepository();
+        OpportunityRepository oppRepo = new OpportunityRepository(dir.resolve("opportunities.csv").toString(), userRepo, ids);
+        this.appRepo = new ApplicationRepository(dir.resolve("applications.csv").toString(), userRepo, oppRepo);
+        this.reqRepo = new RequestRepository(dir.resolve("withdrawals.csv").toString(), appRepo, userRepo);
+        this.appSvc = new ApplicationService(appRepo, oppRepo, new Validator());
+        this.wheel = parseMix(opts.getOrDefault("mix", "apply=50,review=25,accept=15,withdraw=10"));
+        for (Op op : Op.values()) {
+            latency.put(op, new LatencyHistogram());
+            rejected.put(op, new LongAdder());
+            errors.put(op, new LongAdder());
+        }
+        populate(userRepo, oppRepo, ids);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parseArgs(args);
+        // Services log every action at INFO; raise the level before Log is first used so
+        // formatting and writing those lines stay out of the measurements.
+        if (!opts.containsKey("verbose") && System.getProperty("log.level") == null) {
+            System.setProperty("log.quiet", "true");
+        }
+        Path dir = Files.createTempDirectory("ipms-load");
+        PrintStream console = System.out;
+        try {
+            LoadGenerator gen = new LoadGenerator(opts, dir);
+            console.printf("population: %d students, %d opportunities, %d staff; data in %s%n",
+                    gen.students.size(), gen.opportunities.size(), gen.staff.size(), dir);
+            long elapsed = gen.run(console);
+            gen.report(console, elapsed);
+        } finally {
+            deleteQuietly(dir);
+        }
+    }
+
+    // ===== Population =====
+
+    private void populate(UserRepository userRepo, OpportunityRepository oppRepo, IdGenerator ids) {
+        int studentCount = intOpt("students", 2000);
+        int repCount = intOpt("reps", 50);
+        int staffCount = intOpt("staff", 5);
+        int oppCount = intOpt("opportunities", 200);
+        Random rnd = new Random(Long.parseLong(opts.getOrDefault("seed", "42")));
+        String[] majors = { "CSC", "DSAI", "CE", "EEE", "MAE" };
+
+        for (int i = 0; i < studentCount; i++) {
+            Student s = new Student(String.format("U%07dL", i), "Load Student " + i, 1 + rnd.nextInt(4),
+                    majors[rnd.nextInt(majors.length)]);
+            userRepo.save(s);
+            students.add(s);
+        }
+        for (int i = 0; i < staffCount; i++) {
+            CareerCenterStaff c = new CareerCenterStaff("staff" + i + "@ntu.edu.sg", "Load Staff " + i, "CCDS");
+            userRepo.save(c);
+            staff.add(c);
+        }
+        List<CompanyRepresentative> reps = new ArrayList<>();
+        for (int i = 0; i < repCount; i++) {
+            CompanyRepresentative r = new CompanyRepresentative("rep" + i + "@company" + i + ".com",
+                    "Load Rep " + i, "password", "Company " + i, "HR", "Recruiter");
+            r.setApproved(RequestStatus.APPROVED);
+            userRepo.save(r);
+            reps.add(r);
+        }
+        for (int i = 0; i < oppCount; i++) {
+            CompanyRepresentative r = reps.get(i % reps.size());
+            // Mostly BASIC with no preferred major so most students are eligible for most postings.
+            InternshipLevel level = rnd.nextInt(4) == 0 ? InternshipLevel.INTERMEDIATE : InternshipLevel.BASIC;
+            String major = rnd.nextInt(5) == 0 ? majors[rnd.nextInt(majors.length)] : "";
+            InternshipOpportunity o = r.createOpportunity(ids.newId("O"), "Load Opportunity " + i, "synthetic",
+                    level, major, 1 + rnd.nextInt(10));
+            o.setStatus(OpportunityStatus.APPROVED);
+            o.setVisibility(true);
+            oppRepo.save(o);
+            opportunities.add(o);
+        }
+    }
+
+    // ===== Driving =====
+
+    private long run(PrintStream console) throws InterruptedException {
+        int threads = intOpt("threads", 32);
+        long warmupNanos = TimeUnit.SECONDS.toNanos(intOpt("warmup", 5));
+        long durationNanos = TimeUnit.SECONDS.toNanos(intOpt("duration", 30));
+        boolean open = "open".equalsIgnoreCase(opts.getOrDefault("mode", "closed"));
+        double thinkMillis = Double.parseDouble(opts.getOrDefault("think", "0"));
+        double rate = Double.parseDouble(opts.getOrDefault("rate", "500"));
+
+        long start = System.nanoTime();
+        measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        console.printf("mode=%s threads=%d%s warmup=%ds duration=%ds%n", open ? "open" : "closed", threads,
+                open ? " rate=" + rate + "/s" : " think=" + thinkMillis + "ms",
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicLong ticket = new AtomicLong();
+        long intervalNanos = (long) (1e9 / rate);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (true) {
+                    long scheduled;
+                    if (open) {
+                        // Each worker claims the next slot in a fixed schedule and waits for it.
+                        scheduled = start + ticket.getAndIncrement() * intervalNanos;
+                        if (scheduled >= end) return;
+                        long wait = scheduled - System.nanoTime();
+                        if (wait > 0) LockSupport.parkNanos(wait);
+                    } else {
+                        scheduled = System.nanoTime();
+                        if (scheduled >= end) return;
+                    }
+                    execute(wheel[rnd.nextInt(wheel.length)], scheduled);
+                    if (!open && thinkMillis > 0) {
+                        double think = -Math.log(1.0 - rnd.nextDouble()) * thinkMillis;
+                        LockSupport.parkNanos((long) (think * 1_000_000));
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(durationNanos + warmupNanos + TimeUnit.MINUTES.toNanos(5), TimeUnit.NANOSECONDS);
+        return System.nanoTime() - measureFrom;
+    }
+
+    private void execute(Op op, long scheduled) {
+        Op ran = op;
+        Outcome outcome;
+        try {
+            switch (op) {
+                case REVIEW -> outcome = review();
+                case ACCEPT -> outcome = accept();
+                case WITHDRAW -> outcome = withdraw();
+                default -> outcome = null;
+            }
+            if (outcome == null) {
+                ran = Op.APPLY;
+                outcome = apply();
+            }
+        } catch (RuntimeException e) {
+            outcome = Outcome.ERROR;
+        }
+        long done = System.nanoTime();
+        if (scheduled < measureFrom) return;
+        switch (outcome) {
+            case OK -> {
+                latency.get(ran).record(done - scheduled);
+                overall.record(done - scheduled);
+            }
+            case REJECTED -> rejected.get(ran).increment();
+            case ERROR -> errors.get(ran).increment();
+        }
+    }
+
+    /** Result of one operation; REJECTED is a business-rule refusal, not a failure. */
+    private enum Outcome { OK, REJECTED, ERROR }
+
+    private Outcome apply() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Student s = students.get(rnd.nextInt(students.size()));
+        InternshipOpportunity o = opportunities.get(rnd.nextInt(opportunities.size()));
+        try {
+            pending.add(appSvc.apply(s, o));
+            return Outcome.OK;
+        } catch (IllegalStateException e) {
+            return Outcome.REJECTED;
+        }
+    }
+
+    private Outcome review() {
+        Application app = pending.poll();
+        if (app == null) return null;
+        boolean approve = ThreadLocalRandom.current().nextInt(3) != 0;
+        appSvc.companyReview(app.getOpportunity().getRepInCharge(), app, approve);
+        if (approve) successful.add(app);
+        return Outcome.OK;
+    }
+
+    private Outcome accept() {
+        Application app = successful.poll();
+        if (app == null) return null;
+        try {
+            appSvc.studentAccept(app);
+            accepted.add(app);
+            return Outcome.OK;
+        } catch (IllegalStateException e) {
+            return Outcome.REJECTED; // full, or already withdrawn by another acceptance
+        }
+    }
+
+    private Outcome withdraw() {
+        Application app = accepted.poll();
+        if (app == null) return null;
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        WithdrawalRequest req = appSvc.requestWithdrawal(app.getStudent(), app, "load test");
+        reqRepo.save(req);
+        appSvc.processWithdrawal(staff.get(rnd.nextInt(staff.size())), req, rnd.nextBoolean(), reqRepo);
+        return Outcome.OK;
+    }
+
+    // ===== Reporting =====
+
+    private void report(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        // ok/s and the latency columns cover completed operations only.
+        out.printf("%n%-9s %9s %9s %7s %10s %9s %9s %9s %9s%n",
+                "op", "ok", "rejected", "errors", "ok/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Op op : Op.values()) {
+            row(out, op.name().toLowerCase(), latency.get(op), rejected.get(op).sum(), errors.get(op).sum(), seconds);
+        }
+        long rejAll = 0, errAll = 0;
+        for (Op op : Op.values()) {
+            rejAll += rejected.get(op).sum();
+            errAll += errors.get(op).sum();
+        }
+        row(out, "total", overall, rejAll, errAll, seconds);
+        out.printf("applications on disk: %d, withdrawals: %d%n",
+                appRepo.findAll().size(), reqRepo.findAllWithdrawals().size());
+    }
+
+    private static void row(PrintStream out, String name, LatencyHistogram h, long rejectedCount,
+            long errorCount, double seconds) {
+        out.printf("%-9s %9d %9d %7d %10.1f %9.3f %9.3f %9.3f %9.3f%n", name, h.count(), rejectedCount,
+                errorCount, h.count() / seconds, h.percentile(50) / 1e6, h.percentile(99) / 1e6,
+                h.percentile(99.9) / 1e6, h.max() / 1e6);
+    }
+
+    // ===== Options =====
+
+    private static Op[] parseMix(String spec) {
+        List<Op> wheel = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry: " + part);
+            Op op = Op.valueOf(kv[0].trim().toUpperCase());
+            int weight = Integer.parseInt(kv[1].trim());
+            for (int i = 0; i < weight; i++) wheel.add(op);
+        }
+        if (wheel.isEmpty()) throw new IllegalArgumentException("Operation mix is empty.");
+        return wheel.toArray(new Op[0]);
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            String key = args[i].substring(2);
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            opts.put(key, flag ? "true" : args[++i]);
+        }
+        return opts;
+    }
+
+    private int intOpt(String key, int def) {
+        return Integer.parseInt(opts.getOrDefault(key, Integer.toString(def)));
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not clean up " + dir + ": " + e.getMessage());
+        }
+    }
+}
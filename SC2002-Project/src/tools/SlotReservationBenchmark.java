@@ -0,0 +1,165 @@
+package tools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import control.ApplicationService;
+import entity.domain.Application;
+import entity.domain.CompanyRepresentative;
+import entity.domain.InternshipOpportunity;
+import entity.domain.Student;
+import entity.domain.enums.ApplicationStatus;
+import entity.domain.enums.InternshipLevel;
+import entity.domain.enums.OpportunityStatus;
+import repositories.ApplicationRepository;
+import repositories.OpportunityRepository;
+import repositories.UserRepository;
+import util.IdGenerator;
+import util.Validator;
+
+/**
+ * Races many concurrent offer acceptances against an opportunity with few slots.
+ * <ol>
+ *   <li>raw counter: every attempt calls {@code reserveSlot()}/{@code confirmSlot()} directly;</li>
+ *   <li>service: every attempt goes through {@link ApplicationService#studentAccept}, including
+ *       persistence, against a temporary data directory.</li>
+ * </ol>
+ * Both phases must end with exactly {@code slots} winners and no slots left.
+ * Usage: {@code java tools.SlotReservationBenchmark [accepts] [slots] [threads]}
+ * (defaults 10000, 100 and 64). Exits with status 1 if a check fails.
+ */
+public class SlotReservationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int accepts = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int slots = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        boolean ok = rawCounter(accepts, slots, threads);
+        ok &= throughService(accepts, slots, threads);
+        System.out.println(ok ? "PASS" : "FAIL");
+        if (!ok) System.exit(1);
+    }
+
+    private static boolean rawCounter(int accepts, int slots, int threads) throws Exception {
+        InternshipOpportunity opp = new InternshipOpportunity("RAW", "Raw", "", InternshipLevel.BASIC,
+                "", "Bench Co", null, slots);
+        AtomicInteger winners = new AtomicInteger();
+        long nanos = race(accepts, threads, i -> {
+            if (opp.reserveSlot()) {
+                opp.confirmSlot();
+                winners.incrementAndGet();
+            }
+        });
+        report("raw counter", accepts, nanos);
+        return check("raw winners", slots, winners.get()) & check("raw slots left", 0, opp.getSlots());
+    }
+
+    private static boolean throughService(int accepts, int slots, int threads) throws Exception {
+        Path dir = Files.createTempDirectory("ipms-slots");
+        IdGenerator ids = new IdGenerator();
+        UserRepository users = new UserRepository();
+        OpportunityRepository opps = new OpportunityRepository(dir.resolve("opportunities.csv").toString(), users, ids);
+        ApplicationRepository apps = new ApplicationRepository(dir.resolve("applications.csv").toString(), users, opps);
+        ApplicationService service = new ApplicationService(apps, opps, new Validator());
+
+        CompanyRepresentative rep = new CompanyRepresentative(
+                "bench@example.com", "Bench Rep", "password", "Bench Co", "QA", "Tester");
+        users.save(rep);
+        InternshipOpportunity opp = rep.createOpportunity(ids.newId("OPP"), "Contended", "bench",
+                InternshipLevel.BASIC, "", slots);
+        opp.setStatus(OpportunityStatus.APPROVED);
+        opp.setVisibility(true);
+        opps.save(opp);
+
+        List<Application> offers = new ArrayList<>(accepts);
+        for (int i = 0; i < accepts; i++) {
+            Student s = new Student(String.format("U%07dB", i), "Student " + i, 3, "CSC");
+            users.save(s);
+            Application app = new Application(s, opp);
+            app.setStatus(ApplicationStatus.SUCCESSFUL);
+            offers.add(app);
+        }
+        // Save concurrently so the writer group-commits the setup instead of rewriting the file per offer.
+        race(accepts, threads, i -> apps.save(offers.get(i)));
+
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long nanos = race(accepts, threads, i -> {
+            try {
+                service.studentAccept(offers.get(i));
+                winners.incrementAndGet();
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+            }
+        });
+        report("studentAccept", accepts, nanos);
+
+        opps.reloadFromDisk();
+        apps.reloadFromDisk();
+        InternshipOpportunity stored = opps.findById(opp.getId());
+        long acceptedOnDisk = apps.findAll().stream()
+                .filter(a -> a.getStatus() == ApplicationStatus.ACCEPTED).count();
+        boolean ok = check("service winners", slots, winners.get())
+                & check("service rejected", accepts - slots, rejected.get())
+                & check("slots left", 0, opp.getSlots())
+                & check("accepted on disk", slots, acceptedOnDisk)
+                & check("slots left on disk", 0, stored == null ? -1 : stored.getSlots())
+                & check("filled on disk", 1, stored != null && stored.getStatus() == OpportunityStatus.FILLED ? 1 : 0);
+        deleteQuietly(dir);
+        return ok;
+    }
+
+    /** Runs {@code attempts} calls of {@code body} on a fixed pool, all released at once. */
+    private static long race(int attempts, int threads, IntTask body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(attempts);
+        for (int i = 0; i < attempts; i++) {
+            int index = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                body.run(index);
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        long nanos = System.nanoTime() - began;
+        pool.shutdown();
+        return nanos;
+    }
+
+    private interface IntTask {
+        void run(int index);
+    }
+
+    private static void report(String phase, int attempts, long nanos) {
+        double millis = nanos / 1e6;
+        System.out.printf("%-14s %d attempts in %.1f ms (%.0f attempts/s)%n",
+                phase, attempts, millis, attempts / (nanos / 1e9));
+    }
+
+    private static boolean check(String name, long expected, long actual) {
+        boolean pass = expected == actual;
+        System.out.printf("%-20s expected=%d actual=%d %s%n", name, expected, actual, pass ? "ok" : "MISMATCH");
+        return pass;
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not clean up " + dir + ": " + e.getMessage());
+        }
+    }
+}
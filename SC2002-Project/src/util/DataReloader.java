@@ -9,25 +9,53 @@ import repositories.UserRepository;
 
 /**
  * Utility to reload persisted CSV files into in-memory repositories.
+ * <p>
+ * The console UIs reload before every menu action so that separate processes sharing the
+ * {@code data/} files see each other's changes. A server whose sessions all share one JVM turns
+ * this off with {@link #setEnabled(boolean)}: its in-memory state is authoritative and the files
+ * only trail it, so reloading would cost a full parse per keystroke and gain nothing.
+ * </p>
  */
 public class DataReloader {
 
+    private static final Metrics.Timer RELOAD_ALL = Metrics.timer("DataReloader.reloadAll");
+    private static volatile boolean enabled = true;
+
+    /** @param on whether {@link #reloadAll} reads the files; on by default */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** @return whether {@link #reloadAll} reads the files */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
     public static void reloadAll(FileImporter importer,
                                  UserRepository userRepo,
                                  RequestRepository reqRepo,
                                  OpportunityRepository oppRepo,
                                  ApplicationRepository appRepo) {
-        if (importer != null && reqRepo != null) {
-            importer.importCompanyReps(new File("data/sample_company_representative_list.csv"), reqRepo);
-        }
-        if (oppRepo != null) {
-            oppRepo.reloadFromDisk();
-        }
-        if (appRepo != null) {
-            appRepo.reloadFromDisk();
-        }
-        if (reqRepo != null) {
-            reqRepo.reloadFromDisk();
+        if (!enabled) return;
+        long start = RELOAD_ALL.start();
+        try {
+            Events.DataReload event = new Events.DataReload();
+            event.begin();
+            if (importer != null && reqRepo != null) {
+                importer.importCompanyReps(new File("data/sample_company_representative_list.csv"), reqRepo);
+            }
+            if (oppRepo != null) {
+                oppRepo.reloadFromDisk();
+            }
+            if (appRepo != null) {
+                appRepo.reloadFromDisk();
+            }
+            if (reqRepo != null) {
+                reqRepo.reloadFromDisk();
+            }
+            event.complete();
+        } finally {
+            RELOAD_ALL.stop(start);
         }
     }
 }
@@ -0,0 +1,246 @@
+package util;
+
+import java.io.File;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom Flight Recorder events for the expensive operations of the system, so a JFR
+ * recording shows CSV reloads, persists, BCrypt calls and report generation by name instead of
+ * burying them in generic I/O and CPU samples.
+ * <p>
+ * Every event carries its duration. Repository loads and persists run on the writer thread, so
+ * they also record {@code origin}: the thread whose request caused them (an HTTP worker, a
+ * console session or {@code main}). JDK Mission Control can then line them up with that thread's
+ * activity. They and data reloads also record {@code action}, the {@link Tracer} action open on
+ * that thread (e.g. {@code StudentUI option 3}), or nothing outside console menu actions. While no recording is running, creating and committing an event costs almost
+ * nothing, and the fields are filled in only when {@link Event#shouldCommit()} says so.
+ * </p>
+ * Typical use:
+ * <pre>
+ * Events.CsvLoad event = new Events.CsvLoad();
+ * event.begin();
+ * ... read the file ...
+ * event.complete(file, rows, origin, action);
+ * </pre>
+ */
+public final class Events {
+
+    private Events() {
+    }
+
+    /** One CSV file read into memory by a repository or importer. */
+    @Name("sc2002.CsvLoad")
+    @Label("CSV Load")
+    @Category({ "SC2002", "Persistence" })
+    @Description("A CSV file read into an in-memory repository")
+    public static final class CsvLoad extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Origin Thread")
+        String origin;
+
+        @Label("Origin Action")
+        String action;
+
+        /**
+         * Fills in the fields and commits, if a recording wants this event.
+         *
+         * @param source file that was read
+         * @param rowCount rows loaded
+         * @param originThread thread that asked for the load, or {@code null} for the current one
+         * @param originAction action open on that thread, or {@code null} for the current thread's
+         */
+        public void complete(File source, int rowCount, String originThread, String originAction) {
+            end();
+            if (!shouldCommit()) return;
+            file = source.getName();
+            rows = rowCount;
+            bytes = source.length();
+            origin = originThread != null ? originThread : threadName(Thread.currentThread());
+            action = originAction != null ? originAction : Tracer.currentAction();
+            commit();
+        }
+    }
+
+    /** One repository written back to its CSV file. */
+    @Name("sc2002.CsvPersist")
+    @Label("CSV Persist")
+    @Category({ "SC2002", "Persistence" })
+    @Description("A repository rewritten to its CSV file")
+    public static final class CsvPersist extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Origin Thread")
+        String origin;
+
+        @Label("Origin Action")
+        String action;
+
+        /**
+         * Fills in the fields and commits, if a recording wants this event.
+         *
+         * @param target file that was written
+         * @param rowCount rows written, excluding the header
+         * @param originThread thread whose change caused the write, or {@code null} for the current one
+         * @param originAction action open on that thread, or {@code null} for the current thread's
+         */
+        public void complete(File target, int rowCount, String originThread, String originAction) {
+            end();
+            if (!shouldCommit()) return;
+            file = target.getName();
+            rows = rowCount;
+            bytes = target.length();
+            origin = originThread != null ? originThread : threadName(Thread.currentThread());
+            action = originAction != null ? originAction : Tracer.currentAction();
+            commit();
+        }
+    }
+
+    /** One BCrypt hash or verification. */
+    @Name("sc2002.PasswordHash")
+    @Label("Password Hash")
+    @Category({ "SC2002", "Security" })
+    @Description("A BCrypt password hash or verification")
+    public static final class PasswordHash extends Event {
+        @Label("Operation")
+        @Description("hash or verify")
+        String operation;
+
+        @Label("Cost")
+        @Description("BCrypt work factor (log2 of the number of rounds)")
+        int cost;
+
+        @Label("Matched")
+        @Description("For verify, whether the password matched")
+        boolean matched;
+
+        /**
+         * @param op {@code hash} or {@code verify}
+         * @param workFactor BCrypt cost
+         * @param match whether a verification matched ({@code true} for hashes)
+         */
+        public void complete(String op, int workFactor, boolean match) {
+            end();
+            if (!shouldCommit()) return;
+            operation = op;
+            cost = workFactor;
+            matched = match;
+            commit();
+        }
+    }
+
+    /** One report built by {@code ReportService}. */
+    @Name("sc2002.ReportGenerate")
+    @Label("Report Generation")
+    @Category({ "SC2002", "Services" })
+    @Description("A report over the opportunities and their applications")
+    @StackTrace(true)
+    public static final class ReportGenerate extends Event {
+        @Label("Filter")
+        String filter;
+
+        @Label("Opportunities")
+        int opportunities;
+
+        /**
+         * @param filterText the filter in readable form
+         * @param rows opportunities in the report
+         */
+        public void complete(String filterText, int rows) {
+            end();
+            if (!shouldCommit()) return;
+            filter = filterText;
+            opportunities = rows;
+            commit();
+        }
+    }
+
+    /** A status change made by the scheduler rather than a user. */
+    @Name("sc2002.LifecycleTransition")
+    @Label("Lifecycle Transition")
+    @Category({ "SC2002", "Services" })
+    @Description("An opportunity opening or closing on its dates, or a withdrawal request expiring")
+    public static final class LifecycleTransition extends Event {
+        @Label("Entity")
+        @Description("opportunity or withdrawal")
+        String entity;
+
+        @Label("Id")
+        String id;
+
+        @Label("Transition")
+        @Description("opened, closed or expired")
+        String transition;
+
+        /**
+         * @param kind {@code opportunity} or {@code withdrawal}
+         * @param entityId id of the entity that changed
+         * @param what {@code opened}, {@code closed} or {@code expired}
+         */
+        public void complete(String kind, String entityId, String what) {
+            end();
+            if (!shouldCommit()) return;
+            entity = kind;
+            id = entityId;
+            transition = what;
+            commit();
+        }
+    }
+
+    /** A full reload of every repository, e.g. from the staff menu. */
+    @Name("sc2002.DataReload")
+    @Label("Data Reload")
+    @Category({ "SC2002", "Persistence" })
+    @Description("Every CSV file reloaded; the individual files appear as CSV Load events")
+    @StackTrace(true)
+    public static final class DataReload extends Event {
+        @Label("Origin Thread")
+        String origin;
+
+        @Label("Origin Action")
+        String action;
+
+        /** Commits the event, if a recording wants it. */
+        public void complete() {
+            end();
+            if (!shouldCommit()) return;
+            origin = threadName(Thread.currentThread());
+            action = Tracer.currentAction();
+            commit();
+        }
+    }
+
+    /**
+     * @param t a thread
+     * @return its name, or {@code #<id>} for unnamed (e.g. virtual) threads
+     */
+    // Thread.getId() is deprecated from JDK 19, but its replacement threadId() does not exist on JDK 17.
+    @SuppressWarnings("deprecation")
+    public static String threadName(Thread t) {
+        String name = t.getName();
+        return name == null || name.isEmpty() ? "#" + t.getId() : name;
+    }
+}
@@ -19,6 +19,11 @@ public class FileImporter {
 
     private final UserRepository userRepository;
 
+    // ===== Metrics =====
+    private static final Metrics.Timer IMPORT_STUDENTS = Metrics.timer("FileImporter.importStudents");
+    private static final Metrics.Timer IMPORT_STAFF = Metrics.timer("FileImporter.importStaff");
+    private static final Metrics.Timer IMPORT_COMPANY_REPS = Metrics.timer("FileImporter.importCompanyReps");
+
     /**
      * Creates a new importer that auto-saves imported entries to the repository.
      *
@@ -36,31 +41,41 @@ public class FileImporter {
      * @return list of imported students
      */
     public List<Student> importStudents(File file) {
-        List<Student> students = new ArrayList<>();
-        if (file == null || !file.exists()) {
-            System.out.println("File not found: " + file);
-            return students;
-        }
+        long start = IMPORT_STUDENTS.start();
+        try {
+            List<Student> students = new ArrayList<>();
+            if (file == null || !file.exists()) {
+                System.out.println("File not found: " + file);
+                return students;
+            }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean header = true;
-            while ((line = br.readLine()) != null) {
-                if (header) { header = false; continue; }
-                String[] t = line.split("[,\\t]");
-                if (t.length < 5) continue;
-                String id = t[0].trim(), name = t[1].trim();
-                int year = Integer.parseInt(t[3].trim());
-                String major = t[4].trim();
-                Student s = new Student(id, name, year, major);
-                userRepository.save(s);
-                students.add(s);
+            Events.CsvLoad event = new Events.CsvLoad();
+            event.begin();
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                String line;
+                boolean header = true;
+                while ((line = br.readLine()) != null) {
+                    if (header) { header = false; continue; }
+                    String[] t = line.split("[,\\t]");
+                    if (t.length < 5) continue;
+                    String id = t[0].trim(), name = t[1].trim();
+                    int year = Integer.parseInt(t[3].trim());
+                    String major = t[4].trim();
+                    Student s = new Student(id, name, year, major);
+                    userRepository.save(s);
+                    students.add(s);
+                }
+                Metrics.recordCsvRead(file);
+                event.complete(file, students.size(), null, null);
+                Tracer.rows(students.size());
+                System.out.println("Imported " + students.size() + " students from " + file.getName());
+            } catch (IOException e) {
+                System.err.println("Error reading student file: " + e.getMessage());
             }
-            System.out.println("Imported " + students.size() + " students from " + file.getName());
-        } catch (IOException e) {
-            System.err.println("Error reading student file: " + e.getMessage());
+            return students;
+        } finally {
+            IMPORT_STUDENTS.stop(start);
         }
-        return students;
     }
 
     /**
@@ -71,29 +86,39 @@ public class FileImporter {
      * @return list of imported career center staff
      */
     public List<CareerCenterStaff> importStaff(File file) {
-        List<CareerCenterStaff> staffList = new ArrayList<>();
-        if (file == null || !file.exists()) {
-            System.out.println("File not found: " + file);
-            return staffList;
-        }
+        long start = IMPORT_STAFF.start();
+        try {
+            List<CareerCenterStaff> staffList = new ArrayList<>();
+            if (file == null || !file.exists()) {
+                System.out.println("File not found: " + file);
+                return staffList;
+            }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean header = true;
-            while ((line = br.readLine()) != null) {
-                if (header) { header = false; continue; }
-                String[] t = line.split("[,\\t]");
-                if (t.length < 4) continue;
-                String id = t[4].trim(), name = t[1].trim(), dept = t[3].trim();
-                CareerCenterStaff staff = new CareerCenterStaff(id, name, dept);
-                userRepository.save(staff);
-                staffList.add(staff);
+            Events.CsvLoad event = new Events.CsvLoad();
+            event.begin();
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                String line;
+                boolean header = true;
+                while ((line = br.readLine()) != null) {
+                    if (header) { header = false; continue; }
+                    String[] t = line.split("[,\\t]");
+                    if (t.length < 4) continue;
+                    String id = t[4].trim(), name = t[1].trim(), dept = t[3].trim();
+                    CareerCenterStaff staff = new CareerCenterStaff(id, name, dept);
+                    userRepository.save(staff);
+                    staffList.add(staff);
+                }
+                Metrics.recordCsvRead(file);
+                event.complete(file, staffList.size(), null, null);
+                Tracer.rows(staffList.size());
+                System.out.println("Imported " + staffList.size() + " staff from " + file.getName());
+            } catch (IOException e) {
+                System.err.println("Error reading staff file: " + e.getMessage());
             }
-            System.out.println("Imported " + staffList.size() + " staff from " + file.getName());
-        } catch (IOException e) {
-            System.err.println("Error reading staff file: " + e.getMessage());
+            return staffList;
+        } finally {
+            IMPORT_STAFF.stop(start);
         }
-        return staffList;
     }
 
     /**
@@ -130,51 +155,61 @@ public class FileImporter {
      * Supports both 7-col and 8-col (with password hash) formats.
      */
     public int importCompanyReps(File file, RequestRepository reqRepo) {
-        if (file == null || !file.exists()) {
-            System.out.println("File not found: " + file);
-            return 0;
-        }
-        if (reqRepo != null) {
-            reqRepo.clearRegistrations();
-        }
-        int imported = 0;
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean header = true;
-            while ((line = br.readLine()) != null) {
-                if (header) { header = false; continue; }
-                if (line.isBlank()) continue;
-                String[] t = line.split(",", -1);
-                if (t.length < 7) continue;
-                String name = safeToken(t,1);
-                String company = safeToken(t,2);
-                String dept = safeToken(t,3);
-                String pos = safeToken(t,4);
-                String email = safeToken(t,5);
-                String statusText = safeToken(t,6);
-                String passwordHash = t.length >=8 ? safeToken(t,7) : "";
-                CompanyRepresentative rep = new CompanyRepresentative(email, name, "password", company, dept, pos);
-                if (!passwordHash.isBlank()) {
-                    rep.setPasswordHashed(passwordHash);
-                } else {
-                    rep.setPassword("password");
-                }
-                try {
-                    RequestStatus status = RequestStatus.valueOf(statusText);
-                    rep.setApproved(status);
-                } catch (Exception e) {
-                    rep.setApproved(RequestStatus.PENDING);
-                }
-                userRepository.save(rep);
-                if (reqRepo != null && rep.isApproved() == RequestStatus.PENDING) {
-                    reqRepo.save(new RegistrationRequest(rep));
+        long start = IMPORT_COMPANY_REPS.start();
+        try {
+            if (file == null || !file.exists()) {
+                System.out.println("File not found: " + file);
+                return 0;
+            }
+            if (reqRepo != null) {
+                reqRepo.clearRegistrations();
+            }
+            int imported = 0;
+            Events.CsvLoad event = new Events.CsvLoad();
+            event.begin();
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                String line;
+                boolean header = true;
+                while ((line = br.readLine()) != null) {
+                    if (header) { header = false; continue; }
+                    if (line.isBlank()) continue;
+                    String[] t = line.split(",", -1);
+                    if (t.length < 7) continue;
+                    String name = safeToken(t,1);
+                    String company = safeToken(t,2);
+                    String dept = safeToken(t,3);
+                    String pos = safeToken(t,4);
+                    String email = safeToken(t,5);
+                    String statusText = safeToken(t,6);
+                    String passwordHash = t.length >=8 ? safeToken(t,7) : "";
+                    CompanyRepresentative rep = new CompanyRepresentative(email, name, company, dept, pos);
+                    if (!passwordHash.isBlank()) {
+                        rep.setPasswordHashed(passwordHash);
+                    } else {
+                        rep.setPassword("password");
+                    }
+                    try {
+                        RequestStatus status = RequestStatus.valueOf(statusText);
+                        rep.setApproved(status);
+                    } catch (Exception e) {
+                        rep.setApproved(RequestStatus.PENDING);
+                    }
+                    userRepository.save(rep);
+                    if (reqRepo != null && rep.isApproved() == RequestStatus.PENDING) {
+                        reqRepo.save(new RegistrationRequest(rep));
+                    }
+                    imported++;
                 }
-                imported++;
+                Metrics.recordCsvRead(file);
+                event.complete(file, imported, null, null);
+                Tracer.rows(imported);
+            } catch (IOException e) {
+                System.err.println("Error reading company reps file: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println("Error reading company reps file: " + e.getMessage());
+            return imported;
+        } finally {
+            IMPORT_COMPANY_REPS.stop(start);
         }
-        return imported;
     }
 
     /**
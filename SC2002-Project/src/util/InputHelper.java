@@ -28,7 +28,7 @@ public class InputHelper {
     public int readInt(String prompt) {
         while (true) {
             System.out.print(prompt);
-            String input = sc.nextLine().trim();
+            String input = nextLine();
             try {
                 return Integer.parseInt(input);
             } catch (NumberFormatException e) {
@@ -45,7 +45,27 @@ public class InputHelper {
      */
     public String readString(String prompt) {
         System.out.print(prompt);
-        return sc.nextLine().trim();
+        return nextLine();
+    }
+
+    /**
+     * Reads the next line of input without printing a prompt, for callers that
+     * print their own prompt text first.
+     *
+     * @return trimmed string
+     */
+    public String readLine() {
+        return nextLine();
+    }
+
+    /** Reads one trimmed line; the wait is traced as idle so it does not count as slow work. */
+    private String nextLine() {
+        Tracer.Span wait = Tracer.idle("input");
+        try {
+            return sc.nextLine().trim();
+        } finally {
+            wait.close();
+        }
     }
 
     /**
@@ -58,7 +78,7 @@ public class InputHelper {
     public LocalDate readDateOnOrAfter(String label, LocalDate minDate) {
         while (true) {
             System.out.print(label + " (DD/MM/YYYY): ");
-            String input = sc.nextLine().trim();
+            String input = nextLine();
             try {
                 LocalDate parsed = LocalDate.parse(input, DATE_FORMAT);
                 if (minDate != null && parsed.isBefore(minDate)) {
@@ -0,0 +1,166 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with bounded relative error, in the style of HdrHistogram.
+ * <p>
+ * Values (normally nanoseconds) are counted in log-linear buckets: every power-of-two
+ * range is split into {@value #SUB_BUCKET_HALF} equal sub-buckets, so any recorded value is
+ * reported within about 0.2% of its true value while the whole range up to
+ * {@link #MAX_TRACKABLE} (about 73 minutes in nanoseconds) fits in a fixed array.
+ * {@link #record} is a single atomic increment, so many threads can record into one
+ * histogram without locking. Larger values are clamped to {@link #MAX_TRACKABLE}.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 10;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    /** Largest value tracked exactly; anything above is counted here. */
+    public static final long MAX_TRACKABLE = (1L << 42) - 1;
+    private static final int LENGTH = indexOf(MAX_TRACKABLE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LENGTH);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * Records one value.
+     *
+     * @param value value to record; negatives count as zero
+     */
+    public void record(long value) {
+        long v = Math.min(Math.max(value, 0L), MAX_TRACKABLE);
+        counts.incrementAndGet(indexOf(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        // Plain reads first: once warmed up, max and min rarely change, so skip the CAS.
+        if (v > max.get()) max.accumulateAndGet(v, Math::max);
+        if (v < min.get()) min.accumulateAndGet(v, Math::min);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} (from {@link System#nanoTime()}).
+     *
+     * @param startNanos start timestamp
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Adds every count from {@code other} into this histogram.
+     *
+     * @param other histogram to merge
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < LENGTH; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        total.addAndGet(other.total.get());
+        sum.addAndGet(other.sum.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+        min.accumulateAndGet(other.min.get(), Math::min);
+    }
+
+    /** Clears all counts. Not atomic with respect to concurrent {@link #record} calls. */
+    public void reset() {
+        for (int i = 0; i < LENGTH; i++) counts.set(i, 0);
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+        min.set(Long.MAX_VALUE);
+    }
+
+    /** @return a copy of the current counts */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    /** @return number of recorded values */
+    public long count() {
+        return total.get();
+    }
+
+    /** @return largest recorded value, or 0 if empty */
+    public long max() {
+        return max.get();
+    }
+
+    /** @return smallest recorded value, or 0 if empty */
+    public long min() {
+        long m = min.get();
+        return m == Long.MAX_VALUE ? 0 : m;
+    }
+
+    /** @return arithmetic mean of recorded values, or 0 if empty */
+    public double mean() {
+        long n = total.get();
+        return n == 0 ? 0.0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Returns the value at the given percentile. The result is the midpoint of the bucket
+     * holding that rank, capped at the recorded maximum.
+     *
+     * @param percentile percentile in [0, 100]
+     * @return value at the percentile, or 0 if empty
+     */
+    public long percentile(double percentile) {
+        long n = total.get();
+        if (n == 0) return 0;
+        double p = Math.min(Math.max(percentile, 0.0), 100.0);
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                long lo = lowestEquivalent(i);
+                long mid = lo + (sizeOfBucket(i) - 1) / 2;
+                return Math.min(mid, max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * @param scale divisor applied to every value (e.g. 1e6 to print nanoseconds as ms)
+     * @return one-line summary with count, mean and common percentiles
+     */
+    public String summary(double scale) {
+        return String.format("n=%d mean=%.3f p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f",
+                count(), mean() / scale, percentile(50) / scale, percentile(90) / scale,
+                percentile(99) / scale, percentile(99.9) / scale, max() / scale);
+    }
+
+    // ===== Bucket arithmetic =====
+
+    private static int indexOf(long v) {
+        if (v < SUB_BUCKET_COUNT) return (int) v;
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int shift = exponent - (SUB_BUCKET_BITS - 1);
+        int sub = (int) (v >>> shift); // in [SUB_BUCKET_HALF, SUB_BUCKET_COUNT)
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (sub - SUB_BUCKET_HALF);
+    }
+
+    private static long lowestEquivalent(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long sub = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return sub << shift;
+    }
+
+    private static long sizeOfBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) return 1;
+        return 1L << ((index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1);
+    }
+}
@@ -0,0 +1,259 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asynchronous structured logger for services and repositories.
+ * <p>
+ * A log call checks the logger's level with one field read and, when enabled, drops a record
+ * into a bounded ring buffer; formatting and writing happen on a single {@code log-writer}
+ * thread, which writes a whole batch before flushing. Callers therefore never wait on the
+ * {@code PrintStream} lock or the disk. When the buffer is full the record is dropped and counted
+ * in the {@code Log.dropped} counter rather than blocking the caller.
+ * </p>
+ * <p>
+ * Each record is one line: {@code timestamp LEVEL Logger event key=value ... thread=name}.
+ * Levels come from system properties:
+ * </p>
+ * <ul>
+ *   <li>{@code -Dlog.level=DEBUG|INFO|WARN|ERROR|OFF} sets the default (INFO);</li>
+ *   <li>{@code -Dlog.level.<SimpleClassName>=...} overrides it for one class;</li>
+ *   <li>{@code -Dlog.quiet=true} raises the default to WARN (the interactive {@code ConsoleApp}
+ *       sets it unless a level, {@code log.quiet} or a log file is given);</li>
+ *   <li>{@code -Dlog.file=path} appends to a file instead of {@code System.err}.</li>
+ * </ul>
+ * Typical use:
+ * <pre>
+ * private static final Log.Logger LOG = Log.get(ApplicationService.class);
+ * LOG.info("applied", "student", id, "opportunity", oppId);
+ * </pre>
+ * The fixed-arity overloads avoid building an argument array for a disabled level.
+ */
+public final class Log {
+
+    /** Severity of a record, lowest first. */
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final int RING_CAPACITY = 8192;
+    private static final int MAX_BATCH = 512;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final Level DEFAULT_LEVEL = parse(System.getProperty("log.level"),
+            Boolean.getBoolean("log.quiet") ? Level.WARN : Level.INFO);
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static final BlockingQueue<Record> RING = new ArrayBlockingQueue<>(RING_CAPACITY);
+    private static final Metrics.Counter DROPPED = Metrics.counter("Log.dropped");
+    private static final Writer FILE = openFile(System.getProperty("log.file"));
+
+    static {
+        Thread writer = new Thread(Log::run, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::drain, "log-flush"));
+        Metrics.gauge("Log.queueDepth", RING::size);
+    }
+
+    private Log() {
+    }
+
+    /**
+     * @param type class doing the logging
+     * @return its logger, created on first use
+     */
+    public static Logger get(Class<?> type) {
+        Objects.requireNonNull(type, "Class required");
+        return LOGGERS.computeIfAbsent(type.getSimpleName(), Logger::new);
+    }
+
+    /**
+     * Changes a logger's level at runtime.
+     *
+     * @param type class whose logger changes
+     * @param level new minimum level
+     */
+    public static void setLevel(Class<?> type, Level level) {
+        get(type).level = Objects.requireNonNull(level, "Level required");
+    }
+
+    /** Writes out every record queued so far; used before exit and by tools that print afterwards. */
+    public static void flush() {
+        drain();
+    }
+
+    // ===== Writer thread =====
+
+    private static void run() {
+        List<Record> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder sb = new StringBuilder(256);
+        while (true) {
+            try {
+                batch.add(RING.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            RING.drainTo(batch, MAX_BATCH - 1);
+            write(batch, sb);
+            batch.clear();
+        }
+    }
+
+    private static synchronized void drain() {
+        List<Record> batch = new ArrayList<>();
+        RING.drainTo(batch);
+        if (!batch.isEmpty()) write(batch, new StringBuilder(256));
+    }
+
+    // Synchronized with drain() so a flush never interleaves with a batch being written.
+    private static synchronized void write(List<Record> batch, StringBuilder sb) {
+        sb.setLength(0);
+        for (Record r : batch) {
+            r.format(sb);
+            sb.append(System.lineSeparator());
+        }
+        if (FILE != null) {
+            try {
+                FILE.write(sb.toString());
+                FILE.flush();
+                return;
+            } catch (IOException e) {
+                // Fall back to stderr below so the records are not lost.
+            }
+        }
+        PrintStream err = System.err;
+        err.print(sb);
+        err.flush();
+    }
+
+    private static Writer openFile(String path) {
+        if (path == null || path.isBlank()) return null;
+        try {
+            return new BufferedWriter(new FileWriter(path, true));
+        } catch (IOException e) {
+            System.err.println("Cannot open log file " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Level parse(String text, Level fallback) {
+        if (text == null || text.isBlank()) return fallback;
+        try {
+            return Level.valueOf(text.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    // ===== Logger and records =====
+
+    /** Named logger; obtain one per class through {@link Log#get(Class)}. */
+    public static final class Logger {
+        private final String name;
+        private volatile Level level;
+
+        private Logger(String name) {
+            this.name = name;
+            this.level = parse(System.getProperty("log.level." + name), DEFAULT_LEVEL);
+        }
+
+        /**
+         * @param at level to test
+         * @return whether a record at {@code at} would be written
+         */
+        public boolean isEnabled(Level at) {
+            return at.compareTo(level) >= 0 && at != Level.OFF;
+        }
+
+        public void debug(String event) { if (isEnabled(Level.DEBUG)) enqueue(Level.DEBUG, event); }
+        public void debug(String event, String k1, Object v1) { if (isEnabled(Level.DEBUG)) enqueue(Level.DEBUG, event, k1, v1); }
+        public void debug(String event, String k1, Object v1, String k2, Object v2) { if (isEnabled(Level.DEBUG)) enqueue(Level.DEBUG, event, k1, v1, k2, v2); }
+        public void debug(String event, String k1, Object v1, String k2, Object v2, String k3, Object v3) { if (isEnabled(Level.DEBUG)) enqueue(Level.DEBUG, event, k1, v1, k2, v2, k3, v3); }
+
+        public void info(String event) { if (isEnabled(Level.INFO)) enqueue(Level.INFO, event); }
+        public void info(String event, String k1, Object v1) { if (isEnabled(Level.INFO)) enqueue(Level.INFO, event, k1, v1); }
+        public void info(String event, String k1, Object v1, String k2, Object v2) { if (isEnabled(Level.INFO)) enqueue(Level.INFO, event, k1, v1, k2, v2); }
+        public void info(String event, String k1, Object v1, String k2, Object v2, String k3, Object v3) { if (isEnabled(Level.INFO)) enqueue(Level.INFO, event, k1, v1, k2, v2, k3, v3); }
+
+        public void warn(String event) { if (isEnabled(Level.WARN)) enqueue(Level.WARN, event); }
+        public void warn(String event, String k1, Object v1) { if (isEnabled(Level.WARN)) enqueue(Level.WARN, event, k1, v1); }
+        public void warn(String event, String k1, Object v1, String k2, Object v2) { if (isEnabled(Level.WARN)) enqueue(Level.WARN, event, k1, v1, k2, v2); }
+        public void warn(String event, String k1, Object v1, String k2, Object v2, String k3, Object v3) { if (isEnabled(Level.WARN)) enqueue(Level.WARN, event, k1, v1, k2, v2, k3, v3); }
+
+        public void error(String event) { if (isEnabled(Level.ERROR)) enqueue(Level.ERROR, event); }
+        public void error(String event, String k1, Object v1) { if (isEnabled(Level.ERROR)) enqueue(Level.ERROR, event, k1, v1); }
+        public void error(String event, String k1, Object v1, String k2, Object v2) { if (isEnabled(Level.ERROR)) enqueue(Level.ERROR, event, k1, v1, k2, v2); }
+        public void error(String event, String k1, Object v1, String k2, Object v2, String k3, Object v3) { if (isEnabled(Level.ERROR)) enqueue(Level.ERROR, event, k1, v1, k2, v2, k3, v3); }
+
+        private void enqueue(Level at, String event, Object... pairs) {
+            Record r = new Record(System.currentTimeMillis(), at, name, Events.threadName(Thread.currentThread()), event, pairs);
+            if (!RING.offer(r)) DROPPED.increment();
+        }
+    }
+
+    /** One queued log line; values are turned into text on the writer thread. */
+    private static final class Record {
+        private final long millis;
+        private final Level level;
+        private final String logger;
+        private final String thread;
+        private final String event;
+        private final Object[] pairs;
+
+        private Record(long millis, Level level, String logger, String thread, String event, Object[] pairs) {
+            this.millis = millis;
+            this.level = level;
+            this.logger = logger;
+            this.thread = thread;
+            this.event = event;
+            this.pairs = pairs;
+        }
+
+        private void format(StringBuilder sb) {
+            TIMESTAMP.formatTo(Instant.ofEpochMilli(millis), sb);
+            sb.append(' ').append(level.name());
+            if (level.name().length() == 4) sb.append(' ');
+            sb.append(' ').append(logger).append(' ').append(event);
+            for (int i = 0; i + 1 < pairs.length; i += 2) {
+                sb.append(' ').append(pairs[i]).append('=');
+                appendValue(sb, pairs[i + 1]);
+            }
+            sb.append(" thread=").append(thread);
+        }
+
+        private static void appendValue(StringBuilder sb, Object value) {
+            String text = String.valueOf(value);
+            boolean quote = text.isEmpty();
+            for (int i = 0; i < text.length() && !quote; i++) {
+                char c = text.charAt(i);
+                quote = Character.isWhitespace(c) || c == '"' || c == '=';
+            }
+            if (!quote) {
+                sb.append(text);
+                return;
+            }
+            sb.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\') sb.append('\\').append(c);
+                else if (c == '\n') sb.append("\\n");
+                else if (c == '\r') sb.append("\\r");
+                else sb.append(c);
+            }
+            sb.append('"');
+        }
+    }
+}
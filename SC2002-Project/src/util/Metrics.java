@@ -0,0 +1,284 @@
+package util;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide registry of counters, timers and gauges.
+ * <p>
+ * Call sites look their instruments up once (typically into a {@code static final} field)
+ * and then update them without allocating: a {@link Counter} is a {@link LongAdder}, and a
+ * {@link Timer} records into a lock-free {@link LatencyHistogram}. Gauges are read only when a
+ * snapshot is taken. Recording can be switched off with {@code -Dmetrics.enabled=false} or
+ * {@link #setEnabled(boolean)}, after which instruments cost a single flag check.
+ * </p>
+ * <p>
+ * Reading the clock is the expensive part of a timer (tens of nanoseconds per
+ * {@link System#nanoTime()} on virtualised hosts), so timers on hot, sub-microsecond paths
+ * are created with {@link #sampledTimer}: every call is counted, but only a random one in
+ * {@code n} is timed. Percentiles stay unbiased and the total time is estimated from the mean.
+ * </p>
+ * Timers are used as:
+ * <pre>
+ * long start = FIND_BY_ID.start();
+ * try {
+ *     ...
+ * } finally {
+ *     FIND_BY_ID.stop(start);
+ * }
+ * </pre>
+ */
+public final class Metrics {
+
+    /** Sampling interval for {@link #sampledTimer} on sub-microsecond repository lookups. */
+    public static final int HOT_PATH_SAMPLING = 16;
+
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("metrics.enabled"));
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /** @return whether instruments are recording */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** @param on whether instruments should record */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * @param name counter name
+     * @return the counter registered under {@code name}, created on first use
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * @param name timer name, e.g. {@code ReportService.generate}
+     * @return the timer registered under {@code name}, timing every call
+     */
+    public static Timer timer(String name) {
+        return sampledTimer(name, 1);
+    }
+
+    /**
+     * @param name  timer name, e.g. {@code OpportunityRepository.findById}
+     * @param every time one call in {@code every} (a power of two); the others are only counted
+     * @return the timer registered under {@code name}, created on first use
+     */
+    public static Timer sampledTimer(String name, int every) {
+        if (every < 1 || Integer.bitCount(every) != 1) {
+            throw new IllegalArgumentException("Sampling interval must be a power of two: " + every);
+        }
+        return TIMERS.computeIfAbsent(name, n -> new Timer(n, every - 1));
+    }
+
+    /**
+     * Registers a gauge, replacing any earlier gauge with the same name.
+     *
+     * @param name  gauge name
+     * @param value supplier read whenever a snapshot is taken
+     */
+    public static void gauge(String name, LongSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /**
+     * @param name gauge name
+     * @return the gauge's current value, or {@code null} if no such gauge is registered
+     */
+    public static Long gaugeValue(String name) {
+        LongSupplier g = GAUGES.get(name);
+        return g == null ? null : g.getAsLong();
+    }
+
+    /**
+     * Hit ratio of every cache that counts its lookups in a {@code <cache>.hits} and a
+     * {@code <cache>.misses} counter.
+     *
+     * @return ratio in [0, 1] keyed by cache name; caches with no lookups yet are left out
+     */
+    public static Map<String, Double> hitRatios() {
+        Map<String, Double> ratios = new TreeMap<>();
+        COUNTERS.forEach((name, hits) -> {
+            if (!name.endsWith(".hits")) return;
+            String cache = name.substring(0, name.length() - ".hits".length());
+            Counter misses = COUNTERS.get(cache + ".misses");
+            long h = hits.get(), total = h + (misses == null ? 0 : misses.get());
+            if (total > 0) ratios.put(cache, (double) h / total);
+        });
+        return ratios;
+    }
+
+    /**
+     * Counts the size of a CSV file that was just read in full.
+     *
+     * @param file file that was read
+     */
+    public static void recordCsvRead(File file) {
+        if (enabled && file != null) counter("csv." + baseName(file) + ".bytesRead").add(file.length());
+    }
+
+    /**
+     * Counts the size of a CSV file that was just written in full.
+     *
+     * @param file file that was written
+     */
+    public static void recordCsvWritten(File file) {
+        if (enabled && file != null) counter("csv." + baseName(file) + ".bytesWritten").add(file.length());
+    }
+
+    private static String baseName(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /** Zeroes every counter and timer (gauges are live values and are kept). */
+    public static void reset() {
+        COUNTERS.values().forEach(c -> c.adder.reset());
+        TIMERS.values().forEach(t -> {
+            t.calls.reset();
+            t.histogram.reset();
+        });
+    }
+
+    /**
+     * Point-in-time view of every instrument, shaped for {@link Json#write}.
+     * Timer values are in microseconds.
+     *
+     * @return map with {@code counters}, {@code hitRatios}, {@code gauges} and {@code timers} sections
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> counters = new TreeMap<>();
+        COUNTERS.forEach((name, c) -> counters.put(name, c.get()));
+
+        Map<String, Object> gauges = new TreeMap<>();
+        GAUGES.forEach((name, g) -> {
+            try {
+                gauges.put(name, g.getAsLong());
+            } catch (RuntimeException e) {
+                gauges.put(name, null);
+            }
+        });
+
+        Map<String, Object> timers = new TreeMap<>();
+        TIMERS.forEach((name, t) -> {
+            LatencyHistogram h = t.histogram.copy();
+            long calls = t.count();
+            if (calls == 0) return;
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", calls);
+            m.put("sampled", h.count());
+            m.put("meanUs", h.mean() / 1_000.0);
+            m.put("p50Us", h.percentile(50) / 1_000.0);
+            m.put("p99Us", h.percentile(99) / 1_000.0);
+            m.put("maxUs", h.max() / 1_000.0);
+            m.put("totalMs", h.mean() * calls / 1_000_000.0);
+            timers.put(name, m);
+        });
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("counters", counters);
+        out.put("hitRatios", hitRatios());
+        out.put("gauges", gauges);
+        out.put("timers", timers);
+        return out;
+    }
+
+    /** @return human-readable table of every instrument that has recorded something */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-50s %10s %12s %12s %12s %12s%n", "timer", "count", "mean us", "p99 us", "max us", "total ms"));
+        new TreeMap<>(TIMERS).forEach((name, t) -> {
+            LatencyHistogram h = t.histogram.copy();
+            long calls = t.count();
+            if (calls == 0) return;
+            sb.append(String.format("%-50s %10d %12.2f %12.2f %12.2f %12.1f%n", name, calls, h.mean() / 1e3,
+                    h.percentile(99) / 1e3, h.max() / 1e3, h.mean() * calls / 1e6));
+        });
+        new TreeMap<>(COUNTERS).forEach((name, c) -> {
+            if (c.get() != 0) sb.append(String.format("%-50s %10d%n", name, c.get()));
+        });
+        new TreeMap<>(GAUGES).forEach((name, g) -> sb.append(String.format("%-50s %10d%n", name, g.getAsLong())));
+        return sb.toString();
+    }
+
+    /** Monotonic counter. */
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        private Counter() {
+        }
+
+        /** Adds one. */
+        public void increment() {
+            if (enabled) adder.increment();
+        }
+
+        /** @param n amount to add */
+        public void add(long n) {
+            if (enabled) adder.add(n);
+        }
+
+        /** @return current total */
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    /**
+     * Call counter plus a {@link LatencyHistogram} (nanoseconds) of the timed calls.
+     * Inside a {@link Tracer} action every call also becomes a child span, sampled or not.
+     */
+    public static final class Timer {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final int sampleMask;
+
+        private Timer(String name, int sampleMask) {
+            this.name = name;
+            this.sampleMask = sampleMask;
+        }
+
+        /** @return start timestamp to pass to {@link #stop}, or 0 when this call is not timed */
+        public long start() {
+            if (Tracer.anyOpen()) Tracer.enter(name);
+            if (!enabled) return 0L;
+            calls.increment();
+            if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) return 0L;
+            return System.nanoTime();
+        }
+
+        /** @param start value returned by {@link #start()} */
+        public void stop(long start) {
+            if (start != 0L) histogram.record(System.nanoTime() - start);
+            if (Tracer.anyOpen()) Tracer.exit(name);
+        }
+
+        /** @return number of calls, timed or not */
+        public long count() {
+            return calls.sum();
+        }
+
+        /** @return copy of the latencies of the timed calls */
+        public LatencyHistogram histogram() {
+            return histogram.copy();
+        }
+    }
+}
@@ -13,14 +13,26 @@ public class PasswordHasher {
     */
     private static final int WORK_FACTOR = 12;
 
+    private static final Metrics.Timer HASH = Metrics.timer("PasswordHasher.hashPassword");
+    private static final Metrics.Timer VERIFY = Metrics.timer("PasswordHasher.verifyPassword");
+
     /**
      * Hashes a raw password. BCrypt automatically handles salting internally.
      * @param rawPassword The plaintext password.
      * @return The resulting hash string, which contains the algorithm, cost, and salt.
      */
     public static String hashPassword(String rawPassword){
-        // BCrypt.hashpw generates a salt internally and combines it with the hash
-        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(WORK_FACTOR));
+        long start = HASH.start();
+        Events.PasswordHash event = new Events.PasswordHash();
+        event.begin();
+        try {
+            // BCrypt.hashpw generates a salt internally and combines it with the hash
+            String hash = BCrypt.hashpw(rawPassword, BCrypt.gensalt(WORK_FACTOR));
+            event.complete("hash", WORK_FACTOR, true);
+            return hash;
+        } finally {
+            HASH.stop(start);
+        }
     }
 
     /**
@@ -30,7 +42,25 @@ public class PasswordHasher {
      * @return true if the passwords match, false otherwise.
      */
     public static boolean verifyPassword(String rawPassword, String storedHash){
-        // BCrypt.checkpw extracts the salt from the storedHash and compares
-        return BCrypt.checkpw(rawPassword, storedHash);
+        long start = VERIFY.start();
+        Events.PasswordHash event = new Events.PasswordHash();
+        event.begin();
+        try {
+            // BCrypt.checkpw extracts the salt from the storedHash and compares
+            boolean matched = BCrypt.checkpw(rawPassword, storedHash);
+            event.complete("verify", costOf(storedHash), matched);
+            return matched;
+        } finally {
+            VERIFY.stop(start);
+        }
+    }
+
+    /** @return the work factor encoded in a {@code $2a$NN$...} hash, or 0 if it cannot be read */
+    private static int costOf(String hash) {
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return 0;
+        }
     }
 }
@@ -0,0 +1,254 @@
+package util;
+
+import java.util.Objects;
+
+/**
+ * Immutable hash array mapped trie (HAMT).
+ * {@link #put} and {@link #remove} return a new version that shares every untouched node
+ * with the old one, copying only the O(log32 n) nodes on the path to the changed key.
+ * Keys must be non-null.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class PersistentHashMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** @return the empty map */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /** @return number of mappings */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key key to look up
+     * @return mapped value, or {@code null} if absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (root == null || key == null) return null;
+        return (V) root.find(0, spread(key.hashCode()), key);
+    }
+
+    /**
+     * @param key key to test
+     * @return {@code true} if the key is mapped
+     */
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a new map with {@code key} mapped to {@code value}.
+     *
+     * @param key non-null key
+     * @param value non-null value
+     * @return updated map (the same instance if nothing changed)
+     */
+    public PersistentHashMap<K, V> put(K key, V value) {
+        Objects.requireNonNull(key, "Key required");
+        Objects.requireNonNull(value, "Value required");
+        boolean[] added = new boolean[1];
+        Node base = root == null ? BitmapNode.EMPTY : root;
+        Node newRoot = base.put(0, spread(key.hashCode()), key, value, added);
+        if (newRoot == root) return this;
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a new map without {@code key}.
+     *
+     * @param key key to remove
+     * @return updated map (the same instance if the key was absent)
+     */
+    public PersistentHashMap<K, V> remove(K key) {
+        if (root == null || key == null) return this;
+        Node newRoot = root.remove(0, spread(key.hashCode()), key);
+        if (newRoot == root) return this;
+        return new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private interface Node {
+        Object find(int shift, int hash, Object key);
+        Node put(int shift, int hash, Object key, Object value, boolean[] added);
+        Node remove(int shift, int hash, Object key);
+    }
+
+    /**
+     * Interior node: a 32-bit bitmap marks which of the 32 slots are occupied and the
+     * array stores, per occupied slot, either a key/value pair or {@code null} + child node.
+     */
+    private static final class BitmapNode implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return null;
+            int idx = 2 * index(bit);
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) return ((Node) v).find(shift + BITS, hash, key);
+            return key.equals(k) ? v : null;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int idx = index(bit);
+            if ((bitmap & bit) != 0) {
+                Object k = array[2 * idx];
+                Object v = array[2 * idx + 1];
+                if (k == null) {
+                    Node child = ((Node) v).put(shift + BITS, hash, key, value, added);
+                    return child == v ? this : withSlot(2 * idx + 1, child);
+                }
+                if (key.equals(k)) {
+                    return v == value ? this : withSlot(2 * idx + 1, value);
+                }
+                added[0] = true;
+                Node merged = merge(shift + BITS, k, v, hash, key, value);
+                Object[] copy = array.clone();
+                copy[2 * idx] = null;
+                copy[2 * idx + 1] = merged;
+                return new BitmapNode(bitmap, copy);
+            }
+            added[0] = true;
+            int n = Integer.bitCount(bitmap);
+            Object[] copy = new Object[2 * (n + 1)];
+            System.arraycopy(array, 0, copy, 0, 2 * idx);
+            copy[2 * idx] = key;
+            copy[2 * idx + 1] = value;
+            System.arraycopy(array, 2 * idx, copy, 2 * (idx + 1), 2 * (n - idx));
+            return new BitmapNode(bitmap | bit, copy);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return this;
+            int idx = index(bit);
+            Object k = array[2 * idx];
+            Object v = array[2 * idx + 1];
+            if (k == null) {
+                Node child = ((Node) v).remove(shift + BITS, hash, key);
+                if (child == v) return this;
+                if (child != null) return withSlot(2 * idx + 1, child);
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            if (bitmap == bit) return null;
+            int n = Integer.bitCount(bitmap);
+            Object[] copy = new Object[2 * (n - 1)];
+            System.arraycopy(array, 0, copy, 0, 2 * idx);
+            System.arraycopy(array, 2 * (idx + 1), copy, 2 * idx, 2 * (n - idx - 1));
+            return new BitmapNode(bitmap ^ bit, copy);
+        }
+
+        private BitmapNode withSlot(int i, Object value) {
+            Object[] copy = array.clone();
+            copy[i] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private static Node merge(int shift, Object k1, Object v1, int hash2, Object k2, Object v2) {
+            int hash1 = spread(k1.hashCode());
+            if (hash1 == hash2 || shift >= 32) {
+                return new CollisionNode(hash1, new Object[] { k1, v1, k2, v2 });
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(shift, hash1, k1, v1, ignored).put(shift, hash2, k2, v2, ignored);
+        }
+    }
+
+    /** Leaf holding several keys whose full hashes collide. */
+    private static final class CollisionNode implements Node {
+        final int hash;
+        final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) return null;
+            int i = indexOf(key);
+            return i < 0 ? null : array[i + 1];
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // Different hash that shares our prefix: split below a new interior node.
+                BitmapNode parent = new BitmapNode(1 << ((this.hash >>> shift) & MASK), new Object[] { null, this });
+                return parent.put(shift, hash, key, value, added);
+            }
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (array[i + 1] == value) return this;
+                Object[] copy = array.clone();
+                copy[i + 1] = value;
+                return new CollisionNode(this.hash, copy);
+            }
+            added[0] = true;
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, array.length);
+            copy[array.length] = key;
+            copy[array.length + 1] = value;
+            return new CollisionNode(this.hash, copy);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            if (hash != this.hash) return this;
+            int i = indexOf(key);
+            if (i < 0) return this;
+            if (array.length == 2) return null;
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, i);
+            System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+            return new CollisionNode(this.hash, copy);
+        }
+    }
+}
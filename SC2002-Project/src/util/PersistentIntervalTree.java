@@ -0,0 +1,180 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable interval tree over closed intervals {@code [start, end]} of {@code long} points.
+ * <p>
+ * An AVL tree ordered by start (ties broken by id), where each node also records the largest
+ * end in its subtree. {@link #put} and {@link #remove} return a new version in O(log n) that
+ * shares every node off the changed path with the old one. {@link #overlapping} skips every
+ * subtree whose largest end falls before the query and stops once starts pass its end, so it
+ * visits O(log n + k) nodes for k results.
+ * </p>
+ * Each id holds one interval; putting an id again replaces its interval.
+ *
+ * @param <T> value type
+ */
+public final class PersistentIntervalTree<T> {
+
+    private static final PersistentIntervalTree<?> EMPTY = new PersistentIntervalTree<>(null, PersistentHashMap.empty());
+
+    private final Node<T> root;
+    // Start of each id's interval, to find the node to replace.
+    private final PersistentHashMap<String, Long> starts;
+
+    private PersistentIntervalTree(Node<T> root, PersistentHashMap<String, Long> starts) {
+        this.root = root;
+        this.starts = starts;
+    }
+
+    /** @return the empty tree */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentIntervalTree<T> empty() {
+        return (PersistentIntervalTree<T>) EMPTY;
+    }
+
+    /** @return number of intervals */
+    public int size() {
+        return starts.size();
+    }
+
+    /**
+     * Returns a new tree with {@code id} mapped to {@code [start, end]}, replacing any interval it had.
+     *
+     * @param id non-null id
+     * @param start inclusive start
+     * @param end inclusive end; must not be before {@code start}
+     * @param value non-null value reported by queries
+     * @return updated tree
+     */
+    public PersistentIntervalTree<T> put(String id, long start, long end, T value) {
+        Objects.requireNonNull(id, "Id required");
+        Objects.requireNonNull(value, "Value required");
+        if (end < start) throw new IllegalArgumentException("End cannot be before start.");
+        Node<T> base = root;
+        Long previous = starts.get(id);
+        if (previous != null) base = remove(base, previous, id);
+        return new PersistentIntervalTree<>(insert(base, new Node<>(start, end, id, value, null, null)), starts.put(id, start));
+    }
+
+    /**
+     * Returns a new tree without {@code id}'s interval.
+     *
+     * @param id id to remove
+     * @return updated tree (the same instance if the id was absent)
+     */
+    public PersistentIntervalTree<T> remove(String id) {
+        Long previous = id == null ? null : starts.get(id);
+        if (previous == null) return this;
+        return new PersistentIntervalTree<>(remove(root, previous, id), starts.remove(id));
+    }
+
+    /**
+     * Returns the values whose interval shares at least one point with {@code [from, to]},
+     * ordered by start.
+     *
+     * @param from inclusive lower bound
+     * @param to inclusive upper bound
+     * @return matching values
+     */
+    public List<T> overlapping(long from, long to) {
+        List<T> out = new ArrayList<>();
+        if (from <= to) collect(root, from, to, out);
+        return out;
+    }
+
+    private static <T> void collect(Node<T> n, long from, long to, List<T> out) {
+        if (n == null || n.maxEnd < from) return;
+        collect(n.left, from, to, out);
+        if (n.start > to) return;
+        if (n.end >= from) out.add(n.value);
+        collect(n.right, from, to, out);
+    }
+
+    // ===== AVL maintenance =====
+
+    private static int compare(long start, String id, Node<?> n) {
+        int c = Long.compare(start, n.start);
+        return c != 0 ? c : id.compareTo(n.id);
+    }
+
+    private static <T> Node<T> insert(Node<T> n, Node<T> leaf) {
+        if (n == null) return leaf;
+        if (compare(leaf.start, leaf.id, n) < 0) return balance(n.with(insert(n.left, leaf), n.right));
+        return balance(n.with(n.left, insert(n.right, leaf)));
+    }
+
+    private static <T> Node<T> remove(Node<T> n, long start, String id) {
+        if (n == null) return null;
+        int c = compare(start, id, n);
+        if (c < 0) return balance(n.with(remove(n.left, start, id), n.right));
+        if (c > 0) return balance(n.with(n.left, remove(n.right, start, id)));
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        Node<T> successor = n.right;
+        while (successor.left != null) successor = successor.left;
+        Node<T> right = remove(n.right, successor.start, successor.id);
+        return balance(successor.with(n.left, right));
+    }
+
+    private static <T> Node<T> balance(Node<T> n) {
+        int skew = height(n.left) - height(n.right);
+        if (skew > 1) {
+            Node<T> l = n.left;
+            if (height(l.left) < height(l.right)) l = rotateLeft(l);
+            return rotateRight(n.with(l, n.right));
+        }
+        if (skew < -1) {
+            Node<T> r = n.right;
+            if (height(r.right) < height(r.left)) r = rotateRight(r);
+            return rotateLeft(n.with(n.left, r));
+        }
+        return n;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> n) {
+        Node<T> l = n.left;
+        return l.with(l.left, n.with(l.right, n.right));
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> n) {
+        Node<T> r = n.right;
+        return r.with(n.with(n.left, r.left), r.right);
+    }
+
+    private static int height(Node<?> n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final String id;
+        final T value;
+        final Node<T> left;
+        final Node<T> right;
+        final int height;
+        final long maxEnd;
+
+        Node(long start, long end, String id, T value, Node<T> left, Node<T> right) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            long max = end;
+            if (left != null) max = Math.max(max, left.maxEnd);
+            if (right != null) max = Math.max(max, right.maxEnd);
+            this.maxEnd = max;
+        }
+
+        Node<T> with(Node<T> left, Node<T> right) {
+            return new Node<>(start, end, id, value, left, right);
+        }
+    }
+}
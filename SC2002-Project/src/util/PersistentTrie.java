@@ -0,0 +1,301 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable trie of names, matched case-insensitively, for prefix and typo-tolerant lookups.
+ * <p>
+ * Names are keyed by their trimmed, lower-cased form and keep the spelling they were first added
+ * with. Each name carries a count, so several entities can share it and it disappears only when
+ * the last one is removed. Children are kept in parallel sorted arrays rather than maps, and
+ * {@link #add} and {@link #remove} copy only the path to the changed node, returning a new version
+ * that shares the rest with the old one. {@link #addAll} and {@link #removeAll} count repeated
+ * names first and copy each distinct name's path once, which is what makes bulk loads cheap: most
+ * entities share their name with others.
+ * </p>
+ * <p>
+ * {@link #startingWith} walks down the prefix and lists the subtree in alphabetical order.
+ * {@link #near} walks the trie computing one row of the Levenshtein table per node and abandons a
+ * branch as soon as every entry of its row exceeds the allowed distance, so it visits only the
+ * part of the trie within reach of the query rather than every name.
+ * </p>
+ */
+public final class PersistentTrie {
+
+    private static final PersistentTrie EMPTY = new PersistentTrie(Node.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** @return the empty trie */
+    public static PersistentTrie empty() {
+        return EMPTY;
+    }
+
+    /** @return number of distinct names */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a version with one more holder of {@code name}.
+     *
+     * @param name name to add; blank or null names are ignored
+     * @return updated trie
+     */
+    public PersistentTrie add(String name) {
+        String key = key(name);
+        if (key.isEmpty()) return this;
+        boolean[] added = new boolean[1];
+        Node next = root.add(key, 0, name.trim(), 1, added);
+        return new PersistentTrie(next, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a version with one more holder of each name, as repeated {@link #add} would.
+     *
+     * @param names names to add; a name may appear several times
+     * @return updated trie
+     */
+    public PersistentTrie addAll(Iterable<String> names) {
+        Node next = root;
+        int n = size;
+        boolean[] added = new boolean[1];
+        for (Map.Entry<String, Tally> e : tally(names).entrySet()) {
+            added[0] = false;
+            next = next.add(e.getKey(), 0, e.getValue().spelling, e.getValue().times, added);
+            if (added[0]) n++;
+        }
+        return next == root ? this : new PersistentTrie(next, n);
+    }
+
+    /**
+     * Returns a version with one fewer holder of {@code name}; the name goes once none are left.
+     *
+     * @param name name to remove
+     * @return updated trie (the same instance if the name was absent)
+     */
+    public PersistentTrie remove(String name) {
+        String key = key(name);
+        if (key.isEmpty()) return this;
+        boolean[] gone = new boolean[1];
+        Node next = root.remove(key, 0, 1, gone);
+        if (next == root) return this;
+        return new PersistentTrie(next == null ? Node.EMPTY : next, gone[0] ? size - 1 : size);
+    }
+
+    /**
+     * Returns a version with one fewer holder of each name, as repeated {@link #remove} would.
+     *
+     * @param names names to remove; a name may appear several times
+     * @return updated trie
+     */
+    public PersistentTrie removeAll(Iterable<String> names) {
+        Node next = root;
+        int n = size;
+        boolean[] gone = new boolean[1];
+        for (Map.Entry<String, Tally> e : tally(names).entrySet()) {
+            gone[0] = false;
+            next = next.remove(e.getKey(), 0, e.getValue().times, gone);
+            if (next == null) next = Node.EMPTY;
+            if (gone[0]) n--;
+        }
+        return next == root ? this : new PersistentTrie(next, n);
+    }
+
+    private static Map<String, Tally> tally(Iterable<String> names) {
+        Map<String, Tally> counts = new HashMap<>();
+        for (String name : names) {
+            String key = key(name);
+            if (key.isEmpty()) continue;
+            Tally t = counts.get(key);
+            if (t == null) counts.put(key, new Tally(name.trim()));
+            else t.times++;
+        }
+        return counts;
+    }
+
+    private static final class Tally {
+        final String spelling;
+        int times = 1;
+
+        Tally(String spelling) {
+            this.spelling = spelling;
+        }
+    }
+
+    /**
+     * @param name name to look up
+     * @return the stored spelling of {@code name}, or {@code null} if absent
+     */
+    public String find(String name) {
+        Node n = root.descend(key(name));
+        return n == null ? null : n.display;
+    }
+
+    /**
+     * Lists names starting with a prefix, alphabetically.
+     *
+     * @param prefix prefix to match, case-insensitively; blank lists every name
+     * @param limit maximum number of names
+     * @return stored spellings of the matching names
+     */
+    public List<String> startingWith(String prefix, int limit) {
+        List<String> out = new ArrayList<>();
+        Node n = root.descend(key(prefix));
+        if (n != null && limit > 0) n.collect(out, limit);
+        return out;
+    }
+
+    /**
+     * Lists names that begin with something within {@code maxEdits} insertions, deletions or
+     * substitutions of {@code query}, so a typo anywhere in what was typed so far still finds the
+     * name. Closer names come first, then alphabetical order.
+     *
+     * @param query what was typed, matched case-insensitively
+     * @param maxEdits largest edit distance allowed
+     * @param limit maximum number of names
+     * @return stored spellings of the matching names
+     */
+    public List<String> near(String query, int maxEdits, int limit) {
+        if (maxEdits < 0) throw new IllegalArgumentException("Edit distance cannot be negative.");
+        String q = key(query);
+        List<List<String>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxEdits; d++) byDistance.add(new ArrayList<>());
+        if (limit <= 0) return new ArrayList<>();
+        int[] row = new int[q.length() + 1];
+        for (int i = 0; i <= q.length(); i++) row[i] = i;
+        walk(root, q, row, row[q.length()], maxEdits, limit, byDistance);
+
+        List<String> out = new ArrayList<>();
+        for (List<String> names : byDistance) {
+            for (String name : names) {
+                if (out.size() == limit) return out;
+                out.add(name);
+            }
+        }
+        return out;
+    }
+
+    // best: smallest distance between the query and any prefix of the path down to n.
+    private static void walk(Node n, String q, int[] row, int best, int maxEdits, int limit, List<List<String>> byDistance) {
+        if (n.count > 0 && best <= maxEdits && byDistance.get(best).size() < limit) byDistance.get(best).add(n.display);
+        for (int c = 0; c < n.labels.length; c++) {
+            char label = n.labels[c];
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            int min = next[0];
+            for (int i = 1; i < row.length; i++) {
+                int cost = q.charAt(i - 1) == label ? 0 : 1;
+                next[i] = Math.min(Math.min(next[i - 1] + 1, row[i] + 1), row[i - 1] + cost);
+                min = Math.min(min, next[i]);
+            }
+            int childBest = Math.min(best, next[q.length()]);
+            if (min >= childBest) {
+                // Row minimums never decrease further down, so every name below is at childBest.
+                if (childBest <= maxEdits && byDistance.get(childBest).size() < limit) {
+                    n.children[c].collect(byDistance.get(childBest), limit);
+                }
+                continue;
+            }
+            if (min > maxEdits) continue;
+            walk(n.children[c], q, next, childBest, maxEdits, limit, byDistance);
+        }
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        static final Node EMPTY = new Node(new char[0], new Node[0], 0, null);
+
+        final char[] labels;
+        final Node[] children;
+        // Holders of the name ending here; 0 for inner nodes.
+        final int count;
+        final String display;
+
+        Node(char[] labels, Node[] children, int count, String display) {
+            this.labels = labels;
+            this.children = children;
+            this.count = count;
+            this.display = display;
+        }
+
+        Node descend(String key) {
+            Node n = this;
+            for (int i = 0; i < key.length() && n != null; i++) {
+                int c = Arrays.binarySearch(n.labels, key.charAt(i));
+                n = c < 0 ? null : n.children[c];
+            }
+            return n;
+        }
+
+        Node add(String key, int depth, String spelling, int times, boolean[] added) {
+            if (depth == key.length()) {
+                added[0] = count == 0;
+                return new Node(labels, children, count + times, count == 0 ? spelling : display);
+            }
+            char ch = key.charAt(depth);
+            int c = Arrays.binarySearch(labels, ch);
+            if (c >= 0) {
+                Node[] kids = children.clone();
+                kids[c] = children[c].add(key, depth + 1, spelling, times, added);
+                return new Node(labels, kids, count, display);
+            }
+            int at = -c - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] kids = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, kids, 0, at);
+            newLabels[at] = ch;
+            kids[at] = EMPTY.add(key, depth + 1, spelling, times, added);
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, kids, at + 1, children.length - at);
+            return new Node(newLabels, kids, count, display);
+        }
+
+        // Returns this node if nothing changed, null if the node is left empty.
+        Node remove(String key, int depth, int times, boolean[] gone) {
+            if (depth == key.length()) {
+                if (count == 0) return this;
+                gone[0] = count <= times;
+                if (count > times) return new Node(labels, children, count - times, display);
+                return labels.length == 0 ? null : new Node(labels, children, 0, null);
+            }
+            int c = Arrays.binarySearch(labels, key.charAt(depth));
+            if (c < 0) return this;
+            Node child = children[c].remove(key, depth + 1, times, gone);
+            if (child == children[c]) return this;
+            if (child != null) {
+                Node[] kids = children.clone();
+                kids[c] = child;
+                return new Node(labels, kids, count, display);
+            }
+            if (labels.length == 1 && count == 0) return null;
+            char[] newLabels = new char[labels.length - 1];
+            Node[] kids = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, c);
+            System.arraycopy(children, 0, kids, 0, c);
+            System.arraycopy(labels, c + 1, newLabels, c, labels.length - c - 1);
+            System.arraycopy(children, c + 1, kids, c, children.length - c - 1);
+            return new Node(newLabels, kids, count, display);
+        }
+
+        void collect(List<String> out, int limit) {
+            if (count > 0) out.add(display);
+            for (int c = 0; c < children.length && out.size() < limit; c++) children[c].collect(out, limit);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Routes {@code System.out} to a per-thread stream.
+ * <p>
+ * The console UIs and services print straight to {@code System.out}. When several
+ * sessions run in one JVM, {@link #install()} replaces {@code System.out} with a stream that
+ * forwards to whatever stream the current thread has {@linkplain #bind bound}, falling back
+ * to the original standard output. Each session thread binds its own connection's stream,
+ * so the existing UI code needs no changes to talk to the right user.
+ * </p>
+ */
+public final class SessionConsole {
+
+    private static final PrintStream ORIGINAL_OUT = System.out;
+    private static final ThreadLocal<PrintStream> CURRENT = new ThreadLocal<>();
+
+    private SessionConsole() {
+    }
+
+    /** Replaces {@code System.out} with the routing stream (idempotent). */
+    public static synchronized void install() {
+        if (System.out instanceof Router) return;
+        System.setOut(new Router());
+    }
+
+    /**
+     * Sends everything the current thread prints to {@code out} until {@link #unbind()}.
+     *
+     * @param out the session's output stream
+     */
+    public static void bind(PrintStream out) {
+        CURRENT.set(out);
+    }
+
+    /** Restores the original standard output for the current thread. */
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    private static PrintStream target() {
+        PrintStream out = CURRENT.get();
+        return out != null ? out : ORIGINAL_OUT;
+    }
+
+    /** {@code System.out} replacement; every byte goes straight to the bound stream. */
+    private static final class Router extends PrintStream {
+        Router() {
+            super(new OutputStream() {
+                @Override
+                public void write(int b) {
+                    target().write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    target().write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target().flush();
+                }
+            }, true);
+        }
+    }
+}
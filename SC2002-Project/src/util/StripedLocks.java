@@ -0,0 +1,118 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of {@link StampedLock}s selected by entity-id hash.
+ * <p>
+ * Repository collections are already safe to share (see {@code repositories.RepositoryWriter}),
+ * but entities themselves are mutable: a service that reads an entity, changes it and saves
+ * it back must not interleave with another thread doing the same to that entity.
+ * Writers take the stripe of every entity they touch; readers that need several fields of
+ * one entity to be consistent use an optimistic read that only falls back to a read lock
+ * when a writer got in the way. Different entities usually hash to different stripes, so
+ * unrelated updates proceed in parallel.
+ * </p>
+ */
+public class StripedLocks {
+
+    private static final int DEFAULT_STRIPES = 64;
+    private static final StripedLocks SHARED = new StripedLocks(DEFAULT_STRIPES);
+
+    private final StampedLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes number of stripes; rounded up to a power of two
+     */
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new StampedLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new StampedLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /** @return locks shared by every service in this JVM */
+    public static StripedLocks shared() {
+        return SHARED;
+    }
+
+    /**
+     * Runs {@code action} while holding the write stripes of all given entity ids.
+     * Stripes are taken once each, in index order, so callers cannot deadlock each other.
+     *
+     * @param action read-modify-write to perform
+     * @param ids ids of every entity the action mutates (nulls ignored)
+     * @return the action's result
+     */
+    public <T> T write(Supplier<T> action, String... ids) {
+        int[] order = stripesFor(ids);
+        long[] stamps = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            stamps[i] = stripes[order[i]].writeLock();
+        }
+        try {
+            return action.get();
+        } finally {
+            for (int i = order.length - 1; i >= 0; i--) {
+                stripes[order[i]].unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} while holding the write stripes of all given entity ids.
+     *
+     * @param action read-modify-write to perform
+     * @param ids ids of every entity the action mutates
+     */
+    public void update(Runnable action, String... ids) {
+        write(() -> {
+            action.run();
+            return null;
+        }, ids);
+    }
+
+    /**
+     * Reads a consistent view of one entity without blocking writers of other entities.
+     * The read is first attempted optimistically and retried under the read lock only if
+     * a writer held the stripe meanwhile, so {@code reader} must be side-effect free.
+     *
+     * @param id entity id
+     * @param reader pure function of the entity's current state
+     * @return the value read
+     */
+    public <T> T read(String id, Supplier<T> reader) {
+        StampedLock lock = stripes[indexOf(id)];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            T value = reader.get();
+            if (lock.validate(stamp)) return value;
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int[] stripesFor(String... ids) {
+        int[] indexes = new int[ids.length];
+        int n = 0;
+        for (String id : ids) {
+            if (id != null) indexes[n++] = indexOf(id);
+        }
+        return Arrays.stream(indexes, 0, n).sorted().distinct().toArray();
+    }
+
+    private int indexOf(String id) {
+        int h = id == null ? 0 : id.toUpperCase(Locale.ROOT).hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,53 @@
+package util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for front ends that run one task per request or connection.
+ */
+public class ThreadPools {
+
+    private ThreadPools() {
+    }
+
+    /**
+     * Returns an executor that starts a new virtual thread per task when the running JDK
+     * has them (21+), and otherwise a cached pool of daemon platform threads.
+     * The virtual-thread factory is looked up reflectively so the code still compiles
+     * and runs on JDK 17.
+     *
+     * @param name prefix for platform thread names in the fallback pool
+     * @return executor for short, mostly blocking tasks
+     */
+    public static ExecutorService perTaskExecutor(String name) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // Not available (or preview-only) on this JDK.
+        }
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threads = task -> {
+            Thread t = new Thread(task, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newCachedThreadPool(threads);
+    }
+
+    /**
+     * @return {@code true} if {@link #perTaskExecutor} hands out virtual threads on this JDK
+     */
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Runtime.version().feature() >= 21;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
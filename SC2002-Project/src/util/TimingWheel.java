@@ -0,0 +1,181 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hierarchical timing wheel for large numbers of coarse timers.
+ * <p>
+ * Time advances in ticks of a fixed length. Level 0 has one slot per tick for the next
+ * {@value #SLOTS} ticks; each level above covers {@value #SLOTS} times the span of the one below,
+ * so {@value #LEVELS} levels reach about 2,000 years at a one-second tick. A timer goes into the
+ * lowest level whose span reaches its deadline. Whenever the slots of a level have all passed, the
+ * next slot of the level above is emptied and its timers are placed again, lower down. Scheduling
+ * and cancelling cost O(1) whatever the number of timers, and each timer is moved at most once per
+ * level before it fires.
+ * </p>
+ * <p>
+ * The wheel does not keep time itself: the owner calls {@link #advanceTo(long)} and runs the
+ * tasks it returns. All methods are synchronized; tasks run outside the lock, so they may
+ * schedule or cancel timers.
+ * </p>
+ */
+public final class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final Timeout[][] wheels = new Timeout[LEVELS][SLOTS];
+    // Timers whose deadline had already passed when they were placed.
+    private final Timeout due = new Timeout(0, null);
+    private long currentTick;
+    private int pending;
+
+    /**
+     * @param tickMillis length of one tick; deadlines are rounded up to a tick
+     * @param startMillis time the wheel starts at, usually {@link System#currentTimeMillis()}
+     */
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive.");
+        this.tickMillis = tickMillis;
+        this.originMillis = startMillis;
+        for (Timeout[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) wheel[i] = new Timeout(0, null);
+        }
+    }
+
+    /**
+     * Schedules a task. A deadline that has already passed fires on the next advance.
+     *
+     * @param deadlineMillis epoch milliseconds at which the task is due
+     * @param task task returned by {@link #advanceTo} once due
+     * @return handle for cancelling the timer
+     */
+    public synchronized Timeout schedule(long deadlineMillis, Runnable task) {
+        Objects.requireNonNull(task, "Task required");
+        long ticks = Math.floorDiv(deadlineMillis - originMillis + tickMillis - 1, tickMillis);
+        Timeout t = new Timeout(ticks, task);
+        place(t);
+        pending++;
+        return t;
+    }
+
+    /**
+     * Moves the wheel forward and collects the tasks that fell due, in deadline order.
+     *
+     * @param nowMillis current epoch milliseconds
+     * @return due tasks, for the caller to run
+     */
+    public synchronized List<Runnable> advanceTo(long nowMillis) {
+        List<Runnable> fired = new ArrayList<>();
+        drain(due, fired);
+        long target = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        while (currentTick < target) {
+            if (pending == 0) {
+                // Nothing to move or fire: skip straight to the target.
+                currentTick = target;
+                break;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][(int) ((currentTick >>> (BITS * level)) & MASK)]);
+                }
+            }
+            drain(wheels[0][(int) (currentTick & MASK)], fired);
+            drain(due, fired);
+        }
+        return fired;
+    }
+
+    /** @return timers scheduled and neither fired nor cancelled */
+    public synchronized int pending() {
+        return pending;
+    }
+
+    private void place(Timeout t) {
+        long delta = t.deadlineTick - currentTick;
+        if (delta <= 0) {
+            link(due, t);
+            return;
+        }
+        // Beyond the top level: park in the furthest slot and place again when it is reached.
+        long placeAt = delta > MAX_DELTA ? currentTick + MAX_DELTA : t.deadlineTick;
+        int level = 0;
+        while (level < LEVELS - 1 && placeAt - currentTick >= 1L << (BITS * (level + 1))) level++;
+        link(wheels[level][(int) ((placeAt >>> (BITS * level)) & MASK)], t);
+    }
+
+    private void cascade(Timeout head) {
+        Timeout t = head.next;
+        head.next = head.prev = head;
+        while (t != head) {
+            Timeout next = t.next;
+            place(t);
+            t = next;
+        }
+    }
+
+    private void drain(Timeout head, List<Runnable> fired) {
+        Timeout t = head.next;
+        head.next = head.prev = head;
+        while (t != head) {
+            Timeout next = t.next;
+            t.next = t.prev = null;
+            t.fired = true;
+            pending--;
+            fired.add(t.task);
+            t = next;
+        }
+    }
+
+    private static void link(Timeout head, Timeout t) {
+        t.prev = head.prev;
+        t.next = head;
+        head.prev.next = t;
+        head.prev = t;
+    }
+
+    /** Handle for one scheduled task; slot heads are sentinel instances. */
+    public final class Timeout {
+        private final long deadlineTick;
+        private final Runnable task;
+        private Timeout prev = this;
+        private Timeout next = this;
+        private boolean fired;
+        private boolean cancelled;
+
+        private Timeout(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        /**
+         * Cancels the timer if it has not fired yet.
+         *
+         * @return {@code true} if this call cancelled it
+         */
+        public boolean cancel() {
+            synchronized (TimingWheel.this) {
+                if (fired || cancelled || next == null) return false;
+                cancelled = true;
+                prev.next = next;
+                next.prev = prev;
+                prev = next = null;
+                pending--;
+                return true;
+            }
+        }
+
+        /** @return epoch milliseconds of the tick the timer fires on */
+        public long deadlineMillis() {
+            return originMillis + deadlineTick * tickMillis;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-thread span tracing for console menu actions, with a slow-operation log.
+ * <p>
+ * A UI opens an <em>action</em> span around each menu choice. While it is open, every
+ * {@link Metrics.Timer} started on the same thread (repository lookups, reloads, saves, service
+ * calls) becomes a child span, and scans report how many rows they looked at through
+ * {@link #rows(long)}. When the action closes and its busy time exceeds the threshold, the whole
+ * span tree is logged as a {@code slowAction} warning, showing which reload or scan made the action slow.
+ * Time spent waiting for the user at a prompt is recorded as an {@link #idle} span and does not
+ * count towards the threshold.
+ * </p>
+ * <p>
+ * The threshold is {@code -Dtrace.slowMillis} (default 500 ms); {@code -Dtrace.enabled=false}
+ * turns tracing off. When no action is open anywhere, a timer pays one volatile read.
+ * </p>
+ * Usage:
+ * <pre>
+ * Tracer.Span action = Tracer.action("StudentUI option 3");
+ * try {
+ *     ...
+ * } finally {
+ *     action.close();
+ * }
+ * </pre>
+ */
+public final class Tracer {
+
+    private static final Log.Logger LOG = Log.get(Tracer.class);
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("trace.enabled"));
+    private static volatile long slowNanos = Long.getLong("trace.slowMillis", 500L) * 1_000_000L;
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    /** Number of actions open on any thread; lets timers skip the thread-local lookup. */
+    private static volatile int openActions;
+
+    /** Spans kept per action; further calls are only counted, so a huge scan cannot exhaust memory. */
+    private static final int MAX_SPANS = 10_000;
+
+    /** Span returned when nothing is being traced; closing it does nothing. */
+    private static final Span NOOP = new Span(null, "", false);
+
+    private Tracer() {
+    }
+
+    /** @param millis busy time above which a finished action is logged */
+    public static void setSlowThresholdMillis(long millis) {
+        slowNanos = millis * 1_000_000L;
+    }
+
+    /**
+     * Opens a top-level span for one user action. If an action is already open on this thread,
+     * the new span simply nests inside it.
+     *
+     * @param name action name, e.g. {@code StudentUI option 3}
+     * @return span to close when the action finishes
+     */
+    public static Span action(String name) {
+        if (!ENABLED) return NOOP;
+        Span parent = CURRENT.get();
+        if (parent != null) return open(parent, name, false);
+        synchronized (Tracer.class) {
+            openActions++;
+        }
+        Span root = new Span(null, name, false);
+        CURRENT.set(root);
+        return root;
+    }
+
+    /**
+     * Opens a child span of the current span.
+     *
+     * @param name operation name
+     * @return span to close when the operation finishes, or a no-op span when not tracing
+     */
+    public static Span span(String name) {
+        if (openActions == 0) return NOOP;
+        Span parent = CURRENT.get();
+        return parent == null ? NOOP : open(parent, name, false);
+    }
+
+    /**
+     * Opens a child span for time spent waiting on the user rather than working.
+     *
+     * @param name what is being waited for, e.g. {@code input}
+     * @return span to close when the wait ends
+     */
+    public static Span idle(String name) {
+        if (openActions == 0) return NOOP;
+        Span parent = CURRENT.get();
+        return parent == null ? NOOP : open(parent, name, true);
+    }
+
+    /**
+     * Adds to the number of rows scanned by the current span.
+     *
+     * @param n rows looked at
+     */
+    public static void rows(long n) {
+        if (openActions == 0) return;
+        Span current = CURRENT.get();
+        if (current != null) current.rows += n;
+    }
+
+    /** @return whether an action is open on this thread */
+    public static boolean isTracing() {
+        return openActions != 0 && CURRENT.get() != null;
+    }
+
+    /** @return name of the action open on this thread, or {@code null} if there is none */
+    public static String currentAction() {
+        if (openActions == 0) return null;
+        Span current = CURRENT.get();
+        return current == null ? null : current.root.name;
+    }
+
+    // ===== Hooks for Metrics.Timer =====
+
+    static void enter(String name) {
+        Span parent = CURRENT.get();
+        if (parent == null) return;
+        if (parent.root.spans >= MAX_SPANS) {
+            parent.root.dropped++;
+            return;
+        }
+        open(parent, name, false);
+    }
+
+    static void exit(String name) {
+        Span current = CURRENT.get();
+        // Only close the span the matching enter() opened; an action may have started in between.
+        if (current != null && current.parent != null && current.name.equals(name)) current.close();
+    }
+
+    static boolean anyOpen() {
+        return openActions != 0;
+    }
+
+    private static Span open(Span parent, String name, boolean idle) {
+        Span child = new Span(parent, name, idle);
+        parent.root.spans++;
+        parent.children.add(child);
+        CURRENT.set(child);
+        return child;
+    }
+
+    private static void finish(Span root) {
+        synchronized (Tracer.class) {
+            openActions--;
+        }
+        long busy = root.busyNanos();
+        if (busy < slowNanos || !LOG.isEnabled(Log.Level.WARN)) return;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%.1f ms waiting for input%n", (root.durationNanos() - busy) / 1e6));
+        for (Span child : root.children) child.print(sb, 1);
+        if (root.dropped != 0) sb.append("  ... ").append(root.dropped).append(" more calls not recorded").append(System.lineSeparator());
+        LOG.warn("slowAction", "action", root.name, "busyMs", String.format("%.1f", busy / 1e6), "spans", sb);
+    }
+
+    /** One timed operation and the operations it called. */
+    public static final class Span implements AutoCloseable {
+        private final Span parent;
+        private final Span root;
+        private final String name;
+        private final boolean idle;
+        private final long start = System.nanoTime();
+        private long end;
+        private long rows;
+        private final List<Span> children = new ArrayList<>(0);
+        // Only meaningful on the root.
+        private int spans;
+        private long dropped;
+
+        private Span(Span parent, String name, boolean idle) {
+            this.parent = parent;
+            this.root = parent == null ? this : parent.root;
+            this.name = name;
+            this.idle = idle;
+        }
+
+        /** @param n rows scanned by this span */
+        public void rows(long n) {
+            rows += n;
+        }
+
+        @Override
+        public void close() {
+            if (this == NOOP || end != 0) return;
+            end = System.nanoTime();
+            CURRENT.set(parent);
+            if (parent == null) finish(this);
+        }
+
+        long durationNanos() {
+            return (end != 0 ? end : System.nanoTime()) - start;
+        }
+
+        /** @return duration minus the time spent in idle descendants */
+        long busyNanos() {
+            if (idle) return 0;
+            long waiting = 0;
+            for (Span child : children) waiting += child.durationNanos() - child.busyNanos();
+            return durationNanos() - waiting;
+        }
+
+        private void print(StringBuilder sb, int depth) {
+            sb.append("  ".repeat(depth)).append(idle ? "(" + name + ")" : name)
+              .append(String.format(" %.3f ms", durationNanos() / 1e6));
+            if (rows != 0) sb.append(", ").append(rows).append(" rows");
+            sb.append(System.lineSeparator());
+            // Fold repeated leaf calls (e.g. a lookup or save per row) into one line per name:
+            // count, total nanos, total rows.
+            Map<String, long[]> leaves = new LinkedHashMap<>();
+            for (Span child : children) {
+                if (child.children.isEmpty()) leaves.computeIfAbsent(child.name, n -> new long[3])[0]++;
+            }
+            Set<String> folded = new HashSet<>();
+            for (Span child : children) {
+                long[] agg = leaves.get(child.name);
+                if (agg == null || agg[0] < 3 || !child.children.isEmpty()) {
+                    child.print(sb, depth + 1);
+                    continue;
+                }
+                if (folded.add(child.name)) {
+                    for (Span same : children) {
+                        if (same.children.isEmpty() && same.name.equals(child.name)) {
+                            agg[1] += same.durationNanos();
+                            agg[2] += same.rows;
+                        }
+                    }
+                    sb.append("  ".repeat(depth + 1)).append(child.name)
+                      .append(String.format(" x%d, %.3f ms total", agg[0], agg[1] / 1e6));
+                    if (agg[2] != 0) sb.append(", ").append(agg[2]).append(" rows");
+                    sb.append(System.lineSeparator());
+                }
+            }
+        }
+    }
+}